@@ -0,0 +1,103 @@
+package com.emarsys.core.api
+
+import android.util.Log
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider
+import com.emarsys.core.di.FakeCoreDependencyContainer
+import com.emarsys.core.di.setupCoreComponent
+import com.emarsys.core.di.tearDownCoreComponent
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.util.concurrent.CountDownLatch
+
+/**
+ * Measures the per call cost on the public API boundary of a hand written facade on [ApiDispatcher],
+ * for calls that return nothing and for getters.
+ * Results are written to logcat under the [TAG] tag.
+ */
+class ApiDispatchBenchmarkTest {
+
+    private companion object {
+        const val TAG = "ApiDispatchBench"
+        const val CALL_COUNT = 10_000
+    }
+
+    interface CounterApi {
+        fun add(amount: Int)
+        val count: Int
+    }
+
+    class Counter : CounterApi {
+        @Volatile
+        override var count: Int = 0
+
+        override fun add(amount: Int) {
+            count += amount
+        }
+    }
+
+    class CounterFacade(private val delegate: CounterApi,
+                        private val dispatcher: ApiDispatcher) : CounterApi {
+
+        override fun add(amount: Int) {
+            dispatcher.dispatch { delegate.add(amount) }
+        }
+
+        override val count: Int
+            get() = dispatcher.read { delegate.count }
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.longTimeoutRule
+
+    private lateinit var coreSdkHandler: CoreSdkHandler
+
+    @Before
+    fun setUp() {
+        coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
+        setupCoreComponent(FakeCoreDependencyContainer(coreSdkHandler = coreSdkHandler))
+    }
+
+    @After
+    fun tearDown() {
+        tearDownCoreComponent()
+    }
+
+    @Test
+    fun testBenchmark_facade() {
+        measure("facade", CounterFacade(Counter(), ApiDispatcher(coreSdkHandler)))
+    }
+
+    private fun measure(name: String, counter: CounterApi) {
+        val callStart = System.nanoTime()
+        repeat(CALL_COUNT) {
+            counter.add(1)
+        }
+        val callNanos = (System.nanoTime() - callStart) / CALL_COUNT
+        waitForCoreSdkThread()
+
+        val readStart = System.nanoTime()
+        var count = 0
+        repeat(CALL_COUNT) {
+            count = counter.count
+        }
+        val readNanos = (System.nanoTime() - readStart) / CALL_COUNT
+
+        Log.i(TAG, "$name: $callNanos ns/call, $readNanos ns/getter")
+        count shouldBe CALL_COUNT
+    }
+
+    private fun waitForCoreSdkThread() {
+        val latch = CountDownLatch(1)
+        coreSdkHandler.post {
+            latch.countDown()
+        }
+        latch.await()
+    }
+}
@@ -0,0 +1,157 @@
+package com.emarsys.core.api
+
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider
+import com.emarsys.core.di.FakeCoreDependencyContainer
+import com.emarsys.core.di.setupCoreComponent
+import com.emarsys.core.di.tearDownCoreComponent
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.util.log.LogLevel
+import com.emarsys.core.util.log.Logger
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.any
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
+import java.util.concurrent.CountDownLatch
+
+class ApiDispatcherTest {
+    private lateinit var mockLogger: Logger
+    private lateinit var coreSdkHandler: CoreSdkHandler
+    private lateinit var apiDispatcher: ApiDispatcher
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
+        mockLogger = mock()
+
+        setupCoreComponent(FakeCoreDependencyContainer(coreSdkHandler = coreSdkHandler, logger = mockLogger))
+
+        apiDispatcher = ApiDispatcher(coreSdkHandler)
+    }
+
+    @After
+    fun tearDown() {
+        tearDownCoreComponent()
+    }
+
+    @Test
+    fun testDispatch_shouldRunCallOnCoreSdkThread() {
+        var threadName: String? = null
+
+        apiDispatcher.dispatch { threadName = Thread.currentThread().name }
+        waitForCoreSdkThread()
+
+        threadName!!.startsWith("CoreSDKHandlerThread") shouldBe true
+    }
+
+    @Test
+    fun testDispatch_shouldLogException() {
+        apiDispatcher.dispatch { throw Exception("Test") }
+        waitForCoreSdkThread()
+
+        verify(mockLogger).handleLog(eq(LogLevel.ERROR), any(), eq(null))
+    }
+
+    @Test
+    fun testDispatch_shouldRunLaterCalls_afterAFailedCall() {
+        var called = false
+
+        apiDispatcher.dispatch { throw Exception("Test") }
+        apiDispatcher.dispatch { called = true }
+        waitForCoreSdkThread()
+
+        called shouldBe true
+        verify(mockLogger).handleLog(eq(LogLevel.ERROR), any(), eq(null))
+    }
+
+    @Test
+    fun testRead_shouldAnswerOnCallingThread_whenNothingIsPending() {
+        val callingThread = Thread.currentThread()
+        var readingThread: Thread? = null
+
+        val result = apiDispatcher.read {
+            readingThread = Thread.currentThread()
+            "value"
+        }
+
+        result shouldBe "value"
+        readingThread shouldBe callingThread
+    }
+
+    @Test
+    fun testRead_shouldNotWait_forPendingCalls() {
+        val latch = CountDownLatch(1)
+        var value = "old"
+        apiDispatcher.dispatch {
+            latch.await()
+            value = "new"
+        }
+
+        val result = apiDispatcher.read { value }
+        latch.countDown()
+
+        result shouldBe "old"
+    }
+
+    @Test
+    fun testRead_shouldLogException_andReturnNull() {
+        val result = apiDispatcher.read<String?> { throw Exception("Test") }
+
+        result shouldBe null
+        verify(mockLogger).handleLog(eq(LogLevel.ERROR), any(), eq(null))
+    }
+
+    @Test
+    fun testRead_shouldAnswerTheDispatchedValue_ofSnapshot_untilTheCallHasRun() {
+        val latch = CountDownLatch(1)
+        var value = "old"
+        val snapshot = ApiSnapshot { value }
+        apiDispatcher.dispatch(snapshot, "new") {
+            latch.await()
+            value = "stored"
+        }
+
+        apiDispatcher.read(snapshot) shouldBe "new"
+
+        latch.countDown()
+        waitForCoreSdkThread()
+
+        apiDispatcher.read(snapshot) shouldBe "stored"
+    }
+
+    @Test
+    fun testRead_shouldAnswerTheSourceOfSnapshot_afterAFailedCall() {
+        val snapshot = ApiSnapshot { "old" }
+        apiDispatcher.dispatch(snapshot, "new") { throw Exception("Test") }
+        waitForCoreSdkThread()
+
+        apiDispatcher.read(snapshot) shouldBe "old"
+        verify(mockLogger).handleLog(eq(LogLevel.ERROR), any(), eq(null))
+    }
+
+    @Test
+    fun testRead_shouldLogException_andReturnNull_whenTheSourceOfSnapshotFails() {
+        val snapshot = ApiSnapshot<String?> { throw Exception("Test") }
+
+        apiDispatcher.read(snapshot) shouldBe null
+        verify(mockLogger).handleLog(eq(LogLevel.ERROR), any(), eq(null))
+    }
+
+    private fun waitForCoreSdkThread() {
+        val latch = CountDownLatch(1)
+        coreSdkHandler.post {
+            latch.countDown()
+        }
+        latch.await()
+    }
+}
@@ -80,4 +80,22 @@ class AppLifecycleObserverTest {
         appLifecycleObserver.onEnterBackground()
         threadSpy.verifyCalledOnCoreSdkThread()
     }
-}
\ No newline at end of file
+
+    @Test
+    fun onEnterBackground_shouldRunBackgroundTasks() {
+        val mockTask1: Runnable = mock()
+        val mockTask2: Runnable = mock()
+        val latch = CountDownLatch(1)
+        appLifecycleObserver = AppLifecycleObserver(mockSession, coreHandler, listOf(mockTask1, mockTask2))
+
+        appLifecycleObserver.onEnterBackground()
+        coreHandler.post {
+            latch.countDown()
+        }
+
+        latch.await()
+
+        verify(mockTask1).run()
+        verify(mockTask2).run()
+    }
+}
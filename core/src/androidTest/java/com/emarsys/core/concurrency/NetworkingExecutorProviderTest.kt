@@ -0,0 +1,62 @@
+package com.emarsys.core.concurrency
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ThreadPoolExecutor
+
+class NetworkingExecutorProviderTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var executor: ThreadPoolExecutor
+
+    @Before
+    fun setUp() {
+        executor = NetworkingExecutorProvider(2, 3).provideExecutor()
+    }
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_poolSize_mustBePositive() {
+        NetworkingExecutorProvider(0, 3)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_queueCapacity_mustBePositive() {
+        NetworkingExecutorProvider(2, 0)
+    }
+
+    @Test
+    fun testProvideExecutor_shouldUseConfiguredPoolSizeAndQueueBound() {
+        executor.corePoolSize shouldBe 2
+        executor.maximumPoolSize shouldBe 2
+        executor.queue.remainingCapacity() shouldBe 3
+    }
+
+    @Test
+    fun testProvideExecutor_shouldRunTasksOnNamedThreads() {
+        val latch = CountDownLatch(1)
+        var threadName: String? = null
+
+        executor.execute {
+            threadName = Thread.currentThread().name
+            latch.countDown()
+        }
+
+        latch.await()
+
+        threadName!!.startsWith("CoreSDKNetworkingThread-") shouldBe true
+    }
+}
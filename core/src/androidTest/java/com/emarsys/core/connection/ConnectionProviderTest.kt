@@ -4,12 +4,15 @@ import com.emarsys.core.request.model.RequestModel
 import com.emarsys.testUtil.TimeoutUtils
 import io.kotlintest.matchers.beTheSameInstanceAs
 import io.kotlintest.should
+import io.kotlintest.shouldBe
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TestRule
 import org.mockito.Mockito.`when`
 import org.mockito.Mockito.mock
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.whenever
 import java.net.URL
 
 class ConnectionProviderTest {
@@ -50,4 +53,28 @@ class ConnectionProviderTest {
 
         provider.provideConnection(requestModel)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testProvideConnection_shouldUseSharedHandshakeCountingSocketFactory() {
+        val socketFactory = HandshakeCountingSocketFactory(mock(javax.net.ssl.SSLSocketFactory::class.java))
+        provider = ConnectionProvider(socketFactory)
+
+        val requestModel = mock<RequestModel>(RequestModel::class.java)
+        `when`<URL>(requestModel.url).thenReturn(URL(HTTPS_PATH))
+
+        val connection1 = provider.provideConnection(requestModel)
+        val connection2 = provider.provideConnection(requestModel)
+
+        connection1.sslSocketFactory should beTheSameInstanceAs(socketFactory)
+        connection2.sslSocketFactory should beTheSameInstanceAs(socketFactory)
+    }
+
+    @Test
+    fun testProvideHandshakeCount_shouldDelegateToSocketFactory() {
+        val socketFactory = mock(HandshakeCountingSocketFactory::class.java)
+        whenever(socketFactory.handshakeCount()).doReturn(3)
+        provider = ConnectionProvider(socketFactory)
+
+        provider.provideHandshakeCount() shouldBe 3
+    }
+}
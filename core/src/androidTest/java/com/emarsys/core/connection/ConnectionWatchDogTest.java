@@ -1,9 +1,14 @@
 package com.emarsys.core.connection;
 
 import android.app.Application;
+import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.IntentFilter;
 import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Build;
+
+import androidx.test.filters.SdkSuppress;
 
 import com.emarsys.core.handler.CoreSdkHandler;
 import com.emarsys.testUtil.ConnectionTestUtils;
@@ -16,11 +21,14 @@ import org.junit.Test;
 import org.junit.rules.TestRule;
 import org.mockito.ArgumentCaptor;
 
+import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class ConnectionWatchDogTest {
@@ -66,7 +74,8 @@ public class ConnectionWatchDogTest {
     }
 
     @Test
-    public void testRegisterReceiver_shouldCallRegisterReceiver() {
+    @SdkSuppress(maxSdkVersion = Build.VERSION_CODES.M)
+    public void testRegisterReceiver_shouldCallRegisterReceiver_belowNougat() {
         Context contextMock = ConnectionTestUtils.getContextMock_withAppContext_withConnectivityManager(true, ConnectivityManager.TYPE_WIFI);
         Context appContextMock = contextMock.getApplicationContext();
 
@@ -80,6 +89,36 @@ public class ConnectionWatchDogTest {
         assertTrue(captor.getValue().hasAction(ConnectivityManager.CONNECTIVITY_ACTION));
     }
 
+    @Test
+    @SdkSuppress(minSdkVersion = Build.VERSION_CODES.N)
+    public void testRegisterReceiver_shouldRegisterDefaultNetworkCallback() {
+        Context contextMock = ConnectionTestUtils.getContextMock_withAppContext_withConnectivityManager(true, ConnectivityManager.TYPE_WIFI);
+        ConnectivityManager connectivityManagerMock = (ConnectivityManager) contextMock.getApplicationContext().getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        ConnectionWatchDog connectionWatchDog = new ConnectionWatchDog(contextMock, mockHandler);
+        connectionWatchDog.registerReceiver(mock(ConnectionChangeListener.class));
+
+        verify(connectivityManagerMock).registerDefaultNetworkCallback(any(ConnectionWatchDog.DefaultNetworkCallback.class));
+        verify(contextMock.getApplicationContext(), never()).registerReceiver(any(BroadcastReceiver.class), any(IntentFilter.class));
+    }
+
+    @Test
+    @SdkSuppress(minSdkVersion = Build.VERSION_CODES.N)
+    public void testNetworkCallback_onLost_shouldUpdateCachedNetworkStatus_andNotifyListener_once() {
+        Context contextMock = ConnectionTestUtils.getContextMock_withAppContext_withConnectivityManager(true, ConnectivityManager.TYPE_WIFI);
+        ConnectionWatchDog connectionWatchDog = new ConnectionWatchDog(contextMock, mockHandler);
+        ConnectionWatchDog.DefaultNetworkCallback callback = connectionWatchDog.new DefaultNetworkCallback(mock(ConnectionChangeListener.class));
+
+        assertTrue(connectionWatchDog.isConnected());
+
+        callback.onLost(mock(Network.class));
+        callback.onLost(mock(Network.class));
+
+        assertFalse(connectionWatchDog.isConnected());
+        assertEquals(NetworkStatus.DISCONNECTED, connectionWatchDog.getNetworkStatus());
+        verify(mockHandler, times(1)).post(any(Runnable.class));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void testRegisterReceiver_shouldThrowException_whenReceiverRegistrationHasAlreadyCalled() {
         Context contextMock = ConnectionTestUtils.getContextMock_withAppContext_withConnectivityManager(true, ConnectivityManager.TYPE_WIFI);
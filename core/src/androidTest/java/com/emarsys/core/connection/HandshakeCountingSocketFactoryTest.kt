@@ -0,0 +1,70 @@
+package com.emarsys.core.connection
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import java.net.Socket
+import javax.net.ssl.SSLSocketFactory
+
+class HandshakeCountingSocketFactoryTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockDelegate: SSLSocketFactory
+    private lateinit var mockSocket: Socket
+    private lateinit var socketFactory: HandshakeCountingSocketFactory
+
+    @Before
+    fun setUp() {
+        mockDelegate = mock()
+        mockSocket = mock()
+        socketFactory = HandshakeCountingSocketFactory(mockDelegate)
+    }
+
+    @Test
+    fun testHandshakeCount_shouldBeZero_withoutCreatedSockets() {
+        socketFactory.handshakeCount() shouldBe 0
+    }
+
+    @Test
+    fun testCreateSocket_shouldDelegate_andCountHandshakes() {
+        val layeredSocket: Socket = mock()
+        whenever(mockDelegate.createSocket(mockSocket, "emarsys.com", 443, true)).thenReturn(layeredSocket)
+
+        val result = socketFactory.createSocket(mockSocket, "emarsys.com", 443, true)
+        socketFactory.createSocket(mockSocket, "predict.emarsys.com", 443, true)
+
+        result shouldBe layeredSocket
+        verify(mockDelegate).createSocket(mockSocket, "predict.emarsys.com", 443, true)
+        socketFactory.handshakeCount() shouldBe 2
+    }
+
+    @Test
+    fun testHandshakeCount_shouldNotCountHandshakes_ofOtherThreads() {
+        whenever(mockDelegate.createSocket(mockSocket, "emarsys.com", 443, true)).thenReturn(mock())
+        val handshakesBefore = socketFactory.handshakeCount()
+
+        val otherThread = Thread { socketFactory.createSocket(mockSocket, "emarsys.com", 443, true) }
+        otherThread.start()
+        otherThread.join()
+
+        socketFactory.handshakeCount() - handshakesBefore shouldBe 0
+    }
+
+    @Test
+    fun testCipherSuites_shouldBeDelegated() {
+        whenever(mockDelegate.defaultCipherSuites).thenReturn(arrayOf("default"))
+        whenever(mockDelegate.supportedCipherSuites).thenReturn(arrayOf("supported"))
+
+        socketFactory.defaultCipherSuites shouldBe arrayOf("default")
+        socketFactory.supportedCipherSuites shouldBe arrayOf("supported")
+    }
+}
@@ -0,0 +1,30 @@
+package com.emarsys.core.connection
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class NetworkStatusTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testIsConnected_shouldBeTrue_forValidatedNetwork() {
+        NetworkStatus(ConnectionState.CONNECTED, false, true).isConnected shouldBe true
+        NetworkStatus(ConnectionState.CONNECTED_MOBILE_DATA, true, true).isConnected shouldBe true
+    }
+
+    @Test
+    fun testIsConnected_shouldBeFalse_forNetworkThatIsNotValidated() {
+        NetworkStatus(ConnectionState.CONNECTED, false, false).isConnected shouldBe false
+    }
+
+    @Test
+    fun testIsConnected_shouldBeFalse_whenDisconnected() {
+        NetworkStatus.DISCONNECTED.isConnected shouldBe false
+    }
+}
@@ -50,6 +50,46 @@ class CryptoTest {
         decryptedText shouldBe testText
     }
 
+    @Test
+    fun testEncrypt_shouldReuseTheSalt_andUseANewIv_forTheSameSecret() {
+        val crypto = Crypto(createPublicKey())
+
+        val first = crypto.encrypt("TestText", SECRET)
+        val second = crypto.encrypt("TestText", SECRET)
+
+        second["salt"] shouldBe first["salt"]
+        second["iv"] shouldNotBe first["iv"]
+        second["encryptedValue"] shouldNotBe first["encryptedValue"]
+    }
+
+    @Test
+    fun testDecrypt_shouldDecryptValues_encryptedByAnotherInstance() {
+        val testText = "TestText"
+        val encrypted = Crypto(createPublicKey()).encrypt(testText, SECRET)
+
+        val crypto = Crypto(createPublicKey())
+        val decryptedText = crypto.decrypt(encrypted["encryptedValue"]!!, SECRET, encrypted["salt"]!!, encrypted["iv"]!!)
+        val decryptedAgain = crypto.decrypt(encrypted["encryptedValue"]!!, SECRET, encrypted["salt"]!!, encrypted["iv"]!!)
+
+        decryptedText shouldBe testText
+        decryptedAgain shouldBe testText
+    }
+
+    @Test
+    fun testEncrypt_Decrypt_fromDifferentThreads() {
+        val crypto = Crypto(createPublicKey())
+        val encrypted = crypto.encrypt("TestText", SECRET)
+
+        var decryptedText: String? = null
+        val thread = Thread {
+            decryptedText = crypto.decrypt(encrypted["encryptedValue"]!!, SECRET, encrypted["salt"]!!, encrypted["iv"]!!)
+        }
+        thread.start()
+        thread.join()
+
+        decryptedText shouldBe "TestText"
+    }
+
     private fun createPublicKey(): PublicKey {
         val publicKeySpec = X509EncodedKeySpec(
                 Base64.decode(PUBLIC_KEY, 0)
@@ -1,5 +1,7 @@
 package com.emarsys.core.database
 
+import android.content.ContentValues
+import android.database.SQLException
 import com.emarsys.core.database.helper.CoreDbHelper
 import com.emarsys.core.database.trigger.TriggerEvent
 import com.emarsys.core.database.trigger.TriggerKey
@@ -11,7 +13,10 @@ import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TestRule
+import io.kotlintest.shouldBe
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
 
 class DelegatingCoreSQLiteDatabaseTest {
 
@@ -72,4 +77,136 @@ class DelegatingCoreSQLiteDatabaseTest {
 
         Assert.assertEquals(count, triggerMap[triggerKey]?.size)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testInsertAll_shouldInsertAllRows() {
+        createBulkTestTable()
+
+        db.insertAll(BULK_TEST_TABLE, listOf(
+                bulkTestValues("id1", 1L, byteArrayOf(1)),
+                bulkTestValues("id2", 2L, null),
+                ContentValues().apply { put("id", "id3") }
+        ))
+
+        db.rawQuery("SELECT id, value FROM $BULK_TEST_TABLE ORDER BY id;", null).use {
+            it.count shouldBe 3
+            it.moveToFirst()
+            it.getString(0) shouldBe "id1"
+            it.getLong(1) shouldBe 1L
+            it.moveToNext()
+            it.getString(0) shouldBe "id2"
+            it.moveToNext()
+            it.getString(0) shouldBe "id3"
+            it.isNull(1) shouldBe true
+        }
+    }
+
+    @Test
+    fun testInsertAll_shouldRunInsertTriggersOnce() {
+        createBulkTestTable()
+        val beforeTrigger = mock(Runnable::class.java)
+        val afterTrigger = mock(Runnable::class.java)
+        db.registerTrigger(BULK_TEST_TABLE, TriggerType.BEFORE, TriggerEvent.INSERT, beforeTrigger)
+        db.registerTrigger(BULK_TEST_TABLE, TriggerType.AFTER, TriggerEvent.INSERT, afterTrigger)
+
+        db.insertAll(BULK_TEST_TABLE, listOf(
+                bulkTestValues("id1", 1L, null),
+                bulkTestValues("id2", 2L, null)
+        ))
+
+        verify(beforeTrigger, times(1)).run()
+        verify(afterTrigger, times(1)).run()
+    }
+
+    @Test
+    fun testInsertAll_shouldNotRunTriggers_whenListIsEmpty() {
+        val afterTrigger = mock(Runnable::class.java)
+        db.registerTrigger(BULK_TEST_TABLE, TriggerType.AFTER, TriggerEvent.INSERT, afterTrigger)
+
+        db.insertAll(BULK_TEST_TABLE, listOf())
+
+        verify(afterTrigger, times(0)).run()
+    }
+
+    @Test
+    fun testInsertAll_shouldFailTheBatch_whenARowCannotBeInserted() {
+        createBulkTestTable()
+        db.execSQL("CREATE UNIQUE INDEX bulk_test_id ON $BULK_TEST_TABLE (id);")
+
+        db.beginTransaction()
+        try {
+            db.insertAll(BULK_TEST_TABLE, listOf(
+                    bulkTestValues("id1", 1L, null),
+                    bulkTestValues("id1", 2L, null)
+            ))
+            db.setTransactionSuccessful()
+            Assert.fail("Should throw exception")
+        } catch (exception: SQLException) {
+        } finally {
+            db.endTransaction()
+        }
+
+        db.queryForLong("SELECT COUNT(*) FROM $BULK_TEST_TABLE;", arrayOf()) shouldBe 0L
+    }
+
+    @Test
+    fun testDeleteByIds_shouldDeleteTheRowsWithTheGivenIds() {
+        createBulkTestTable()
+        db.insertAll(BULK_TEST_TABLE, listOf(
+                bulkTestValues("id1", 1L, null),
+                bulkTestValues("id2", 2L, null),
+                bulkTestValues("id3", 3L, null)
+        ))
+
+        val result = db.deleteByIds(BULK_TEST_TABLE, "id", arrayOf("id1", "id3", "id4"))
+
+        result shouldBe 2
+        db.rawQuery("SELECT id FROM $BULK_TEST_TABLE;", null).use {
+            it.count shouldBe 1
+            it.moveToFirst()
+            it.getString(0) shouldBe "id2"
+        }
+    }
+
+    @Test
+    fun testDeleteByIds_shouldRunDeleteTriggersOnce() {
+        createBulkTestTable()
+        val beforeTrigger = mock(Runnable::class.java)
+        val afterTrigger = mock(Runnable::class.java)
+        db.registerTrigger(BULK_TEST_TABLE, TriggerType.BEFORE, TriggerEvent.DELETE, beforeTrigger)
+        db.registerTrigger(BULK_TEST_TABLE, TriggerType.AFTER, TriggerEvent.DELETE, afterTrigger)
+
+        db.deleteByIds(BULK_TEST_TABLE, "id", arrayOf("id1", "id2"))
+
+        verify(beforeTrigger, times(1)).run()
+        verify(afterTrigger, times(1)).run()
+    }
+
+    @Test
+    fun testQueryForLong_shouldReturnResult_andReuseCompiledStatement() {
+        createBulkTestTable()
+        val sql = "SELECT COUNT(*) FROM $BULK_TEST_TABLE WHERE id = ?;"
+
+        db.queryForLong(sql, arrayOf("id1")) shouldBe 0L
+
+        db.insertAll(BULK_TEST_TABLE, listOf(bulkTestValues("id1", 1L, null)))
+
+        db.queryForLong(sql, arrayOf("id1")) shouldBe 1L
+        db.queryForLong(sql, arrayOf("id2")) shouldBe 0L
+    }
+
+    private fun createBulkTestTable() {
+        db.execSQL("DROP TABLE IF EXISTS $BULK_TEST_TABLE;")
+        db.execSQL("CREATE TABLE $BULK_TEST_TABLE (id TEXT, value INTEGER, data BLOB);")
+    }
+
+    private fun bulkTestValues(id: String, value: Long, data: ByteArray?) = ContentValues().apply {
+        put("id", id)
+        put("value", value)
+        put("data", data)
+    }
+
+    private companion object {
+        const val BULK_TEST_TABLE = "bulk_test"
+    }
+}
@@ -17,6 +17,8 @@ import java.util.HashMap;
 import java.util.List;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertSame;
 
 public class AbstractDbHelperTest {
 
@@ -93,4 +95,21 @@ public class AbstractDbHelperTest {
         assertEquals(expected, result);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testGetWritableCoreDatabase_shouldReturnTheSameWrapper_onSubsequentCalls() {
+        CoreSQLiteDatabase first = dbHelper.getWritableCoreDatabase();
+        CoreSQLiteDatabase second = dbHelper.getWritableCoreDatabase();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testGetWritableCoreDatabase_shouldCreateNewWrapper_afterDatabaseWasReopened() {
+        CoreSQLiteDatabase first = dbHelper.getWritableCoreDatabase();
+        dbHelper.close();
+        CoreSQLiteDatabase second = dbHelper.getWritableCoreDatabase();
+
+        assertNotSame(first, second);
+        assertEquals(dbHelper.getWritableDatabase(), second.getBackingDatabase());
+    }
+}
@@ -1,13 +1,17 @@
 package com.emarsys.core.database.helper;
 
+import android.content.ContentValues
 import android.database.Cursor
 import android.database.sqlite.SQLiteDatabase
+import com.emarsys.core.util.serialization.CompactBinaryCodec
+import com.emarsys.core.util.serialization.SerializationUtils
 import com.emarsys.testUtil.DatabaseTestUtils
 import com.emarsys.testUtil.InstrumentationRegistry
 import com.emarsys.testUtil.TimeoutUtils
 import io.kotlintest.matchers.collections.shouldContain
 import io.kotlintest.shouldBe
 import org.junit.After
+import org.junit.Assert.assertArrayEquals
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -16,7 +20,7 @@ import org.junit.rules.TestRule
 class CoreDbHelperTest {
 
     companion object {
-        const val LATEST_DB_VERSION = 5
+        const val LATEST_DB_VERSION = 9
     }
 
     @Rule
@@ -46,6 +50,19 @@ class CoreDbHelperTest {
         LATEST_DB_VERSION shouldBe CoreDbHelper.DATABASE_VERSION
     }
 
+    @Test
+    fun testOnConfigure_shouldEnableWriteAheadLogging() {
+        db.isWriteAheadLoggingEnabled shouldBe true
+    }
+
+    @Test
+    fun testOnConfigure_shouldSetSynchronousModeToNormal() {
+        db.rawQuery("PRAGMA synchronous;", null).use {
+            it.moveToFirst()
+            it.getInt(0) shouldBe 1
+        }
+    }
+
     @Test
     fun testDbShouldHaveNoTables_atTheStartOfTheTest() {
         val cursor = dbHelper.readableCoreDatabase.rawQuery("SELECT COUNT(*) FROM sqlite_master WHERE type='table'", null)
@@ -188,6 +205,113 @@ class CoreDbHelperTest {
         actualColumns shouldBe expectedColumns
     }
 
+    @Test
+    fun testOnUpgrade_from_5_to_6() {
+        initializeDatabaseWithVersion(5)
+
+        dbHelper.onUpgrade(db, 5, 6)
+
+        val expectedColumns = setOf(
+                ColumnInfo("request_id", "TEXT"),
+                ColumnInfo("method", "TEXT"),
+                ColumnInfo("url", "TEXT"),
+                ColumnInfo("headers", "BLOB"),
+                ColumnInfo("payload", "BLOB"),
+                ColumnInfo("timestamp", "INTEGER"),
+                ColumnInfo("ttl", "INTEGER", defaultValue = Long.MAX_VALUE.toString()),
+                ColumnInfo("host", "TEXT")
+        )
+
+        val actualColumns = getTableColumns(db, "request")
+
+        actualColumns shouldBe expectedColumns
+    }
+
+    @Test
+    fun testOnUpgrade_from_5_to_6_shouldFillHostOfExistingRequests() {
+        initializeDatabaseWithVersion(5)
+        db.execSQL("INSERT INTO request (request_id, url) VALUES ('id1', 'https://mobile-events.eservice.emarsys.net/v3/apps/EMS1/client/events');")
+        db.execSQL("INSERT INTO request (request_id, url) VALUES ('id2', 'https://emarsys.com');")
+
+        dbHelper.onUpgrade(db, 5, 6)
+
+        val hosts = db.rawQuery("SELECT host FROM request ORDER BY ROWID ASC;", null).use {
+            val result = mutableListOf<String>()
+            while (it.moveToNext()) {
+                result.add(it.getString(0))
+            }
+            result
+        }
+
+        hosts shouldBe listOf("mobile-events.eservice.emarsys.net", "emarsys.com")
+    }
+
+    @Test
+    fun testOnUpgrade_from_6_to_7() {
+        initializeDatabaseWithVersion(6)
+
+        dbHelper.onUpgrade(db, 6, 7)
+
+        val expectedColumns = setOf(
+                ColumnInfo("request_id", "TEXT"),
+                ColumnInfo("method", "TEXT"),
+                ColumnInfo("url", "TEXT"),
+                ColumnInfo("headers", "BLOB"),
+                ColumnInfo("payload", "BLOB"),
+                ColumnInfo("timestamp", "INTEGER"),
+                ColumnInfo("ttl", "INTEGER", defaultValue = Long.MAX_VALUE.toString()),
+                ColumnInfo("host", "TEXT"),
+                ColumnInfo("priority", "INTEGER", defaultValue = "0")
+        )
+
+        val actualColumns = getTableColumns(db, "request")
+
+        actualColumns shouldBe expectedColumns
+    }
+
+    @Test
+    fun testOnUpgrade_from_7_to_8() {
+        initializeDatabaseWithVersion(7)
+
+        dbHelper.onUpgrade(db, 7, 8)
+
+        val expectedColumns = setOf(
+                ColumnInfo("request_id", "TEXT"),
+                ColumnInfo("method", "TEXT"),
+                ColumnInfo("url", "TEXT"),
+                ColumnInfo("headers", "BLOB"),
+                ColumnInfo("payload", "BLOB"),
+                ColumnInfo("timestamp", "INTEGER"),
+                ColumnInfo("ttl", "INTEGER", defaultValue = Long.MAX_VALUE.toString()),
+                ColumnInfo("host", "TEXT"),
+                ColumnInfo("priority", "INTEGER", defaultValue = "0"),
+                ColumnInfo("barrier", "INTEGER", defaultValue = "0")
+        )
+
+        val actualColumns = getTableColumns(db, "request")
+
+        actualColumns shouldBe expectedColumns
+    }
+
+    @Test
+    fun testOnUpgrade_from_8_to_9_shouldLeaveLegacyBlobsReadable_withoutRewritingThem() {
+        initializeDatabaseWithVersion(8)
+        val headers = hashMapOf("header" to "value")
+        val legacyHeaders = SerializationUtils.serializableToBlob(headers)
+        db.insert("request", null, ContentValues().apply {
+            put("request_id", "id")
+            put("headers", legacyHeaders)
+        })
+
+        dbHelper.onUpgrade(db, 8, 9)
+
+        db.rawQuery("SELECT headers FROM request;", null).use {
+            it.moveToFirst()
+            assertArrayEquals(legacyHeaders, it.getBlob(0))
+            CompactBinaryCodec.decode(it.getBlob(0)) shouldBe headers
+        }
+    }
+
     @Test
     fun testOnCreate_indices_withLatestVersion() {
         initializeDatabaseWithVersion(LATEST_DB_VERSION)
@@ -195,7 +319,10 @@ class CoreDbHelperTest {
         "request".let {
             val indexedColumns = getIndexedColumnsOnTable(db, it)
 
-            indexedColumns.size shouldBe 0
+            indexedColumns.size shouldBe 3
+            indexedColumns shouldContain "request_id"
+            indexedColumns shouldContain "host"
+            indexedColumns shouldContain "priority"
         }
 
         "shard".let {
@@ -0,0 +1,233 @@
+package com.emarsys.core.database.quota
+
+import android.os.Handler
+import android.os.Looper
+import com.emarsys.core.CoreCompletionHandler
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.request.RequestEvictedException
+import com.emarsys.core.request.RequestExpiredException
+import com.emarsys.core.request.model.MirroredRequestModelRepository
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.core.request.model.RequestPriority
+import com.emarsys.core.shard.ShardModel
+import com.emarsys.core.shard.ShardModelRepository
+import com.emarsys.core.util.batch.PendingShardIndex
+import com.emarsys.core.worker.Worker
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import io.kotlintest.shouldThrow
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.*
+
+class StorageQuotaEnforcerTest {
+
+    private companion object {
+        const val NOW = 100_000L
+        const val SWEEP_INTERVAL = 1000L
+        val LARGE_QUOTA = StorageQuota(100, 1024 * 1024L)
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var coreDbHelper: CoreDbHelper
+    private lateinit var requestRepository: MirroredRequestModelRepository
+    private lateinit var shardRepository: ShardModelRepository
+    private lateinit var pendingShardIndex: PendingShardIndex
+    private lateinit var mockWorker: Worker
+    private lateinit var mockTimestampProvider: TimestampProvider
+    private lateinit var mockCoreSdkHandler: CoreSdkHandler
+    private lateinit var mockCoreCompletionHandler: CoreCompletionHandler
+    private lateinit var uiHandler: Handler
+
+    @Before
+    fun setUp() {
+        DatabaseTestUtils.deleteCoreDatabase()
+        coreDbHelper = CoreDbHelper(InstrumentationRegistry.getTargetContext().applicationContext, mapOf())
+        requestRepository = MirroredRequestModelRepository(RequestModelRepository(coreDbHelper))
+        shardRepository = ShardModelRepository(coreDbHelper)
+        pendingShardIndex = spy(PendingShardIndex(coreDbHelper, listOf("log_%")))
+        mockWorker = mock {
+            on { inFlightRequestIds } doReturn setOf()
+        }
+        mockTimestampProvider = mock {
+            on { provideTimestamp() } doReturn NOW
+        }
+        mockCoreSdkHandler = mock()
+        mockCoreCompletionHandler = mock()
+        uiHandler = Handler(Looper.getMainLooper())
+    }
+
+    @Test
+    fun testStorageQuota_mustBePositive() {
+        shouldThrow<IllegalArgumentException> { StorageQuota(0, 1) }
+        shouldThrow<IllegalArgumentException> { StorageQuota(1, 0) }
+    }
+
+    @Test
+    fun testEnforce_shouldRemoveExpiredRequests_andReportThem() {
+        val expired = request("expired", RequestPriority.HIGH, timestamp = NOW - 200, ttl = 100)
+        val alive = request("alive", RequestPriority.HIGH, timestamp = NOW - 50, ttl = 100)
+        val eternal = request("eternal", RequestPriority.NORMAL, timestamp = 0)
+        requestRepository.addAll(listOf(expired, alive, eternal))
+
+        enforcer(LARGE_QUOTA).enforce()
+
+        requestRepository.query(Everything()) shouldBe listOf(alive, eternal)
+        argumentCaptor<Exception>().apply {
+            verify(mockCoreCompletionHandler, timeout(100)).onError(eq("expired"), capture())
+            (firstValue is RequestExpiredException) shouldBe true
+        }
+        verifyNoMoreInteractions(mockCoreCompletionHandler)
+    }
+
+    @Test
+    fun testEnforce_shouldNotRemoveExpiredRequests_thatAreInFlight() {
+        val expired = request("expired", RequestPriority.HIGH, timestamp = NOW - 200, ttl = 100)
+        requestRepository.add(expired)
+        whenever(mockWorker.inFlightRequestIds).thenReturn(setOf("expired"))
+
+        enforcer(LARGE_QUOTA).enforce()
+
+        requestRepository.query(Everything()) shouldBe listOf(expired)
+        verifyZeroInteractions(mockCoreCompletionHandler)
+    }
+
+    @Test
+    fun testEnforce_shouldRemoveExpiredShards_fromTheDatabase_andFromPendingShardIndex() {
+        shardRepository.addAll(listOf(
+                shard("alive1"),
+                shard("expired", timestamp = NOW - 200, ttl = 100),
+                shard("alive2", timestamp = NOW - 50, ttl = 100)))
+        pendingShardIndex.refresh()
+
+        enforcer(LARGE_QUOTA).enforce()
+
+        shardRepository.query(Everything()).map { it.id } shouldBe listOf("alive1", "alive2")
+        pendingShardIndex.pendingShardsOf("log_%").toList().map { it.id } shouldBe listOf("alive1", "alive2")
+    }
+
+    @Test
+    fun testEnforce_shouldEvictShardsFirst_thenOldestLowRequests_butNeverNormalOrHighPriorityRequests() {
+        shardRepository.addAll(listOf(shard("shard1"), shard("shard2")))
+        requestRepository.addAll(listOf(
+                request("high1", RequestPriority.HIGH),
+                request("normal1", RequestPriority.NORMAL),
+                request("low1", RequestPriority.LOW),
+                request("high2", RequestPriority.HIGH),
+                request("low2", RequestPriority.LOW)))
+
+        enforcer(StorageQuota(2, 1024 * 1024L)).enforce()
+
+        shardRepository.query(Everything()) shouldBe listOf()
+        requestRepository.query(Everything()).map { it.id } shouldBe listOf("high1", "normal1", "high2")
+        listOf("low1", "low2").forEach { id ->
+            argumentCaptor<Exception>().apply {
+                verify(mockCoreCompletionHandler, timeout(100)).onError(eq(id), capture())
+                (firstValue is RequestEvictedException) shouldBe true
+            }
+        }
+        verifyNoMoreInteractions(mockCoreCompletionHandler)
+    }
+
+    @Test
+    fun testEnforce_shouldOnlyEvictOldestShards_whileOverQuota() {
+        shardRepository.addAll((1..4).map { shard("shard$it") })
+        pendingShardIndex.refresh()
+        val rowIds = pendingShardIndex.pendingShardsOf("log_%").toList().map { it.rowId }
+
+        enforcer(StorageQuota(2, 1024 * 1024L)).enforce()
+
+        shardRepository.query(Everything()).map { it.id } shouldBe listOf("shard3", "shard4")
+        pendingShardIndex.pendingShardsOf("log_%").toList().map { it.id } shouldBe listOf("shard3", "shard4")
+        verify(pendingShardIndex).onShardsDeleted(rowIds.take(2))
+    }
+
+    @Test
+    fun testEnforce_shouldNotEvictRequests_thatAreInFlight() {
+        requestRepository.addAll(listOf(
+                request("low1", RequestPriority.LOW),
+                request("low2", RequestPriority.LOW),
+                request("low3", RequestPriority.LOW)))
+        whenever(mockWorker.inFlightRequestIds).thenReturn(setOf("low1"))
+
+        enforcer(StorageQuota(2, 1024 * 1024L)).enforce()
+
+        requestRepository.query(Everything()).map { it.id } shouldBe listOf("low1", "low3")
+        verify(mockCoreCompletionHandler, timeout(100)).onError(eq("low2"), any())
+        verifyNoMoreInteractions(mockCoreCompletionHandler)
+    }
+
+    @Test
+    fun testEnforce_shouldEvict_whenByteQuotaIsExceeded() {
+        requestRepository.addAll(listOf(
+                request("low1", RequestPriority.LOW, payload = mapOf("key" to "x".repeat(600))),
+                request("low2", RequestPriority.LOW, payload = mapOf("key" to "x".repeat(600)))))
+
+        enforcer(StorageQuota(100, 1000L)).enforce()
+
+        requestRepository.query(Everything()).map { it.id } shouldBe listOf("low2")
+    }
+
+    @Test
+    fun testEnforce_shouldDoNothing_withinQuota() {
+        val model = request("low1", RequestPriority.LOW)
+        requestRepository.add(model)
+        shardRepository.add(shard("shard1"))
+
+        enforcer(LARGE_QUOTA).enforce()
+
+        requestRepository.query(Everything()) shouldBe listOf(model)
+        shardRepository.query(Everything()).size shouldBe 1
+        verifyZeroInteractions(mockCoreCompletionHandler)
+    }
+
+    @Test
+    fun testRun_shouldScheduleNextSweep_once() {
+        val enforcer = enforcer(LARGE_QUOTA)
+
+        enforcer.run()
+        enforcer.run()
+
+        argumentCaptor<Runnable>().apply {
+            verify(mockCoreSdkHandler, times(1)).postDelayed(capture(), eq(SWEEP_INTERVAL))
+
+            firstValue.run()
+        }
+        verify(mockCoreSdkHandler, times(2)).postDelayed(any(), eq(SWEEP_INTERVAL))
+    }
+
+    private fun enforcer(storageQuota: StorageQuota) = StorageQuotaEnforcer(
+            coreDbHelper,
+            requestRepository,
+            pendingShardIndex,
+            mockWorker,
+            storageQuota,
+            mockTimestampProvider,
+            mockCoreSdkHandler,
+            uiHandler,
+            mockCoreCompletionHandler,
+            SWEEP_INTERVAL
+    )
+
+    private fun request(id: String,
+                        priority: RequestPriority,
+                        timestamp: Long = NOW,
+                        ttl: Long = Long.MAX_VALUE,
+                        payload: Map<String, Any?>? = null) =
+            RequestModel("https://emarsys.com/$id", RequestMethod.POST, payload, mapOf(), timestamp, ttl, id, priority)
+
+    private fun shard(id: String, timestamp: Long = NOW, ttl: Long = Long.MAX_VALUE) =
+            ShardModel(id, "log_crash", mapOf("key" to id), timestamp, ttl)
+}
@@ -17,6 +17,7 @@ import com.emarsys.core.device.FilterByHardwareId
 import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.specification.FilterByRequestIds
 import com.emarsys.core.util.serialization.SerializationUtils.serializableToBlob
 import com.emarsys.testUtil.DatabaseTestUtils
 import com.emarsys.testUtil.InstrumentationRegistry
@@ -30,8 +31,11 @@ import org.junit.Test
 import org.junit.rules.TestRule
 import org.mockito.ArgumentMatchers.anyBoolean
 import org.mockito.Mockito
+import org.mockito.Mockito.inOrder
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
 import org.mockito.Mockito.verify
+import org.mockito.Mockito.verifyZeroInteractions
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
 import java.util.*
@@ -106,6 +110,54 @@ class AbstractSqliteRepositoryTest {
         verify(dbMock).endTransaction()
     }
 
+    @Test
+    fun testAddAll_shouldInsertAllItems_inASingleTransaction() {
+        val contentValues1 = ContentValues().apply {
+            put("key", "value1")
+        }
+        val contentValues2 = ContentValues().apply {
+            put("key", "value2")
+        }
+        val item1 = Any()
+        val item2 = Any()
+        whenever(repository.contentValuesFromItem(item1)).thenReturn(contentValues1)
+        whenever(repository.contentValuesFromItem(item2)).thenReturn(contentValues2)
+
+        repository.addAll(listOf(item1, item2))
+
+        verify(dbMock).beginTransaction()
+        verify(dbMock).insertAll(TABLE_NAME, listOf(contentValues1, contentValues2))
+        verify(dbMock).setTransactionSuccessful()
+        verify(dbMock).endTransaction()
+    }
+
+    @Test
+    fun testAddAll_shouldNotTouchTheDb_whenListIsEmpty() {
+        repository.addAll(listOf())
+
+        verifyZeroInteractions(dbMock)
+    }
+
+    @Test
+    fun testAddAll_shouldPersistItems() {
+        val helper = CoreDbHelper(
+                InstrumentationRegistry.getTargetContext(),
+                HashMap())
+        repository.dbHelper = helper
+        repository.tableName = DatabaseContract.REQUEST_TABLE_NAME
+        val models = listOf("https://google.com", "https://emarsys.com").map(this::requestModel)
+        models.forEach {
+            whenever(repository.contentValuesFromItem(it)).thenReturn(contentValuesFrom(it))
+        }
+
+        repository.addAll(models)
+
+        helper.readableCoreDatabase.rawQuery("SELECT COUNT(*) FROM request;", null).use {
+            it.moveToFirst()
+            it.getInt(0) shouldBe 2
+        }
+    }
+
     @Test
     fun testUpdate_shouldUpdateTheDb() {
         val contentValues = ContentValues().apply {
@@ -197,6 +249,36 @@ class AbstractSqliteRepositoryTest {
         verify(dbMock).endTransaction()
     }
 
+    @Test
+    fun testRemoveAll_shouldDeleteAllSpecifiedRows_inASingleTransaction() {
+        val otherSpecification = FilterByHardwareId("id")
+
+        repository.removeAll(listOf(dummySpecification, otherSpecification))
+
+        inOrder(dbMock).apply {
+            verify(dbMock).beginTransaction()
+            verify(dbMock).delete(TABLE_NAME, dummySpecification.selection, dummySpecification.selectionArgs)
+            verify(dbMock).delete(TABLE_NAME, otherSpecification.selection, otherSpecification.selectionArgs)
+            verify(dbMock).setTransactionSuccessful()
+            verify(dbMock).endTransaction()
+        }
+    }
+
+    @Test
+    fun testRemove_shouldDeleteByIds_withIdSpecification() {
+        val idSpecification = FilterByRequestIds(arrayOf("id1", "id2"))
+
+        repository.remove(idSpecification)
+
+        inOrder(dbMock).apply {
+            verify(dbMock).beginTransaction()
+            verify(dbMock).deleteByIds(TABLE_NAME, "request_id", arrayOf("id1", "id2"))
+            verify(dbMock).setTransactionSuccessful()
+            verify(dbMock).endTransaction()
+        }
+        verify(dbMock, never()).delete(any(), any(), any())
+    }
+
     @Test
     fun testIsEmpty_shouldReturnFalse_whenThereAreRows() {
         val helper = CoreDbHelper(
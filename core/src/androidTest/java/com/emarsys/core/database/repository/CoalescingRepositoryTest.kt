@@ -0,0 +1,143 @@
+package com.emarsys.core.database.repository
+
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.testUtil.TimeoutUtils
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyZeroInteractions
+
+class CoalescingRepositoryTest {
+
+    private companion object {
+        const val WINDOW = 100L
+    }
+
+    private lateinit var mockRepository: Repository<String, SqlSpecification>
+    private lateinit var mockCoreSdkHandler: CoreSdkHandler
+    private lateinit var mockSpecification: SqlSpecification
+    private lateinit var repository: CoalescingRepository<String, SqlSpecification>
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        mockRepository = mock()
+        mockCoreSdkHandler = mock()
+        mockSpecification = mock()
+        repository = CoalescingRepository(mockRepository, mockCoreSdkHandler, WINDOW)
+    }
+
+    @Test
+    fun testAdd_shouldBufferItems_andScheduleASingleFlush() {
+        repository.add("item1")
+        repository.add("item2")
+        repository.add("item3")
+
+        verifyZeroInteractions(mockRepository)
+        verify(mockCoreSdkHandler, times(1)).postDelayed(any(), eq(WINDOW))
+    }
+
+    @Test
+    fun testAdd_shouldWriteBufferedItemsWithAddAll_whenWindowElapses() {
+        repository.add("item1")
+        repository.add("item2")
+
+        argumentCaptor<Runnable>().apply {
+            verify(mockCoreSdkHandler).postDelayed(capture(), eq(WINDOW))
+            firstValue.run()
+        }
+
+        verify(mockRepository).addAll(listOf("item1", "item2"))
+    }
+
+    @Test
+    fun testAdd_shouldScheduleNewFlush_afterPreviousFlush() {
+        repository.add("item1")
+        argumentCaptor<Runnable>().apply {
+            verify(mockCoreSdkHandler).postDelayed(capture(), eq(WINDOW))
+            firstValue.run()
+        }
+
+        repository.add("item2")
+
+        verify(mockCoreSdkHandler, times(2)).postDelayed(any(), eq(WINDOW))
+    }
+
+    @Test
+    fun testFlush_shouldWriteBufferedItems_rightAway() {
+        repository.add("item1")
+        repository.add("item2")
+
+        repository.flush()
+
+        verify(mockRepository).addAll(listOf("item1", "item2"))
+    }
+
+    @Test
+    fun testFlush_shouldDoNothing_withoutBufferedItems() {
+        repository.flush()
+
+        verifyZeroInteractions(mockRepository)
+    }
+
+    @Test
+    fun testQuery_shouldFlushBufferedItems_beforeQuerying() {
+        repository.add("item1")
+
+        repository.query(mockSpecification)
+
+        inOrder(mockRepository) {
+            verify(mockRepository).addAll(listOf("item1"))
+            verify(mockRepository).query(mockSpecification)
+        }
+    }
+
+    @Test
+    fun testIsEmpty_shouldFlushBufferedItems_beforeCheck() {
+        repository.add("item1")
+
+        repository.isEmpty()
+
+        inOrder(mockRepository) {
+            verify(mockRepository).addAll(listOf("item1"))
+            verify(mockRepository).isEmpty()
+        }
+    }
+
+    @Test
+    fun testRemove_shouldFlushBufferedItems_beforeRemoving() {
+        repository.add("item1")
+
+        repository.remove(mockSpecification)
+
+        inOrder(mockRepository) {
+            verify(mockRepository).addAll(listOf("item1"))
+            verify(mockRepository).remove(mockSpecification)
+        }
+    }
+
+    @Test
+    fun testRemoveAll_shouldDelegate() {
+        repository.removeAll(listOf(mockSpecification))
+
+        verify(mockRepository).removeAll(listOf(mockSpecification))
+    }
+
+    @Test
+    fun testFlush_shouldNotCallAddAll_whenBufferIsEmpty() {
+        repository.query(mockSpecification)
+
+        verify(mockRepository, times(0)).addAll(any())
+    }
+}
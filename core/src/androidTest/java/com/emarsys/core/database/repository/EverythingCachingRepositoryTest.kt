@@ -0,0 +1,81 @@
+package com.emarsys.core.database.repository
+
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+
+class EverythingCachingRepositoryTest {
+
+    private lateinit var mockRepository: Repository<String, SqlSpecification>
+    private lateinit var mockSpecification: SqlSpecification
+    private lateinit var repository: EverythingCachingRepository<String, SqlSpecification>
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        mockSpecification = mock()
+        mockRepository = mock {
+            on { query(any()) } doReturn listOf("item1", "item2")
+        }
+        repository = EverythingCachingRepository(mockRepository)
+    }
+
+    @Test
+    fun testQuery_withEverything_shouldOnlyQueryOnce() {
+        repository.query(Everything()) shouldBe listOf("item1", "item2")
+        repository.query(Everything()) shouldBe listOf("item1", "item2")
+
+        verify(mockRepository, times(1)).query(any())
+    }
+
+    @Test
+    fun testQuery_withOtherSpecification_shouldDelegate() {
+        repository.query(mockSpecification)
+        repository.query(mockSpecification)
+
+        verify(mockRepository, times(2)).query(mockSpecification)
+    }
+
+    @Test
+    fun testWrites_shouldDelegate_andInvalidateTheCache() {
+        repository.query(Everything())
+
+        repository.add("item3")
+        repository.query(Everything())
+        repository.addAll(listOf("item4"))
+        repository.query(Everything())
+        repository.update("item5", mockSpecification)
+        repository.query(Everything())
+        repository.remove(mockSpecification)
+        repository.query(Everything())
+        repository.removeAll(listOf(mockSpecification))
+        repository.query(Everything())
+
+        verify(mockRepository).add("item3")
+        verify(mockRepository).addAll(listOf("item4"))
+        verify(mockRepository).update("item5", mockSpecification)
+        verify(mockRepository).remove(mockSpecification)
+        verify(mockRepository).removeAll(listOf(mockSpecification))
+        verify(mockRepository, times(6)).query(any())
+    }
+
+    @Test
+    fun testIsEmpty_shouldUseTheCache_whenAvailable() {
+        repository.query(Everything())
+
+        repository.isEmpty() shouldBe false
+        verify(mockRepository, times(0)).isEmpty()
+    }
+}
@@ -34,11 +34,11 @@ class QueryLatestRequestModelTest {
         with(QueryLatestRequestModel()) {
             isDistinct shouldBe false
             columns shouldBe null
-            selection shouldBe null
+            selection shouldBe "ROWID <= IFNULL((SELECT MIN(ROWID) FROM request WHERE barrier = 1), ROWID)"
             selectionArgs shouldBe null
             groupBy shouldBe null
             having shouldBe null
-            orderBy shouldBe "ROWID ASC"
+            orderBy shouldBe "barrier DESC, priority DESC, ROWID ASC"
             limit shouldBe "1"
         }
     }
@@ -66,4 +66,38 @@ class QueryLatestRequestModelTest {
         resultList.size shouldBe 1
         resultList[0] shouldBe expectedRequestModel
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testSpecification_withLimitAndExcludedIds() {
+        with(QueryLatestRequestModel(3, arrayOf("id1", "id2"))) {
+            selection shouldBe "ROWID <= IFNULL((SELECT MIN(ROWID) FROM request WHERE barrier = 1), ROWID) AND NOT request_id IN (?, ?)"
+            selectionArgs shouldBe arrayOf("id1", "id2")
+            orderBy shouldBe "barrier DESC, priority DESC, ROWID ASC"
+            limit shouldBe "3"
+        }
+    }
+
+    @Test
+    fun testQuery_withLimitAndExcludedIds() {
+        val timestampProvider = TimestampProvider()
+        val uuidProvider = UUIDProvider()
+
+        val context = InstrumentationRegistry.getTargetContext().applicationContext
+        val coreDbHelper = CoreDbHelper(context, mapOf())
+        val repository = RequestModelRepository(coreDbHelper)
+
+        val inFlightRequestModel = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/1").build()
+        val requestModel1 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/2").build()
+        val requestModel2 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/3").build()
+        val requestModel3 = RequestModel.Builder(timestampProvider, uuidProvider).url("https://emarsys.com/4").build()
+
+        repository.add(inFlightRequestModel)
+        repository.add(requestModel1)
+        repository.add(requestModel2)
+        repository.add(requestModel3)
+
+        val resultList = repository.query(QueryLatestRequestModel(2, arrayOf(inFlightRequestModel.id)))
+
+        resultList shouldBe listOf(requestModel1, requestModel2)
+    }
+}
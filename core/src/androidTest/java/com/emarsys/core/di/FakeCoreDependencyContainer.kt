@@ -37,6 +37,7 @@ class FakeCoreDependencyContainer(override val coreSdkHandler: CoreSdkHandler =
                                   override val timestampProvider: TimestampProvider = mock(),
                                   override val uuidProvider: UUIDProvider = mock(),
                                   override val logShardTrigger: Runnable = mock(),
+                                  override val storageQuotaEnforcer: Runnable = mock(),
                                   override val logger: Logger = mock(),
                                   override val restClient: RestClient = mock(),
                                   override val fileDownloader: FileDownloader = mock(),
@@ -40,17 +40,12 @@ public class FakeRequestTask extends RequestTask {
     }
 
     @Override
-    public Void doInBackground(Void... params) {
+    public void run() {
         try {
             Thread.sleep(20);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
-        return null;
-    }
-
-    @Override
-    protected void onPostExecute(Void result) {
         if (fakeResult instanceof Exception) {
             handler.onError(requestModel.getId(), (Exception) fakeResult);
 
@@ -1,8 +1,5 @@
 package com.emarsys.core.fake;
 
-import android.os.Handler;
-import android.os.Looper;
-
 import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.concurrency.CoreSdkHandlerProvider;
 import com.emarsys.core.connection.ConnectionProvider;
@@ -15,17 +12,20 @@ import com.emarsys.core.response.ResponseHandlersProcessor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import static org.mockito.Mockito.mock;
 
 public class FakeRestClient extends RestClient {
 
     private final List<Object> fakeResults;
+    private final Executor executor = Executors.newSingleThreadExecutor();
 
     @SuppressWarnings("unchecked")
     public FakeRestClient(Object... fakeResults) {
         super(mock(ConnectionProvider.class), mock(TimestampProvider.class), mock(ResponseHandlersProcessor.class), mock(List.class),
-                new Handler(Looper.getMainLooper()), new CoreSdkHandlerProvider().provideHandler());
+                mock(Executor.class), new CoreSdkHandlerProvider().provideHandler());
         for (Object o : fakeResults) {
             if (!(o instanceof Integer || o instanceof Exception)) {
                 throw new IllegalArgumentException("FakeResults list can only contain Integers and Exceptions!");
@@ -36,7 +36,7 @@ public class FakeRestClient extends RestClient {
 
     @Override
     public void execute(RequestModel model, CoreCompletionHandler completionHandler) {
-        create(model, completionHandler).execute();
+        executor.execute(create(model, completionHandler));
     }
 
     private RequestTask create(RequestModel model, CoreCompletionHandler completionHandler) {
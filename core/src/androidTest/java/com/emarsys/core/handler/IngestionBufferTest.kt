@@ -0,0 +1,208 @@
+package com.emarsys.core.handler
+
+import com.emarsys.core.database.CoreSQLiteDatabase
+import com.emarsys.core.di.FakeCoreDependencyContainer
+import com.emarsys.core.di.setupCoreComponent
+import com.emarsys.core.di.tearDownCoreComponent
+import com.emarsys.core.util.log.LogLevel
+import com.emarsys.core.util.log.Logger
+import com.emarsys.core.util.log.entry.IngestionDrainLog
+import com.emarsys.core.util.log.entry.LogEntry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.After
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.*
+import java.util.concurrent.Executor
+
+class IngestionBufferTest {
+
+    private companion object {
+        const val METRIC_INTERVAL_MILLIS = 1000L
+        const val MILLIS_IN_NANOS = 1_000_000L
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockExecutor: Executor
+    private lateinit var mockDatabase: CoreSQLiteDatabase
+    private lateinit var mockLogger: Logger
+    private var now = 0L
+    private lateinit var ingestionBuffer: IngestionBuffer
+
+    @Before
+    fun setUp() {
+        mockExecutor = mock()
+        mockDatabase = mock()
+        mockLogger = mock()
+        setupCoreComponent(FakeCoreDependencyContainer(logger = mockLogger))
+        now = 0L
+        ingestionBuffer = IngestionBuffer(mockExecutor, null, 2, METRIC_INTERVAL_MILLIS) { now }
+    }
+
+    @After
+    fun tearDown() {
+        tearDownCoreComponent()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxBatchSize_mustBePositive() {
+        IngestionBuffer(mockExecutor, maxBatchSize = 0)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_metricIntervalMillis_mustNotBeNegative() {
+        IngestionBuffer(mockExecutor, maxBatchSize = 1, metricIntervalMillis = -1)
+    }
+
+    @Test
+    fun testOffer_shouldPostASingleDrain_forABurst() {
+        ingestionBuffer.offer(mock())
+        ingestionBuffer.offer(mock())
+        ingestionBuffer.offer(mock())
+
+        verify(mockExecutor, times(1)).execute(any())
+        ingestionBuffer.queueDepth shouldBe 3
+        ingestionBuffer.maxQueueDepth shouldBe 3
+    }
+
+    @Test
+    fun testDrain_shouldRunTasksInOrder_inBatchesOfMaxBatchSize() {
+        val executed = mutableListOf<Int>()
+        ingestionBuffer.offer(Runnable { executed.add(1) })
+        ingestionBuffer.offer(Runnable { executed.add(2) })
+        ingestionBuffer.offer(Runnable { executed.add(3) })
+
+        runPostedDrain(1)
+        executed shouldBe listOf(1, 2)
+        ingestionBuffer.lastDrainSize shouldBe 2
+        ingestionBuffer.queueDepth shouldBe 1
+
+        runPostedDrain(2)
+        executed shouldBe listOf(1, 2, 3)
+        ingestionBuffer.lastDrainSize shouldBe 1
+        ingestionBuffer.queueDepth shouldBe 0
+    }
+
+    @Test
+    fun testDrain_shouldLeaveTasksOfferedDuringTheDrain_toTheNextDrain() {
+        val executed = mutableListOf<Int>()
+        ingestionBuffer.offer(Runnable {
+            executed.add(1)
+            ingestionBuffer.offer(Runnable { executed.add(2) })
+        })
+
+        runPostedDrain(1)
+        executed shouldBe listOf(1)
+        ingestionBuffer.queueDepth shouldBe 1
+
+        runPostedDrain(2)
+        executed shouldBe listOf(1, 2)
+    }
+
+    @Test
+    fun testDrain_shouldEndTheDrain_andRethrow_whenATaskFails() {
+        val mockTask: Runnable = mock()
+        ingestionBuffer.offer(Runnable { throw RuntimeException("failure") })
+        ingestionBuffer.offer(mockTask)
+
+        try {
+            runPostedDrain(1)
+            fail("Should throw exception")
+        } catch (exception: RuntimeException) {
+            exception.message shouldBe "failure"
+        }
+        verifyZeroInteractions(mockTask)
+
+        runPostedDrain(2)
+        verify(mockTask).run()
+    }
+
+    @Test
+    fun testDrain_shouldRunTheBatch_inOneTransaction() {
+        val buffer = IngestionBuffer(mockExecutor, { mockDatabase }, 2)
+        val mockTask: Runnable = mock()
+        buffer.offer(mockTask)
+        buffer.offer(mockTask)
+
+        runPostedDrain(1)
+
+        inOrder(mockDatabase, mockTask) {
+            verify(mockDatabase).beginTransaction()
+            verify(mockTask, times(2)).run()
+            verify(mockDatabase).setTransactionSuccessful()
+            verify(mockDatabase).endTransaction()
+        }
+    }
+
+    @Test
+    fun testDrain_shouldCommitTheTransaction_whenATaskFails() {
+        val buffer = IngestionBuffer(mockExecutor, { mockDatabase }, 2)
+        buffer.offer(Runnable { throw RuntimeException("failure") })
+
+        try {
+            runPostedDrain(1)
+            fail("Should throw exception")
+        } catch (exception: RuntimeException) {
+            exception.message shouldBe "failure"
+        }
+
+        inOrder(mockDatabase) {
+            verify(mockDatabase).beginTransaction()
+            verify(mockDatabase).setTransactionSuccessful()
+            verify(mockDatabase).endTransaction()
+        }
+    }
+
+    @Test
+    fun testOffer_shouldPostAgain_afterTheBufferWasDrained() {
+        ingestionBuffer.offer(mock())
+        runPostedDrain(1)
+
+        ingestionBuffer.offer(mock())
+
+        verify(mockExecutor, times(2)).execute(any())
+    }
+
+    @Test
+    fun testDrain_shouldNotReportMetric_beforeTheIntervalElapsed() {
+        ingestionBuffer.offer(mock())
+        ingestionBuffer.offer(mock())
+
+        runPostedDrain(1)
+
+        verify(mockLogger, times(0)).handleLog(eq(LogLevel.METRIC), any(), anyOrNull())
+    }
+
+    @Test
+    fun testDrain_shouldReportSampledMetric_forPartialDrains_afterTheIntervalElapsed() {
+        ingestionBuffer.offer(mock())
+        runPostedDrain(1)
+
+        now = METRIC_INTERVAL_MILLIS * MILLIS_IN_NANOS
+        ingestionBuffer.offer(mock())
+        runPostedDrain(2)
+
+        argumentCaptor<LogEntry>().apply {
+            verify(mockLogger).handleLog(eq(LogLevel.METRIC), capture(), anyOrNull())
+            (firstValue is IngestionDrainLog) shouldBe true
+            firstValue.data["drainCount"] shouldBe 2
+            firstValue.data["taskCount"] shouldBe 2
+            firstValue.data["queueDepth"] shouldBe 0
+            firstValue.data["maxQueueDepth"] shouldBe 1
+        }
+    }
+
+    private fun runPostedDrain(postCount: Int) {
+        argumentCaptor<Runnable>().apply {
+            verify(mockExecutor, times(postCount)).execute(capture())
+            lastValue.run()
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TestRule
 import org.mockito.kotlin.*
+import java.util.concurrent.Executor
 
 
 class HardwareIdProviderTest{
@@ -69,6 +70,24 @@ class HardwareIdProviderTest{
         result shouldBe HARDWARE_ID
     }
 
+    @Test
+    fun testProvideHardwareId_shouldEncryptHardwareId_fromRepository_onEncryptionExecutor_ifNotEncrypted() {
+        val mockExecutor: Executor = mock()
+        hardwareIdProvider = HardwareIdProvider(mockUUIDProvider, mockRepository, mockStorage, mockHardwareIdContentResolver, mockHardwareIdentificationCrypto, mockExecutor)
+        whenever(mockRepository.query(any())).thenReturn(listOf(HARDWARE))
+
+        hardwareIdProvider.provideHardwareId() shouldBe HARDWARE_ID
+        hardwareIdProvider.provideHardwareId() shouldBe HARDWARE_ID
+
+        verifyZeroInteractions(mockHardwareIdentificationCrypto)
+        argumentCaptor<Runnable>().apply {
+            verify(mockExecutor, times(1)).execute(capture())
+            firstValue.run()
+        }
+        verify(mockHardwareIdentificationCrypto).encrypt(HARDWARE)
+        verify(mockRepository).update(eq(ENCRYPTED_HARDWARE), any())
+    }
+
     @Test
     fun testProvideHardwareId_shouldGetHardwareId_fromStorage_andStoreInRepository_ifNotInRepository_andSecretNotSet() {
         whenever(mockStorage.get()).thenReturn(HARDWARE_ID)
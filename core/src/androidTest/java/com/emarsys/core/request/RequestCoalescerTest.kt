@@ -0,0 +1,104 @@
+package com.emarsys.core.request
+
+import com.emarsys.core.CoreCompletionHandler
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.response.ResponseModel
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import io.kotlintest.shouldNotBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyZeroInteractions
+
+class RequestCoalescerTest {
+    private companion object {
+        const val URL = "https://me-inbox.eservice.emarsys.net/v3/apps/appCode/inbox"
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var requestCoalescer: RequestCoalescer
+    private lateinit var mockCompletionHandler1: CoreCompletionHandler
+    private lateinit var mockCompletionHandler2: CoreCompletionHandler
+    private lateinit var mockResponseModel: ResponseModel
+
+    @Before
+    fun setUp() {
+        requestCoalescer = RequestCoalescer()
+        mockCompletionHandler1 = mock()
+        mockCompletionHandler2 = mock()
+        mockResponseModel = mock()
+    }
+
+    @Test
+    fun testJoin_shouldReturnHandler_forFirstRequest() {
+        requestCoalescer.join(requestModel(), mockCompletionHandler1) shouldNotBe null
+    }
+
+    @Test
+    fun testJoin_shouldAttachIdenticalRequest_toTheOneInFlight() {
+        val request1 = requestModel()
+        val request2 = requestModel()
+        val handler = requestCoalescer.join(request1, mockCompletionHandler1)!!
+
+        requestCoalescer.join(request2, mockCompletionHandler2) shouldBe null
+
+        handler.onSuccess(request1.id, mockResponseModel)
+
+        verify(mockCompletionHandler1).onSuccess(request1.id, mockResponseModel)
+        verify(mockCompletionHandler2).onSuccess(request2.id, mockResponseModel)
+    }
+
+    @Test
+    fun testJoin_shouldFanOutErrors() {
+        val request1 = requestModel()
+        val request2 = requestModel()
+        val cause = Exception("expected")
+        val handler = requestCoalescer.join(request1, mockCompletionHandler1)!!
+        requestCoalescer.join(request2, mockCompletionHandler2)
+
+        handler.onError(request1.id, cause)
+
+        verify(mockCompletionHandler1).onError(request1.id, cause)
+        verify(mockCompletionHandler2).onError(request2.id, cause)
+    }
+
+    @Test
+    fun testJoin_shouldNotCoalesce_requestsThatDiffer() {
+        requestCoalescer.join(requestModel(), mockCompletionHandler1)
+
+        requestCoalescer.join(requestModel(method = RequestMethod.POST), mockCompletionHandler2) shouldNotBe null
+        requestCoalescer.join(requestModel(headers = mapOf("X-Client-State" to "other")), mockCompletionHandler2) shouldNotBe null
+        requestCoalescer.join(requestModel(payload = mapOf("viewIds" to listOf("view2"))), mockCompletionHandler2) shouldNotBe null
+    }
+
+    @Test
+    fun testJoin_shouldStartNewFlight_afterCompletion() {
+        val request1 = requestModel()
+        requestCoalescer.join(request1, mockCompletionHandler1)!!.onSuccess(request1.id, mockResponseModel)
+
+        requestCoalescer.join(requestModel(), mockCompletionHandler2) shouldNotBe null
+        verifyZeroInteractions(mockCompletionHandler2)
+    }
+
+    private fun requestModel(
+            method: RequestMethod = RequestMethod.GET,
+            headers: Map<String, String> = mapOf("X-Client-State" to "state", "Content-Type" to "application/json"),
+            payload: Map<String, Any?>? = null): RequestModel {
+        val builder = RequestModel.Builder(TimestampProvider(), UUIDProvider())
+                .url(URL)
+                .method(method)
+                .headers(headers)
+        payload?.let { builder.payload(it) }
+        return builder.build()
+    }
+}
@@ -107,7 +107,7 @@ public class RequestManagerDennaTest {
         RestClient restClient = new RestClient(new ConnectionProvider(), mock(TimestampProvider.class), mock(ResponseHandlersProcessor.class),
                 requestModelMappers, new Handler(Looper.getMainLooper()), new CoreSdkHandlerProvider().provideHandler());
         coreCompletionHandlerMiddlewareProvider = new CoreCompletionHandlerMiddlewareProvider(requestRepository, uiHandler, coreSdkHandler);
-        worker = new DefaultWorker(requestRepository, connectionWatchDog, uiHandler, fakeCompletionHandler, restClient, coreCompletionHandlerMiddlewareProvider);
+        worker = new DefaultWorker(requestRepository, connectionWatchDog, uiHandler, coreSdkHandler, fakeCompletionHandler, restClient, coreCompletionHandlerMiddlewareProvider);
         timestampProvider = new TimestampProvider();
         uuidProvider = new UUIDProvider();
         manager = new RequestManager(
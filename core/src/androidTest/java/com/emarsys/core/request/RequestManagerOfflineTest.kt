@@ -243,7 +243,7 @@ class RequestManagerOfflineTest {
         mockProxyProvider = mock(CompletionHandlerProxyProvider::class.java)
 
         coreCompletionHandlerMiddlewareProvider = CoreCompletionHandlerMiddlewareProvider(requestRepository, uiHandler, coreSdkHandler)
-        worker = DefaultWorker(requestRepository, watchDog, uiHandler, completionHandler, fakeRestClient, coreCompletionHandlerMiddlewareProvider)
+        worker = DefaultWorker(requestRepository, watchDog, uiHandler, coreSdkHandler, completionHandler, fakeRestClient, coreCompletionHandlerMiddlewareProvider)
 
         manager = RequestManager(
                 coreSdkHandler,
@@ -24,6 +24,7 @@ import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.request.model.specification.QueryLatestRequestModel;
 import com.emarsys.core.response.ResponseHandlersProcessor;
+import com.emarsys.core.response.ResponseModel;
 import com.emarsys.core.shard.ShardModel;
 import com.emarsys.core.worker.DefaultWorker;
 import com.emarsys.core.worker.Worker;
@@ -132,7 +133,7 @@ public class RequestManagerTest {
                 requestModelMappers, new Handler(Looper.getMainLooper()), new CoreSdkHandlerProvider().provideHandler());
         restClientMock = mock(RestClient.class);
         coreCompletionHandlerMiddlewareProvider = new CoreCompletionHandlerMiddlewareProvider(requestRepository, uiHandler, coreSdkHandler);
-        worker = new DefaultWorker(requestRepository, connectionWatchDog, uiHandler, fakeCompletionHandler, restClient, coreCompletionHandlerMiddlewareProvider);
+        worker = new DefaultWorker(requestRepository, connectionWatchDog, uiHandler, coreSdkHandler, fakeCompletionHandler, restClient, coreCompletionHandlerMiddlewareProvider);
         mockCompletionHandlerProxyProvider = mock(CompletionHandlerProxyProvider.class);
         when(mockCompletionHandlerProxyProvider.provideProxy((Worker) isNull(), any(CoreCompletionHandler.class))).thenReturn(mockDefaultHandler);
         manager = new RequestManager(
@@ -380,16 +381,53 @@ public class RequestManagerTest {
     public void testSubmitNow_withoutCompletionHandler_shouldCallProxyProviderForCompletionHandler() {
         manager.submitNow(requestModel);
 
-        verify(mockCompletionHandlerProxyProvider, times(2)).provideProxy(null, mockDefaultHandler);
+        verify(mockCompletionHandlerProxyProvider).provideProxy(null, mockDefaultHandler);
+        verify(mockCompletionHandlerProxyProvider, times(2)).provideProxy((Worker) isNull(), any(CoreCompletionHandler.class));
         verify(restClientMock).execute(requestModel, mockDefaultHandler);
     }
 
     @Test
     public void testSubmitNow_shouldCallProxyProviderForCompletionHandler() {
-        manager.submitNow(requestModel, fakeCompletionHandler);
+        CoreCompletionHandler mockCompletionHandler = mock(CoreCompletionHandler.class);
+        ResponseModel responseModel = mock(ResponseModel.class);
+        ArgumentCaptor<CoreCompletionHandler> captor = ArgumentCaptor.forClass(CoreCompletionHandler.class);
+
+        manager.submitNow(requestModel, mockCompletionHandler);
 
-        verify(mockCompletionHandlerProxyProvider).provideProxy(null, fakeCompletionHandler);
+        verify(mockCompletionHandlerProxyProvider).provideProxy((Worker) isNull(), captor.capture());
         verify(restClientMock).execute(requestModel, mockDefaultHandler);
+
+        captor.getValue().onSuccess(requestModel.getId(), responseModel);
+
+        verify(mockCompletionHandler).onSuccess(requestModel.getId(), responseModel);
+    }
+
+    @Test
+    public void testSubmitNow_shouldCoalesceIdenticalRequests_whileInFlight() {
+        RequestModel duplicate = new RequestModel.Builder(timestampProvider, uuidProvider)
+                .url(requestModel.getUrl().toString())
+                .method(requestModel.getMethod())
+                .headers(requestModel.getHeaders())
+                .build();
+        CoreCompletionHandler mockCompletionHandler1 = mock(CoreCompletionHandler.class);
+        CoreCompletionHandler mockCompletionHandler2 = mock(CoreCompletionHandler.class);
+        ResponseModel responseModel = mock(ResponseModel.class);
+        ArgumentCaptor<CoreCompletionHandler> captor = ArgumentCaptor.forClass(CoreCompletionHandler.class);
+
+        manager.submitNow(requestModel, mockCompletionHandler1);
+        manager.submitNow(duplicate, mockCompletionHandler2);
+
+        verify(restClientMock, times(1)).execute(any(RequestModel.class), any(CoreCompletionHandler.class));
+        verify(mockCompletionHandlerProxyProvider).provideProxy((Worker) isNull(), captor.capture());
+
+        captor.getValue().onSuccess(requestModel.getId(), responseModel);
+
+        verify(mockCompletionHandler1).onSuccess(requestModel.getId(), responseModel);
+        verify(mockCompletionHandler2).onSuccess(duplicate.getId(), responseModel);
+
+        manager.submitNow(duplicate, mockCompletionHandler2);
+
+        verify(restClientMock, times(2)).execute(any(RequestModel.class), any(CoreCompletionHandler.class));
     }
 
     @Test
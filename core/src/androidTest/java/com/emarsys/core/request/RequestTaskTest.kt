@@ -77,7 +77,7 @@ class RequestTaskTest {
 
     @Test
     @Throws(IOException::class)
-    fun testDoInBackground_shouldBeResilientToRuntimeExceptions() {
+    fun testRun_shouldBeResilientToRuntimeExceptions() {
         val requestModel: RequestModel = mock {
             on { url } doReturn URL(WRONG_URL)
         }
@@ -92,7 +92,7 @@ class RequestTaskTest {
         val requestTask = createRequestTask(requestModel)
 
         try {
-            requestTask.doInBackground()
+            requestTask.run()
         } catch (e: Exception) {
             Assert.fail("Request Task should handle exception: " + e.message)
         }
@@ -100,7 +100,7 @@ class RequestTaskTest {
 
     @Test
     @Throws(IOException::class)
-    fun testDoInBackground_mappersHaveBeenCalled() {
+    fun testRun_mappersHaveBeenCalled() {
         connectionProvider = mock()
         val requestModel: RequestModel = mock {
             on { url } doReturn URL(URL)
@@ -120,14 +120,14 @@ class RequestTaskTest {
 
         val requestTask = createRequestTask(requestModel)
 
-        requestTask.doInBackground()
+        requestTask.run()
         verify(mapper1).map(requestModel)
         verify(mapper2).map(expectedRequestModel1)
         verify(connectionProvider).provideConnection(expectedRequestModel2)
     }
 
     @Test
-    fun testOnPostExecute_shouldRunOnCoreSdkThread_whenSuccess() {
+    fun testDispatchResult_shouldRunOnCoreSdkThread_whenSuccess() {
         val latch = CountDownLatch(1)
         val mockResponseModel: ResponseModel = mock {
             on { statusCode } doReturn 200
@@ -138,8 +138,7 @@ class RequestTaskTest {
         ReflectionTestUtils.setInstanceField(requestTask, "responseModel", mockResponseModel)
         ReflectionTestUtils.invokeInstanceMethod<RequestTask>(
                 requestTask,
-                "onPostExecute",
-                Pair(Void::class.java, null)
+                "dispatchResult"
         )
         coreSdkHandler.post {
             latch.countDown()
@@ -149,7 +148,7 @@ class RequestTaskTest {
     }
 
     @Test
-    fun testOnPostExecute_shouldRunOnCoreSdkThread_whenError() {
+    fun testDispatchResult_shouldRunOnCoreSdkThread_whenError() {
         val latch = CountDownLatch(1)
         val mockResponseModel: ResponseModel = mock()
 
@@ -158,8 +157,7 @@ class RequestTaskTest {
         ReflectionTestUtils.setInstanceField(requestTask, "responseModel", mockResponseModel)
         ReflectionTestUtils.invokeInstanceMethod<RequestTask>(
                 requestTask,
-                "onPostExecute",
-                Pair(Void::class.java, null)
+                "dispatchResult"
         )
         coreSdkHandler.post {
             latch.countDown()
@@ -169,7 +167,7 @@ class RequestTaskTest {
     }
 
     @Test
-    fun testOnPostExecute_shouldRunOnCoreSdkThread_whenException() {
+    fun testDispatchResult_shouldRunOnCoreSdkThread_whenException() {
         val latch = CountDownLatch(1)
         val mockResponseModel: ResponseModel = mock()
         val mockException: Exception = mock()
@@ -180,8 +178,7 @@ class RequestTaskTest {
         ReflectionTestUtils.setInstanceField(requestTask, "exception", mockException)
         ReflectionTestUtils.invokeInstanceMethod<RequestTask>(
                 requestTask,
-                "onPostExecute",
-                Pair(Void::class.java, null)
+                "dispatchResult"
         )
         coreSdkHandler.post {
             latch.countDown()
@@ -1,9 +1,8 @@
 package com.emarsys.core.request
 
-import android.os.Handler
-import android.os.Looper
 import com.emarsys.core.Mapper
 import com.emarsys.core.concurrency.CoreSdkHandlerProvider
+import com.emarsys.core.concurrency.NetworkingExecutorProvider
 import com.emarsys.core.connection.ConnectionProvider
 import com.emarsys.core.fake.FakeCompletionHandler
 import com.emarsys.core.handler.CoreSdkHandler
@@ -26,9 +25,12 @@ import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TestRule
 import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.doThrow
 import org.mockito.Mockito.mock
 import java.net.UnknownHostException
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
 
 class RestClientTest {
 
@@ -40,7 +42,7 @@ class RestClientTest {
     private lateinit var mockResponseHandlersProcessor: ResponseHandlersProcessor
     private lateinit var mockRequestModelMapper: Mapper<RequestModel, RequestModel>
     private lateinit var requestModelMappers: List<Mapper<RequestModel, RequestModel>>
-    private lateinit var uiHandler: Handler
+    private lateinit var networkingExecutor: Executor
     private lateinit var coreSdkHandler: CoreSdkHandler
 
     @Rule
@@ -56,7 +58,7 @@ class RestClientTest {
         connectionProvider = ConnectionProvider()
         mockResponseHandlersProcessor = mock(ResponseHandlersProcessor::class.java)
         mockRequestModelMapper = mock(Mapper::class.java) as Mapper<RequestModel, RequestModel>
-        uiHandler = Handler(Looper.getMainLooper())
+        networkingExecutor = NetworkingExecutorProvider().provideExecutor()
         coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
 
         whenever(mockRequestModelMapper.map(any<RequestModel>(RequestModel::class.java))).thenAnswer { invocation ->
@@ -65,38 +67,38 @@ class RestClientTest {
         }
 
         requestModelMappers = listOf(mockRequestModelMapper)
-        client = RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, uiHandler, coreSdkHandler)
+        client = RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, networkingExecutor, coreSdkHandler)
         latch = CountDownLatch(1)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_connectionProvider_mustNotBeNull() {
-        RestClient(null, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, uiHandler, coreSdkHandler)
+        RestClient(null, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, networkingExecutor, coreSdkHandler)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_timestampProvider_mustNotBeNull() {
-        RestClient(connectionProvider, null, mockResponseHandlersProcessor, requestModelMappers, uiHandler, coreSdkHandler)
+        RestClient(connectionProvider, null, mockResponseHandlersProcessor, requestModelMappers, networkingExecutor, coreSdkHandler)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_responseHandlersRunner_mustNotBeNull() {
-        RestClient(connectionProvider, mockTimestampProvider, null, requestModelMappers, uiHandler, coreSdkHandler)
+        RestClient(connectionProvider, mockTimestampProvider, null, requestModelMappers, networkingExecutor, coreSdkHandler)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_requestModelMapper_mustNotBeNull() {
-        RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, null, uiHandler, coreSdkHandler)
+        RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, null, networkingExecutor, coreSdkHandler)
     }
 
     @Test(expected = IllegalArgumentException::class)
-    fun testConstructor_uiHandler_mustNotBeNull() {
+    fun testConstructor_networkingExecutor_mustNotBeNull() {
         RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, null, coreSdkHandler)
     }
 
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_coreSdkHandler_mustNotBeNull() {
-        RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, uiHandler, null)
+        RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, networkingExecutor, null)
     }
 
     @Test
@@ -136,4 +138,35 @@ class RestClientTest {
         handler.asRequestResult() shouldBe RequestResult.failure(model.id, UnknownHostException::class.java)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun testSendRequest_shouldRunOnNetworkingThread() {
+        var threadName: String? = null
+        whenever(mockRequestModelMapper.map(any<RequestModel>(RequestModel::class.java))).thenAnswer { invocation ->
+            threadName = Thread.currentThread().name
+            invocation.arguments[0]
+        }
+        val handler = FakeCompletionHandler(latch)
+
+        client.execute(RequestModelTestUtils.createRequestModel(RequestMethod.GET), handler)
+
+        latch.await()
+
+        threadName!!.startsWith("CoreSDKNetworkingThread") shouldBe true
+    }
+
+    @Test
+    fun testSendRequest_callbackWithException_whenExecutorRejectsTheRequest() {
+        val handler = FakeCompletionHandler(latch)
+        val rejectingExecutor = mock(Executor::class.java)
+        val model = RequestModelTestUtils.createRequestModel(RequestMethod.GET)
+        doThrow(RejectedExecutionException()).`when`(rejectingExecutor).execute(any(Runnable::class.java))
+        client = RestClient(connectionProvider, mockTimestampProvider, mockResponseHandlersProcessor, requestModelMappers, rejectingExecutor, coreSdkHandler)
+
+        client.execute(model, handler)
+
+        latch.await()
+
+        handler.asRequestResult() shouldBe RequestResult.failure(model.id, RejectedExecutionException::class.java)
+    }
+
+}
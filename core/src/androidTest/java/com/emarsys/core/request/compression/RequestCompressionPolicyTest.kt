@@ -0,0 +1,59 @@
+package com.emarsys.core.request.compression
+
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.util.predicate.Predicate
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.mock
+
+class RequestCompressionPolicyTest {
+    private companion object {
+        const val MINIMUM_PAYLOAD_SIZE = 1024
+    }
+
+    private lateinit var mockRequestModel: RequestModel
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        mockRequestModel = mock()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_minimumPayloadSize_mustBePositive() {
+        RequestCompressionPolicy(Predicate { true }, 0)
+    }
+
+    @Test
+    fun testShouldCompress_whenPredicateMatches_andPayloadIsLargeEnough() {
+        val policy = RequestCompressionPolicy(Predicate { true }, MINIMUM_PAYLOAD_SIZE)
+
+        policy.shouldCompress(mockRequestModel, MINIMUM_PAYLOAD_SIZE) shouldBe true
+    }
+
+    @Test
+    fun testShouldCompress_whenPayloadIsTooSmall() {
+        val policy = RequestCompressionPolicy(Predicate { true }, MINIMUM_PAYLOAD_SIZE)
+
+        policy.shouldCompress(mockRequestModel, MINIMUM_PAYLOAD_SIZE - 1) shouldBe false
+    }
+
+    @Test
+    fun testShouldCompress_whenPredicateDoesNotMatch() {
+        val policy = RequestCompressionPolicy(Predicate { false }, MINIMUM_PAYLOAD_SIZE)
+
+        policy.shouldCompress(mockRequestModel, MINIMUM_PAYLOAD_SIZE * 10) shouldBe false
+    }
+
+    @Test
+    fun testDisabled_shouldNeverCompress() {
+        RequestCompressionPolicy.disabled().shouldCompress(mockRequestModel, Int.MAX_VALUE) shouldBe false
+    }
+}
@@ -0,0 +1,77 @@
+package com.emarsys.core.request.model
+
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.*
+
+class CoalescingRequestModelRepositoryTest {
+
+    private companion object {
+        const val WINDOW = 100L
+        const val REQUEST_ID = "requestId"
+    }
+
+    private lateinit var mockMirroredRepository: MirroredRequestModelRepository
+    private lateinit var mockCoreSdkHandler: CoreSdkHandler
+    private lateinit var mockRequestModel: RequestModel
+    private lateinit var repository: CoalescingRequestModelRepository
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        mockMirroredRepository = mock()
+        mockCoreSdkHandler = mock()
+        mockRequestModel = mock()
+        repository = CoalescingRequestModelRepository(mockMirroredRepository, mockCoreSdkHandler, WINDOW)
+    }
+
+    @Test
+    fun testAdd_shouldBufferARequestBurst_intoASingleAddAll() {
+        val otherRequestModel: RequestModel = mock()
+        repository.add(mockRequestModel)
+        repository.add(otherRequestModel)
+
+        verify(mockMirroredRepository, times(0)).add(any())
+
+        repository.flush()
+
+        verify(mockMirroredRepository).addAll(listOf(mockRequestModel, otherRequestModel))
+    }
+
+    @Test
+    fun testQueuedRequestCounts_shouldFlushBufferedRequests_first() {
+        val counts = mapOf(RequestPriority.NORMAL to 1)
+        whenever(mockMirroredRepository.queuedRequestCounts()).thenReturn(counts)
+        repository.add(mockRequestModel)
+
+        val result = repository.queuedRequestCounts()
+
+        result shouldBe counts
+        inOrder(mockMirroredRepository) {
+            verify(mockMirroredRepository).addAll(listOf(mockRequestModel))
+            verify(mockMirroredRepository).queuedRequestCounts()
+        }
+    }
+
+    @Test
+    fun testIsHeldBack_shouldFlushBufferedRequests_first() {
+        whenever(mockMirroredRepository.isHeldBack(REQUEST_ID)).thenReturn(true)
+        repository.add(mockRequestModel)
+
+        val result = repository.isHeldBack(REQUEST_ID)
+
+        result shouldBe true
+        inOrder(mockMirroredRepository) {
+            verify(mockMirroredRepository).addAll(listOf(mockRequestModel))
+            verify(mockMirroredRepository).isHeldBack(REQUEST_ID)
+        }
+    }
+}
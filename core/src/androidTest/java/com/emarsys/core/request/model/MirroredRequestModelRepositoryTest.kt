@@ -0,0 +1,197 @@
+package com.emarsys.core.request.model
+
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.model.specification.FilterByRequestIds
+import com.emarsys.core.request.model.specification.FilterByUrlPattern
+import com.emarsys.core.request.model.specification.QueryLatestRequestModel
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.any
+import org.mockito.kotlin.spy
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+
+class MirroredRequestModelRepositoryTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var requestModelRepository: RequestModelRepository
+    private lateinit var repository: MirroredRequestModelRepository
+    private lateinit var timestampProvider: TimestampProvider
+    private lateinit var uuidProvider: UUIDProvider
+
+    @Before
+    fun setUp() {
+        DatabaseTestUtils.deleteCoreDatabase()
+        val context = InstrumentationRegistry.getTargetContext().applicationContext
+        requestModelRepository = spy(RequestModelRepository(CoreDbHelper(context, mapOf())))
+        repository = MirroredRequestModelRepository(requestModelRepository)
+        timestampProvider = TimestampProvider()
+        uuidProvider = UUIDProvider()
+    }
+
+    @Test
+    fun testIsEmpty_shouldLoadTheMirrorOnlyOnce() {
+        repository.isEmpty() shouldBe true
+        repository.add(createRequestModel("https://emarsys.com/1"))
+        repository.isEmpty() shouldBe false
+
+        verify(requestModelRepository, times(1)).queryQueuedRequests()
+        verify(requestModelRepository, times(0)).isEmpty()
+    }
+
+    @Test
+    fun testIsEmpty_shouldLoadExistingRequests() {
+        requestModelRepository.add(createRequestModel("https://emarsys.com/1"))
+
+        repository.isEmpty() shouldBe false
+    }
+
+    @Test
+    fun testIsEmpty_shouldFollowRemovalsByRequestIds() {
+        val model1 = createRequestModel("https://emarsys.com/1")
+        val model2 = createRequestModel("https://emarsys.com/2")
+        repository.isEmpty()
+        repository.addAll(listOf(model1, model2))
+
+        repository.remove(FilterByRequestIds(arrayOf(model1.id)))
+        repository.isEmpty() shouldBe false
+
+        repository.removeAll(listOf(FilterByRequestIds(arrayOf(model2.id))))
+        repository.isEmpty() shouldBe true
+
+        verify(requestModelRepository, times(1)).queryQueuedRequests()
+    }
+
+    @Test
+    fun testIsEmpty_shouldReloadTheMirror_afterRemovalByOtherSpecification() {
+        repository.add(createRequestModel("https://emarsys.com/1"))
+        repository.isEmpty() shouldBe false
+
+        repository.remove(FilterByUrlPattern("https://emarsys.com/%"))
+
+        repository.isEmpty() shouldBe true
+        verify(requestModelRepository, times(2)).queryQueuedRequests()
+    }
+
+    @Test
+    fun testQuery_withQueryLatestRequestModel_shouldReturnQueueHead_inInsertionOrder() {
+        val models = (1..5).map { createRequestModel("https://emarsys.com/$it") }
+        repository.addAll(models)
+
+        val result = repository.query(QueryLatestRequestModel(3, arrayOf(models[1].id)))
+
+        result shouldBe listOf(models[0], models[2], models[3])
+    }
+
+    @Test
+    fun testQuery_withQueryLatestRequestModel_shouldReturnEmptyList_whenEverythingIsExcluded() {
+        val model = createRequestModel("https://emarsys.com/1")
+        repository.add(model)
+
+        repository.query(QueryLatestRequestModel(1, arrayOf(model.id))) shouldBe listOf()
+    }
+
+    @Test
+    fun testQuery_withQueryLatestRequestModel_shouldFallBackToTheDatabase_whenMirrorIsStale() {
+        val model1 = createRequestModel("https://emarsys.com/1")
+        val model2 = createRequestModel("https://emarsys.com/2")
+        repository.addAll(listOf(model1, model2))
+        requestModelRepository.remove(FilterByRequestIds(arrayOf(model1.id)))
+
+        repository.query(QueryLatestRequestModel()) shouldBe listOf(model2)
+        repository.query(Everything()) shouldBe listOf(model2)
+        verify(requestModelRepository).query(any<QueryLatestRequestModel>())
+    }
+
+    @Test
+    fun testQuery_withQueryLatestRequestModel_shouldReturnHigherLanesFirst() {
+        val low = createRequestModel("https://emarsys.com/1", RequestPriority.LOW)
+        val normal = createRequestModel("https://emarsys.com/2")
+        val high = createRequestModel("https://emarsys.com/3", RequestPriority.HIGH)
+        repository.addAll(listOf(low, normal, high))
+
+        repository.query(QueryLatestRequestModel(3, arrayOf())) shouldBe listOf(high, normal, low)
+    }
+
+    @Test
+    fun testQuery_withQueryLatestRequestModel_shouldLoadLanesFromTheDatabase() {
+        val low = createRequestModel("https://emarsys.com/1", RequestPriority.LOW)
+        val high = createRequestModel("https://emarsys.com/2", RequestPriority.HIGH)
+        requestModelRepository.addAll(listOf(low, high))
+
+        repository.query(QueryLatestRequestModel(2, arrayOf())) shouldBe listOf(high, low)
+    }
+
+    @Test
+    fun testQuery_withQueryLatestRequestModel_shouldNotStarveLowerLanes() {
+        val low = createRequestModel("https://emarsys.com/low", RequestPriority.LOW)
+        repository.add(low)
+
+        repeat(RequestLanes.DEFAULT_FAIRNESS_WINDOW) {
+            val high = createRequestModel("https://emarsys.com/$it", RequestPriority.HIGH)
+            repository.add(high)
+            repository.query(QueryLatestRequestModel()) shouldBe listOf(high)
+            repository.remove(FilterByRequestIds(arrayOf(high.id)))
+        }
+        repository.add(createRequestModel("https://emarsys.com/high", RequestPriority.HIGH))
+
+        repository.query(QueryLatestRequestModel()) shouldBe listOf(low)
+    }
+
+    @Test
+    fun testQuery_withQueryLatestRequestModel_shouldPutTheBarrierFirst_andHoldBackLaterRequests() {
+        val low = createRequestModel("https://emarsys.com/1", RequestPriority.LOW)
+        val barrier = createRequestModel("https://emarsys.com/2", RequestPriority.HIGH, true)
+        val lowAfterBarrier = createRequestModel("https://emarsys.com/3", RequestPriority.LOW)
+        val high = createRequestModel("https://emarsys.com/4", RequestPriority.HIGH)
+        requestModelRepository.addAll(listOf(low, barrier, lowAfterBarrier, high))
+
+        repository.query(QueryLatestRequestModel(4, arrayOf())) shouldBe listOf(barrier, low)
+        repository.query(QueryLatestRequestModel(4, arrayOf(barrier.id))) shouldBe listOf(low)
+    }
+
+    @Test
+    fun testQueuedRequestCounts() {
+        requestModelRepository.add(createRequestModel("https://emarsys.com/1", RequestPriority.LOW))
+        repository.add(createRequestModel("https://emarsys.com/2", RequestPriority.HIGH))
+        repository.add(createRequestModel("https://emarsys.com/3", RequestPriority.LOW))
+
+        repository.queuedRequestCounts() shouldBe mapOf(
+                RequestPriority.HIGH to 1,
+                RequestPriority.NORMAL to 0,
+                RequestPriority.LOW to 2
+        )
+        verify(requestModelRepository, times(0)).query(any())
+    }
+
+    @Test
+    fun testIsHeldBack() {
+        val low = createRequestModel("https://emarsys.com/1", RequestPriority.LOW)
+        val barrier = createRequestModel("https://emarsys.com/2", RequestPriority.HIGH, true)
+        val lowAfterBarrier = createRequestModel("https://emarsys.com/3", RequestPriority.LOW)
+        repository.addAll(listOf(low, barrier, lowAfterBarrier))
+
+        repository.isHeldBack(low.id) shouldBe false
+        repository.isHeldBack(barrier.id) shouldBe false
+        repository.isHeldBack(lowAfterBarrier.id) shouldBe true
+
+        repository.remove(FilterByRequestIds(arrayOf(barrier.id)))
+
+        repository.isHeldBack(lowAfterBarrier.id) shouldBe false
+    }
+
+    private fun createRequestModel(url: String, priority: RequestPriority = RequestPriority.NORMAL, barrier: Boolean = false) =
+            RequestModel.Builder(timestampProvider, uuidProvider).url(url).priority(priority).barrier(barrier).build()
+}
@@ -0,0 +1,182 @@
+package com.emarsys.core.request.model
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import io.kotlintest.shouldThrow
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class RequestLanesTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var lanes: RequestLanes
+
+    @Before
+    fun setUp() {
+        lanes = RequestLanes(2)
+    }
+
+    @Test
+    fun testConstructor_fairnessWindow_mustBePositive() {
+        shouldThrow<IllegalArgumentException> {
+            RequestLanes(0)
+        }
+    }
+
+    @Test
+    fun testHead_shouldDrainLanes_inPriorityOrder() {
+        lanes.add("low1", RequestPriority.LOW)
+        lanes.add("normal1", RequestPriority.NORMAL)
+        lanes.add("high1", RequestPriority.HIGH)
+        lanes.add("low2", RequestPriority.LOW)
+        lanes.add("high2", RequestPriority.HIGH)
+
+        lanes.head(5, setOf()) shouldBe listOf("high1", "high2", "normal1", "low1", "low2")
+    }
+
+    @Test
+    fun testHead_shouldSkipExcludedIds_andRespectLimit() {
+        lanes.add("high1", RequestPriority.HIGH)
+        lanes.add("high2", RequestPriority.HIGH)
+        lanes.add("normal1", RequestPriority.NORMAL)
+
+        lanes.head(2, setOf("high1")) shouldBe listOf("high2", "normal1")
+    }
+
+    @Test
+    fun testHead_shouldPutStarvedLaneFirst() {
+        lanes.add("low1", RequestPriority.LOW)
+        lanes.add("low2", RequestPriority.LOW)
+        lanes.add("high1", RequestPriority.HIGH)
+        lanes.add("high2", RequestPriority.HIGH)
+        lanes.add("high3", RequestPriority.HIGH)
+
+        lanes.remove("high1")
+        lanes.head(3, setOf()) shouldBe listOf("high2", "high3", "low1")
+
+        lanes.remove("high2")
+        lanes.head(3, setOf()) shouldBe listOf("low1", "high3", "low2")
+
+        lanes.remove("low1")
+        lanes.head(3, setOf()) shouldBe listOf("high3", "low2")
+    }
+
+    @Test
+    fun testRemove_shouldNotCountPassesForEmptyLanes() {
+        lanes.add("high1", RequestPriority.HIGH)
+        lanes.add("high2", RequestPriority.HIGH)
+        lanes.remove("high1")
+        lanes.remove("high2")
+        lanes.add("high3", RequestPriority.HIGH)
+        lanes.add("low1", RequestPriority.LOW)
+
+        lanes.head(2, setOf()) shouldBe listOf("high3", "low1")
+    }
+
+    @Test
+    fun testHead_shouldPutTheBarrierInFront_andHoldBackLaterRequests() {
+        lanes.add("low1", RequestPriority.LOW)
+        lanes.add("high1", RequestPriority.HIGH)
+        lanes.add("barrier1", RequestPriority.HIGH, true)
+        lanes.add("low2", RequestPriority.LOW)
+        lanes.add("high2", RequestPriority.HIGH)
+
+        lanes.head(5, setOf()) shouldBe listOf("barrier1", "high1", "low1")
+    }
+
+    @Test
+    fun testHead_shouldKeepTheBarrierInFront_ofStarvedLanes() {
+        lanes.add("low1", RequestPriority.LOW)
+        lanes.add("high1", RequestPriority.HIGH)
+        lanes.add("high2", RequestPriority.HIGH)
+        lanes.add("high3", RequestPriority.HIGH)
+        lanes.remove("high1")
+        lanes.remove("high2")
+        lanes.add("barrier1", RequestPriority.NORMAL, true)
+
+        lanes.head(3, setOf()) shouldBe listOf("barrier1", "low1", "high3")
+    }
+
+    @Test
+    fun testHead_shouldHoldBackLaterRequests_whileTheBarrierIsExcluded() {
+        lanes.add("low1", RequestPriority.LOW)
+        lanes.add("barrier1", RequestPriority.HIGH, true)
+        lanes.add("low2", RequestPriority.LOW)
+
+        lanes.head(3, setOf("barrier1")) shouldBe listOf("low1")
+    }
+
+    @Test
+    fun testHead_shouldReleaseBarriersOneByOne() {
+        lanes.add("barrier1", RequestPriority.HIGH, true)
+        lanes.add("low1", RequestPriority.LOW)
+        lanes.add("barrier2", RequestPriority.HIGH, true)
+        lanes.add("low2", RequestPriority.LOW)
+
+        lanes.head(4, setOf()) shouldBe listOf("barrier1")
+
+        lanes.remove("barrier1")
+        lanes.head(4, setOf()) shouldBe listOf("barrier2", "low1")
+
+        lanes.remove("barrier2")
+        lanes.head(4, setOf()) shouldBe listOf("low1", "low2")
+    }
+
+    @Test
+    fun testRemove_shouldDropTheBarrier() {
+        lanes.add("low1", RequestPriority.LOW)
+        lanes.add("barrier1", RequestPriority.HIGH, true)
+        lanes.add("low2", RequestPriority.LOW)
+
+        lanes.remove("barrier1")
+
+        lanes.head(3, setOf()) shouldBe listOf("low1", "low2")
+        lanes.size(RequestPriority.HIGH) shouldBe 0
+    }
+
+    @Test
+    fun testIsHeldBack() {
+        lanes.add("low1", RequestPriority.LOW)
+        lanes.add("barrier1", RequestPriority.HIGH, true)
+        lanes.add("high1", RequestPriority.HIGH)
+        lanes.add("barrier2", RequestPriority.HIGH, true)
+        lanes.add("low2", RequestPriority.LOW)
+
+        lanes.isHeldBack("low1") shouldBe false
+        lanes.isHeldBack("barrier1") shouldBe false
+        lanes.isHeldBack("high1") shouldBe true
+        lanes.isHeldBack("barrier2") shouldBe true
+        lanes.isHeldBack("low2") shouldBe true
+        lanes.isHeldBack("unknown") shouldBe false
+
+        lanes.remove("barrier1")
+
+        lanes.isHeldBack("high1") shouldBe false
+        lanes.isHeldBack("barrier2") shouldBe false
+        lanes.isHeldBack("low2") shouldBe true
+    }
+
+    @Test
+    fun testSize_andIsEmpty() {
+        lanes.isEmpty() shouldBe true
+        lanes.add("high1", RequestPriority.HIGH)
+        lanes.add("high1", RequestPriority.HIGH)
+        lanes.add("low1", RequestPriority.LOW)
+
+        lanes.size(RequestPriority.HIGH) shouldBe 1
+        lanes.size(RequestPriority.NORMAL) shouldBe 0
+        lanes.size(RequestPriority.LOW) shouldBe 1
+        lanes.isEmpty() shouldBe false
+
+        lanes.remove("high1")
+        lanes.remove("low1")
+        lanes.remove("unknown")
+
+        lanes.isEmpty() shouldBe true
+    }
+}
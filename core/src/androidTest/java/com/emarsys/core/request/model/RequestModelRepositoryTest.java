@@ -9,6 +9,8 @@ import com.emarsys.core.database.DatabaseContract;
 import com.emarsys.core.database.helper.CoreDbHelper;
 import com.emarsys.core.database.repository.specification.Everything;
 import com.emarsys.core.database.trigger.TriggerKey;
+import com.emarsys.core.request.model.specification.FilterByRequestIds;
+import com.emarsys.core.request.model.specification.QueryLatestRequestModel;
 import com.emarsys.testUtil.DatabaseTestUtils;
 import com.emarsys.testUtil.InstrumentationRegistry;
 import com.emarsys.testUtil.TimeoutUtils;
@@ -23,13 +25,17 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_BARRIER;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_HEADERS;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_HOST;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_METHOD;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PAYLOAD;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PRIORITY;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_TIMESTAMP;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_TTL;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_URL;
+import static com.emarsys.core.util.serialization.CompactBinaryCodec.encode;
 import static com.emarsys.core.util.serialization.SerializationUtils.serializableToBlob;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -85,10 +91,61 @@ public class RequestModelRepositoryTest {
         assertEquals(request.getId(), result.getAsString(REQUEST_COLUMN_NAME_REQUEST_ID));
         assertEquals(request.getMethod().name(), result.getAsString(REQUEST_COLUMN_NAME_METHOD));
         assertEquals(request.getUrl().toString(), result.getAsString(REQUEST_COLUMN_NAME_URL));
-        assertArrayEquals(serializableToBlob(request.getHeaders()), result.getAsByteArray(REQUEST_COLUMN_NAME_HEADERS));
-        assertArrayEquals(serializableToBlob(request.getPayload()), result.getAsByteArray(REQUEST_COLUMN_NAME_PAYLOAD));
+        assertArrayEquals(encode(request.getHeaders()), result.getAsByteArray(REQUEST_COLUMN_NAME_HEADERS));
+        assertArrayEquals(encode(request.getPayload()), result.getAsByteArray(REQUEST_COLUMN_NAME_PAYLOAD));
         assertEquals(request.getTimestamp(), (long) result.getAsLong(REQUEST_COLUMN_NAME_TIMESTAMP));
         assertEquals(request.getTtl(), (long) result.getAsLong(REQUEST_COLUMN_NAME_TTL));
+        assertEquals("www.google.com", result.getAsString(REQUEST_COLUMN_NAME_HOST));
+        assertEquals(RequestPriority.NORMAL.getValue(), (int) result.getAsInteger(REQUEST_COLUMN_NAME_PRIORITY));
+        assertEquals(0, (int) result.getAsInteger(REQUEST_COLUMN_NAME_BARRIER));
+    }
+
+    @Test
+    public void testQueryQueuedRequests_shouldReturnQueuedRequests_inInsertionOrder() {
+        repository.add(new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "id2", RequestPriority.HIGH));
+        repository.add(new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "id1", RequestPriority.LOW));
+        repository.add(new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "id3", RequestPriority.HIGH, true));
+
+        assertEquals(Arrays.asList(
+                new QueuedRequest("id2", RequestPriority.HIGH, false),
+                new QueuedRequest("id1", RequestPriority.LOW, false),
+                new QueuedRequest("id3", RequestPriority.HIGH, true)),
+                repository.queryQueuedRequests());
+    }
+
+    @Test
+    public void testQuery_withQueryLatestRequestModel_shouldPutTheBarrierFirst_andHoldBackLaterRequests() {
+        RequestModel low = new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "id1", RequestPriority.LOW);
+        RequestModel barrier = new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "id2", RequestPriority.HIGH, true);
+        RequestModel lowAfterBarrier = new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "id3", RequestPriority.LOW);
+        RequestModel high = new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "id4", RequestPriority.HIGH);
+        repository.add(low);
+        repository.add(barrier);
+        repository.add(lowAfterBarrier);
+        repository.add(high);
+
+        assertEquals(Arrays.asList(barrier, low), repository.query(new QueryLatestRequestModel(4, new String[0])));
+        assertEquals(Arrays.asList(low), repository.query(new QueryLatestRequestModel(4, new String[]{"id2"})));
+
+        repository.remove(new FilterByRequestIds(new String[]{"id2"}));
+
+        assertEquals(Arrays.asList(high, low, lowAfterBarrier), repository.query(new QueryLatestRequestModel(4, new String[0])));
+    }
+
+    @Test
+    public void testQuery_shouldRestoreBarrier() {
+        RequestModel barrierRequest = new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "id1", RequestPriority.HIGH, true);
+        repository.add(barrierRequest);
+
+        assertEquals(Arrays.asList(barrierRequest), repository.query(new Everything()));
+    }
+
+    @Test
+    public void testQuery_shouldRestorePriority() {
+        RequestModel highPriorityRequest = new RequestModel(URL, RequestMethod.GET, payload, headers, TIMESTAMP, TTL, "id1", RequestPriority.HIGH);
+        repository.add(highPriorityRequest);
+
+        assertEquals(Arrays.asList(highPriorityRequest), repository.query(new Everything()));
     }
 
     @Test
@@ -104,6 +161,36 @@ public class RequestModelRepositoryTest {
         when(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_URL)).thenReturn(2);
         when(cursor.getString(2)).thenReturn(URL);
 
+        when(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_HEADERS)).thenReturn(3);
+        when(cursor.getBlob(3)).thenReturn(encode(headers));
+
+        when(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_PAYLOAD)).thenReturn(4);
+        when(cursor.getBlob(4)).thenReturn(encode(payload));
+
+        when(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_TIMESTAMP)).thenReturn(5);
+        when(cursor.getLong(5)).thenReturn(TIMESTAMP);
+
+        when(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_TTL)).thenReturn(6);
+        when(cursor.getLong(6)).thenReturn(TTL);
+
+        RequestModel result = repository.itemFromCursor(cursor);
+
+        assertEquals(request, result);
+    }
+
+    @Test
+    public void testItemFromCursor_withLegacyBlobs() {
+        Cursor cursor = mock(Cursor.class);
+
+        when(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_REQUEST_ID)).thenReturn(0);
+        when(cursor.getString(0)).thenReturn(REQUEST_ID);
+
+        when(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_METHOD)).thenReturn(1);
+        when(cursor.getString(1)).thenReturn(RequestMethod.GET.name());
+
+        when(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_URL)).thenReturn(2);
+        when(cursor.getString(2)).thenReturn(URL);
+
         when(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_HEADERS)).thenReturn(3);
         when(cursor.getBlob(3)).thenReturn(serializableToBlob(headers));
 
@@ -60,6 +60,7 @@ class RequestModelTest {
         Assert.assertEquals(null, result.payload)
         Assert.assertEquals(RequestMethod.POST, result.method)
         Assert.assertEquals(Long.MAX_VALUE, result.ttl)
+        Assert.assertEquals(RequestPriority.NORMAL, result.priority)
     }
 
     @Test
@@ -82,11 +83,12 @@ class RequestModelTest {
                 .headers(headers)
                 .queryParams(queryParams)
                 .ttl(ttl)
+                .priority(RequestPriority.HIGH)
                 .build()
         val id = result.id
         val timestamp = result.timestamp
         val urlWithQueryParams = "$url?q1=v1"
-        val expected = RequestModel(urlWithQueryParams, method, payload, headers, timestamp, ttl, id)
+        val expected = RequestModel(urlWithQueryParams, method, payload, headers, timestamp, ttl, id, RequestPriority.HIGH)
 
         result shouldBe expected
     }
@@ -151,7 +153,7 @@ class RequestModelTest {
 
     @Test
     fun testBuilder_from() {
-        val expected = RequestModel(url, method, payload, headers, timestamp, ttl, id)
+        val expected = RequestModel(url, method, payload, headers, timestamp, ttl, id, RequestPriority.LOW)
         val result = RequestModel.Builder(expected).build()
         Assert.assertEquals(expected, result)
     }
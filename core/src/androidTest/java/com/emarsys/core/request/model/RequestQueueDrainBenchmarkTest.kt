@@ -0,0 +1,72 @@
+package com.emarsys.core.request.model
+
+import android.util.Log
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.request.model.specification.FilterByRequestIds
+import com.emarsys.core.request.model.specification.QueryLatestRequestModel
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+/**
+ * Drains a 10k row request queue the way DefaultWorker does (head query, isEmpty, delete by id)
+ * with the legacy rollback journal and with the WAL configuration of [CoreDbHelper].
+ * Results are written to logcat under the [TAG] tag.
+ */
+class RequestQueueDrainBenchmarkTest {
+
+    private companion object {
+        const val TAG = "QueueDrainBench"
+        const val ROW_COUNT = 10_000
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.longTimeoutRule
+
+    @After
+    fun tearDown() {
+        DatabaseTestUtils.deleteCoreDatabase()
+    }
+
+    @Test
+    fun testBenchmark_drainWithRollbackJournal() {
+        drain("rollback journal, synchronous=FULL") {
+            it.writableDatabase.disableWriteAheadLogging()
+            it.writableDatabase.execSQL("PRAGMA synchronous = FULL;")
+        }
+    }
+
+    @Test
+    fun testBenchmark_drainWithWriteAheadLogging() {
+        drain("WAL, synchronous=NORMAL") {}
+    }
+
+    private fun drain(name: String, configure: (CoreDbHelper) -> Unit) {
+        DatabaseTestUtils.deleteCoreDatabase()
+        val helper = CoreDbHelper(InstrumentationRegistry.getTargetContext().applicationContext, mutableMapOf())
+        configure(helper)
+        val repository = RequestModelRepository(helper)
+        repository.addAll((0 until ROW_COUNT).map {
+            RequestModel("https://emarsys.com/$it", RequestMethod.POST, mapOf("index" to it), mapOf(), it.toLong(), Long.MAX_VALUE, "id$it")
+        })
+
+        var drained = 0
+        val start = System.nanoTime()
+        while (!repository.isEmpty()) {
+            val head = repository.query(QueryLatestRequestModel())
+            repository.remove(FilterByRequestIds(arrayOf(head[0].id)))
+            drained++
+        }
+        val durationMillis = (System.nanoTime() - start) / 1_000_000
+
+        Log.i(TAG, "$name: drained $drained rows in $durationMillis ms, ${durationMillis * 1000 / ROW_COUNT} us/row")
+        drained shouldBe ROW_COUNT
+        helper.close()
+    }
+}
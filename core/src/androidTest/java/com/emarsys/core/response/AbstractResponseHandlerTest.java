@@ -9,8 +9,11 @@ import org.junit.Test;
 import org.junit.rules.TestRule;
 import org.mockito.Mockito;
 
+import java.util.Collections;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -59,4 +62,51 @@ public class AbstractResponseHandlerTest {
 
         verify(abstractResponseHandler, times(0)).handleResponse(responseModel);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testProcessResponse_shouldNotCallShouldHandleResponse_whenBodyHasNoInterestedKey() {
+        when(abstractResponseHandler.getInterestedBodyKeys()).thenReturn(Collections.singleton("interestedKey"));
+        ResponseModel responseModel = new ResponseModel.Builder()
+                .statusCode(200)
+                .message("OK")
+                .body("{\"otherKey\":\"value\"}")
+                .requestModel(mock(RequestModel.class))
+                .build();
+
+        abstractResponseHandler.processResponse(responseModel);
+
+        verify(abstractResponseHandler, never()).shouldHandleResponse(any(ResponseModel.class));
+        verify(abstractResponseHandler, never()).handleResponse(any(ResponseModel.class));
+    }
+
+    @Test
+    public void testProcessResponse_shouldNotCallShouldHandleResponse_whenBodyIsNotJson_andHandlerHasInterestedKeys() {
+        when(abstractResponseHandler.getInterestedBodyKeys()).thenReturn(Collections.singleton("interestedKey"));
+        ResponseModel responseModel = new ResponseModel.Builder()
+                .statusCode(200)
+                .message("OK")
+                .body("<html></html>")
+                .requestModel(mock(RequestModel.class))
+                .build();
+
+        abstractResponseHandler.processResponse(responseModel);
+
+        verify(abstractResponseHandler, never()).shouldHandleResponse(any(ResponseModel.class));
+    }
+
+    @Test
+    public void testProcessResponse_shouldCallHandleResponse_whenBodyHasInterestedKey() {
+        when(abstractResponseHandler.getInterestedBodyKeys()).thenReturn(Collections.singleton("interestedKey"));
+        when(abstractResponseHandler.shouldHandleResponse(any(ResponseModel.class))).thenReturn(true);
+        ResponseModel responseModel = new ResponseModel.Builder()
+                .statusCode(200)
+                .message("OK")
+                .body("{\"interestedKey\":\"value\"}")
+                .requestModel(mock(RequestModel.class))
+                .build();
+
+        abstractResponseHandler.processResponse(responseModel);
+
+        verify(abstractResponseHandler).handleResponse(responseModel);
+    }
+}
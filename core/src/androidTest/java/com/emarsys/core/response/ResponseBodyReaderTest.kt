@@ -0,0 +1,91 @@
+package com.emarsys.core.response
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.io.ByteArrayInputStream
+import java.io.IOException
+
+class ResponseBodyReaderTest {
+
+    private lateinit var reader: ResponseBodyReader
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        reader = ResponseBodyReader(1024 * 1024)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxBodySize_mustBePositive() {
+        ResponseBodyReader(0)
+    }
+
+    @Test
+    fun testRead_emptyStream() {
+        reader.read(ByteArrayInputStream(ByteArray(0))).size shouldBe 0
+    }
+
+    @Test
+    fun testRead_shouldKeepNewLinesAndMultiByteCharacters() {
+        val body = "{\n  \"message\": \"árvíztűrő tükörfúrógép\"\n}"
+
+        val result = reader.read(ByteArrayInputStream(body.toByteArray(Charsets.UTF_8)))
+
+        String(result, Charsets.UTF_8) shouldBe body
+    }
+
+    @Test
+    fun testRead_shouldReadBodiesLargerThanTheChunkSize() {
+        val body = ByteArray(100 * 1024) { (it % 128).toByte() }
+
+        reader.read(ByteArrayInputStream(body)).contentEquals(body) shouldBe true
+    }
+
+    @Test
+    fun testRead_shouldNotLeakPreviousBodies_whenBufferIsReused() {
+        reader.read(ByteArrayInputStream("previous body".toByteArray()))
+
+        val result = reader.read(ByteArrayInputStream("next".toByteArray()))
+
+        String(result) shouldBe "next"
+    }
+
+    @Test(expected = IOException::class)
+    fun testRead_shouldThrowException_whenBodyExceedsMaxBodySize() {
+        ResponseBodyReader(10).read(ByteArrayInputStream(ByteArray(11)))
+    }
+
+    @Test
+    fun testRead_shouldInvokeOnMaxBodySizeExceeded_beforeClosingTheStream() {
+        val events = mutableListOf<String>()
+        val inputStream = object : ByteArrayInputStream(ByteArray(11)) {
+            override fun close() {
+                events.add("close")
+            }
+        }
+
+        try {
+            ResponseBodyReader(10).read(inputStream) { events.add("onMaxBodySizeExceeded") }
+            fail("Should throw exception")
+        } catch (e: IOException) {
+            events shouldBe listOf("onMaxBodySizeExceeded", "close")
+        }
+    }
+
+    @Test
+    fun testRead_shouldNotInvokeOnMaxBodySizeExceeded_whenBodyFits() {
+        var invoked = false
+
+        ResponseBodyReader(10).read(ByteArrayInputStream(ByteArray(10))) { invoked = true }
+
+        invoked shouldBe false
+    }
+}
@@ -6,7 +6,10 @@ import com.emarsys.testUtil.TimeoutUtils
 import org.json.JSONException
 import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
 import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -134,6 +137,90 @@ class ResponseModelTest {
         assertNull(result)
     }
 
+    @Test
+    fun testGetParsedBody_shouldReturnTheSameInstance_onSubsequentCalls() {
+        val responseModel = ResponseModel(
+                200,
+                "",
+                mapOf(),
+                mapOf(),
+                "{\"foo\":\"bar\"}",
+                timestamp,
+                requestModel)
+
+        val first = responseModel.parsedBody
+        val second = responseModel.parsedBody
+
+        assertSame(first, second)
+    }
+
+    @Test(expected = UnsupportedOperationException::class)
+    fun testGetParsedBody_shouldBeReadOnly() {
+        createResponseModelWithNestedBody().parsedBody.put("foo", "changed")
+    }
+
+    @Test(expected = UnsupportedOperationException::class)
+    fun testGetParsedBody_shouldNotAllowRemovingKeys() {
+        createResponseModelWithNestedBody().parsedBody.keys().apply {
+            next()
+            remove()
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException::class)
+    fun testGetParsedBody_nestedObjects_shouldBeReadOnly() {
+        createResponseModelWithNestedBody().parsedBody.getJSONObject("nested").put("b", "changed")
+    }
+
+    @Test(expected = UnsupportedOperationException::class)
+    fun testGetParsedBody_nestedArrays_shouldBeReadOnly() {
+        createResponseModelWithNestedBody().parsedBody.getJSONArray("array").put(3)
+    }
+
+    @Test(expected = UnsupportedOperationException::class)
+    fun testGetParsedBody_objectsInArrays_shouldBeReadOnly() {
+        createResponseModelWithNestedBody().parsedBody.getJSONArray("array").getJSONObject(2).remove("d")
+    }
+
+    @Test
+    fun testGetParsedBody_copy_shouldBeModifiable() {
+        val parsedBody = createResponseModelWithNestedBody().parsedBody
+
+        val copy = JSONObject(parsedBody.toString()).put("foo", "changed")
+
+        assertEquals("changed", copy.getString("foo"))
+        assertEquals("bar", parsedBody.getString("foo"))
+    }
+
+    @Test
+    fun testHasBodyKey() {
+        val responseModel = ResponseModel(
+                200,
+                "",
+                mapOf(),
+                mapOf(),
+                "{\"foo\":\"bar\"}",
+                timestamp,
+                requestModel)
+
+        assertTrue(responseModel.hasBodyKey("foo"))
+        assertFalse(responseModel.hasBodyKey("bar"))
+    }
+
+    @Test
+    fun testHasBodyKey_whenBodyIsAnInvalidJson() {
+        val responseModel = ResponseModel(
+                200,
+                "",
+                mapOf(),
+                mapOf(),
+                "<html>Not valid json</html>",
+                timestamp,
+                requestModel)
+
+        assertFalse(responseModel.hasBodyKey("foo"))
+    }
+
     @Test
     fun testBuilder_withAllArguments() {
         val expected = ResponseModel(statusCode, message, headers, cookies, body, timestamp, requestModel)
@@ -159,6 +246,33 @@ class ResponseModelTest {
         assertEquals(expected, result)
     }
 
+    @Test
+    fun testBuilder_withRawBody() {
+        val expected = ResponseModel(statusCode, message, mapOf(), mapOf(), body, timestamp, requestModel)
+        val result = ResponseModel.Builder(timestampProvider)
+                .statusCode(statusCode)
+                .message(message)
+                .body(bytes)
+                .requestModel(requestModel)
+                .build()
+        assertEquals(expected, result)
+        assertEquals(body, result.body)
+    }
+
+    @Test
+    fun testGetBody_shouldDecodeRawBodyAsUtf8() {
+        val utf8Body = "{\"message\":\"árvíztűrő tükörfúrógép\"}"
+        val result = ResponseModel.Builder(timestampProvider)
+                .statusCode(statusCode)
+                .message(message)
+                .body(utf8Body.toByteArray(Charsets.UTF_8))
+                .requestModel(requestModel)
+                .build()
+
+        assertEquals(utf8Body, result.body)
+        assertEquals("árvíztűrő tükörfúrógép", result.parsedBody.getString("message"))
+    }
+
     @Test
     fun testBuilder_joinShouldReturnConcatenatedValue() {
         val expected = "alma, korte, szilva, malna"
@@ -236,6 +350,15 @@ class ResponseModelTest {
         assertEquals(expected, result)
     }
 
+    private fun createResponseModelWithNestedBody() = ResponseModel(
+            200,
+            "",
+            mapOf(),
+            mapOf(),
+            "{\"foo\":\"bar\",\"nested\":{\"b\":\"c\"},\"array\":[1,2,{\"d\":\"e\"}]}",
+            timestamp,
+            requestModel)
+
     private fun createHeaders(): Map<String, String> {
         return mapOf(
                 "content" to "application/x-www-form-urlencoded",
@@ -8,6 +8,7 @@ import com.emarsys.core.database.DatabaseContract.SHARD_COLUMN_TIMESTAMP
 import com.emarsys.core.database.DatabaseContract.SHARD_COLUMN_TTL
 import com.emarsys.core.database.DatabaseContract.SHARD_COLUMN_TYPE
 import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.util.serialization.CompactBinaryCodec
 import com.emarsys.core.util.serialization.SerializationUtils.serializableToBlob
 import com.emarsys.testUtil.DatabaseTestUtils
 import com.emarsys.testUtil.InstrumentationRegistry
@@ -60,7 +61,7 @@ class ShardModelRepositoryTest {
         val result = repository.contentValuesFromItem(shardModel)
         Assert.assertEquals(shardModel.id, result.getAsString(SHARD_COLUMN_ID))
         Assert.assertEquals(shardModel.type, result.getAsString(SHARD_COLUMN_TYPE))
-        Assert.assertArrayEquals(serializableToBlob(shardModel.data), result.getAsByteArray(SHARD_COLUMN_DATA))
+        Assert.assertArrayEquals(CompactBinaryCodec.encode(shardModel.data), result.getAsByteArray(SHARD_COLUMN_DATA))
         Assert.assertEquals(shardModel.timestamp, result.getAsLong(SHARD_COLUMN_TIMESTAMP))
         Assert.assertEquals(shardModel.ttl, result.getAsLong(SHARD_COLUMN_TTL))
     }
@@ -75,6 +76,28 @@ class ShardModelRepositoryTest {
         `when`(cursor.getColumnIndexOrThrow(SHARD_COLUMN_TYPE)).thenReturn(1)
         `when`(cursor.getString(1)).thenReturn(TYPE)
 
+        `when`(cursor.getColumnIndexOrThrow(SHARD_COLUMN_DATA)).thenReturn(2)
+        `when`(cursor.getBlob(2)).thenReturn(CompactBinaryCodec.encode(payload))
+
+        `when`(cursor.getColumnIndexOrThrow(SHARD_COLUMN_TIMESTAMP)).thenReturn(3)
+        `when`(cursor.getLong(3)).thenReturn(TIMESTAMP)
+
+        `when`(cursor.getColumnIndexOrThrow(SHARD_COLUMN_TTL)).thenReturn(4)
+        `when`(cursor.getLong(4)).thenReturn(TTL)
+
+        Assert.assertEquals(shardModel, repository.itemFromCursor(cursor))
+    }
+
+    @Test
+    fun testItemFromCursor_withLegacyBlob() {
+        val cursor = mock(Cursor::class.java)
+
+        `when`(cursor.getColumnIndexOrThrow(SHARD_COLUMN_ID)).thenReturn(0)
+        `when`(cursor.getString(0)).thenReturn(SHARD_ID)
+
+        `when`(cursor.getColumnIndexOrThrow(SHARD_COLUMN_TYPE)).thenReturn(1)
+        `when`(cursor.getString(1)).thenReturn(TYPE)
+
         `when`(cursor.getColumnIndexOrThrow(SHARD_COLUMN_DATA)).thenReturn(2)
         `when`(cursor.getBlob(2)).thenReturn(serializableToBlob(payload))
 
@@ -86,4 +109,4 @@ class ShardModelRepositoryTest {
 
         Assert.assertEquals(shardModel, repository.itemFromCursor(cursor))
     }
-}
\ No newline at end of file
+}
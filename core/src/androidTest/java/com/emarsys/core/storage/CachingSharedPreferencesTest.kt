@@ -0,0 +1,149 @@
+package com.emarsys.core.storage
+
+import android.content.SharedPreferences
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.*
+import java.util.concurrent.Executor
+
+class CachingSharedPreferencesTest {
+
+    private companion object {
+        const val KEY = "key"
+        const val OTHER_KEY = "otherKey"
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockEditor: SharedPreferences.Editor
+    private lateinit var mockDelegate: SharedPreferences
+    private lateinit var mockExecutor: Executor
+    private lateinit var preferences: CachingSharedPreferences
+
+    @Before
+    fun setUp() {
+        mockEditor = mock {
+            on { putString(any(), anyOrNull()) } doReturn it
+            on { putInt(any(), any()) } doReturn it
+            on { remove(any()) } doReturn it
+            on { clear() } doReturn it
+            on { commit() } doReturn true
+        }
+        mockDelegate = mock {
+            on { all } doReturn mapOf(KEY to "value", OTHER_KEY to 42)
+            on { edit() } doReturn mockEditor
+        }
+        mockExecutor = mock()
+        preferences = CachingSharedPreferences(mockDelegate, mockExecutor)
+    }
+
+    @Test
+    fun testGet_shouldDecryptTheStoreOnce_andServeReadsFromMemory() {
+        preferences.getString(KEY, null) shouldBe "value"
+        preferences.getInt(OTHER_KEY, 0) shouldBe 42
+        preferences.getBoolean("missing", true) shouldBe true
+
+        verify(mockDelegate, times(1)).all
+        verifyNoMoreInteractions(mockDelegate)
+    }
+
+    @Test
+    fun testApply_shouldBeVisibleImmediately_andWrittenBackOnExecutor() {
+        preferences.edit().putString(KEY, "newValue").apply()
+
+        preferences.getString(KEY, null) shouldBe "newValue"
+        verify(mockDelegate, never()).edit()
+
+        runScheduledWriteBack()
+
+        inOrder(mockEditor) {
+            verify(mockEditor).putString(KEY, "newValue")
+            verify(mockEditor).commit()
+        }
+    }
+
+    @Test
+    fun testApply_shouldCoalesceWrites_untilTheWriteBackStarts() {
+        preferences.edit().putString(KEY, "first").apply()
+        preferences.edit().putString(KEY, "second").apply()
+        preferences.edit().remove(OTHER_KEY).apply()
+
+        runScheduledWriteBack()
+
+        verify(mockDelegate, times(1)).edit()
+        verify(mockEditor).putString(KEY, "second")
+        verify(mockEditor).remove(OTHER_KEY)
+        verify(mockEditor, times(1)).commit()
+        preferences.contains(OTHER_KEY) shouldBe false
+    }
+
+    @Test
+    fun testCommit_shouldWriteEveryPendingEdit_beforeReturning() {
+        preferences.edit().putInt(OTHER_KEY, 1).apply()
+
+        preferences.edit().putString(KEY, "durable").commit() shouldBe true
+
+        verify(mockEditor).putInt(OTHER_KEY, 1)
+        verify(mockEditor).putString(KEY, "durable")
+        verify(mockEditor).commit()
+    }
+
+    @Test
+    fun testClear_shouldDropCachedAndPendingValues() {
+        preferences.edit().putString(KEY, "value2").apply()
+
+        preferences.edit().clear().apply()
+        preferences.flush()
+
+        preferences.all shouldBe mapOf<String, Any?>()
+        verify(mockEditor).clear()
+        verify(mockEditor, never()).putString(any(), anyOrNull())
+    }
+
+    @Test
+    fun testApply_shouldNotifyListeners_beforeTheWriteBack() {
+        val mockListener: SharedPreferences.OnSharedPreferenceChangeListener = mock()
+        preferences.registerOnSharedPreferenceChangeListener(mockListener)
+
+        preferences.edit().putString(KEY, "newValue").apply()
+
+        verify(mockListener).onSharedPreferenceChanged(preferences, KEY)
+        verify(mockDelegate, never()).edit()
+        verify(mockDelegate, never()).registerOnSharedPreferenceChangeListener(any())
+    }
+
+    @Test
+    fun testClear_shouldNotifyListeners_aboutEveryClearedKey() {
+        val mockListener: SharedPreferences.OnSharedPreferenceChangeListener = mock()
+        preferences.registerOnSharedPreferenceChangeListener(mockListener)
+
+        preferences.edit().clear().apply()
+
+        verify(mockListener).onSharedPreferenceChanged(preferences, KEY)
+        verify(mockListener).onSharedPreferenceChanged(preferences, OTHER_KEY)
+    }
+
+    @Test
+    fun testUnregisterListener_shouldStopNotifications() {
+        val mockListener: SharedPreferences.OnSharedPreferenceChangeListener = mock()
+        preferences.registerOnSharedPreferenceChangeListener(mockListener)
+        preferences.unregisterOnSharedPreferenceChangeListener(mockListener)
+
+        preferences.edit().putString(KEY, "newValue").apply()
+
+        verifyZeroInteractions(mockListener)
+    }
+
+    private fun runScheduledWriteBack() {
+        argumentCaptor<Runnable>().apply {
+            verify(mockExecutor).execute(capture())
+            firstValue.run()
+        }
+    }
+}
@@ -90,4 +90,15 @@ class StringStorageTest {
         verifyNoMoreInteractions(editor)
         verifyNoMoreInteractions(sharedPreferences)
     }
+
+    @Test
+    fun testPersistValue_shouldCommit_whenDurable() {
+        val durableStorage = StringStorage(storageKey, sharedPreferences, true)
+
+        durableStorage.persistValue(sharedPreferences, VALUE)
+
+        verify(editor).putString(KEY, VALUE)
+        verify(editor).commit()
+        verifyNoMoreInteractions(editor)
+    }
 }
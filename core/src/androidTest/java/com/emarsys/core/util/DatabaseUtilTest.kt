@@ -17,4 +17,22 @@ class DatabaseUtilTest {
         val result = DatabaseUtil.generateInStatement("request_id", arrayOf("123", "12", "1"))
         Assert.assertEquals("request_id IN (?, ?, ?)", result)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testGeneratePaddedInStatement_shouldRoundThePlaceholdersUp_toAPowerOfTwo() {
+        val result = DatabaseUtil.generatePaddedInStatement("request_id", arrayOf("123", "12", "1"))
+        Assert.assertEquals("request_id IN (?, ?, ?, ?)", result)
+    }
+
+    @Test
+    fun testPadInArgs_shouldRepeatTheLastArgument() {
+        val result = DatabaseUtil.padInArgs(arrayOf("1", "2", "3", "4", "5"))
+        Assert.assertArrayEquals(arrayOf("1", "2", "3", "4", "5", "5", "5", "5"), result)
+    }
+
+    @Test
+    fun testPadInArgs_shouldNotPadLongLists() {
+        val args = Array(65) { "id$it" }
+        Assert.assertArrayEquals(args, DatabaseUtil.padInArgs(args))
+    }
+}
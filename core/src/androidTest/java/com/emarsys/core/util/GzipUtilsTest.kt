@@ -0,0 +1,33 @@
+package com.emarsys.core.util
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.util.zip.GZIPInputStream
+
+class GzipUtilsTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testGzip_shouldProduceDecompressibleOutput() {
+        val payload = "{\"events\":[]}".repeat(100).toByteArray()
+
+        val compressed = GzipUtils.gzip(payload)
+
+        GZIPInputStream(compressed.inputStream()).readBytes() shouldBe payload
+    }
+
+    @Test
+    fun testGzip_shouldShrinkRepetitivePayload() {
+        val payload = "{\"name\":\"event\"}".repeat(100).toByteArray()
+
+        val compressed = GzipUtils.gzip(payload)
+
+        (compressed.size < payload.size) shouldBe true
+    }
+}
@@ -0,0 +1,36 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+
+class AnyOfFlushPolicyTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testShouldFlush() {
+        val yes = mock<FlushPolicy> { on { shouldFlush(any()) } doReturn true }
+        val no = mock<FlushPolicy> { on { shouldFlush(any()) } doReturn false }
+
+        AnyOfFlushPolicy(no, no).shouldFlush(PendingShards()) shouldBe false
+        AnyOfFlushPolicy(no, yes).shouldFlush(PendingShards()) shouldBe true
+    }
+
+    @Test
+    fun testMillisUntilFlush_shouldReturnTheEarliestDeadline() {
+        val never = mock<FlushPolicy> { on { millisUntilFlush(any()) } doReturn null }
+        val late = mock<FlushPolicy> { on { millisUntilFlush(any()) } doReturn 500L }
+        val early = mock<FlushPolicy> { on { millisUntilFlush(any()) } doReturn 100L }
+
+        AnyOfFlushPolicy(never).millisUntilFlush(PendingShards()) shouldBe null
+        AnyOfFlushPolicy(never, late, early).millisUntilFlush(PendingShards()) shouldBe 100L
+    }
+}
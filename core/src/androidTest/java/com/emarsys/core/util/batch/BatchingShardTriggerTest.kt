@@ -4,13 +4,14 @@ import com.emarsys.core.Mapper
 import com.emarsys.core.connection.ConnectionWatchDog
 import com.emarsys.core.database.repository.Repository
 import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.handler.CoreSdkHandler
 import com.emarsys.core.request.RequestManager
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.shard.ShardModel
+import com.emarsys.core.shard.specification.FilterByPendingShards
 import com.emarsys.core.shard.specification.FilterByShardIds
 import com.emarsys.core.util.batch.BatchingShardTrigger.RequestStrategy.PERSISTENT
 import com.emarsys.core.util.batch.BatchingShardTrigger.RequestStrategy.TRANSIENT
-import com.emarsys.core.util.predicate.Predicate
 import com.emarsys.testUtil.TimeoutUtils
 import com.emarsys.testUtil.mockito.whenever
 import org.junit.Before
@@ -22,13 +23,19 @@ import org.mockito.kotlin.*
 
 class BatchingShardTriggerTest {
 
+    private companion object {
+        const val SHARD_TYPE = "shard_type"
+    }
+
     private lateinit var mockRepository: Repository<ShardModel, SqlSpecification>
-    private lateinit var mockPredicate: Predicate<List<ShardModel>>
-    private lateinit var mockQuerySpecification: SqlSpecification
-    private lateinit var mockChunker: Mapper<List<ShardModel>, List<List<ShardModel>>>
+    private lateinit var mockPendingShardIndex: PendingShardIndex
+    private lateinit var pendingShards: PendingShards
+    private lateinit var mockFlushPolicy: FlushPolicy
+    private lateinit var mockChunker: Mapper<List<PendingShard>, List<List<PendingShard>>>
     private lateinit var mockMerger: Mapper<List<ShardModel>, RequestModel>
     private lateinit var mockRequestManager: RequestManager
     private lateinit var mockConnectionWatchDog: ConnectionWatchDog
+    private lateinit var mockCoreSdkHandler: CoreSdkHandler
 
     @Rule
     @JvmField
@@ -37,21 +44,26 @@ class BatchingShardTriggerTest {
     @Before
     fun setUp() {
         mockRepository = mock()
-        mockPredicate = mock {
-            on { evaluate(any()) } doReturn true
+        pendingShards = PendingShards()
+        mockPendingShardIndex = mock {
+            on { pendingShardsOf(SHARD_TYPE) } doReturn pendingShards
+        }
+        mockFlushPolicy = mock {
+            on { shouldFlush(any()) } doReturn true
         }
-        mockQuerySpecification = mock()
         mockChunker = mock()
         mockMerger = mock()
         mockRequestManager = mock()
         mockConnectionWatchDog = mock {
             on { isConnected } doReturn true
         }
+        mockCoreSdkHandler = mock()
     }
 
     @Test
     fun testRun_persistent_submitsCorrectRequestModels_toRequestManager() {
-        val (requestModel1, requestModel2, requestModel3) = setupMocks().requests
+        val (_, _, requestModels) = setupMocks()
+        val (requestModel1, requestModel2, requestModel3) = requestModels
 
         persistentTrigger().run()
 
@@ -65,7 +77,8 @@ class BatchingShardTriggerTest {
 
     @Test
     fun testRun_transient_submitsCorrectRequestModels_toRequestManager() {
-        val (requestModel1, requestModel2, requestModel3) = setupMocks().requests
+        val (_, _, requestModels) = setupMocks()
+        val (requestModel1, requestModel2, requestModel3) = requestModels
 
         transientTrigger().run()
 
@@ -78,33 +91,55 @@ class BatchingShardTriggerTest {
     }
 
     @Test
-    fun testRun_removesHandledShards_fromDatabase() {
-        val (shards, requests) = setupMocks()
+    fun testRun_removesHandledShards_fromDatabase_andFromPendingShardIndex() {
+        val (pending, shards, requests) = setupMocks()
         val (shard1, shard2, shard3) = shards
         val (requestModel1, requestModel2, requestModel3) = requests
 
         persistentTrigger().run()
 
-        inOrder(mockRequestManager, mockRepository).run {
-            this.verify(mockRepository).query(mockQuerySpecification)
+        inOrder(mockRequestManager, mockRepository, mockPendingShardIndex).run {
+            this.verify(mockPendingShardIndex).refresh()
+            this.verify(mockRepository).query(FilterByPendingShards(listOf(pending[0])))
             this.verify(mockRequestManager, Mockito.timeout(50)).submit(requestModel1, null)
             this.verify(mockRepository).remove(FilterByShardIds(listOf(shard1)))
+            this.verify(mockPendingShardIndex).remove(SHARD_TYPE, listOf(pending[0]))
+            this.verify(mockRepository).query(FilterByPendingShards(listOf(pending[1])))
             this.verify(mockRequestManager, Mockito.timeout(50)).submit(requestModel2, null)
             this.verify(mockRepository).remove(FilterByShardIds(listOf(shard2)))
+            this.verify(mockPendingShardIndex).remove(SHARD_TYPE, listOf(pending[1]))
+            this.verify(mockRepository).query(FilterByPendingShards(listOf(pending[2])))
             this.verify(mockRequestManager, Mockito.timeout(50)).submit(requestModel3, null)
             this.verify(mockRepository).remove(FilterByShardIds(listOf(shard3)))
-            this.verifyNoMoreInteractions()
+            this.verify(mockPendingShardIndex).remove(SHARD_TYPE, listOf(pending[2]))
         }
+        verifyNoMoreInteractions(mockRepository)
     }
 
     @Test
-    fun testRun_doesNothing_whenPredicateReturns_false() {
-        whenever(mockPredicate.evaluate(any())).thenReturn(false)
+    fun testRun_shouldOnlyForgetPendingShards_whenTheirRowsAreGone() {
+        val pendingShard = PendingShard("id1", 1, 10, 100)
+        pendingShards.add(pendingShard)
+        whenever(mockChunker.map(listOf(pendingShard))).thenReturn(listOf(listOf(pendingShard)))
+        whenever(mockRepository.query(FilterByPendingShards(listOf(pendingShard)))).thenReturn(listOf())
 
         anyTrigger().run()
 
-        verify(mockRepository).query(mockQuerySpecification)
-        verifyNoMoreInteractions(mockRepository)
+        verify(mockPendingShardIndex).remove(SHARD_TYPE, listOf(pendingShard))
+        verify(mockRepository, times(0)).remove(any())
+        verifyZeroInteractions(mockMerger)
+        verifyZeroInteractions(mockRequestManager)
+    }
+
+    @Test
+    fun testRun_doesNothing_whenFlushPolicyReturns_false() {
+        setupMocks()
+        whenever(mockFlushPolicy.shouldFlush(any())).thenReturn(false)
+
+        anyTrigger().run()
+
+        verify(mockFlushPolicy).shouldFlush(pendingShards)
+        verifyZeroInteractions(mockRepository)
         verifyZeroInteractions(mockChunker)
         verifyZeroInteractions(mockMerger)
         verifyZeroInteractions(mockRequestManager)
@@ -117,14 +152,104 @@ class BatchingShardTriggerTest {
         anyTrigger().run()
 
         verifyZeroInteractions(mockRepository)
+        verifyZeroInteractions(mockPendingShardIndex)
+    }
+
+    @Test
+    fun testRun_shouldNotRunAgain_whenInvokedFromItsOwnFlush() {
+        val (pending, _, _) = setupMocks()
+        val trigger = anyTrigger()
+        whenever(mockRepository.query(FilterByPendingShards(listOf(pending[0])))).thenAnswer {
+            trigger.run()
+            listOf<ShardModel>()
+        }
+
+        trigger.run()
+
+        verify(mockPendingShardIndex, times(1)).refresh()
+    }
+
+    @Test
+    fun testRun_shouldSubmitOneRequestPerSplitGroup() {
+        val (pending, shards, _) = setupMocks()
+        val chunk = listOf(pending[0], pending[1])
+        val group1 = listOf(shards[0])
+        val group2 = listOf(shards[1])
+        val requestModel1 = mock<RequestModel>()
+        val requestModel2 = mock<RequestModel>()
+        val mockSplitter = mock<Mapper<List<ShardModel>, List<List<ShardModel>>>>()
+        whenever(mockChunker.map(pending)).thenReturn(listOf(chunk))
+        whenever(mockRepository.query(FilterByPendingShards(chunk))).thenReturn(listOf(shards[1], shards[0]))
+        whenever(mockSplitter.map(listOf(shards[0], shards[1]))).thenReturn(listOf(group1, group2))
+        whenever(mockMerger.map(group1)).thenReturn(requestModel1)
+        whenever(mockMerger.map(group2)).thenReturn(requestModel2)
+
+        trigger(PERSISTENT, mockSplitter).run()
+
+        inOrder(mockRequestManager, mockRepository).run {
+            verify(mockRequestManager).submit(requestModel1, null)
+            verify(mockRequestManager).submit(requestModel2, null)
+            verify(mockRepository).remove(FilterByShardIds(listOf(shards[0], shards[1])))
+        }
+    }
+
+    @Test
+    fun testRun_shouldScheduleFlush_whenFlushPolicyHasADeadline() {
+        setupMocks()
+        whenever(mockFlushPolicy.shouldFlush(any())).thenReturn(false)
+        whenever(mockFlushPolicy.millisUntilFlush(any())).thenReturn(500L)
+        val trigger = anyTrigger()
+
+        trigger.run()
+        trigger.run()
+
+        argumentCaptor<Runnable>().apply {
+            verify(mockCoreSdkHandler, times(1)).postDelayed(capture(), eq(500L))
+            whenever(mockFlushPolicy.shouldFlush(any())).thenReturn(true)
+
+            firstValue.run()
+        }
+        verify(mockRequestManager, times(3)).submit(any(), eq(null))
+    }
+
+    @Test
+    fun testRun_shouldNotScheduleFlush_withoutDeadline() {
+        setupMocks()
+        whenever(mockFlushPolicy.shouldFlush(any())).thenReturn(false)
+
+        anyTrigger().run()
+
+        verifyZeroInteractions(mockCoreSdkHandler)
+    }
+
+    @Test
+    fun testFlush_shouldIgnoreFlushPolicy() {
+        val (_, _, requestModels) = setupMocks()
+        whenever(mockFlushPolicy.shouldFlush(any())).thenReturn(false)
+
+        anyTrigger().flush()
+
+        requestModels.forEach {
+            verify(mockRequestManager).submit(it, null)
+        }
+    }
+
+    @Test
+    fun testFlush_shouldDoNothing_withoutPendingShards() {
+        anyTrigger().flush()
+
+        verifyZeroInteractions(mockChunker)
+        verifyZeroInteractions(mockRepository)
+        verifyZeroInteractions(mockRequestManager)
     }
 
     private fun setupMocks(): MockObjects {
-        val shard1 = mock<ShardModel>()
-        val shard2 = mock<ShardModel>()
-        val shard3 = mock<ShardModel>()
+        val pending = (1..3).map { PendingShard("id$it", it.toLong(), 10, 100) }
+        pending.forEach { pendingShards.add(it) }
 
-        val shards = listOf(shard1, shard2, shard3)
+        val shards = pending.map {
+            mock<ShardModel> { on { id } doReturn it.id }
+        }
 
         val requestModel1 = mock<RequestModel>()
         val requestModel2 = mock<RequestModel>()
@@ -132,20 +257,19 @@ class BatchingShardTriggerTest {
 
         val requestModels = listOf(requestModel1, requestModel2, requestModel3)
 
-        val chunkedShards = shards.map { listOf(it) }
+        val chunkedPendingShards = pending.map { listOf(it) }
 
-        whenever(mockRepository.query(mockQuerySpecification)).thenReturn(shards)
+        whenever(mockChunker.map(pending)).thenReturn(chunkedPendingShards)
 
-        whenever(mockChunker.map(shards)).thenReturn(chunkedShards)
-
-        chunkedShards.forEachIndexed { i, chunkedShardList ->
-            whenever(mockMerger.map(chunkedShardList)).thenReturn(requestModels[i])
+        chunkedPendingShards.forEachIndexed { i, chunk ->
+            whenever(mockRepository.query(FilterByPendingShards(chunk))).thenReturn(listOf(shards[i]))
+            whenever(mockMerger.map(listOf(shards[i]))).thenReturn(requestModels[i])
         }
 
-        return MockObjects(shards, requestModels)
+        return MockObjects(pending, shards, requestModels)
     }
 
-    private data class MockObjects(val shards: List<ShardModel>, val requests: List<RequestModel>)
+    private data class MockObjects(val pendingShards: List<PendingShard>, val shards: List<ShardModel>, val requests: List<RequestModel>)
 
     private fun persistentTrigger() = trigger(PERSISTENT)
 
@@ -155,13 +279,31 @@ class BatchingShardTriggerTest {
 
     private fun trigger(requestStrategy: BatchingShardTrigger.RequestStrategy) = BatchingShardTrigger(
             mockRepository,
-            mockPredicate,
-            mockQuerySpecification,
+            mockPendingShardIndex,
+            SHARD_TYPE,
+            mockFlushPolicy,
+            mockChunker,
+            mockMerger,
+            mockRequestManager,
+            requestStrategy,
+            mockConnectionWatchDog,
+            mockCoreSdkHandler
+    )
+
+    private fun trigger(
+            requestStrategy: BatchingShardTrigger.RequestStrategy,
+            splitter: Mapper<List<ShardModel>, List<List<ShardModel>>>) = BatchingShardTrigger(
+            mockRepository,
+            mockPendingShardIndex,
+            SHARD_TYPE,
+            mockFlushPolicy,
             mockChunker,
             mockMerger,
             mockRequestManager,
             requestStrategy,
-            mockConnectionWatchDog
+            mockConnectionWatchDog,
+            mockCoreSdkHandler,
+            splitter
     )
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+
+class MaxAgeFlushPolicyTest {
+
+    private lateinit var mockTimestampProvider: TimestampProvider
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        mockTimestampProvider = mock {
+            on { provideTimestamp() } doReturn 1000L
+        }
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxAge_mustNotBeNegative() {
+        MaxAgeFlushPolicy(-1, mockTimestampProvider)
+    }
+
+    @Test
+    fun testShouldFlush_whenEmpty_shouldBeFalse() {
+        MaxAgeFlushPolicy(0, mockTimestampProvider).shouldFlush(PendingShards()) shouldBe false
+    }
+
+    @Test
+    fun testShouldFlush_shouldCheckTheOldestShard() {
+        val pendingShards = PendingShards()
+        pendingShards.add(PendingShard("id1", 1, 10, 600))
+        pendingShards.add(PendingShard("id2", 2, 10, 900))
+
+        MaxAgeFlushPolicy(500, mockTimestampProvider).shouldFlush(pendingShards) shouldBe false
+        MaxAgeFlushPolicy(400, mockTimestampProvider).shouldFlush(pendingShards) shouldBe true
+    }
+
+    @Test
+    fun testMillisUntilFlush() {
+        val pendingShards = PendingShards()
+        val policy = MaxAgeFlushPolicy(500, mockTimestampProvider)
+
+        policy.millisUntilFlush(pendingShards) shouldBe null
+        pendingShards.add(PendingShard("id1", 1, 10, 700))
+        policy.millisUntilFlush(pendingShards) shouldBe 200L
+        MaxAgeFlushPolicy(100, mockTimestampProvider).millisUntilFlush(pendingShards) shouldBe 0L
+    }
+}
@@ -0,0 +1,32 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class MaxBytesFlushPolicyTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxBytes_mustBePositive() {
+        MaxBytesFlushPolicy(0)
+    }
+
+    @Test
+    fun testShouldFlush() {
+        val pendingShards = PendingShards()
+        val policy = MaxBytesFlushPolicy(100)
+
+        pendingShards.add(PendingShard("id1", 1, 60, 100))
+        policy.shouldFlush(pendingShards) shouldBe false
+        pendingShards.add(PendingShard("id2", 2, 40, 100))
+        policy.shouldFlush(pendingShards) shouldBe true
+        pendingShards.remove(listOf(PendingShard("id1", 1, 60, 100)))
+        policy.shouldFlush(pendingShards) shouldBe false
+    }
+}
@@ -0,0 +1,31 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class MaxCountFlushPolicyTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxCount_mustBePositive() {
+        MaxCountFlushPolicy(0)
+    }
+
+    @Test
+    fun testShouldFlush() {
+        val pendingShards = PendingShards()
+        val policy = MaxCountFlushPolicy(2)
+
+        policy.shouldFlush(pendingShards) shouldBe false
+        pendingShards.add(PendingShard("id1", 1, 10, 100))
+        policy.shouldFlush(pendingShards) shouldBe false
+        pendingShards.add(PendingShard("id2", 2, 10, 100))
+        policy.shouldFlush(pendingShards) shouldBe true
+    }
+}
@@ -0,0 +1,47 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.core.connection.ConnectionWatchDog
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+
+class NetworkAwareFlushPolicyTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private val unmeteredPolicy = mock<FlushPolicy> {
+        on { shouldFlush(any()) } doReturn true
+        on { millisUntilFlush(any()) } doReturn 100L
+    }
+    private val meteredPolicy = mock<FlushPolicy> {
+        on { shouldFlush(any()) } doReturn false
+        on { millisUntilFlush(any()) } doReturn 60_000L
+    }
+
+    @Test
+    fun testShouldUseUnmeteredPolicy_onUnmeteredNetwork() {
+        val policy = NetworkAwareFlushPolicy(unmeteredPolicy, meteredPolicy, connectionWatchDog(false))
+
+        policy.shouldFlush(PendingShards()) shouldBe true
+        policy.millisUntilFlush(PendingShards()) shouldBe 100L
+    }
+
+    @Test
+    fun testShouldUseMeteredPolicy_onMeteredNetwork() {
+        val policy = NetworkAwareFlushPolicy(unmeteredPolicy, meteredPolicy, connectionWatchDog(true))
+
+        policy.shouldFlush(PendingShards()) shouldBe false
+        policy.millisUntilFlush(PendingShards()) shouldBe 60_000L
+    }
+
+    private fun connectionWatchDog(metered: Boolean) = mock<ConnectionWatchDog> {
+        on { isMetered } doReturn metered
+    }
+}
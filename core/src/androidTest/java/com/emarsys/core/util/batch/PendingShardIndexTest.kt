@@ -0,0 +1,148 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.shard.ShardModel
+import com.emarsys.core.shard.ShardModelRepository
+import com.emarsys.core.shard.specification.FilterByShardIds
+import com.emarsys.core.util.serialization.CompactBinaryCodec
+import com.emarsys.testUtil.DatabaseTestUtils
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class PendingShardIndexTest {
+
+    private companion object {
+        const val LOG = "log_%"
+        const val PREDICT = "predict_%"
+    }
+
+    private lateinit var shardModelRepository: ShardModelRepository
+    private lateinit var pendingShardIndex: PendingShardIndex
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        DatabaseTestUtils.deleteCoreDatabase()
+        val coreDbHelper = CoreDbHelper(InstrumentationRegistry.getTargetContext().applicationContext, mapOf())
+        shardModelRepository = ShardModelRepository(coreDbHelper)
+        pendingShardIndex = PendingShardIndex(coreDbHelper, listOf(LOG, PREDICT))
+    }
+
+    @Test
+    fun testRefresh_shouldTrackShardsPerType_inInsertionOrder() {
+        val log1 = shard("log1", "log_crash", 10)
+        val predict1 = shard("predict1", "predict_item_view", 20)
+        val log2 = shard("log2", "log_crash", 30)
+        shardModelRepository.addAll(listOf(log1, predict1, log2))
+
+        pendingShardIndex.refresh()
+
+        with(pendingShardIndex.pendingShardsOf(LOG)) {
+            toList().map { it.id } shouldBe listOf("log1", "log2")
+            count shouldBe 2
+            oldestTimestamp shouldBe 10L
+            totalBytes shouldBe sizeOf(log1) + sizeOf(log2)
+        }
+        pendingShardIndex.pendingShardsOf(PREDICT).toList().map { it.id } shouldBe listOf("predict1")
+    }
+
+    @Test
+    fun testRefresh_shouldOnlyAddNewShards() {
+        shardModelRepository.add(shard("log1", "log_crash", 10))
+        pendingShardIndex.refresh()
+        shardModelRepository.add(shard("log2", "log_crash", 20))
+
+        pendingShardIndex.refresh()
+        pendingShardIndex.refresh()
+
+        pendingShardIndex.pendingShardsOf(LOG).toList().map { it.id } shouldBe listOf("log1", "log2")
+    }
+
+    @Test
+    fun testRemove_shouldForgetShards() {
+        shardModelRepository.addAll(listOf(shard("log1", "log_crash", 10), shard("log2", "log_crash", 20)))
+        pendingShardIndex.refresh()
+        val pendingShards = pendingShardIndex.pendingShardsOf(LOG)
+        val first = pendingShards.toList().take(1)
+
+        pendingShardIndex.remove(LOG, first)
+
+        pendingShards.toList().map { it.id } shouldBe listOf("log2")
+        pendingShards.oldestTimestamp shouldBe 20L
+    }
+
+    @Test
+    fun testRefresh_shouldFindShards_insertedWithReusedRowIds() {
+        val log1 = shard("log1", "log_crash", 10)
+        val predict1 = shard("predict1", "predict_item_view", 20)
+        shardModelRepository.addAll(listOf(log1, predict1))
+        pendingShardIndex.refresh()
+
+        shardModelRepository.remove(FilterByShardIds(listOf(predict1)))
+        pendingShardIndex.remove(PREDICT, pendingShardIndex.pendingShardsOf(PREDICT).toList())
+        shardModelRepository.remove(FilterByShardIds(listOf(log1)))
+        pendingShardIndex.remove(LOG, pendingShardIndex.pendingShardsOf(LOG).toList())
+
+        shardModelRepository.add(shard("log2", "log_crash", 30))
+        pendingShardIndex.refresh()
+
+        pendingShardIndex.pendingShardsOf(LOG).toList().map { it.id } shouldBe listOf("log2")
+        pendingShardIndex.pendingShardsOf(PREDICT).isEmpty() shouldBe true
+    }
+
+    @Test
+    fun testOnShardsDeleted_shouldForgetDeletedShards_andFindReusedRowIds() {
+        shardModelRepository.addAll(listOf(
+                shard("log1", "log_crash", 10),
+                shard("predict1", "predict_item_view", 20),
+                shard("log2", "log_crash", 30)))
+        pendingShardIndex.refresh()
+        val logRowIds = pendingShardIndex.pendingShardsOf(LOG).toList().map { it.rowId }
+        val predictRowIds = pendingShardIndex.pendingShardsOf(PREDICT).toList().map { it.rowId }
+
+        shardModelRepository.remove(FilterByShardIds(listOf(shard("log1", "log_crash", 10), shard("predict1", "predict_item_view", 20))))
+        pendingShardIndex.onShardsDeleted(listOf(logRowIds[0], predictRowIds[0]))
+
+        pendingShardIndex.pendingShardsOf(LOG).toList().map { it.id } shouldBe listOf("log2")
+        pendingShardIndex.pendingShardsOf(PREDICT).isEmpty() shouldBe true
+
+        shardModelRepository.remove(FilterByShardIds(listOf(shard("log2", "log_crash", 30))))
+        pendingShardIndex.onShardsDeleted(listOf(logRowIds[1]))
+        shardModelRepository.add(shard("log3", "log_crash", 40))
+        pendingShardIndex.refresh()
+
+        pendingShardIndex.pendingShardsOf(LOG).toList().map { it.id } shouldBe listOf("log3")
+    }
+
+    @Test
+    fun testRefresh_shouldMatchShardTypes_likeFilterByShardType() {
+        shardModelRepository.addAll(listOf(
+                shard("log1", "log_crash", 10),
+                shard("log2", "LOG_app_start", 20),
+                shard("other1", "log", 30),
+                shard("other2", "something_log_crash", 40)))
+
+        pendingShardIndex.refresh()
+
+        pendingShardIndex.pendingShardsOf(LOG).toList().map { it.id } shouldBe listOf("log1", "log2")
+        pendingShardIndex.pendingShardsOf(PREDICT).isEmpty() shouldBe true
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testPendingShardsOf_unknownType() {
+        pendingShardIndex.pendingShardsOf("unknown_%")
+    }
+
+    private fun shard(id: String, type: String, timestamp: Long) =
+            ShardModel(id, type, mapOf("key" to id), timestamp, Long.MAX_VALUE)
+
+    private fun sizeOf(shard: ShardModel) = CompactBinaryCodec.encode(shard.data).size.toLong()
+}
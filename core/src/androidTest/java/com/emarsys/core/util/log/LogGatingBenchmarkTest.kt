@@ -0,0 +1,115 @@
+package com.emarsys.core.util.log
+
+import android.util.Log
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider
+import com.emarsys.core.di.FakeCoreDependencyContainer
+import com.emarsys.core.di.setupCoreComponent
+import com.emarsys.core.di.tearDownCoreComponent
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.response.ResponseModel
+import com.emarsys.core.storage.Storage
+import com.emarsys.core.util.log.entry.RequestLog
+import com.emarsys.testUtil.InstrumentationRegistry
+import com.emarsys.testUtil.TimeoutUtils
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import java.util.concurrent.CountDownLatch
+
+/**
+ * Measures the cost the request path pays for the debug [RequestLog] of every response when the
+ * remote log level drops it, with the entry built eagerly and with the supplier variant of
+ * [Logger.debug]. Results are written to logcat under the [TAG] tag.
+ */
+class LogGatingBenchmarkTest {
+
+    private companion object {
+        const val TAG = "LogGatingBench"
+        const val CALL_COUNT = 10_000
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.longTimeoutRule
+
+    private lateinit var coreSdkHandler: CoreSdkHandler
+    private lateinit var responseModel: ResponseModel
+
+    @Before
+    fun setUp() {
+        coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
+        val mockLogLevelStorage: Storage<String?> = mock()
+        whenever(mockLogLevelStorage.get()).thenReturn("ERROR")
+        val logger = Logger(
+                coreSdkHandler,
+                mock(),
+                TimestampProvider(),
+                UUIDProvider(),
+                mockLogLevelStorage,
+                false,
+                InstrumentationRegistry.getTargetContext()
+        )
+        setupCoreComponent(FakeCoreDependencyContainer(coreSdkHandler = coreSdkHandler, logger = logger))
+
+        val requestModel = RequestModel.Builder(TimestampProvider(), UUIDProvider())
+                .url("https://emarsys.com/v3/apps/EMS11-C3FD3/client/events")
+                .headers(mapOf("X-Client-State" to "a".repeat(256), "X-Contact-Token" to "b".repeat(512)))
+                .payload(mapOf("events" to List(20) { mapOf("type" to "custom", "name" to "event$it", "attributes" to mapOf("key" to "value$it")) }))
+                .build()
+        responseModel = ResponseModel.Builder()
+                .statusCode(200)
+                .message("OK")
+                .body("{}")
+                .requestModel(requestModel)
+                .build()
+    }
+
+    @After
+    fun tearDown() {
+        coreSdkHandler.looper.quitSafely()
+        tearDownCoreComponent()
+    }
+
+    @Test
+    fun testBenchmark_eagerEntry() {
+        measure("eager entry") {
+            Logger.debug(RequestLog(responseModel, 0L, responseModel.requestModel))
+        }
+    }
+
+    @Test
+    fun testBenchmark_suppliedEntry() {
+        measure("supplied entry") {
+            Logger.debug { RequestLog(responseModel, 0L, responseModel.requestModel) }
+        }
+    }
+
+    private fun measure(name: String, log: () -> Unit) {
+        val callStart = System.nanoTime()
+        repeat(CALL_COUNT) {
+            log()
+        }
+        val callNanos = (System.nanoTime() - callStart) / CALL_COUNT
+
+        val drainStart = System.nanoTime()
+        waitForCoreSdkThread()
+        val drainMillis = (System.nanoTime() - drainStart) / 1_000_000
+
+        Log.i(TAG, "$name: $callNanos ns/call on the request thread, $drainMillis ms to drain the core SDK thread")
+    }
+
+    private fun waitForCoreSdkThread() {
+        val latch = CountDownLatch(1)
+        coreSdkHandler.post {
+            latch.countDown()
+        }
+        latch.await()
+    }
+}
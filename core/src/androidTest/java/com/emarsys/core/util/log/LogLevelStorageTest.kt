@@ -0,0 +1,71 @@
+package com.emarsys.core.util.log
+
+import com.emarsys.core.storage.Storage
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+class LogLevelStorageTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockStorage: Storage<String?>
+    private lateinit var logLevelStorage: LogLevelStorage
+
+    @Before
+    fun setUp() {
+        mockStorage = mock()
+        logLevelStorage = LogLevelStorage(mockStorage)
+    }
+
+    @Test
+    fun testLogLevel_shouldBeError_whenNothingIsStored() {
+        logLevelStorage.logLevel shouldBe LogLevel.ERROR
+    }
+
+    @Test
+    fun testLogLevel_shouldBeError_whenStoredValueIsInvalid() {
+        whenever(mockStorage.get()).thenReturn("invalid")
+
+        logLevelStorage.logLevel shouldBe LogLevel.ERROR
+    }
+
+    @Test
+    fun testLogLevel_shouldReadTheDelegateOnlyOnce() {
+        whenever(mockStorage.get()).thenReturn("DEBUG")
+
+        logLevelStorage.logLevel shouldBe LogLevel.DEBUG
+        logLevelStorage.logLevel shouldBe LogLevel.DEBUG
+
+        verify(mockStorage, times(1)).get()
+    }
+
+    @Test
+    fun testSet_shouldUpdateTheDelegate_andTheLogLevel() {
+        logLevelStorage.logLevel shouldBe LogLevel.ERROR
+
+        logLevelStorage.set("INFO")
+
+        verify(mockStorage).set("INFO")
+        logLevelStorage.logLevel shouldBe LogLevel.INFO
+    }
+
+    @Test
+    fun testRemove_shouldUpdateTheDelegate_andResetTheLogLevel() {
+        logLevelStorage.set("TRACE")
+
+        logLevelStorage.remove()
+
+        verify(mockStorage).remove()
+        logLevelStorage.logLevel shouldBe LogLevel.ERROR
+    }
+}
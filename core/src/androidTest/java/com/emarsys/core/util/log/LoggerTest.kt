@@ -236,6 +236,50 @@ class LoggerTest {
         verify(shardRepositoryMock, times(1)).add(any())
     }
 
+    @Test
+    fun testIsLoggable_shouldCompareWithTheStoredLogLevel() {
+        whenever(mockLogLevelStorage.get()).thenReturn("INFO")
+
+        loggerInstance.isLoggable(LogLevel.DEBUG) shouldBe false
+        loggerInstance.isLoggable(LogLevel.INFO) shouldBe true
+        loggerInstance.isLoggable(LogLevel.ERROR) shouldBe true
+    }
+
+    @Test
+    fun testIsLoggable_shouldMatchTheStoredLogLevelExactly_whenStrict() {
+        whenever(mockLogLevelStorage.get()).thenReturn("INFO")
+
+        loggerInstance.isLoggable(LogLevel.INFO, strict = true) shouldBe true
+        loggerInstance.isLoggable(LogLevel.ERROR, strict = true) shouldBe false
+    }
+
+    @Test
+    fun testIsLoggable_shouldDefaultToError_whenNothingIsStored() {
+        loggerInstance.isLoggable(LogLevel.WARN) shouldBe false
+        loggerInstance.isLoggable(LogLevel.ERROR) shouldBe true
+    }
+
+    @Test
+    fun testDebug_withSupplier_shouldNotBuildTheEntry_whenNotLoggable() {
+        whenever(loggerMock.isLoggable(LogLevel.DEBUG, false)).thenReturn(false)
+        val mockSupplier: () -> LogEntry = mock()
+
+        Logger.debug(logEntry = mockSupplier)
+
+        verifyZeroInteractions(mockSupplier)
+        verify(loggerMock, times(0)).handleLog(any(), any(), anyOrNull())
+    }
+
+    @Test
+    fun testInfo_withSupplier_shouldDelegateToInstance_whenLoggable() {
+        whenever(loggerMock.isLoggable(LogLevel.INFO, true)).thenReturn(true)
+        val logEntry = logEntryMock()
+
+        Logger.info(strict = true) { logEntry }
+
+        verify(loggerMock).handleLog(LogLevel.INFO, logEntry)
+    }
+
     private fun logEntryMock(testTopic: String = "", testData: Map<String, Any?> = mapOf()) =
         mock<LogEntry> {
             on { data }.doReturn(testData)
@@ -1,5 +1,6 @@
 package com.emarsys.core.util.log.entry
 
+import com.emarsys.core.request.model.RequestPriority
 import com.emarsys.testUtil.TimeoutUtils
 import io.kotlintest.shouldBe
 import org.junit.Rule
@@ -25,4 +26,14 @@ class OfflineQueueSizeTest {
 
         result.data shouldBe mapOf("queueSize" to 3)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testData_withLaneSizes() {
+        val result = OfflineQueueSize(3, mapOf(RequestPriority.HIGH to 1, RequestPriority.LOW to 2))
+
+        result.data shouldBe mapOf(
+                "queueSize" to 3,
+                "laneSizes" to mapOf("high" to 1, "low" to 2)
+        )
+    }
+}
@@ -0,0 +1,42 @@
+package com.emarsys.core.util.log.entry
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class QueueDrainLogTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testTopic() {
+        val result = QueueDrainLog(0, 0, 0, 1)
+
+        result.topic shouldBe "log_queue_drain"
+    }
+
+    @Test
+    fun testData() {
+        val result = QueueDrainLog(10, 1000, 3000, 4)
+
+        result.data shouldBe mapOf(
+                "requestCount" to 10,
+                "drainStart" to 1000L,
+                "drainEnd" to 3000L,
+                "drainDuration" to 2000L,
+                "requestsPerSecond" to 5.0,
+                "maxInFlightRequestsPerHost" to 4
+        )
+    }
+
+    @Test
+    fun testData_withPartition() {
+        val result = QueueDrainLog(10, 1000, 3000, 4, "https://mobile-events.eservice.emarsys.net")
+
+        result.data["partition"] shouldBe "https://mobile-events.eservice.emarsys.net"
+    }
+}
@@ -0,0 +1,33 @@
+package com.emarsys.core.util.log.entry
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class QueueEvictionLogTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testTopic() {
+        QueueEvictionLog(0, 0, 0, 0, 0, 0).topic shouldBe "log_queue_eviction"
+    }
+
+    @Test
+    fun testData() {
+        val result = QueueEvictionLog(1, 2, 3, 4, 5, 6)
+
+        result.data shouldBe mapOf(
+                "expiredRequestCount" to 1,
+                "expiredShardCount" to 2,
+                "evictedRequestCount" to 3,
+                "evictedShardCount" to 4,
+                "rowCount" to 5L,
+                "byteCount" to 6L
+        )
+    }
+}
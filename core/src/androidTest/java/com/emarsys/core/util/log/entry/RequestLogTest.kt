@@ -1,5 +1,7 @@
 package com.emarsys.core.util.log.entry
 
+import com.emarsys.core.connection.ConnectionMetrics
+import com.emarsys.core.connection.PayloadMetrics
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.response.ResponseModel
 import com.emarsys.testUtil.TimeoutUtils
@@ -95,4 +97,51 @@ class RequestLogTest {
 
         data shouldBe expected
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testDataWithConnectionMetrics() {
+        val expected = mapOf(
+                "requestId" to "testId",
+                "url" to URL("https://emarsys.com"),
+                "statusCode" to 200,
+                "inDbStart" to 1L,
+                "inDbEnd" to 3L,
+                "inDbDuration" to 2L,
+                "networkingStart" to 3L,
+                "networkingEnd" to 6L,
+                "networkingDuration" to 3L,
+                "connectDuration" to 2L,
+                "handshakeCount" to 1
+        )
+
+        requestLog = RequestLog(mockResponseModel, IN_DATABASE_TIME_END, connectionMetrics = ConnectionMetrics(2L, 1))
+
+        val data = requestLog.data
+
+        data shouldBe expected
+    }
+
+    @Test
+    fun testDataWithPayloadMetrics() {
+        val expected = mapOf(
+                "requestId" to "testId",
+                "url" to URL("https://emarsys.com"),
+                "statusCode" to 200,
+                "inDbStart" to 1L,
+                "inDbEnd" to 3L,
+                "inDbDuration" to 2L,
+                "networkingStart" to 3L,
+                "networkingEnd" to 6L,
+                "networkingDuration" to 3L,
+                "payloadSize" to 2048,
+                "transferredPayloadSize" to 512,
+                "bytesSaved" to 1536
+        )
+
+        requestLog = RequestLog(mockResponseModel, IN_DATABASE_TIME_END, payloadMetrics = PayloadMetrics(2048, 512))
+
+        val data = requestLog.data
+
+        data shouldBe expected
+    }
+}
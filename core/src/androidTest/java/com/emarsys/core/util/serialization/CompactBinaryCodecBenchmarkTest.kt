@@ -0,0 +1,90 @@
+package com.emarsys.core.util.serialization
+
+import android.util.Log
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.net.URL
+
+/**
+ * Compares encode/decode time and row size of [CompactBinaryCodec] against Java serialization
+ * for typical event request, log shard and predict shard blobs. Results are written to logcat
+ * under the [TAG] tag.
+ */
+class CompactBinaryCodecBenchmarkTest {
+
+    private companion object {
+        const val TAG = "CompactCodecBench"
+        const val WARMUP_ITERATIONS = 20
+        const val ITERATIONS = 200
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testBenchmark_eventRequestPayload() {
+        benchmark("event", mapOf(
+                "clicks" to listOf<Any>(),
+                "viewedMessages" to listOf<Any>(),
+                "events" to (0 until 20).map {
+                    mapOf(
+                            "type" to "custom",
+                            "name" to "event$it",
+                            "timestamp" to "2021-07-01T12:00:00.000Z",
+                            "attributes" to mapOf("key" to "value$it")
+                    )
+                }
+        ))
+    }
+
+    @Test
+    fun testBenchmark_logShard() {
+        benchmark("log", mapOf(
+                "requestId" to "d5f1c5a4-2b7e-4d0a-9d6f-1d2c3b4a5f6e",
+                "url" to URL("https://me-client.eservice.emarsys.net/v3/apps/EMS11-C3FD3/client/events"),
+                "statusCode" to 200,
+                "inDbStart" to 1625140800000L,
+                "inDbEnd" to 1625140800120L,
+                "inDbDuration" to 120L,
+                "networkingStart" to 1625140800120L,
+                "networkingEnd" to 1625140800480L,
+                "networkingDuration" to 360L,
+                "level" to "INFO",
+                "thread" to "CoreSDKHandlerThread"
+        ))
+    }
+
+    @Test
+    fun testBenchmark_predictShard() {
+        benchmark("predict", mapOf(
+                "v" to "i:item-1234567,p:19.99,q:2.0|i:item-7654321,p:5.0,q:1.0",
+                "ci" to "1428C8EE286EC34B"
+        ))
+    }
+
+    private fun benchmark(name: String, value: Map<String, Any>) {
+        val compact = CompactBinaryCodec.encode(value)
+        val legacy = SerializationUtils.serializableToBlob(value)
+
+        CompactBinaryCodec.decode(compact) shouldBe value
+
+        val compactEncode = measure { CompactBinaryCodec.encode(value) }
+        val compactDecode = measure { CompactBinaryCodec.decode(compact) }
+        val legacyEncode = measure { SerializationUtils.serializableToBlob(value) }
+        val legacyDecode = measure { SerializationUtils.blobToSerializable(legacy) }
+
+        Log.i(TAG, "$name compact: ${compact.size} bytes, encode ${compactEncode / 1000} us/op, decode ${compactDecode / 1000} us/op")
+        Log.i(TAG, "$name java serialization: ${legacy.size} bytes, encode ${legacyEncode / 1000} us/op, decode ${legacyDecode / 1000} us/op")
+    }
+
+    private fun measure(block: () -> Any?): Long {
+        repeat(WARMUP_ITERATIONS) { block() }
+        val start = System.nanoTime()
+        repeat(ITERATIONS) { block() }
+        return (System.nanoTime() - start) / ITERATIONS
+    }
+}
@@ -0,0 +1,108 @@
+package com.emarsys.core.util.serialization
+
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.net.URL
+
+class CompactBinaryCodecTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testEncode_shouldStartWithFormatMarker() {
+        val blob = CompactBinaryCodec.encode(mapOf<String, Any>())
+
+        blob[0] shouldBe 0x45.toByte()
+        blob[1] shouldBe 0x4D.toByte()
+        blob[2] shouldBe CompactBinaryCodec.VERSION
+    }
+
+    @Test
+    fun testRoundTrip_primitives() {
+        val value = mapOf(
+                "string" to "árvíztűrő tükörfúrógép",
+                "emptyString" to "",
+                "int" to Int.MIN_VALUE,
+                "negativeInt" to -1,
+                "long" to Long.MAX_VALUE,
+                "double" to 3.14,
+                "float" to 2.5f,
+                "true" to true,
+                "false" to false,
+                "null" to null
+        )
+
+        CompactBinaryCodec.decode(CompactBinaryCodec.encode(value)) shouldBe value
+    }
+
+    @Test
+    fun testRoundTrip_nestedStructures() {
+        val value = mapOf(
+                "events" to listOf(
+                        mapOf("type" to "custom", "name" to "event", "attributes" to mapOf("key" to "value")),
+                        mapOf("type" to "internal", "timestamp" to 1234L)
+                ),
+                "nestedList" to listOf(listOf(1, 2), listOf<Any>(), listOf(null))
+        )
+
+        CompactBinaryCodec.decode(CompactBinaryCodec.encode(value)) shouldBe value
+    }
+
+    @Test
+    fun testRoundTrip_shouldKeepMapOrder() {
+        val value = linkedMapOf("c" to 1, "a" to 2, "b" to 3)
+
+        val result = CompactBinaryCodec.decode(CompactBinaryCodec.encode(value)) as Map<*, *>
+
+        result.keys.toList() shouldBe listOf("c", "a", "b")
+    }
+
+    @Test
+    fun testRoundTrip_shouldFallBackToJavaSerialization_forOtherSerializableValues() {
+        val value = mapOf("url" to URL("https://emarsys.com"))
+
+        CompactBinaryCodec.decode(CompactBinaryCodec.encode(value)) shouldBe value
+    }
+
+    @Test
+    fun testRoundTrip_null() {
+        CompactBinaryCodec.decode(CompactBinaryCodec.encode(null)) shouldBe null
+    }
+
+    @Test
+    fun testDecode_shouldReadLegacyJavaSerializationBlobs() {
+        val value = hashMapOf("key1" to "value1", "key2" to 2)
+
+        CompactBinaryCodec.decode(SerializationUtils.serializableToBlob(value)) shouldBe value
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_shouldThrowException_whenBlobIsNull() {
+        CompactBinaryCodec.decode(null)
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_shouldThrowException_whenFormatIsUnknown() {
+        CompactBinaryCodec.decode(byteArrayOf(1, 2, 3))
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_shouldThrowException_whenVersionIsUnknown() {
+        val blob = CompactBinaryCodec.encode(mapOf("key" to "value"))
+        blob[2] = (CompactBinaryCodec.VERSION + 1).toByte()
+
+        CompactBinaryCodec.decode(blob)
+    }
+
+    @Test(expected = SerializationException::class)
+    fun testDecode_shouldThrowException_whenBlobIsTruncated() {
+        val blob = CompactBinaryCodec.encode(mapOf("key" to "value"))
+
+        CompactBinaryCodec.decode(blob.copyOf(blob.size - 2))
+    }
+}
@@ -0,0 +1,83 @@
+package com.emarsys.core.util.serialization
+
+import android.os.Debug
+import android.util.Log
+import com.emarsys.core.util.JsonUtils
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.io.ByteArrayOutputStream
+
+/**
+ * Compares time and allocations of [JsonStreamWriter] against the `JsonUtils.fromMap(...).toString()`
+ * path for a composite event payload. Results are written to logcat under the [TAG] tag.
+ */
+class JsonStreamWriterBenchmarkTest {
+
+    private companion object {
+        const val TAG = "JsonStreamWriterBench"
+        const val EVENT_COUNT = 500
+        const val WARMUP_ITERATIONS = 10
+        const val ITERATIONS = 50
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testBenchmark_compositeEventPayload() {
+        val payload = createCompositePayload()
+
+        val streamed = measure("JsonStreamWriter") {
+            val outputStream = ByteArrayOutputStream(1024)
+            JsonStreamWriter(outputStream).writeMap(payload)
+            outputStream.toByteArray()
+        }
+        val tree = measure("JsonUtils.fromMap") {
+            JsonUtils.fromMap(payload).toString().toByteArray(Charsets.UTF_8)
+        }
+
+        streamed.contentEquals(tree) shouldBe true
+    }
+
+    @Suppress("DEPRECATION")
+    private fun measure(name: String, block: () -> ByteArray): ByteArray {
+        var result = ByteArray(0)
+        repeat(WARMUP_ITERATIONS) { result = block() }
+
+        Debug.resetThreadAllocCount()
+        Debug.startAllocCounting()
+        val start = System.nanoTime()
+        repeat(ITERATIONS) { result = block() }
+        val duration = System.nanoTime() - start
+        Debug.stopAllocCounting()
+
+        Log.i(TAG, "$name: ${duration / ITERATIONS / 1000} us/op, " +
+                "${Debug.getThreadAllocSize() / ITERATIONS} bytes/op, " +
+                "${Debug.getThreadAllocCount() / ITERATIONS} allocations/op, " +
+                "${result.size} bytes output")
+        return result
+    }
+
+    private fun createCompositePayload(): Map<String, Any> {
+        val events = (0 until EVENT_COUNT).map {
+            mapOf(
+                    "type" to "custom",
+                    "name" to "event$it",
+                    "timestamp" to "2021-07-01T12:00:00.${it % 1000}Z",
+                    "attributes" to mapOf(
+                            "index" to it.toString(),
+                            "url" to "https://emarsys.com/products/$it"
+                    )
+            )
+        }
+        return mapOf(
+                "clicks" to listOf<Any>(),
+                "viewedMessages" to listOf<Any>(),
+                "events" to events
+        )
+    }
+}
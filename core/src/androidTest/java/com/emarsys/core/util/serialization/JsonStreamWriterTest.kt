@@ -0,0 +1,90 @@
+package com.emarsys.core.util.serialization
+
+import com.emarsys.core.util.JsonUtils
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import java.io.ByteArrayOutputStream
+
+class JsonStreamWriterTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Test
+    fun testWriteMap_emptyMap() {
+        write(mapOf()) shouldBe "{}"
+    }
+
+    @Test
+    fun testWriteMap_shouldMatchFromMap_withPrimitives() {
+        val payload = mapOf(
+                "string" to "value",
+                "int" to 42,
+                "long" to Long.MAX_VALUE,
+                "double" to 1.5,
+                "wholeDouble" to 3.0,
+                "negativeZero" to -0.0,
+                "float" to 2.25f,
+                "boolean" to true,
+                "jsonNull" to JSONObject.NULL
+        )
+
+        write(payload) shouldBe JsonUtils.fromMap(payload).toString()
+    }
+
+    @Test
+    fun testWriteMap_shouldMatchFromMap_withEscapedStrings() {
+        val payload = mapOf(
+                "quote\"key" to "a \"quoted\" value",
+                "slashes" to "https://emarsys.com/path\\to",
+                "whitespace" to "tab\tnewline\nreturn\rbackspace\bformfeed\u000C",
+                "control" to "\u0001\u001F",
+                "unicode" to "árvíztűrő tükörfúrógép 😀"
+        )
+
+        write(payload) shouldBe JsonUtils.fromMap(payload).toString()
+    }
+
+    @Test
+    fun testWriteMap_shouldMatchFromMap_withNestedStructures() {
+        val payload = mapOf(
+                "events" to listOf(
+                        mapOf("type" to "custom", "name" to "event1", "attributes" to mapOf("key" to "value")),
+                        mapOf("type" to "internal", "name" to "event2", "timestamp" to "2021-01-01T00:00:00.000Z")
+                ),
+                "nestedLists" to listOf(listOf(1, 2), listOf<Any>(), listOf("a", null)),
+                "jsonObject" to JSONObject().put("key", "value"),
+                "jsonArray" to JSONArray().put(1).put("two")
+        )
+
+        write(payload) shouldBe JsonUtils.fromMap(payload).toString()
+    }
+
+    @Test
+    fun testWriteMap_shouldDropNullValues() {
+        val payload = mapOf(
+                "key1" to "value1",
+                "key2" to null,
+                "nested" to mapOf("key3" to null, "key4" to 4)
+        )
+
+        write(payload) shouldBe """{"key1":"value1","nested":{"key4":4}}"""
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testWriteMap_shouldThrowException_whenNumberIsNaN() {
+        write(mapOf("key" to Double.NaN))
+    }
+
+    private fun write(payload: Map<String, Any?>): String {
+        val outputStream = ByteArrayOutputStream()
+        JsonStreamWriter(outputStream).writeMap(payload)
+        return String(outputStream.toByteArray(), Charsets.UTF_8)
+    }
+}
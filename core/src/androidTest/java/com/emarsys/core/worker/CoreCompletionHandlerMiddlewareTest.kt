@@ -8,6 +8,8 @@ import com.emarsys.core.concurrency.CoreSdkHandlerProvider
 import com.emarsys.core.database.repository.Repository
 import com.emarsys.core.database.repository.SqlSpecification
 import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.request.model.CompositeRequestModel
 import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
@@ -23,6 +25,7 @@ import org.junit.Test
 import org.junit.rules.TestRule
 import org.mockito.ArgumentCaptor
 import org.mockito.kotlin.*
+import java.net.URL
 import java.util.concurrent.CountDownLatch
 
 class CoreCompletionHandlerMiddlewareTest {
@@ -76,6 +79,11 @@ class CoreCompletionHandlerMiddlewareTest {
         CoreCompletionHandlerMiddleware(worker, requestRepository, null, coreSdkHandler, coreCompletionHandler)
     }
 
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_retrySchedulerShouldNotBeNull() {
+        CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, null)
+    }
+
     @Test(expected = IllegalArgumentException::class)
     fun testConstructor_coreHandlerShouldNotBeNull() {
         CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, null, coreCompletionHandler)
@@ -113,8 +121,10 @@ class CoreCompletionHandlerMiddlewareTest {
         waitForEventLoopToFinish(coreSdkHandler)
         waitForEventLoopToFinish(uiHandler)
 
-        argumentCaptor<FilterByRequestIds>().apply {
-            verify(requestRepository, times(5)).remove(capture())
+        argumentCaptor<List<SqlSpecification>>().apply {
+            verify(requestRepository).removeAll(capture())
+            firstValue.size shouldBe 5
+            firstValue.forEach { it.selectionArgs.size shouldBeLessThanOrEqual 500 }
         }
 
     }
@@ -232,6 +242,105 @@ class CoreCompletionHandlerMiddlewareTest {
         verifyZeroInteractions(requestRepository)
     }
 
+    @Test
+    fun testOnError_retriable_shouldScheduleRetry_withRetryAfter() {
+        val mockRetryScheduler: RetryScheduler = mock {
+            on { retryAfterMillis(any()) } doReturn 120_000L
+        }
+        middleware = CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, mockRetryScheduler)
+        val headers = mapOf("Retry-After" to "120")
+        val expectedModel = ResponseModel.Builder()
+                .statusCode(503)
+                .message("Service Unavailable")
+                .headers(headers.mapValues { listOf(it.value) })
+                .requestModel(createRequestModelWithUrl("https://mobile-events.eservice.emarsys.net/v4/apps/id/client/events"))
+                .build()
+
+        middleware.onError(expectedId, expectedModel)
+
+        waitForEventLoopToFinish(coreSdkHandler)
+
+        verify(mockRetryScheduler).retryAfterMillis(headers)
+        verify(mockRetryScheduler).onFailure("mobile-events.eservice.emarsys.net", 120_000L, worker)
+        verify(worker).unlock()
+        verifyNoMoreInteractions(worker)
+    }
+
+    @Test
+    fun testOnSuccess_shouldCloseTheCircuitOfTheHost() {
+        val mockRetryScheduler: RetryScheduler = mock()
+        middleware = CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, mockRetryScheduler)
+        val requestModel = createRequestModelWithUrl("https://me-client.eservice.emarsys.net/v3/apps/id/client")
+
+        middleware.onSuccess(expectedId, createResponseModel(requestModel)!!)
+
+        waitForEventLoopToFinish(coreSdkHandler)
+
+        verify(mockRetryScheduler).onSuccess("me-client.eservice.emarsys.net")
+    }
+
+    @Test
+    fun testOnError_withException_shouldScheduleRetry_forTheHostOfTheRequest_whenThePartitionIsUnknown() {
+        val mockRetryScheduler: RetryScheduler = mock()
+        val requestModel = RequestModel.Builder(TimestampProvider(), UUIDProvider()).url("https://me-client.eservice.emarsys.net/v3/apps/appCode/client").build()
+        val requestWorker: RequestWorker = mock {
+            on { this.requestModel } doReturn requestModel
+        }
+        middleware = CoreCompletionHandlerMiddleware(requestWorker, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, mockRetryScheduler)
+
+        middleware.onError(expectedId, Exception("Expected exception"))
+
+        waitForEventLoopToFinish(coreSdkHandler)
+
+        verify(mockRetryScheduler).onFailure("me-client.eservice.emarsys.net", null, requestWorker)
+    }
+
+    @Test
+    fun testOnError_withException_shouldScheduleRetry_forThePartitionOfTheRequest() {
+        val mockRetryScheduler: RetryScheduler = mock()
+        val requestModel = RequestModel.Builder(TimestampProvider(), UUIDProvider()).url("https://me-client.eservice.emarsys.net/v3/apps/appCode/client").build()
+        val requestWorker: RequestWorker = mock {
+            on { this.requestModel } doReturn requestModel
+            on { partition } doReturn "https://me-client.eservice.emarsys.net"
+        }
+        middleware = CoreCompletionHandlerMiddleware(requestWorker, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, mockRetryScheduler)
+
+        middleware.onError(expectedId, Exception("Expected exception"))
+
+        waitForEventLoopToFinish(coreSdkHandler)
+
+        verify(mockRetryScheduler).onFailure("https://me-client.eservice.emarsys.net", null, requestWorker)
+    }
+
+    @Test
+    fun testOnSuccess_shouldCloseTheCircuitOfThePartition() {
+        val mockRetryScheduler: RetryScheduler = mock()
+        val requestModel = createRequestModelWithUrl("https://me-client.eservice.emarsys.net/v3/apps/id/client")
+        val requestWorker: RequestWorker = mock {
+            on { this.requestModel } doReturn requestModel
+            on { partition } doReturn "https://me-client.eservice.emarsys.net"
+        }
+        middleware = CoreCompletionHandlerMiddleware(requestWorker, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, mockRetryScheduler)
+
+        middleware.onSuccess(expectedId, createResponseModel(requestModel)!!)
+
+        waitForEventLoopToFinish(coreSdkHandler)
+
+        verify(mockRetryScheduler).onSuccess("https://me-client.eservice.emarsys.net")
+    }
+
+    @Test
+    fun testOnError_withException_shouldScheduleRetry_withoutHost_whenTheRequestIsUnknown() {
+        val mockRetryScheduler: RetryScheduler = mock()
+        middleware = CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, coreSdkHandler, coreCompletionHandler, mockRetryScheduler)
+
+        middleware.onError(expectedId, Exception("Expected exception"))
+
+        waitForEventLoopToFinish(coreSdkHandler)
+
+        verify(mockRetryScheduler).onFailure(null, null, worker)
+    }
+
     @Test
     fun testOnError_4xx_withCompositeModel() {
         val ids = Array(2040) { i -> "id$i" }
@@ -270,9 +379,10 @@ class CoreCompletionHandlerMiddlewareTest {
         waitForEventLoopToFinish(coreSdkHandler)
         waitForEventLoopToFinish(uiHandler)
 
-        argumentCaptor<FilterByRequestIds>().apply {
-            verify(requestRepository, times(4)).remove(capture())
-            allValues.size shouldBeLessThanOrEqual 500
+        argumentCaptor<List<SqlSpecification>>().apply {
+            verify(requestRepository).removeAll(capture())
+            firstValue.size shouldBe 4
+            firstValue.forEach { it.selectionArgs.size shouldBeLessThanOrEqual 500 }
         }
     }
 
@@ -294,9 +404,10 @@ class CoreCompletionHandlerMiddlewareTest {
         waitForEventLoopToFinish(coreSdkHandler)
         waitForEventLoopToFinish(uiHandler)
 
-        argumentCaptor<FilterByRequestIds>().apply {
-            verify(requestRepository, times(5)).remove(capture())
-            allValues.size shouldBeLessThanOrEqual 500
+        argumentCaptor<List<SqlSpecification>>().apply {
+            verify(requestRepository).removeAll(capture())
+            firstValue.size shouldBe 5
+            firstValue.forEach { it.selectionArgs.size shouldBeLessThanOrEqual 500 }
         }
     }
 
@@ -328,6 +439,13 @@ class CoreCompletionHandlerMiddlewareTest {
                 ids)
     }
 
+    private fun createRequestModelWithUrl(url: String): RequestModel {
+        val requestModel = mock<RequestModel>()
+        whenever(requestModel.id).thenReturn(expectedId)
+        whenever(requestModel.url).thenReturn(URL(url))
+        return requestModel
+    }
+
     private fun createResponseModel(requestModel: RequestModel): ResponseModel? {
         return ResponseModel.Builder()
                 .statusCode(200)
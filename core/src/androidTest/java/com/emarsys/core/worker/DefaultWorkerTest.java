@@ -8,13 +8,19 @@ import com.emarsys.core.connection.ConnectionState;
 import com.emarsys.core.connection.ConnectionWatchDog;
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
+import com.emarsys.core.database.repository.specification.Everything;
 import com.emarsys.core.fake.FakeCompletionHandler;
+import com.emarsys.core.handler.CoreSdkHandler;
 import com.emarsys.core.request.RestClient;
 import com.emarsys.core.request.factory.CompletionHandlerProxyProvider;
+import com.emarsys.core.request.model.CompositeRequestModel;
 import com.emarsys.core.request.model.RequestMethod;
 import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.RequestPriority;
+import com.emarsys.core.request.model.RequestQueueIndex;
 import com.emarsys.core.request.model.specification.QueryLatestRequestModel;
 import com.emarsys.core.testUtil.RequestModelTestUtils;
+import com.emarsys.core.util.predicate.Predicate;
 import com.emarsys.testUtil.DatabaseTestUtils;
 import com.emarsys.testUtil.TimeoutUtils;
 
@@ -28,7 +34,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 
 import static org.junit.Assert.assertEquals;
@@ -38,11 +46,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 public class DefaultWorkerTest {
 
@@ -55,6 +65,7 @@ public class DefaultWorkerTest {
     private CompletionHandlerProxyProvider mockProxyProvider;
     private RestClient restClient;
     private Handler uiHandler;
+    private CoreSdkHandler mockCoreSdkHandler;
 
     private long now;
     private RequestModel expiredModel1;
@@ -78,9 +89,10 @@ public class DefaultWorkerTest {
         restClient = mock(RestClient.class);
 
         uiHandler = new Handler(Looper.getMainLooper());
+        mockCoreSdkHandler = mock(CoreSdkHandler.class);
         mockProxyProvider = mock(CompletionHandlerProxyProvider.class);
 
-        worker = new DefaultWorker(requestRepository, watchDogMock, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        worker = new DefaultWorker(requestRepository, watchDogMock, uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
 
         when(mockProxyProvider.provideProxy(any(Worker.class), any(CoreCompletionHandler.class))).thenReturn(mock(CoreCompletionHandler.class));
 
@@ -111,54 +123,97 @@ public class DefaultWorkerTest {
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_queueShouldNotBeNull() {
-        new DefaultWorker(null, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        new DefaultWorker(null, mock(ConnectionWatchDog.class), uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_watchDogShouldNotBeNull() {
-        new DefaultWorker(requestRepository, null, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        new DefaultWorker(requestRepository, null, uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_uiHandlerShouldNotBeNull() {
-        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), null, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), null, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_restClientShouldNotBeNull() {
-        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, null, mockProxyProvider);
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, null, mockProxyProvider);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_coreSdkHandler_mustNotBeNull() {
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, null, mockCoreCompletionHandler, restClient, mockProxyProvider);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testConstructor_proxyProvider_mustNotBeNull() {
-        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, null);
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, null);
     }
 
     @Test
     @SuppressWarnings("unchecked")
-    public void testRun_shouldLockWorker() {
+    public void testRun_shouldLockThePartition_ofTheOrderedRequest() {
         worker = spy(this.worker);
         RequestModel expectedModel = RequestModelTestUtils.createRequestModel(RequestMethod.GET);
 
         when(worker.requestRepository.query(any(SqlSpecification.class))).thenReturn(Collections.singletonList(expectedModel));
         when(worker.requestRepository.isEmpty()).thenReturn(false);
-        worker.unlock();
 
         worker.run();
 
+        assertTrue(worker.isLocked(expectedModel.getUrl().getHost()));
+        assertFalse(worker.isLocked());
+    }
+
+    @Test
+    public void testLock_shouldHoldBackEveryPartition_untilUnlocked() {
+        worker = createPipelinedWorker(4);
+        RequestModel model = createModel("https://predict.com/1", "id1");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Collections.singletonList(model));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.lock();
+        worker.run();
+
         assertTrue(worker.isLocked());
+        verifyZeroInteractions(restClient);
+
+        worker.unlock();
+        worker.run();
+
+        assertFalse(worker.isLocked());
+        verify(restClient).execute(eq(model), any(CoreCompletionHandler.class));
+    }
+
+    @Test
+    public void testUnlock_shouldKeepTheInFlightRequests() {
+        worker = createPipelinedWorker(4);
+        RequestModel ordered = createModel("https://client.com/ordered", "id1");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Collections.singletonList(ordered));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+        worker.unlock();
+        worker.run();
+
+        verify(restClient, times(1)).execute(eq(ordered), any(CoreCompletionHandler.class));
+        assertEquals(1, worker.getInFlightRequestCount());
+        assertTrue(worker.isLocked("client.com"));
     }
 
     @Test
     public void testConstructor_setRepositorySuccessfully() {
-        worker = new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        worker = new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
         assertEquals(requestRepository, worker.requestRepository);
     }
 
     @Test
     public void testConstructor_setWatchDogSuccessfully() {
         ConnectionWatchDog watchDog = mock(ConnectionWatchDog.class);
-        worker = new DefaultWorker(requestRepository, watchDog, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+        worker = new DefaultWorker(requestRepository, watchDog, uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
         assertEquals(watchDog, worker.connectionWatchDog);
     }
 
@@ -175,6 +230,22 @@ public class DefaultWorkerTest {
         verify(worker).run();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testConnectionTypeChanged_shouldTakeQueueSizeFromTheIndex_whenRepositoryIsARequestQueueIndex() {
+        Repository<RequestModel, SqlSpecification> indexedRepository = mock(Repository.class, withSettings().extraInterfaces(RequestQueueIndex.class));
+        Map<RequestPriority, Integer> counts = new HashMap<>();
+        counts.put(RequestPriority.HIGH, 1);
+        when(((RequestQueueIndex) indexedRepository).queuedRequestCounts()).thenReturn(counts);
+        when(indexedRepository.isEmpty()).thenReturn(true);
+        worker = new DefaultWorker(indexedRepository, watchDogMock, uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider);
+
+        worker.onConnectionChanged(ConnectionState.CONNECTED, true);
+
+        verify((RequestQueueIndex) indexedRepository).queuedRequestCounts();
+        verify(indexedRepository, never()).query(any(Everything.class));
+    }
+
     @Test
     public void testRun_executeMethodShouldBeCalledWhenConnected() {
         worker = spy(this.worker);
@@ -241,7 +312,7 @@ public class DefaultWorkerTest {
         verify(requestRepository, times(2)).remove(any(SqlSpecification.class));
         verify(worker.restClient).execute(eq(notExpiredModel), any(CoreCompletionHandler.class));
 
-        assertTrue(worker.isLocked());
+        assertTrue(worker.isLocked(notExpiredModel.getUrl().getHost()));
     }
 
     @Test
@@ -292,4 +363,351 @@ public class DefaultWorkerTest {
         assertFalse(worker.isLocked());
     }
 
-}
\ No newline at end of file
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_maxInFlightRequestsPerHost_mustBePositive() {
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, 0, orderedWhenUrlContains("ordered"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_orderedRequestPredicate_mustNotBeNull() {
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, 2, null);
+    }
+
+    @Test
+    public void testRun_pipelined_shouldDispatchMultipleUnorderedRequests_upToPerHostLimit() {
+        worker = createPipelinedWorker(2);
+        RequestModel model1 = createModel("https://predict.com/1", "id1");
+        RequestModel model2 = createModel("https://predict.com/2", "id2");
+        RequestModel model3 = createModel("https://predict.com/3", "id3");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Arrays.asList(model1, model2, model3));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient).execute(eq(model1), any(CoreCompletionHandler.class));
+        verify(restClient).execute(eq(model2), any(CoreCompletionHandler.class));
+        verify(restClient, never()).execute(eq(model3), any(CoreCompletionHandler.class));
+        assertEquals(2, worker.getInFlightRequestCount());
+        assertFalse(worker.isLocked());
+    }
+
+    @Test
+    public void testRun_pipelined_shouldApplyLimitPerHost() {
+        worker = createPipelinedWorker(1);
+        RequestModel model1 = createModel("https://predict.com/1", "id1");
+        RequestModel model2 = createModel("https://predict.com/2", "id2");
+        RequestModel model3 = createModel("https://deeplink.com/1", "id3");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Arrays.asList(model1, model2, model3));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient).execute(eq(model1), any(CoreCompletionHandler.class));
+        verify(restClient, never()).execute(eq(model2), any(CoreCompletionHandler.class));
+        verify(restClient).execute(eq(model3), any(CoreCompletionHandler.class));
+    }
+
+    @Test
+    public void testRun_pipelined_orderedRequest_shouldNotBeOvertaken_withinItsPartition() {
+        worker = createPipelinedWorker(4);
+        RequestModel model1 = createModel("https://client.com/1", "id1");
+        RequestModel ordered = createModel("https://client.com/ordered", "id2");
+        RequestModel model3 = createModel("https://client.com/3", "id3");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Arrays.asList(model1, ordered, model3));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient).execute(eq(model1), any(CoreCompletionHandler.class));
+        verify(restClient, never()).execute(eq(ordered), any(CoreCompletionHandler.class));
+        verify(restClient, never()).execute(eq(model3), any(CoreCompletionHandler.class));
+    }
+
+    @Test
+    public void testRun_pipelined_orderedRequest_shouldBeDispatchedAloneInItsPartition_andLockThePartition() {
+        worker = createPipelinedWorker(4);
+        RequestModel ordered = createModel("https://client.com/ordered", "id1");
+        RequestModel model2 = createModel("https://client.com/2", "id2");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Arrays.asList(ordered, model2));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient).execute(eq(ordered), any(CoreCompletionHandler.class));
+        verify(restClient, never()).execute(eq(model2), any(CoreCompletionHandler.class));
+        assertTrue(worker.isLocked("client.com"));
+        assertFalse(worker.isLocked("predict.com"));
+        assertFalse(worker.isLocked());
+    }
+
+    @Test
+    public void testRun_pipelined_compositeRequests_shouldNotBeOrdered() {
+        worker = createPipelinedWorker(4);
+        RequestModel composite1 = new CompositeRequestModel("compositeId1", "https://event.com/1", RequestMethod.POST, null, new HashMap<String, String>(), now, 60_000, new String[]{"id1", "id2"});
+        RequestModel composite2 = new CompositeRequestModel("compositeId2", "https://event.com/1", RequestMethod.POST, null, new HashMap<String, String>(), now, 60_000, new String[]{"id3"});
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(
+                Collections.singletonList(composite1),
+                Collections.singletonList(composite2),
+                Collections.<RequestModel>emptyList());
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient).execute(eq(composite1), any(CoreCompletionHandler.class));
+        verify(restClient).execute(eq(composite2), any(CoreCompletionHandler.class));
+        assertFalse(worker.isLocked("event.com"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRun_completionOfAnEarlierRequest_shouldNotReleaseALaterOne() {
+        worker = createPipelinedWorker(1);
+        RequestModel model1 = createModel("https://predict.com/1", "id1");
+        ArgumentCaptor<Worker> captor = ArgumentCaptor.forClass(Worker.class);
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Collections.singletonList(model1));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+        verify(mockProxyProvider).provideProxy(captor.capture(), eq(mockCoreCompletionHandler));
+        Worker firstAttempt = captor.getValue();
+        firstAttempt.unlock();
+        worker.run();
+
+        firstAttempt.unlock();
+        worker.run();
+
+        verify(restClient, times(2)).execute(eq(model1), any(CoreCompletionHandler.class));
+        assertEquals(1, worker.getInFlightRequestCount());
+    }
+
+    @Test
+    public void testRun_shouldExcludeTheOriginalRequestsOfAnInFlightComposite_fromTheNextQuery() {
+        worker = createPipelinedWorker(4);
+        RequestModel composite = new CompositeRequestModel("compositeId", "https://event.com/1", RequestMethod.POST, null, new HashMap<String, String>(), now, 60_000, new String[]{"id1", "id2"});
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Collections.singletonList(composite));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+        worker.run();
+
+        ArgumentCaptor<QueryLatestRequestModel> captor = ArgumentCaptor.forClass(QueryLatestRequestModel.class);
+        verify(requestRepository, times(3)).query(captor.capture());
+        assertEquals(new HashSet<>(Arrays.asList("compositeId", "id1", "id2")), new HashSet<>(Arrays.asList(captor.getValue().getExcludedRequestIds())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_retryScheduler_mustNotBeNull() {
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, 2, orderedWhenUrlContains("ordered"), null);
+    }
+
+    @Test
+    public void testRun_shouldSkipRequestsOfHostsWithOpenCircuit() {
+        RetryScheduler retryScheduler = mock(RetryScheduler.class);
+        when(retryScheduler.isOpen("predict.com")).thenReturn(true);
+        when(retryScheduler.hasOpenCircuit()).thenReturn(true);
+        worker = createPipelinedWorker(1, retryScheduler);
+        RequestModel model1 = createModel("https://predict.com/1", "id1");
+        RequestModel model2 = createModel("https://deeplink.com/1", "id2");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Arrays.asList(model1, model2));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient, never()).execute(eq(model1), any(CoreCompletionHandler.class));
+        verify(restClient).execute(eq(model2), any(CoreCompletionHandler.class));
+    }
+
+    @Test
+    public void testRun_orderedRequestOfAHostWithOpenCircuit_shouldOnlyHoldBackItsOwnPartition() {
+        RetryScheduler retryScheduler = mock(RetryScheduler.class);
+        when(retryScheduler.isOpen("client.com")).thenReturn(true);
+        when(retryScheduler.hasOpenCircuit()).thenReturn(true);
+        worker = createPipelinedWorker(4, retryScheduler);
+        RequestModel ordered1 = createModel("https://client.com/ordered", "id1");
+        RequestModel model2 = createModel("https://predict.com/2", "id2");
+        RequestModel ordered2 = createModel("https://inbox.com/ordered", "id3");
+        RequestModel ordered3 = createModel("https://client.com/ordered3", "id4");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Arrays.asList(ordered1, model2, ordered2, ordered3));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient, never()).execute(eq(ordered1), any(CoreCompletionHandler.class));
+        verify(restClient).execute(eq(model2), any(CoreCompletionHandler.class));
+        verify(restClient).execute(eq(ordered2), any(CoreCompletionHandler.class));
+        verify(restClient, never()).execute(eq(ordered3), any(CoreCompletionHandler.class));
+    }
+
+    @Test
+    public void testRun_orderedRequestInFlight_shouldNotBlockOtherPartitions() {
+        worker = createPipelinedWorker(1);
+        RequestModel ordered1 = createModel("https://event.com/ordered", "id1");
+        RequestModel ordered2 = createModel("https://event.com/ordered2", "id2");
+        RequestModel ordered3 = createModel("https://client.com/ordered", "id3");
+        RequestModel model4 = createModel("https://predict.com/4", "id4");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(
+                Collections.singletonList(ordered1),
+                Arrays.asList(ordered2, ordered3, model4));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+        worker.run();
+
+        verify(restClient).execute(eq(ordered1), any(CoreCompletionHandler.class));
+        verify(restClient, never()).execute(eq(ordered2), any(CoreCompletionHandler.class));
+        verify(restClient).execute(eq(ordered3), any(CoreCompletionHandler.class));
+        verify(restClient).execute(eq(model4), any(CoreCompletionHandler.class));
+    }
+
+    @Test
+    public void testRun_shouldPartitionRequests_withRequestPartitioner() {
+        RequestPartitioner requestPartitioner = mock(RequestPartitioner.class);
+        when(requestPartitioner.partitionOf(any(RequestModel.class))).thenReturn("mobileEngage");
+        worker = new DefaultWorker(requestRepository, watchDogMock, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, 4, orderedWhenUrlContains("ordered"), mock(RetryScheduler.class), requestPartitioner);
+        RequestModel ordered1 = createModel("https://event.com/ordered", "id1");
+        RequestModel ordered2 = createModel("https://client.com/ordered", "id2");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Arrays.asList(ordered1, ordered2));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient).execute(eq(ordered1), any(CoreCompletionHandler.class));
+        verify(restClient, never()).execute(eq(ordered2), any(CoreCompletionHandler.class));
+    }
+
+    @Test
+    public void testRun_shouldKeepTheRetryStateOfEveryPartitionApart() {
+        RetryScheduler retryScheduler = mock(RetryScheduler.class);
+        when(retryScheduler.isOpen("https://event.com")).thenReturn(true);
+        when(retryScheduler.hasOpenCircuit()).thenReturn(true);
+        RequestPartitioner requestPartitioner = mock(RequestPartitioner.class);
+        RequestModel event = createModel("https://event.com/1", "id1");
+        RequestModel client = createModel("https://client.com/1", "id2");
+        when(requestPartitioner.partitionOf(event)).thenReturn("https://event.com");
+        when(requestPartitioner.partitionOf(client)).thenReturn("https://client.com");
+        worker = new DefaultWorker(requestRepository, watchDogMock, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, 4, orderedWhenUrlContains("ordered"), retryScheduler, requestPartitioner);
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Arrays.asList(event, client));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient, never()).execute(eq(event), any(CoreCompletionHandler.class));
+        verify(restClient).execute(eq(client), any(CoreCompletionHandler.class));
+    }
+
+    @Test
+    public void testInFlightRequest_shouldReportItsPartition() {
+        RequestPartitioner requestPartitioner = mock(RequestPartitioner.class);
+        when(requestPartitioner.partitionOf(any(RequestModel.class))).thenReturn("https://event.com");
+        worker = new DefaultWorker(requestRepository, watchDogMock, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, 4, orderedWhenUrlContains("ordered"), mock(RetryScheduler.class), requestPartitioner);
+        ArgumentCaptor<Worker> captor = ArgumentCaptor.forClass(Worker.class);
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Collections.singletonList(createModel("https://event.com/1", "id1")));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(mockProxyProvider).provideProxy(captor.capture(), eq(mockCoreCompletionHandler));
+        assertEquals("https://event.com", ((RequestWorker) captor.getValue()).getPartition());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_requestPartitioner_mustNotBeNull() {
+        new DefaultWorker(requestRepository, mock(ConnectionWatchDog.class), uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, 2, orderedWhenUrlContains("ordered"), mock(RetryScheduler.class), null);
+    }
+
+    @Test
+    public void testRun_shouldDispatchASingleTrialRequest_toHalfOpenHost() {
+        RetryScheduler retryScheduler = mock(RetryScheduler.class);
+        when(retryScheduler.isHalfOpen("predict.com")).thenReturn(true);
+        worker = createPipelinedWorker(4, retryScheduler);
+        RequestModel model1 = createModel("https://predict.com/1", "id1");
+        RequestModel model2 = createModel("https://predict.com/2", "id2");
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Arrays.asList(model1, model2));
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(restClient).execute(eq(model1), any(CoreCompletionHandler.class));
+        verify(restClient, never()).execute(eq(model2), any(CoreCompletionHandler.class));
+    }
+
+    @Test
+    public void testRun_shouldNotDispatch_whenTransportCircuitIsOpen() {
+        RetryScheduler retryScheduler = mock(RetryScheduler.class);
+        when(retryScheduler.isTransportOpen()).thenReturn(true);
+        worker = createPipelinedWorker(4, retryScheduler);
+
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(requestRepository, never()).query(any(QueryLatestRequestModel.class));
+        verifyZeroInteractions(restClient);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRun_pipelined_shouldReleaseSlot_whenInFlightRequestIsUnlocked() {
+        worker = createPipelinedWorker(1);
+        RequestModel model1 = createModel("https://predict.com/1", "id1");
+        ArgumentCaptor<Worker> captor = ArgumentCaptor.forClass(Worker.class);
+
+        when(requestRepository.query(any(QueryLatestRequestModel.class))).thenReturn(Collections.singletonList(model1), Collections.<RequestModel>emptyList());
+        when(requestRepository.isEmpty()).thenReturn(false);
+
+        worker.run();
+
+        verify(mockProxyProvider).provideProxy(captor.capture(), eq(mockCoreCompletionHandler));
+        Worker inFlightRequest = captor.getValue();
+
+        assertTrue(inFlightRequest.isLocked());
+        assertEquals(1, worker.getInFlightRequestCount());
+
+        inFlightRequest.unlock();
+
+        assertFalse(inFlightRequest.isLocked());
+        assertEquals(0, worker.getInFlightRequestCount());
+    }
+
+    private DefaultWorker createPipelinedWorker(int maxInFlightRequestsPerHost) {
+        return new DefaultWorker(requestRepository, watchDogMock, uiHandler, mockCoreSdkHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, maxInFlightRequestsPerHost, orderedWhenUrlContains("ordered"));
+    }
+
+    private DefaultWorker createPipelinedWorker(int maxInFlightRequestsPerHost, RetryScheduler retryScheduler) {
+        return new DefaultWorker(requestRepository, watchDogMock, uiHandler, mockCoreCompletionHandler, restClient, mockProxyProvider, maxInFlightRequestsPerHost, orderedWhenUrlContains("ordered"), retryScheduler);
+    }
+
+    private Predicate<RequestModel> orderedWhenUrlContains(final String pattern) {
+        return new Predicate<RequestModel>() {
+            @Override
+            public boolean evaluate(RequestModel input) {
+                return input.getUrl().toString().contains(pattern);
+            }
+        };
+    }
+
+    private RequestModel createModel(String url, String id) {
+        return new RequestModel(
+                url,
+                RequestMethod.GET,
+                new HashMap<String, Object>(),
+                new HashMap<String, String>(),
+                now, 60_000,
+                id);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.emarsys.core.worker
+
+import com.emarsys.core.endpoint.ServiceEndpointProvider
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+
+class RequestPartitionerTest {
+    private companion object {
+        const val CLIENT_HOST = "https://me-client.eservice.emarsys.net"
+        const val EVENT_HOST = "https://mobile-events.eservice.emarsys.net"
+        const val DEEP_LINK_HOST = "https://deep-link.eservice.emarsys.net"
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockClientServiceProvider: ServiceEndpointProvider
+    private lateinit var mockEventServiceProvider: ServiceEndpointProvider
+    private lateinit var mockDeepLinkServiceProvider: ServiceEndpointProvider
+    private lateinit var requestPartitioner: RequestPartitioner
+
+    @Before
+    fun setUp() {
+        mockClientServiceProvider = mock {
+            on { provideEndpointHost() } doReturn CLIENT_HOST
+        }
+        mockEventServiceProvider = mock {
+            on { provideEndpointHost() } doReturn EVENT_HOST
+        }
+        mockDeepLinkServiceProvider = mock {
+            on { provideEndpointHost() } doReturn DEEP_LINK_HOST
+        }
+        requestPartitioner = RequestPartitioner(listOf(
+                mockClientServiceProvider,
+                mockEventServiceProvider,
+                mockDeepLinkServiceProvider))
+    }
+
+    @Test
+    fun testPartitionOf_shouldReturnTheEndpointOfTheService() {
+        requestPartitioner.partitionOf(requestModel("$CLIENT_HOST/v3/apps/appCode/client")) shouldBe CLIENT_HOST
+        requestPartitioner.partitionOf(requestModel("$EVENT_HOST/v3/apps/appCode/client/events")) shouldBe EVENT_HOST
+        requestPartitioner.partitionOf(requestModel("$DEEP_LINK_HOST/api/clicks")) shouldBe DEEP_LINK_HOST
+    }
+
+    @Test
+    fun testPartitionOf_shouldFallBackToTheHost_forUnknownServices() {
+        requestPartitioner.partitionOf(requestModel("https://recommender.scarabresearch.com/merchants/1")) shouldBe "recommender.scarabresearch.com"
+    }
+
+    @Test
+    fun testPartitionOf_withoutPartitions() {
+        RequestPartitioner().partitionOf(requestModel("$CLIENT_HOST/v3/apps/appCode/client")) shouldBe "me-client.eservice.emarsys.net"
+    }
+
+    private fun requestModel(url: String) = RequestModel.Builder(TimestampProvider(), UUIDProvider()).url(url).build()
+}
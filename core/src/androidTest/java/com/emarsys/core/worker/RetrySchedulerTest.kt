@@ -0,0 +1,165 @@
+package com.emarsys.core.worker
+
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.*
+import java.util.*
+
+class RetrySchedulerTest {
+    private companion object {
+        const val HOST = "mobile-events.eservice.emarsys.net"
+        const val OTHER_HOST = "recommender.scarabresearch.com"
+        const val NOW = 1_000_000L
+    }
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var mockCoreSdkHandler: CoreSdkHandler
+    private lateinit var mockTimestampProvider: TimestampProvider
+    private lateinit var mockRandom: Random
+    private lateinit var mockWorker: Worker
+    private lateinit var retryScheduler: RetryScheduler
+
+    @Before
+    fun setUp() {
+        mockCoreSdkHandler = mock()
+        mockTimestampProvider = mock {
+            on { provideTimestamp() } doReturn NOW
+        }
+        mockRandom = mock {
+            on { nextDouble() } doReturn 0.0
+        }
+        mockWorker = mock()
+        retryScheduler = RetryScheduler(mockCoreSdkHandler, mockTimestampProvider, 1_000L, 60_000L, mockRandom)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_baseDelayMillis_mustBePositive() {
+        RetryScheduler(mockCoreSdkHandler, mockTimestampProvider, 0L, 60_000L, mockRandom)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_maxDelayMillis_mustNotBeLessThanBaseDelayMillis() {
+        RetryScheduler(mockCoreSdkHandler, mockTimestampProvider, 1_000L, 999L, mockRandom)
+    }
+
+    @Test
+    fun testOnFailure_shouldOpenTheCircuitOfTheHost_only() {
+        retryScheduler.onFailure(HOST, null, mockWorker)
+
+        retryScheduler.isOpen(HOST) shouldBe true
+        retryScheduler.isOpen(OTHER_HOST) shouldBe false
+        retryScheduler.isTransportOpen() shouldBe false
+        retryScheduler.hasOpenCircuit() shouldBe true
+    }
+
+    @Test
+    fun testOnFailure_shouldScheduleRetry_withExponentialBackoff() {
+        retryScheduler.onFailure(HOST, null, mockWorker)
+        verify(mockCoreSdkHandler).postDelayed(any(), eq(500L))
+
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + 500)
+        retryScheduler.onFailure(HOST, null, mockWorker)
+        verify(mockCoreSdkHandler).postDelayed(any(), eq(1_000L))
+
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + 1_500)
+        retryScheduler.onFailure(HOST, null, mockWorker)
+        verify(mockCoreSdkHandler).postDelayed(any(), eq(2_000L))
+    }
+
+    @Test
+    fun testOnFailure_shouldAddJitter_toTheSecondHalfOfTheBackoff() {
+        whenever(mockRandom.nextDouble()).thenReturn(0.5)
+
+        retryScheduler.onFailure(HOST, null, mockWorker)
+
+        verify(mockCoreSdkHandler).postDelayed(any(), eq(750L))
+    }
+
+    @Test
+    fun testOnFailure_shouldCapTheDelay() {
+        repeat(20) {
+            retryScheduler.onFailure(HOST, null, mockWorker)
+        }
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + 60_000L)
+
+        retryScheduler.isOpen(HOST) shouldBe false
+    }
+
+    @Test
+    fun testOnFailure_shouldHonorRetryAfter_whenItIsLongerThanTheBackoff() {
+        retryScheduler.onFailure(HOST, 30_000L, mockWorker)
+
+        verify(mockCoreSdkHandler).postDelayed(any(), eq(30_000L))
+    }
+
+    @Test
+    fun testOnFailure_shouldNotScheduleAnotherWakeUp_whenAnEarlierOneIsPending() {
+        retryScheduler.onFailure(HOST, null, mockWorker)
+        retryScheduler.onFailure(OTHER_HOST, 10_000L, mockWorker)
+
+        verify(mockCoreSdkHandler, times(1)).postDelayed(any(), any())
+    }
+
+    @Test
+    fun testWakeUp_shouldRunTheWorker_andLetASingleTrialRequestThrough() {
+        retryScheduler.onFailure(HOST, null, mockWorker)
+        val wakeUp = argumentCaptor<Runnable>().run {
+            verify(mockCoreSdkHandler).postDelayed(capture(), eq(500L))
+            firstValue
+        }
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(NOW + 500)
+
+        wakeUp.run()
+
+        verify(mockWorker).run()
+        retryScheduler.isOpen(HOST) shouldBe false
+        retryScheduler.isHalfOpen(HOST) shouldBe true
+    }
+
+    @Test
+    fun testOnSuccess_shouldCloseTheCircuit() {
+        retryScheduler.onFailure(HOST, null, mockWorker)
+
+        retryScheduler.onSuccess(HOST)
+
+        retryScheduler.isOpen(HOST) shouldBe false
+        retryScheduler.isHalfOpen(HOST) shouldBe false
+        retryScheduler.hasOpenCircuit() shouldBe false
+    }
+
+    @Test
+    fun testOnFailure_withoutHost_shouldOpenTheTransportCircuit_forEveryHost() {
+        retryScheduler.onFailure(null, null, mockWorker)
+
+        retryScheduler.isTransportOpen() shouldBe true
+        retryScheduler.isOpen(HOST) shouldBe true
+        retryScheduler.isOpen(OTHER_HOST) shouldBe true
+    }
+
+    @Test
+    fun testRetryAfterMillis_withDeltaSeconds() {
+        retryScheduler.retryAfterMillis(mapOf("retry-after" to "120")) shouldBe 120_000L
+    }
+
+    @Test
+    fun testRetryAfterMillis_withHttpDate() {
+        whenever(mockTimestampProvider.provideTimestamp()).thenReturn(784_111_717_000L)
+
+        retryScheduler.retryAfterMillis(mapOf("Retry-After" to "Sun, 06 Nov 1994 08:49:37 GMT")) shouldBe 60_000L
+    }
+
+    @Test
+    fun testRetryAfterMillis_shouldReturnNull_whenHeaderIsMissingOrInvalid() {
+        retryScheduler.retryAfterMillis(mapOf()) shouldBe null
+        retryScheduler.retryAfterMillis(mapOf("Retry-After" to "soon")) shouldBe null
+    }
+}
@@ -0,0 +1,67 @@
+package com.emarsys.core.api
+
+import com.emarsys.core.Mockable
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.util.log.Logger.Companion.error
+import com.emarsys.core.util.log.entry.CrashLog
+
+/**
+ * Moves public API calls to the SDK thread without reflection, for the hand written API facades.
+ *
+ * [dispatch] posts a call and returns right away. [read] answers a getter on the calling thread and
+ * never waits for the SDK thread: state that dispatched calls change is read through an
+ * [ApiSnapshot], which the call updates eagerly when it is dispatched.
+ */
+@Mockable
+class ApiDispatcher(private val handler: CoreSdkHandler) {
+
+    fun dispatch(call: () -> Unit) {
+        EmarsysIdlingResources.increment()
+        handler.post {
+            try {
+                call()
+            } catch (exception: Exception) {
+                error(CrashLog(exception))
+            } finally {
+                EmarsysIdlingResources.decrement()
+            }
+        }
+    }
+
+    /**
+     * Dispatches [call], which changes the state behind [snapshot] to [value], and lets [snapshot]
+     * answer [value] until [call] has run.
+     */
+    fun <T> dispatch(snapshot: ApiSnapshot<T>, value: T, call: () -> Unit) {
+        val pendingValue = snapshot.expect(value)
+        dispatch {
+            try {
+                call()
+            } finally {
+                snapshot.settle(pendingValue)
+            }
+        }
+    }
+
+    /**
+     * Answers [getter] on the calling thread. If [getter] fails the failure is logged and null is
+     * answered, as the public API always did.
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun <T> read(getter: () -> T): T {
+        return runCatchingCrash(getter) as T
+    }
+
+    fun <T> read(snapshot: ApiSnapshot<T>): T {
+        return read { snapshot.value }
+    }
+
+    private fun <T> runCatchingCrash(call: () -> T): T? {
+        return try {
+            call()
+        } catch (exception: Exception) {
+            error(CrashLog(exception))
+            null
+        }
+    }
+}
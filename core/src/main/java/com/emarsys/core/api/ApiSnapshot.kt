@@ -0,0 +1,31 @@
+package com.emarsys.core.api
+
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * A piece of SDK state as seen by the API facades, answered on the calling thread.
+ *
+ * The value handed to [ApiDispatcher.dispatch] together with a call takes the place of [source]
+ * until that call has run on the SDK thread, so a getter sees the effect of an earlier setter right
+ * away instead of waiting for it.
+ */
+class ApiSnapshot<T>(private val source: () -> T) {
+
+    private val pending = AtomicReference<PendingValue<T>?>()
+
+    val value: T
+        get() {
+            val pendingValue = pending.get()
+            return if (pendingValue != null) pendingValue.value else source()
+        }
+
+    internal fun expect(value: T): PendingValue<T> {
+        return PendingValue(value).also { pending.set(it) }
+    }
+
+    internal fun settle(pendingValue: PendingValue<T>) {
+        pending.compareAndSet(pendingValue, null)
+    }
+
+    internal class PendingValue<T>(val value: T)
+}
@@ -9,7 +9,8 @@ import com.emarsys.core.session.Session
 
 @Mockable
 class AppLifecycleObserver(private val session: Session,
-                           private val coreSdkHandler: CoreSdkHandler) : LifecycleObserver {
+                           private val coreSdkHandler: CoreSdkHandler,
+                           private val backgroundTasks: List<Runnable> = listOf()) : LifecycleObserver {
 
     @OnLifecycleEvent(Lifecycle.Event.ON_START)
     fun onEnterForeground() {
@@ -22,6 +23,7 @@ class AppLifecycleObserver(private val session: Session,
     fun onEnterBackground() {
         coreSdkHandler.post {
             session.endSession()
+            backgroundTasks.forEach { it.run() }
         }
     }
 }
\ No newline at end of file
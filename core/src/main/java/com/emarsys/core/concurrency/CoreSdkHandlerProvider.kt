@@ -1,13 +1,15 @@
 package com.emarsys.core.concurrency
 
 import android.os.HandlerThread
+import com.emarsys.core.database.CoreSQLiteDatabase
 import com.emarsys.core.handler.CoreSdkHandler
 import java.util.*
 
 class CoreSdkHandlerProvider {
-    fun provideHandler(): CoreSdkHandler {
+    @JvmOverloads
+    fun provideHandler(databaseProvider: (() -> CoreSQLiteDatabase)? = null): CoreSdkHandler {
         val handlerThread = HandlerThread("CoreSDKHandlerThread-" + UUID.randomUUID().toString())
         handlerThread.start()
-        return CoreSdkHandler(CoreHandler(handlerThread))
+        return CoreSdkHandler(CoreHandler(handlerThread), databaseProvider)
     }
-}
\ No newline at end of file
+}
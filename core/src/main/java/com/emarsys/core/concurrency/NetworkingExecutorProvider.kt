@@ -0,0 +1,46 @@
+package com.emarsys.core.concurrency
+
+import com.emarsys.core.util.Assert
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class NetworkingExecutorProvider @JvmOverloads constructor(
+        private val poolSize: Int = DEFAULT_POOL_SIZE,
+        private val queueCapacity: Int = DEFAULT_QUEUE_CAPACITY) {
+
+    companion object {
+        const val DEFAULT_POOL_SIZE = 4
+        const val DEFAULT_QUEUE_CAPACITY = 256
+        private const val KEEP_ALIVE_SECONDS = 30L
+        private const val THREAD_NAME_PREFIX = "CoreSDKNetworkingThread-"
+    }
+
+    init {
+        Assert.positiveInt(poolSize, "PoolSize must be greater than 0!")
+        Assert.positiveInt(queueCapacity, "QueueCapacity must be greater than 0!")
+    }
+
+    fun provideExecutor(): ThreadPoolExecutor {
+        return ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                LinkedBlockingQueue(queueCapacity),
+                NetworkingThreadFactory()
+        ).apply {
+            allowCoreThreadTimeOut(true)
+        }
+    }
+
+    private class NetworkingThreadFactory : ThreadFactory {
+        private val threadCount = AtomicInteger(0)
+
+        override fun newThread(runnable: Runnable): Thread {
+            return Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet())
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.emarsys.core.connection
+
+data class ConnectionMetrics(val connectDuration: Long, val handshakeCount: Int)
@@ -7,11 +7,18 @@ import java.util.*
 import javax.net.ssl.HttpsURLConnection
 
 @Mockable
-class ConnectionProvider {
+class ConnectionProvider(
+        private val socketFactory: HandshakeCountingSocketFactory = HandshakeCountingSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory())) {
 
     fun provideConnection(requestModel: RequestModel): HttpsURLConnection {
         val url = requestModel.url
         require(URLUtil.isHttpsUrl(url.toString())) { "Expected HTTPS request model, but got: " + url.protocol.uppercase(Locale.getDefault()) }
-        return requestModel.url.openConnection() as HttpsURLConnection
+        val connection = requestModel.url.openConnection() as HttpsURLConnection
+        connection.sslSocketFactory = socketFactory
+        return connection
     }
-}
\ No newline at end of file
+
+    fun provideHandshakeCount(): Int {
+        return socketFactory.handshakeCount()
+    }
+}
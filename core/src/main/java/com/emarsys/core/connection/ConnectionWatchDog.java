@@ -5,16 +5,24 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
 import android.net.NetworkInfo;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
 
 import com.emarsys.core.handler.CoreSdkHandler;
+import com.emarsys.core.util.AndroidVersionUtils;
 import com.emarsys.core.util.Assert;
 
 public class ConnectionWatchDog {
 
     private IntentFilter intentFilter = new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION);
     private BroadcastReceiver receiver;
+    private ConnectivityManager.NetworkCallback networkCallback;
     private CoreSdkHandler coreSdkHandler;
+    private volatile NetworkStatus networkStatus = NetworkStatus.DISCONNECTED;
 
     ConnectivityManager connectivityManager;
 
@@ -30,6 +38,7 @@ public class ConnectionWatchDog {
         this.context = context.getApplicationContext();
         this.coreSdkHandler = coreSdkHandler;
         this.connectivityManager = (ConnectivityManager) this.context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        this.networkStatus = readNetworkStatus();
     }
 
     public ConnectionState getConnectionState() {
@@ -45,20 +54,115 @@ public class ConnectionWatchDog {
         return ConnectionState.CONNECTED;
     }
 
+    /**
+     * Returns the cached state of the default network, kept up to date by the registered callback,
+     * so it is cheap enough to be called before every request.
+     */
     public boolean isConnected() {
-        NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
-        return networkInfo != null && networkInfo.isConnected();
+        return networkStatus.isConnected();
+    }
+
+    public boolean isMetered() {
+        return networkStatus.isMetered();
+    }
+
+    public NetworkStatus getNetworkStatus() {
+        return networkStatus;
     }
 
     public void registerReceiver(ConnectionChangeListener connectionChangeListener) {
-        if (receiver == null) {
-            receiver = new ConnectivityChangeReceiver(connectionChangeListener);
-            context.registerReceiver(receiver, intentFilter);
+        if (receiver == null && networkCallback == null) {
+            if (AndroidVersionUtils.isNougatOrAbove()) {
+                networkCallback = new DefaultNetworkCallback(connectionChangeListener);
+                connectivityManager.registerDefaultNetworkCallback(networkCallback);
+            } else {
+                receiver = new ConnectivityChangeReceiver(connectionChangeListener);
+                context.registerReceiver(receiver, intentFilter);
+            }
         } else {
             throw new IllegalStateException("Register receiver cannot be called multiple times!");
         }
     }
 
+    private NetworkStatus readNetworkStatus() {
+        ConnectionState connectionState = getConnectionState();
+        if (connectionState == ConnectionState.DISCONNECTED) {
+            return NetworkStatus.DISCONNECTED;
+        }
+        NetworkCapabilities capabilities = null;
+        if (!AndroidVersionUtils.isBelowMarshmallow()) {
+            Network activeNetwork = connectivityManager.getActiveNetwork();
+            if (activeNetwork != null) {
+                capabilities = connectivityManager.getNetworkCapabilities(activeNetwork);
+            }
+        }
+        if (capabilities == null) {
+            return new NetworkStatus(connectionState, connectivityManager.isActiveNetworkMetered(), true);
+        }
+        return networkStatusOf(capabilities);
+    }
+
+    private NetworkStatus networkStatusOf(NetworkCapabilities capabilities) {
+        if (!capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)) {
+            return NetworkStatus.DISCONNECTED;
+        }
+        ConnectionState connectionState = capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)
+                ? ConnectionState.CONNECTED_MOBILE_DATA
+                : ConnectionState.CONNECTED;
+        boolean validated = AndroidVersionUtils.isBelowMarshmallow()
+                || capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+        return new NetworkStatus(
+                connectionState,
+                !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED),
+                validated);
+    }
+
+    private void onNetworkStatusChanged(NetworkStatus status, final ConnectionChangeListener connectionChangeListener) {
+        final NetworkStatus previousStatus = networkStatus;
+        networkStatus = status;
+        if (previousStatus.getConnectionState() != status.getConnectionState()
+                || previousStatus.isMetered() != status.isMetered()
+                || previousStatus.isValidated() != status.isValidated()) {
+            coreSdkHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    NetworkStatus currentStatus = networkStatus;
+                    connectionChangeListener.onConnectionChanged(currentStatus.getConnectionState(), currentStatus.isConnected());
+                }
+            });
+        }
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    class DefaultNetworkCallback extends ConnectivityManager.NetworkCallback {
+
+        ConnectionChangeListener connectionChangeListener;
+
+        DefaultNetworkCallback(ConnectionChangeListener connectionChangeListener) {
+            Assert.notNull(connectionChangeListener, "ConnectionChangeListener must not be null!");
+
+            this.connectionChangeListener = connectionChangeListener;
+        }
+
+        @Override
+        public void onAvailable(Network network) {
+            NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(network);
+            if (capabilities != null) {
+                onNetworkStatusChanged(networkStatusOf(capabilities), connectionChangeListener);
+            }
+        }
+
+        @Override
+        public void onCapabilitiesChanged(Network network, NetworkCapabilities networkCapabilities) {
+            onNetworkStatusChanged(networkStatusOf(networkCapabilities), connectionChangeListener);
+        }
+
+        @Override
+        public void onLost(Network network) {
+            onNetworkStatusChanged(NetworkStatus.DISCONNECTED, connectionChangeListener);
+        }
+    }
+
     class ConnectivityChangeReceiver extends BroadcastReceiver {
 
         ConnectionChangeListener connectionChangeListener;
@@ -74,9 +178,9 @@ public class ConnectionWatchDog {
             coreSdkHandler.post(new Runnable() {
                 @Override
                 public void run() {
-                    final ConnectionState connectionState = getConnectionState();
-                    final boolean isConnected = isConnected();
-                    connectionChangeListener.onConnectionChanged(connectionState, isConnected);
+                    NetworkStatus currentStatus = readNetworkStatus();
+                    networkStatus = currentStatus;
+                    connectionChangeListener.onConnectionChanged(currentStatus.getConnectionState(), currentStatus.isConnected());
                 }
             });
         }
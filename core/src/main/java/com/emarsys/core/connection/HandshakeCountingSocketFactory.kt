@@ -0,0 +1,59 @@
+package com.emarsys.core.connection
+
+import com.emarsys.core.Mockable
+import java.net.InetAddress
+import java.net.Socket
+import javax.net.ssl.SSLSocketFactory
+
+/**
+ * Counts the TLS sockets created on the calling thread. HttpsURLConnection opens its socket on the
+ * thread calling connect(), so the difference of [handshakeCount] before and after connect() tells
+ * whether that connection made a new handshake, regardless of requests running on other threads.
+ * A single instance is shared by every connection, because the connection pool is keyed by it.
+ */
+@Mockable
+class HandshakeCountingSocketFactory(private val delegate: SSLSocketFactory) : SSLSocketFactory() {
+
+    private val handshakeCounts = object : ThreadLocal<Int>() {
+        override fun initialValue() = 0
+    }
+
+    fun handshakeCount(): Int {
+        return handshakeCounts.get()!!
+    }
+
+    override fun getDefaultCipherSuites(): Array<String> {
+        return delegate.defaultCipherSuites
+    }
+
+    override fun getSupportedCipherSuites(): Array<String> {
+        return delegate.supportedCipherSuites
+    }
+
+    override fun createSocket(socket: Socket?, host: String, port: Int, autoClose: Boolean): Socket {
+        countHandshake()
+        return delegate.createSocket(socket, host, port, autoClose)
+    }
+
+    override fun createSocket(host: String, port: Int): Socket {
+        countHandshake()
+        return delegate.createSocket(host, port)
+    }
+
+    override fun createSocket(host: String, port: Int, localHost: InetAddress?, localPort: Int): Socket {
+        countHandshake()
+        return delegate.createSocket(host, port, localHost, localPort)
+    }
+
+    override fun createSocket(host: InetAddress, port: Int): Socket {
+        return delegate.createSocket(host, port)
+    }
+
+    override fun createSocket(address: InetAddress, port: Int, localAddress: InetAddress?, localPort: Int): Socket {
+        return delegate.createSocket(address, port, localAddress, localPort)
+    }
+
+    private fun countHandshake() {
+        handshakeCounts.set(handshakeCounts.get()!! + 1)
+    }
+}
@@ -0,0 +1,21 @@
+package com.emarsys.core.connection
+
+/**
+ * Snapshot of the default network as last reported by the system.
+ *
+ * A network only counts as connected once the platform has validated its internet access, so
+ * requests are held back on captive portals and networks without a working uplink.
+ */
+data class NetworkStatus(
+        val connectionState: ConnectionState,
+        val isMetered: Boolean,
+        val isValidated: Boolean) {
+
+    companion object {
+        @JvmField
+        val DISCONNECTED = NetworkStatus(ConnectionState.DISCONNECTED, false, false)
+    }
+
+    val isConnected: Boolean
+        get() = connectionState != ConnectionState.DISCONNECTED && isValidated
+}
@@ -0,0 +1,6 @@
+package com.emarsys.core.connection
+
+data class PayloadMetrics(val payloadSize: Int, val transferredSize: Int) {
+    val bytesSaved: Int
+        get() = payloadSize - transferredSize
+}
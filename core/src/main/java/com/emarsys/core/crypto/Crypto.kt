@@ -9,6 +9,7 @@ import java.security.PublicKey
 import java.security.SecureRandom
 import java.security.Signature
 import java.security.spec.KeySpec
+import java.util.concurrent.ConcurrentHashMap
 import javax.crypto.Cipher
 import javax.crypto.SecretKeyFactory
 import javax.crypto.spec.IvParameterSpec
@@ -21,6 +22,7 @@ class Crypto(private val publicKey: PublicKey) {
         const val REMOTE_CONFIG_CRYPTO_ALGORITHM = "SHA256withECDSA"
         private const val CRYPTO_ALGORITHM_BELOW_26 = "AES/GCM/NoPadding"
         private const val CRYPTO_ALGORITHM_ABOVE_26 = "AES_256/GCM/NoPadding"
+        private const val KEY_CACHE_SIZE = 16
 
         fun getAlgorythm(): String {
             return if (AndroidVersionUtils.isBelowOreo()) CRYPTO_ALGORITHM_BELOW_26 else CRYPTO_ALGORITHM_ABOVE_26
@@ -33,6 +35,18 @@ class Crypto(private val publicKey: PublicKey) {
         }
     }
 
+    private val ciphers = object : ThreadLocal<Cipher>() {
+        override fun initialValue(): Cipher = Cipher.getInstance(getAlgorythm())
+    }
+
+    private val encryptionSalts = ConcurrentHashMap<String, ByteArray>()
+
+    private val keyCache = object : LinkedHashMap<Pair<String, String>, SecretKeySpec>(KEY_CACHE_SIZE, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Pair<String, String>, SecretKeySpec>?): Boolean {
+            return size > KEY_CACHE_SIZE
+        }
+    }
+
     fun verify(
             messageBytes: ByteArray,
             signatureBytes: String
@@ -48,19 +62,25 @@ class Crypto(private val publicKey: PublicKey) {
         }
     }
 
+    /**
+     * Encrypts [value] with a key derived from [secret]. The salt of the derivation is generated
+     * once per secret and reused for the lifetime of this instance, so only the first call pays
+     * for the key derivation. Every call uses a new random iv.
+     */
     fun encrypt(value: String, secret: String): Map<String, String> {
-        val cipher = Cipher.getInstance(getAlgorythm())
+        val cipher = ciphers.get()!!
         val random = SecureRandom()
 
         val iv = ByteArray(getIvSize())
         random.nextBytes(iv)
-        val salt = ByteArray(16)
-        random.nextBytes(salt)
+        val salt = encryptionSalts.getOrPut(secret) {
+            ByteArray(16).also { random.nextBytes(it) }
+        }
 
         cipher.init(Cipher.ENCRYPT_MODE, generateKey(secret, salt), IvParameterSpec(iv))
 
         val textBytes = value.toByteArray(Charsets.UTF_8)
-        val encryptedText = cipher?.doFinal(textBytes)
+        val encryptedText = cipher.doFinal(textBytes)
 
         return mapOf(
                 "encryptedValue" to Base64.encodeToString(encryptedText, Base64.DEFAULT),
@@ -70,20 +90,29 @@ class Crypto(private val publicKey: PublicKey) {
     }
 
     fun decrypt(encrypted: String, secret: String, salt: String, iv: String): String? {
-        val cipher = Cipher.getInstance(getAlgorythm())
+        val cipher = ciphers.get()!!
         val ivBytes = Base64.decode(iv.toByteArray(), Base64.DEFAULT)
         val saltBytes = Base64.decode(salt.toByteArray(), Base64.DEFAULT)
         cipher.init(Cipher.DECRYPT_MODE, generateKey(secret, saltBytes), IvParameterSpec(ivBytes))
         val decodedText = Base64.decode(encrypted.toByteArray(), Base64.DEFAULT)
-        val decryptedText = cipher?.doFinal(decodedText)
+        val decryptedText = cipher.doFinal(decodedText)
         return decryptedText?.toString(Charsets.UTF_8)
     }
 
-    private fun generateKey(password: String, salt: ByteArray): SecretKeySpec? {
+    private fun generateKey(password: String, salt: ByteArray): SecretKeySpec {
+        val cacheKey = password to Base64.encodeToString(salt, Base64.NO_WRAP)
+        synchronized(keyCache) {
+            keyCache[cacheKey]
+        }?.let { return it }
+
         val factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1")
         val keySpec: KeySpec = PBEKeySpec(password.toCharArray(), salt, 65536, getKeyLength())
         val secretKey = factory.generateSecret(keySpec)
         val encoded = secretKey.encoded
-        return SecretKeySpec(encoded, "AES")
+        return SecretKeySpec(encoded, "AES").also {
+            synchronized(keyCache) {
+                keyCache[cacheKey] = it
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,8 @@ import android.database.sqlite.SQLiteDatabase;
 import com.emarsys.core.database.trigger.TriggerEvent;
 import com.emarsys.core.database.trigger.TriggerType;
 
+import java.util.List;
+
 public interface CoreSQLiteDatabase {
 
     SQLiteDatabase getBackingDatabase();
@@ -24,14 +26,20 @@ public interface CoreSQLiteDatabase {
             String orderBy,
             String limit);
 
+    long queryForLong(String sql, String[] selectionArgs);
+
     void execSQL(String sql);
 
     long insert(String table, String nullColumnHack, ContentValues values);
 
+    void insertAll(String table, List<ContentValues> valuesList);
+
     int update(String table, ContentValues values, String whereClause, String[] whereArgs);
 
     int delete(String table, String whereClause, String[] whereArgs);
 
+    int deleteByIds(String table, String idColumn, String[] ids);
+
     void registerTrigger(
             String table,
             TriggerType triggerType,
@@ -15,6 +15,9 @@ object DatabaseContract {
     const val REQUEST_COLUMN_NAME_PAYLOAD = "payload"
     const val REQUEST_COLUMN_NAME_TIMESTAMP = "timestamp"
     const val REQUEST_COLUMN_NAME_TTL = "ttl"
+    const val REQUEST_COLUMN_NAME_HOST = "host"
+    const val REQUEST_COLUMN_NAME_PRIORITY = "priority"
+    const val REQUEST_COLUMN_NAME_BARRIER = "barrier"
     const val SHARD_COLUMN_ID = "shard_id"
     const val SHARD_COLUMN_TYPE = "type"
     const val SHARD_COLUMN_DATA = "data"
@@ -80,12 +83,42 @@ object DatabaseContract {
             UPGRADE_TO_5_CREATE_TABLE_HARDWARE_IDENTIFICATION
     )
 
+    private const val UPGRADE_TO_6_ADD_HOST_TO_REQUEST = "ALTER TABLE request ADD COLUMN host TEXT;"
+    private const val UPGRADE_TO_6_FILL_HOST_OF_REQUEST = """UPDATE request SET host = substr(
+                    url,
+                    instr(url, '://') + 3,
+                    instr(substr(url, instr(url, '://') + 3) || '/', '/') - 1
+                    );"""
+    private const val UPGRADE_TO_6_ADD_INDEX_TO_REQUEST_ID = "CREATE INDEX request_id_index ON request (request_id);"
+    private const val UPGRADE_TO_6_ADD_INDEX_TO_HOST = "CREATE INDEX request_host_index ON request (host);"
+    val UPGRADE_TO_6 = arrayOf(
+            UPGRADE_TO_6_ADD_HOST_TO_REQUEST,
+            UPGRADE_TO_6_FILL_HOST_OF_REQUEST,
+            UPGRADE_TO_6_ADD_INDEX_TO_REQUEST_ID,
+            UPGRADE_TO_6_ADD_INDEX_TO_HOST
+    )
+    private const val UPGRADE_TO_7_ADD_PRIORITY_TO_REQUEST = "ALTER TABLE request ADD COLUMN priority INTEGER DEFAULT 0;"
+    private const val UPGRADE_TO_7_ADD_INDEX_TO_PRIORITY = "CREATE INDEX request_priority_index ON request (priority);"
+    val UPGRADE_TO_7 = arrayOf(
+            UPGRADE_TO_7_ADD_PRIORITY_TO_REQUEST,
+            UPGRADE_TO_7_ADD_INDEX_TO_PRIORITY
+    )
+    val UPGRADE_TO_8 = arrayOf(
+            "ALTER TABLE request ADD COLUMN barrier INTEGER DEFAULT 0;"
+    )
+    // no schema change: blobs written with Java serialization stay readable, see CompactBinaryCodec
+    val UPGRADE_TO_9 = arrayOf<String>()
+
     @JvmField
     val MIGRATION = arrayOf(
             UPGRADE_TO_1,
             UPGRADE_TO_2,
             UPGRADE_TO_3,
             UPGRADE_TO_4,
-            UPGRADE_TO_5
+            UPGRADE_TO_5,
+            UPGRADE_TO_6,
+            UPGRADE_TO_7,
+            UPGRADE_TO_8,
+            UPGRADE_TO_9
     )
 }
\ No newline at end of file
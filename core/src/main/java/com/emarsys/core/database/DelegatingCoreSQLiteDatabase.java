@@ -3,6 +3,7 @@ package com.emarsys.core.database;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 
 import com.emarsys.core.database.trigger.TriggerEvent;
 import com.emarsys.core.database.trigger.TriggerKey;
@@ -10,13 +11,17 @@ import com.emarsys.core.database.trigger.TriggerType;
 import com.emarsys.core.util.Assert;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class DelegatingCoreSQLiteDatabase implements CoreSQLiteDatabase {
 
+    private static final int STATEMENT_CACHE_SIZE = 16;
+
     private final SQLiteDatabase database;
     private final Map<TriggerKey, List<Runnable>> registeredTriggers;
+    private final Map<String, SQLiteStatement> statementCache;
     private boolean locked;
 
     public DelegatingCoreSQLiteDatabase(
@@ -26,6 +31,16 @@ public class DelegatingCoreSQLiteDatabase implements CoreSQLiteDatabase {
         Assert.notNull(triggerMap, "TriggerMap must not be null!");
         this.database = database;
         this.registeredTriggers = triggerMap;
+        this.statementCache = new LinkedHashMap<String, SQLiteStatement>(STATEMENT_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+                boolean remove = size() > STATEMENT_CACHE_SIZE;
+                if (remove) {
+                    eldest.getValue().close();
+                }
+                return remove;
+            }
+        };
     }
 
     @Override
@@ -52,6 +67,19 @@ public class DelegatingCoreSQLiteDatabase implements CoreSQLiteDatabase {
         return database.query(distinct, table, columns, selection, selectionArgs, groupBy, having, orderBy, limit);
     }
 
+    @Override
+    public long queryForLong(String sql, String[] selectionArgs) {
+        Assert.notNull(sql, "Sql must not be null!");
+        synchronized (statementCache) {
+            SQLiteStatement statement = cachedStatement(sql);
+            statement.clearBindings();
+            if (selectionArgs != null) {
+                statement.bindAllArgsAsStrings(selectionArgs);
+            }
+            return statement.simpleQueryForLong();
+        }
+    }
+
     @Override
     public void execSQL(String sql) {
         database.execSQL(sql);
@@ -89,6 +117,35 @@ public class DelegatingCoreSQLiteDatabase implements CoreSQLiteDatabase {
         return rowId;
     }
 
+    @Override
+    public void insertAll(String table, List<ContentValues> valuesList) {
+        Assert.notNull(table, "Table must not be null!");
+        Assert.notNull(valuesList, "ValuesList must not be null!");
+        if (valuesList.isEmpty()) {
+            return;
+        }
+
+        runTriggers(table, TriggerType.BEFORE, TriggerEvent.INSERT);
+        String[] columns = valuesList.get(0).keySet().toArray(new String[0]);
+        SQLiteStatement statement = database.compileStatement(createInsertStatement(table, columns));
+        try {
+            for (ContentValues values : valuesList) {
+                if (hasColumns(values, columns)) {
+                    statement.clearBindings();
+                    for (int i = 0; i < columns.length; i++) {
+                        bind(statement, i + 1, values.get(columns[i]));
+                    }
+                    statement.executeInsert();
+                } else {
+                    database.insertOrThrow(table, null, values);
+                }
+            }
+        } finally {
+            statement.close();
+        }
+        runTriggers(table, TriggerType.AFTER, TriggerEvent.INSERT);
+    }
+
     @Override
     public int update(String table, ContentValues values, String whereClause, String[] whereArgs) {
         runTriggers(table, TriggerType.BEFORE, TriggerEvent.UPDATE);
@@ -105,6 +162,26 @@ public class DelegatingCoreSQLiteDatabase implements CoreSQLiteDatabase {
         return rowsAffected;
     }
 
+    @Override
+    public int deleteByIds(String table, String idColumn, String[] ids) {
+        Assert.notNull(table, "Table must not be null!");
+        Assert.notNull(idColumn, "IdColumn must not be null!");
+        Assert.notNull(ids, "Ids must not be null!");
+
+        runTriggers(table, TriggerType.BEFORE, TriggerEvent.DELETE);
+        int rowsAffected = 0;
+        synchronized (statementCache) {
+            SQLiteStatement statement = cachedStatement("DELETE FROM " + table + " WHERE " + idColumn + " = ?;");
+            for (String id : ids) {
+                statement.clearBindings();
+                statement.bindString(1, id);
+                rowsAffected += statement.executeUpdateDelete();
+            }
+        }
+        runTriggers(table, TriggerType.AFTER, TriggerEvent.DELETE);
+        return rowsAffected;
+    }
+
     @Override
     public void beginTransaction() {
         database.beginTransaction();
@@ -120,6 +197,57 @@ public class DelegatingCoreSQLiteDatabase implements CoreSQLiteDatabase {
         database.endTransaction();
     }
 
+    private SQLiteStatement cachedStatement(String sql) {
+        SQLiteStatement statement = statementCache.get(sql);
+        if (statement == null) {
+            statement = database.compileStatement(sql);
+            statementCache.put(sql, statement);
+        }
+        return statement;
+    }
+
+    private String createInsertStatement(String table, String[] columns) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+                placeholders.append(", ");
+            }
+            sql.append(columns[i]);
+            placeholders.append("?");
+        }
+        return sql.append(") VALUES (").append(placeholders).append(");").toString();
+    }
+
+    private boolean hasColumns(ContentValues values, String[] columns) {
+        if (values.size() != columns.length) {
+            return false;
+        }
+        for (String column : columns) {
+            if (!values.containsKey(column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void bind(SQLiteStatement statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof byte[]) {
+            statement.bindBlob(index, (byte[]) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            statement.bindDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            statement.bindLong(index, (Boolean) value ? 1 : 0);
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+
     private void runTriggers(String tableName, TriggerType triggerType, TriggerEvent triggerEvent) {
         if (!locked) {
             locked = true;
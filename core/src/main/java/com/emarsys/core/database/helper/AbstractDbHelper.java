@@ -15,6 +15,7 @@ import java.util.Map;
 public abstract class AbstractDbHelper extends SQLiteOpenHelper implements DbHelper {
 
     private final Map<TriggerKey, List<Runnable>> triggerMap;
+    private DelegatingCoreSQLiteDatabase coreDatabase;
 
     public AbstractDbHelper(
             Context context,
@@ -34,11 +35,18 @@ public abstract class AbstractDbHelper extends SQLiteOpenHelper implements DbHel
 
     @Override
     public CoreSQLiteDatabase getReadableCoreDatabase() {
-        return new DelegatingCoreSQLiteDatabase(super.getReadableDatabase(), triggerMap);
+        return coreDatabaseFor(super.getReadableDatabase());
     }
 
     @Override
     public CoreSQLiteDatabase getWritableCoreDatabase() {
-        return new DelegatingCoreSQLiteDatabase(super.getWritableDatabase(), triggerMap);
+        return coreDatabaseFor(super.getWritableDatabase());
+    }
+
+    private synchronized CoreSQLiteDatabase coreDatabaseFor(SQLiteDatabase database) {
+        if (coreDatabase == null || coreDatabase.getBackingDatabase() != database) {
+            coreDatabase = new DelegatingCoreSQLiteDatabase(database, triggerMap);
+        }
+        return coreDatabase;
     }
 }
\ No newline at end of file
@@ -10,13 +10,21 @@ import java.util.List;
 import java.util.Map;
 
 public class CoreDbHelper extends AbstractDbHelper {
-    public static final int DATABASE_VERSION = 5;
+    public static final int DATABASE_VERSION = 9;
     public static final String DATABASE_NAME = "EmarsysCore.db";
+    private static final String SYNCHRONOUS_MODE = "NORMAL";
 
     public CoreDbHelper(Context context, Map<TriggerKey, List<Runnable>> triggerMap) {
         super(context, DATABASE_NAME, DATABASE_VERSION, triggerMap);
     }
 
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        db.enableWriteAheadLogging();
+        db.execSQL("PRAGMA synchronous = " + SYNCHRONOUS_MODE + ";");
+        db.setMaxSqlCacheSize(SQLiteDatabase.MAX_SQL_CACHE_SIZE);
+    }
+
     @Override
     public void onCreate(SQLiteDatabase db) {
         onUpgrade(db, 0, DATABASE_VERSION);
@@ -0,0 +1,13 @@
+package com.emarsys.core.database.quota
+
+/**
+ * Upper bounds of the requests and shards queued in EmarsysCore.db. Bytes are counted as the
+ * stored size of the url, headers and payload of requests and the data of shards.
+ */
+data class StorageQuota(val maxRowCount: Int, val maxBytes: Long) {
+
+    init {
+        require(maxRowCount > 0) { "MaxRowCount must be greater than 0!" }
+        require(maxBytes > 0) { "MaxBytes must be greater than 0!" }
+    }
+}
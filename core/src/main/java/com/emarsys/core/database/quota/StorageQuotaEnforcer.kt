@@ -0,0 +1,214 @@
+package com.emarsys.core.database.quota
+
+import android.os.Handler
+import com.emarsys.core.CoreCompletionHandler
+import com.emarsys.core.Mockable
+import com.emarsys.core.database.CoreSQLiteDatabase
+import com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_HEADERS
+import com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PAYLOAD
+import com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PRIORITY
+import com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID
+import com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_URL
+import com.emarsys.core.database.DatabaseContract.REQUEST_TABLE_NAME
+import com.emarsys.core.database.DatabaseContract.SHARD_COLUMN_DATA
+import com.emarsys.core.database.DatabaseContract.SHARD_TABLE_NAME
+import com.emarsys.core.database.helper.DbHelper
+import com.emarsys.core.database.repository.Repository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.database.repository.specification.FilterByExpiration
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.request.RequestEvictedException
+import com.emarsys.core.request.RequestExpiredException
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestPriority
+import com.emarsys.core.request.model.specification.FilterByRequestIds
+import com.emarsys.core.util.batch.PendingShardIndex
+import com.emarsys.core.util.log.Logger
+import com.emarsys.core.util.log.entry.QueueEvictionLog
+import com.emarsys.core.worker.Worker
+import java.net.URL
+
+/**
+ * Keeps the offline queue of EmarsysCore.db within a [StorageQuota].
+ *
+ * Every run first deletes the expired requests and shards with one statement per table, then,
+ * while the queue is over quota, evicts the oldest shards and the oldest [RequestPriority.LOW]
+ * requests. Eviction is opt-in: only requests explicitly created in the [RequestPriority.LOW] lane
+ * (analytics events) can be dropped, [RequestPriority.NORMAL] and [RequestPriority.HIGH] requests
+ * are kept until they are sent or they expire. Requests the [worker] has in flight
+ * are left alone, their response reports them. Dropped requests are reported to the
+ * [CoreCompletionHandler] the same way the worker reports expired requests.
+ *
+ * [run] repeats itself every `sweepIntervalMillis` on the core thread, so the quota is a soft
+ * limit that can be exceeded between two sweeps.
+ */
+@Mockable
+class StorageQuotaEnforcer(
+        private val dbHelper: DbHelper,
+        private val requestRepository: Repository<RequestModel, SqlSpecification>,
+        private val pendingShardIndex: PendingShardIndex,
+        private val worker: Worker,
+        private val storageQuota: StorageQuota,
+        private val timestampProvider: TimestampProvider,
+        private val coreSdkHandler: CoreSdkHandler,
+        private val uiHandler: Handler,
+        private val coreCompletionHandler: CoreCompletionHandler,
+        private val sweepIntervalMillis: Long) : Runnable {
+
+    private companion object {
+        const val REQUEST_SIZE = "length($REQUEST_COLUMN_NAME_URL) + IFNULL(length($REQUEST_COLUMN_NAME_HEADERS), 0) + IFNULL(length($REQUEST_COLUMN_NAME_PAYLOAD), 0)"
+        const val SHARD_SIZE = "IFNULL(length($SHARD_COLUMN_DATA), 0)"
+        const val QUERY_REQUEST_USAGE = "SELECT COUNT(*), IFNULL(SUM($REQUEST_SIZE), 0) FROM $REQUEST_TABLE_NAME;"
+        const val QUERY_SHARD_USAGE = "SELECT COUNT(*), IFNULL(SUM($SHARD_SIZE), 0) FROM $SHARD_TABLE_NAME;"
+        const val QUERY_EXPIRED_REQUESTS = "SELECT $REQUEST_COLUMN_NAME_REQUEST_ID, $REQUEST_COLUMN_NAME_URL FROM $REQUEST_TABLE_NAME WHERE "
+        const val QUERY_EXPIRED_SHARDS = "SELECT ROWID FROM $SHARD_TABLE_NAME WHERE "
+        const val QUERY_SHARDS_BY_AGE = "SELECT ROWID, $SHARD_SIZE FROM $SHARD_TABLE_NAME ORDER BY ROWID ASC;"
+        const val QUERY_EVICTABLE_REQUESTS_BY_AGE = "SELECT $REQUEST_COLUMN_NAME_REQUEST_ID, $REQUEST_COLUMN_NAME_URL, $REQUEST_SIZE " +
+                "FROM $REQUEST_TABLE_NAME WHERE $REQUEST_COLUMN_NAME_PRIORITY = ? ORDER BY ROWID ASC;"
+        const val MAX_IDS_PER_STATEMENT = 500
+        val EVICTABLE_PRIORITY = RequestPriority.LOW
+    }
+
+    private data class Usage(val rowCount: Long, val byteCount: Long) {
+        operator fun plus(other: Usage) = Usage(rowCount + other.rowCount, byteCount + other.byteCount)
+        operator fun minus(other: Usage) = Usage(rowCount - other.rowCount, byteCount - other.byteCount)
+    }
+
+    private data class QueuedRequest(val id: String, val url: String)
+
+    private var sweepScheduled = false
+    private val scheduledSweep = Runnable {
+        sweepScheduled = false
+        run()
+    }
+
+    init {
+        require(sweepIntervalMillis > 0) { "SweepIntervalMillis must be greater than 0!" }
+    }
+
+    override fun run() {
+        enforce()
+        if (!sweepScheduled) {
+            sweepScheduled = true
+            coreSdkHandler.postDelayed(scheduledSweep, sweepIntervalMillis)
+        }
+    }
+
+    fun enforce() {
+        val now = timestampProvider.provideTimestamp()
+        val inFlightRequestIds = worker.inFlightRequestIds
+        val expiredRequests = removeExpiredRequests(now, inFlightRequestIds)
+        val expiredShardCount = removeExpiredShards(now)
+
+        var usage = usageOf(QUERY_REQUEST_USAGE) + usageOf(QUERY_SHARD_USAGE)
+        val evictedShards = evictShards(usage)
+        usage -= evictedShards
+        val evictedRequests = evictRequests(usage, inFlightRequestIds)
+
+        if (expiredRequests.isNotEmpty() || expiredShardCount > 0 || evictedShards.rowCount > 0 || evictedRequests.isNotEmpty()) {
+            usage = usageOf(QUERY_REQUEST_USAGE) + usageOf(QUERY_SHARD_USAGE)
+            Logger.metric(QueueEvictionLog(
+                    expiredRequests.size,
+                    expiredShardCount,
+                    evictedRequests.size,
+                    evictedShards.rowCount.toInt(),
+                    usage.rowCount,
+                    usage.byteCount))
+        }
+    }
+
+    private fun removeExpiredRequests(now: Long, inFlightRequestIds: Set<String>): List<QueuedRequest> {
+        val expired = FilterByExpiration(now)
+        val expiredRequests = mutableListOf<QueuedRequest>()
+        database().rawQuery("$QUERY_EXPIRED_REQUESTS${expired.selection};", expired.selectionArgs).use { cursor ->
+            while (cursor.moveToNext()) {
+                val request = QueuedRequest(cursor.getString(0), cursor.getString(1))
+                if (request.id !in inFlightRequestIds) {
+                    expiredRequests.add(request)
+                }
+            }
+        }
+        if (expiredRequests.isNotEmpty()) {
+            removeRequests(expiredRequests)
+            report(expiredRequests) { RequestExpiredException("Request expired", it) }
+        }
+        return expiredRequests
+    }
+
+    private fun removeExpiredShards(now: Long): Int {
+        val expired = FilterByExpiration(now)
+        val expiredRowIds = mutableListOf<Long>()
+        database().rawQuery("$QUERY_EXPIRED_SHARDS${expired.selection};", expired.selectionArgs).use { cursor ->
+            while (cursor.moveToNext()) {
+                expiredRowIds.add(cursor.getLong(0))
+            }
+        }
+        if (expiredRowIds.isNotEmpty()) {
+            database().delete(SHARD_TABLE_NAME, expired.selection, expired.selectionArgs)
+            pendingShardIndex.onShardsDeleted(expiredRowIds)
+        }
+        return expiredRowIds.size
+    }
+
+    private fun evictShards(usage: Usage): Usage {
+        var evicted = Usage(0, 0)
+        val evictedRowIds = mutableListOf<Long>()
+        database().rawQuery(QUERY_SHARDS_BY_AGE, null).use { cursor ->
+            while (isOverQuota(usage - evicted) && cursor.moveToNext()) {
+                evictedRowIds.add(cursor.getLong(0))
+                evicted += Usage(1, cursor.getLong(1))
+            }
+        }
+        if (evictedRowIds.isNotEmpty()) {
+            database().delete(SHARD_TABLE_NAME, "ROWID <= CAST(? AS INTEGER)", arrayOf(evictedRowIds.last().toString()))
+            pendingShardIndex.onShardsDeleted(evictedRowIds)
+        }
+        return evicted
+    }
+
+    private fun evictRequests(usage: Usage, inFlightRequestIds: Set<String>): List<QueuedRequest> {
+        var evicted = Usage(0, 0)
+        val evictedRequests = mutableListOf<QueuedRequest>()
+        database().rawQuery(QUERY_EVICTABLE_REQUESTS_BY_AGE, arrayOf(EVICTABLE_PRIORITY.value.toString())).use { cursor ->
+            while (isOverQuota(usage - evicted) && cursor.moveToNext()) {
+                val request = QueuedRequest(cursor.getString(0), cursor.getString(1))
+                if (request.id !in inFlightRequestIds) {
+                    evictedRequests.add(request)
+                    evicted += Usage(1, cursor.getLong(2))
+                }
+            }
+        }
+        if (evictedRequests.isNotEmpty()) {
+            removeRequests(evictedRequests)
+            report(evictedRequests) { RequestEvictedException("Request evicted", it) }
+        }
+        return evictedRequests
+    }
+
+    private fun removeRequests(requests: List<QueuedRequest>) {
+        requestRepository.removeAll(requests.chunked(MAX_IDS_PER_STATEMENT).map { chunk ->
+            FilterByRequestIds(chunk.map { it.id }.toTypedArray())
+        })
+    }
+
+    private fun report(requests: List<QueuedRequest>, createCause: (String) -> Exception) {
+        requests.forEach { request ->
+            val cause = createCause(URL(request.url).path)
+            uiHandler.post { coreCompletionHandler.onError(request.id, cause) }
+        }
+    }
+
+    private fun usageOf(query: String): Usage {
+        return database().rawQuery(query, null).use { cursor ->
+            cursor.moveToFirst()
+            Usage(cursor.getLong(0), cursor.getLong(1))
+        }
+    }
+
+    private fun isOverQuota(usage: Usage): Boolean {
+        return usage.rowCount > storageQuota.maxRowCount || usage.byteCount > storageQuota.maxBytes
+    }
+
+    private fun database(): CoreSQLiteDatabase = dbHelper.writableCoreDatabase
+}
@@ -29,6 +29,17 @@ abstract class AbstractSqliteRepository<T>(var tableName: String, var dbHelper:
         }
     }
 
+    override fun addAll(items: List<T>) {
+        if (items.isEmpty()) {
+            return
+        }
+        val contentValues = items.map { contentValuesFromItem(it) }
+        val database = dbHelper.writableCoreDatabase
+        database.inTransaction {
+            insertAll(tableName, contentValues)
+        }
+    }
+
     override fun update(item: T, specification: SqlSpecification): Int {
         val values = contentValuesFromItem(item)
         val database = dbHelper.writableCoreDatabase
@@ -53,20 +64,32 @@ abstract class AbstractSqliteRepository<T>(var tableName: String, var dbHelper:
     override fun remove(specification: SqlSpecification) {
         val database = dbHelper.writableCoreDatabase
         database.inTransaction {
-            delete(
-                    tableName,
-                    specification.selection,
-                    specification.selectionArgs)
+            deleteMatching(specification)
+        }
+    }
+
+    override fun removeAll(specifications: List<SqlSpecification>) {
+        if (specifications.isEmpty()) {
+            return
+        }
+        val database = dbHelper.writableCoreDatabase
+        database.inTransaction {
+            specifications.forEach {
+                deleteMatching(it)
+            }
         }
     }
 
     override fun isEmpty(): Boolean {
         val database = dbHelper.readableCoreDatabase
-        database.rawQuery("SELECT COUNT(*) FROM $tableName;",
-                null).use { cursor ->
-            cursor.moveToFirst()
-            val count = cursor.getInt(cursor.getColumnIndexOrThrow("COUNT(*)"))
-            return count == 0
+        return database.queryForLong("SELECT EXISTS (SELECT 1 FROM $tableName);", null) == 0L
+    }
+
+    private fun CoreSQLiteDatabase.deleteMatching(specification: SqlSpecification) {
+        if (specification is IdSpecification) {
+            deleteByIds(tableName, specification.idColumn, specification.ids)
+        } else {
+            delete(tableName, specification.selection, specification.selectionArgs)
         }
     }
 
@@ -0,0 +1,107 @@
+package com.emarsys.core.database.repository
+
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.util.Assert
+
+/**
+ * Buffers [add] calls for a short window on the core SDK thread and writes them with a single
+ * [Repository.addAll]. Every other operation flushes the buffer first, so reads always observe
+ * previously added items.
+ *
+ * Buffered items only live in memory: if the process is killed they are lost, at most the items
+ * added during the last `coalescingWindowMillis`. Call [flush] when the process may be killed
+ * soon, e.g. when the app goes to the background, to make them durable right away.
+ */
+open class CoalescingRepository<T, S>(
+        private val repository: Repository<T, S>,
+        private val coreSdkHandler: CoreSdkHandler,
+        private val coalescingWindowMillis: Long) : Repository<T, S> {
+
+    private val lock = Any()
+    private var pendingItems: MutableList<T> = mutableListOf()
+    private var flushScheduled = false
+    private val flushRunnable = Runnable {
+        synchronized(lock) {
+            flushScheduled = false
+            flushPendingItems()
+        }
+    }
+
+    init {
+        Assert.notNull(repository, "Repository must not be null!")
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!")
+    }
+
+    override fun add(item: T) {
+        synchronized(lock) {
+            pendingItems.add(item)
+            if (!flushScheduled) {
+                flushScheduled = true
+                coreSdkHandler.postDelayed(flushRunnable, coalescingWindowMillis)
+            }
+        }
+    }
+
+    override fun addAll(items: List<T>) {
+        synchronized(lock) {
+            pendingItems.addAll(items)
+            flushPendingItems()
+        }
+    }
+
+    override fun update(item: T, specification: SqlSpecification): Int {
+        synchronized(lock) {
+            flushPendingItems()
+            return repository.update(item, specification)
+        }
+    }
+
+    override fun remove(specification: S) {
+        synchronized(lock) {
+            flushPendingItems()
+            repository.remove(specification)
+        }
+    }
+
+    override fun removeAll(specifications: List<S>) {
+        synchronized(lock) {
+            flushPendingItems()
+            repository.removeAll(specifications)
+        }
+    }
+
+    override fun query(specification: S): List<T> {
+        synchronized(lock) {
+            flushPendingItems()
+            return repository.query(specification)
+        }
+    }
+
+    override fun isEmpty(): Boolean {
+        synchronized(lock) {
+            flushPendingItems()
+            return repository.isEmpty()
+        }
+    }
+
+    fun flush() {
+        synchronized(lock) {
+            flushPendingItems()
+        }
+    }
+
+    protected fun <R> afterFlush(read: () -> R): R {
+        synchronized(lock) {
+            flushPendingItems()
+            return read()
+        }
+    }
+
+    private fun flushPendingItems() {
+        if (pendingItems.isNotEmpty()) {
+            val items = pendingItems
+            pendingItems = mutableListOf()
+            repository.addAll(items)
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.emarsys.core.database.repository
+
+import com.emarsys.core.database.repository.specification.Everything
+import com.emarsys.core.util.Assert
+
+/**
+ * Keeps the result of the last [Everything] query in memory until the next write, for small
+ * tables that are read far more often than they change. Every write goes through this
+ * repository, so the cached rows cannot get stale.
+ */
+class EverythingCachingRepository<T, S>(private val repository: Repository<T, S>) : Repository<T, S> {
+
+    private val lock = Any()
+    private var everything: List<T>? = null
+
+    init {
+        Assert.notNull(repository, "Repository must not be null!")
+    }
+
+    override fun add(item: T) {
+        synchronized(lock) {
+            everything = null
+            repository.add(item)
+        }
+    }
+
+    override fun addAll(items: List<T>) {
+        synchronized(lock) {
+            everything = null
+            repository.addAll(items)
+        }
+    }
+
+    override fun update(item: T, specification: SqlSpecification): Int {
+        synchronized(lock) {
+            everything = null
+            return repository.update(item, specification)
+        }
+    }
+
+    override fun remove(specification: S) {
+        synchronized(lock) {
+            everything = null
+            repository.remove(specification)
+        }
+    }
+
+    override fun removeAll(specifications: List<S>) {
+        synchronized(lock) {
+            everything = null
+            repository.removeAll(specifications)
+        }
+    }
+
+    override fun query(specification: S): List<T> {
+        synchronized(lock) {
+            return if (specification is Everything) {
+                val result = everything ?: repository.query(specification).also { everything = it }
+                result.toMutableList()
+            } else {
+                repository.query(specification)
+            }
+        }
+    }
+
+    override fun isEmpty(): Boolean {
+        synchronized(lock) {
+            return everything?.isEmpty() ?: repository.isEmpty()
+        }
+    }
+}
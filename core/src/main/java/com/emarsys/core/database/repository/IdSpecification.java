@@ -0,0 +1,13 @@
+package com.emarsys.core.database.repository;
+
+/**
+ * {@link SqlSpecification} that selects rows by the values of their id column only. Repositories remove
+ * such rows with one precompiled delete statement, see {@link com.emarsys.core.database.CoreSQLiteDatabase#deleteByIds}.
+ */
+public interface IdSpecification extends SqlSpecification {
+
+    String getIdColumn();
+
+    String[] getIds();
+
+}
@@ -2,8 +2,10 @@ package com.emarsys.core.database.repository
 
 interface Repository<T, S> {
     fun add(item: T)
+    fun addAll(items: List<T>)
     fun update(item: T, specification: SqlSpecification): Int
     fun remove(specification: S)
+    fun removeAll(specifications: List<S>)
     fun query(specification: S): List<T>
     fun isEmpty(): Boolean
 }
\ No newline at end of file
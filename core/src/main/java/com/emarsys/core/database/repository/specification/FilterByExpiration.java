@@ -0,0 +1,27 @@
+package com.emarsys.core.database.repository.specification;
+
+import com.emarsys.core.database.repository.AbstractSqlSpecification;
+
+/**
+ * Matches the rows of the request and shard tables whose ttl has passed at the given time.
+ * The condition is written as {@code ttl < now - timestamp} instead of {@code timestamp + ttl < now},
+ * because the default ttl is {@link Long#MAX_VALUE} and the sum would overflow.
+ */
+public class FilterByExpiration extends AbstractSqlSpecification {
+
+    private final long now;
+
+    public FilterByExpiration(long now) {
+        this.now = now;
+    }
+
+    @Override
+    public String getSelection() {
+        return "ttl < CAST(? AS INTEGER) - timestamp";
+    }
+
+    @Override
+    public String[] getSelectionArgs() {
+        return new String[]{String.valueOf(now)};
+    }
+}
@@ -68,6 +68,8 @@ interface CoreComponent {
 
     val logShardTrigger: Runnable
 
+    val storageQuotaEnforcer: Runnable
+
     val logger: Logger
 
     val restClient: RestClient
@@ -2,12 +2,27 @@ package com.emarsys.core.handler;
 
 import android.os.Handler
 import com.emarsys.core.Mockable
+import com.emarsys.core.database.CoreSQLiteDatabase
+import java.util.concurrent.Executor
 
+/**
+ * Every task of the core SDK thread goes through [ingestionBuffer], delayed tasks are offered to it
+ * once their delay elapsed. The looper of [handler] is not posted to in any other way, so tasks run
+ * in the order they became due.
+ */
 @Mockable
-class CoreSdkHandler(final val handler: Handler) {
+class CoreSdkHandler @JvmOverloads constructor(private val handler: Handler,
+                                                databaseProvider: (() -> CoreSQLiteDatabase)? = null) {
+
+    val ingestionBuffer = IngestionBuffer(Executor { handler.post(it) }, databaseProvider)
+
     fun post(runnable: Runnable) {
-        handler.post(runnable)
+        ingestionBuffer.offer(runnable)
+    }
+
+    fun postDelayed(runnable: Runnable, delayMillis: Long) {
+        handler.postDelayed({ ingestionBuffer.offer(runnable) }, delayMillis)
     }
 
     val looper = handler.looper
-}
\ No newline at end of file
+}
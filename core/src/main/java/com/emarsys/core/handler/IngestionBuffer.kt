@@ -0,0 +1,138 @@
+package com.emarsys.core.handler
+
+import com.emarsys.core.database.CoreSQLiteDatabase
+import com.emarsys.core.util.log.Logger
+import com.emarsys.core.util.log.entry.IngestionDrainLog
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Multi producer buffer in front of the looper of the core SDK thread, which [looperExecutor] posts to.
+ *
+ * Producers append to a lock free queue and only the first one after the buffer went empty posts a
+ * message to the looper. That message drains the tasks that were queued when it started, at most
+ * [maxBatchSize] of them, and posts itself again if tasks are left. Tasks offered during a drain wait
+ * for the next message, behind the messages the looper already had.
+ *
+ * When a [databaseProvider] is given, the tasks of a drain share one database transaction. A failing
+ * task ends the drain: the transaction is committed (unless the task's own nested transaction was rolled
+ * back, which SQLite extends to the whole batch), the exception is left to
+ * [com.emarsys.core.concurrency.CoreHandler] and the remaining tasks run in the next drain.
+ *
+ * Drain statistics are reported as an [IngestionDrainLog] at most once per [metricIntervalMillis].
+ */
+class IngestionBuffer @JvmOverloads constructor(
+        private val looperExecutor: Executor,
+        private val databaseProvider: (() -> CoreSQLiteDatabase)? = null,
+        private val maxBatchSize: Int = DEFAULT_MAX_BATCH_SIZE,
+        metricIntervalMillis: Long = DEFAULT_METRIC_INTERVAL_MILLIS,
+        private val nanoClock: () -> Long = System::nanoTime) {
+
+    companion object {
+        const val DEFAULT_MAX_BATCH_SIZE = 64
+        const val DEFAULT_METRIC_INTERVAL_MILLIS = 30_000L
+    }
+
+    private val tasks = ConcurrentLinkedQueue<Runnable>()
+    private val depth = AtomicInteger()
+    private val peakDepth = AtomicInteger()
+    private val drainScheduled = AtomicBoolean()
+    private val drainRunnable = Runnable { drain() }
+    private val metricIntervalNanos = TimeUnit.MILLISECONDS.toNanos(metricIntervalMillis)
+
+    private var lastMetricNanos = nanoClock()
+    private var sampledDrainCount = 0
+    private var sampledTaskCount = 0
+    private var sampledMaxDrainLatencyNanos = 0L
+
+    val queueDepth: Int
+        get() = depth.get()
+
+    val maxQueueDepth: Int
+        get() = peakDepth.get()
+
+    @Volatile
+    var lastDrainSize: Int = 0
+        private set
+
+    @Volatile
+    var lastDrainLatencyNanos: Long = 0
+        private set
+
+    init {
+        require(maxBatchSize > 0) { "MaxBatchSize must be greater than 0!" }
+        require(metricIntervalMillis >= 0) { "MetricIntervalMillis must not be negative!" }
+    }
+
+    fun offer(task: Runnable) {
+        tasks.offer(task)
+        val currentDepth = depth.incrementAndGet()
+        var peak = peakDepth.get()
+        while (currentDepth > peak && !peakDepth.compareAndSet(peak, currentDepth)) {
+            peak = peakDepth.get()
+        }
+        scheduleDrain()
+    }
+
+    private fun scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            looperExecutor.execute(drainRunnable)
+        }
+    }
+
+    private fun drain() {
+        try {
+            runBatch()
+        } finally {
+            drainScheduled.set(false)
+            if (tasks.isNotEmpty()) {
+                scheduleDrain()
+            }
+            sampleMetric()
+        }
+    }
+
+    private fun runBatch() {
+        val drainStart = nanoClock()
+        val batchSize = minOf(depth.get(), maxBatchSize)
+        var drained = 0
+        val database = if (batchSize > 0) databaseProvider?.invoke() else null
+        database?.beginTransaction()
+        try {
+            while (drained < batchSize) {
+                val task = tasks.poll() ?: break
+                depth.decrementAndGet()
+                drained++
+                task.run()
+            }
+        } finally {
+            database?.setTransactionSuccessful()
+            database?.endTransaction()
+            lastDrainSize = drained
+            lastDrainLatencyNanos = nanoClock() - drainStart
+        }
+    }
+
+    private fun sampleMetric() {
+        sampledDrainCount++
+        sampledTaskCount += lastDrainSize
+        sampledMaxDrainLatencyNanos = maxOf(sampledMaxDrainLatencyNanos, lastDrainLatencyNanos)
+
+        val now = nanoClock()
+        if (now - lastMetricNanos >= metricIntervalNanos) {
+            Logger.metric(IngestionDrainLog(
+                    sampledDrainCount,
+                    sampledTaskCount,
+                    TimeUnit.NANOSECONDS.toMicros(sampledMaxDrainLatencyNanos),
+                    queueDepth,
+                    maxQueueDepth))
+            lastMetricNanos = now
+            sampledDrainCount = 0
+            sampledTaskCount = 0
+            sampledMaxDrainLatencyNanos = 0
+        }
+    }
+}
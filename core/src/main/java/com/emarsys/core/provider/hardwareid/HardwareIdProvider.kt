@@ -10,25 +10,36 @@ import com.emarsys.core.device.FilterByHardwareId
 import com.emarsys.core.device.HardwareIdentification
 import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.storage.Storage
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
 
+/**
+ * Provides the hardware id of the device. A stored hardware id that is not encrypted yet is
+ * returned right away and encrypted on [encryptionExecutor], so the caller does not wait for the
+ * key derivation of the encryption.
+ */
 @Mockable
-class HardwareIdProvider(private val uuidProvider: UUIDProvider,
-                         private val repository: Repository<HardwareIdentification?, SqlSpecification>,
-                         private val hwIdStorage: Storage<String?>,
-                         private val hardwareIdContentResolver: HardwareIdContentResolver,
-                         private val hardwareIdentificationCrypto: HardwareIdentificationCrypto) {
+class HardwareIdProvider @JvmOverloads constructor(
+        private val uuidProvider: UUIDProvider,
+        private val repository: Repository<HardwareIdentification?, SqlSpecification>,
+        private val hwIdStorage: Storage<String?>,
+        private val hardwareIdContentResolver: HardwareIdContentResolver,
+        private val hardwareIdentificationCrypto: HardwareIdentificationCrypto,
+        private val encryptionExecutor: Executor = Executor { it.run() }) {
+
+    private val encryptionScheduled = AtomicBoolean(false)
 
     fun provideHardwareId(): String {
         val hardware = repository.query(Everything()).firstOrNull()
         return if (hardware != null) {
-            if (hardware.encryptedHardwareId == null) {
-                hardwareIdentificationCrypto.encrypt(hardware).also {
-                    repository.update(it, FilterByHardwareId(it.hardwareId))
+            if (hardware.encryptedHardwareId == null && encryptionScheduled.compareAndSet(false, true)) {
+                encryptionExecutor.execute {
+                    hardwareIdentificationCrypto.encrypt(hardware).also {
+                        repository.update(it, FilterByHardwareId(it.hardwareId))
+                    }
                 }
-                hardware.hardwareId
-            } else {
-                hardware.hardwareId
             }
+            hardware.hardwareId
         } else {
             getHardwareIdentification().also {
                 repository.add(it)
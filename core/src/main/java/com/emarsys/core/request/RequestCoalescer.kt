@@ -0,0 +1,70 @@
+package com.emarsys.core.request
+
+import com.emarsys.core.CoreCompletionHandler
+import com.emarsys.core.Mockable
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.response.ResponseModel
+
+/**
+ * Single flight for requests sent with [RequestManager.submitNow].
+ *
+ * Requests with the same method, url, headers and payload as one that is already in flight do not go
+ * out again, their completion handlers are attached to the in-flight one and all of them receive its
+ * response, each with the id of its own request.
+ */
+@Mockable
+class RequestCoalescer {
+
+    private class Waiter(val requestId: String, val completionHandler: CoreCompletionHandler)
+
+    private val inFlightRequests = mutableMapOf<String, MutableList<Waiter>>()
+
+    /**
+     * Returns the completion handler [requestModel] has to be executed with, or null if an identical
+     * request is already in flight and [completionHandler] will be called with its response instead.
+     */
+    fun join(requestModel: RequestModel, completionHandler: CoreCompletionHandler): CoreCompletionHandler? {
+        val key = keyOf(requestModel)
+        val waiter = Waiter(requestModel.id, completionHandler)
+        synchronized(inFlightRequests) {
+            val waiters = inFlightRequests[key]
+            if (waiters != null) {
+                waiters.add(waiter)
+                return null
+            }
+            inFlightRequests[key] = mutableListOf(waiter)
+        }
+        return FanOutCompletionHandler(key)
+    }
+
+    private fun complete(key: String, notify: (Waiter) -> Unit) {
+        val waiters = synchronized(inFlightRequests) {
+            inFlightRequests.remove(key)
+        }
+        waiters?.forEach(notify)
+    }
+
+    private fun keyOf(requestModel: RequestModel): String {
+        return listOf(
+                requestModel.method.name,
+                requestModel.url.toString(),
+                requestModel.headers.toSortedMap().toString(),
+                requestModel.payload?.toString()
+        ).joinToString("|")
+    }
+
+    private inner class FanOutCompletionHandler(private val key: String) : CoreCompletionHandler {
+
+        override fun onSuccess(id: String?, responseModel: ResponseModel) {
+            complete(key) { it.completionHandler.onSuccess(it.requestId, responseModel) }
+        }
+
+        override fun onError(id: String?, responseModel: ResponseModel) {
+            complete(key) { it.completionHandler.onError(it.requestId, responseModel) }
+        }
+
+        override fun onError(id: String?, cause: Exception) {
+            complete(key) { it.completionHandler.onError(it.requestId, cause) }
+        }
+    }
+}
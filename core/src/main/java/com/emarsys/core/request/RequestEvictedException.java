@@ -0,0 +1,14 @@
+package com.emarsys.core.request;
+
+public class RequestEvictedException extends Exception {
+    private final String endpoint;
+
+    public RequestEvictedException(String message, String endpoint) {
+        super(message);
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -30,6 +30,7 @@ public class RequestManager {
     private final Registry<RequestModel, CompletionListener> callbackRegistry;
     private final CoreCompletionHandler defaultCoreCompletionHandler;
     private final CompletionHandlerProxyProvider completionHandlerProxyProvider;
+    private final RequestCoalescer requestCoalescer;
 
     public RequestManager(
             CoreSdkHandler coreSDKHandler,
@@ -40,6 +41,19 @@ public class RequestManager {
             Registry<RequestModel, CompletionListener> callbackRegistry,
             CoreCompletionHandler defaultCoreCompletionHandler,
             CompletionHandlerProxyProvider completionHandlerProxyProvider) {
+        this(coreSDKHandler, requestRepository, shardRepository, worker, restClient, callbackRegistry, defaultCoreCompletionHandler, completionHandlerProxyProvider, new RequestCoalescer());
+    }
+
+    public RequestManager(
+            CoreSdkHandler coreSDKHandler,
+            Repository<RequestModel, SqlSpecification> requestRepository,
+            Repository<ShardModel, SqlSpecification> shardRepository,
+            Worker worker,
+            RestClient restClient,
+            Registry<RequestModel, CompletionListener> callbackRegistry,
+            CoreCompletionHandler defaultCoreCompletionHandler,
+            CompletionHandlerProxyProvider completionHandlerProxyProvider,
+            RequestCoalescer requestCoalescer) {
         Assert.notNull(coreSDKHandler, "CoreSDKHandler must not be null!");
         Assert.notNull(requestRepository, "RequestRepository must not be null!");
         Assert.notNull(shardRepository, "ShardRepository must not be null!");
@@ -48,6 +62,7 @@ public class RequestManager {
         Assert.notNull(callbackRegistry, "CallbackRegistry must not be null!");
         Assert.notNull(defaultCoreCompletionHandler, "DefaultCoreCompletionHandler must not be null!");
         Assert.notNull(completionHandlerProxyProvider, "CompletionHandlerProxyProvider must not be null!");
+        Assert.notNull(requestCoalescer, "RequestCoalescer must not be null!");
 
         defaultHeaders = new HashMap<>();
         this.requestRepository = requestRepository;
@@ -59,6 +74,7 @@ public class RequestManager {
         this.callbackRegistry = callbackRegistry;
         this.defaultCoreCompletionHandler = defaultCoreCompletionHandler;
         this.completionHandlerProxyProvider = completionHandlerProxyProvider;
+        this.requestCoalescer = requestCoalescer;
     }
 
     public void setDefaultHeaders(Map<String, String> defaultHeaders) {
@@ -104,9 +120,12 @@ public class RequestManager {
         Assert.notNull(requestModel, "RequestModel must not be null!");
         Assert.notNull(completionHandler, "CompletionHandler must not be null!");
 
-        CoreCompletionHandler handler = completionHandlerProxyProvider.provideProxy(null, completionHandler);
+        CoreCompletionHandler coalescedHandler = requestCoalescer.join(requestModel, completionHandler);
+        if (coalescedHandler != null) {
+            CoreCompletionHandler handler = completionHandlerProxyProvider.provideProxy(null, coalescedHandler);
 
-        restClient.execute(requestModel, handler);
+            restClient.execute(requestModel, handler);
+        }
     }
 
     void injectDefaultHeaders(RequestModel model) {
@@ -1,67 +1,85 @@
 package com.emarsys.core.request
 
-import android.os.AsyncTask
 import com.emarsys.core.CoreCompletionHandler
 import com.emarsys.core.Mapper
+import com.emarsys.core.connection.ConnectionMetrics
 import com.emarsys.core.connection.ConnectionProvider
+import com.emarsys.core.connection.PayloadMetrics
 import com.emarsys.core.handler.CoreSdkHandler
 import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.request.compression.RequestCompressionPolicy
 import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.response.ResponseBodyReader
 import com.emarsys.core.response.ResponseHandlersProcessor
 import com.emarsys.core.response.ResponseModel
-import com.emarsys.core.util.JsonUtils.fromMap
-import com.emarsys.core.util.filterNotNull
+import com.emarsys.core.util.GzipUtils.gzip
 import com.emarsys.core.util.log.Logger.Companion.debug
 import com.emarsys.core.util.log.Logger.Companion.info
 import com.emarsys.core.util.log.entry.RequestLog
+import com.emarsys.core.util.serialization.JsonStreamWriter
 import java.io.BufferedOutputStream
-import java.io.BufferedReader
+import java.io.ByteArrayOutputStream
 import java.io.InputStream
-import java.io.InputStreamReader
-import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPInputStream
 import javax.net.ssl.HttpsURLConnection
 
-open class RequestTask(
+open class RequestTask @JvmOverloads constructor(
         private val requestModel: RequestModel,
         private val coreCompletionHandler: CoreCompletionHandler,
         private val connectionProvider: ConnectionProvider,
         private val timestampProvider: TimestampProvider,
         private val responseHandlersProcessor: ResponseHandlersProcessor,
         private val requestModelMappers: List<Mapper<RequestModel, RequestModel>>,
-        private val coreSdkHandler: CoreSdkHandler) : AsyncTask<Void, Long, Void>() {
+        private val coreSdkHandler: CoreSdkHandler,
+        private val compressionPolicy: RequestCompressionPolicy = RequestCompressionPolicy.disabled()) : Runnable {
 
     companion object {
         private const val TIMEOUT = 30000
+        private const val GZIP = "gzip"
+        private const val PAYLOAD_BUFFER_SIZE = 1024
     }
 
+    private val responseBodyReader = ResponseBodyReader()
     private var responseModel: ResponseModel? = null
     private var exception: Exception? = null
 
-    public override fun doInBackground(vararg params: Void?): Void? {
+    override fun run() {
+        sendRequest()
+        dispatchResult()
+    }
+
+    private fun sendRequest() {
         val dbEnd = timestampProvider.provideTimestamp()
         var connection: HttpsURLConnection? = null
         try {
             val updatedRequestModel = mapRequestModel(requestModel)
             connection = connectionProvider.provideConnection(updatedRequestModel)
             initializeConnection(connection, updatedRequestModel)
+            val payload = serializePayload(updatedRequestModel)
+            val compressedPayload = payload?.let { compressPayload(connection, updatedRequestModel, it) }
+            val payloadMetrics = payload?.let { PayloadMetrics(it.size(), compressedPayload?.size ?: it.size()) }
             connection.connectTimeout = 20000
+            val connectStart = timestampProvider.provideTimestamp()
+            val handshakesBeforeConnect = connectionProvider.provideHandshakeCount()
             connection.connect()
-            sendBody(connection, updatedRequestModel)
-            responseModel = readResponse(connection)
+            val connectionMetrics = ConnectionMetrics(
+                    timestampProvider.provideTimestamp() - connectStart,
+                    connectionProvider.provideHandshakeCount() - handshakesBeforeConnect)
+            sendBody(connection, payload, compressedPayload)
+            val response = readResponse(connection)
+            responseModel = response
 
-            debug(RequestLog(responseModel!!, dbEnd, updatedRequestModel))
-            info(RequestLog(responseModel!!, dbEnd), strict = true)
+            debug { RequestLog(response, dbEnd, updatedRequestModel, connectionMetrics, payloadMetrics) }
+            info(strict = true) { RequestLog(response, dbEnd, connectionMetrics = connectionMetrics, payloadMetrics = payloadMetrics) }
 
         } catch (e: Exception) {
             exception = e
-        } finally {
             connection?.disconnect()
         }
-        return null
     }
 
-    override fun onPostExecute(result: Void?) {
+    private fun dispatchResult() {
         coreSdkHandler.post {
             if (exception != null) {
                 coreCompletionHandler.onError(requestModel.id, exception)
@@ -79,6 +97,9 @@ open class RequestTask(
     private fun initializeConnection(connection: HttpsURLConnection, model: RequestModel) {
         connection.requestMethod = model.method.name
         setHeaders(connection, model.headers)
+        if (connection.getRequestProperty("Accept-Encoding") == null) {
+            connection.setRequestProperty("Accept-Encoding", GZIP)
+        }
         connection.connectTimeout = TIMEOUT
         if (model.method != RequestMethod.GET && model.payload != null) {
             connection.doOutput = true
@@ -91,11 +112,31 @@ open class RequestTask(
         }
     }
 
-    private fun sendBody(connection: HttpsURLConnection, model: RequestModel) {
-        if (model.payload != null) {
-            val payload = fromMap(model.payload!!.filterNotNull()).toString().toByteArray(StandardCharsets.UTF_8)
+    private fun serializePayload(model: RequestModel): ByteArrayOutputStream? {
+        return model.payload?.let {
+            val outputStream = ByteArrayOutputStream(PAYLOAD_BUFFER_SIZE)
+            JsonStreamWriter(outputStream).writeMap(it)
+            outputStream
+        }
+    }
+
+    private fun compressPayload(connection: HttpsURLConnection, model: RequestModel, payload: ByteArrayOutputStream): ByteArray? {
+        return if (compressionPolicy.shouldCompress(model, payload.size())) {
+            connection.setRequestProperty("Content-Encoding", GZIP)
+            gzip(payload.toByteArray())
+        } else {
+            null
+        }
+    }
+
+    private fun sendBody(connection: HttpsURLConnection, payload: ByteArrayOutputStream?, compressedPayload: ByteArray?) {
+        if (payload != null) {
             val writer = BufferedOutputStream(connection.outputStream)
-            writer.write(payload)
+            if (compressedPayload != null) {
+                writer.write(compressedPayload)
+            } else {
+                payload.writeTo(writer)
+            }
             writer.close()
         }
     }
@@ -114,22 +155,22 @@ open class RequestTask(
                 .build()
     }
 
-    private fun readBody(connection: HttpsURLConnection?): String {
+    private fun readBody(connection: HttpsURLConnection?): ByteArray {
         val responseCode = connection!!.responseCode
-        val inputStream: InputStream
-        inputStream = if (isStatusCodeOK(responseCode)) {
+        val inputStream: InputStream? = if (isStatusCodeOK(responseCode)) {
             connection.inputStream
         } else {
             connection.errorStream
         }
-        val reader = BufferedReader(InputStreamReader(inputStream))
-        var inputLine: String?
-        val sb = StringBuilder()
-        while (reader.readLine().also { inputLine = it } != null) {
-            sb.append(inputLine)
+        if (inputStream == null) {
+            return ByteArray(0)
+        }
+        val decodedInputStream = if (GZIP.equals(connection.contentEncoding, ignoreCase = true)) {
+            GZIPInputStream(inputStream)
+        } else {
+            inputStream
         }
-        reader.close()
-        return sb.toString()
+        return responseBodyReader.read(decodedInputStream) { connection.disconnect() }
     }
 
     private fun isStatusCodeOK(responseCode: Int): Boolean {
@@ -1,19 +1,18 @@
 package com.emarsys.core.request;
 
-import android.os.AsyncTask;
-import android.os.Handler;
-import android.os.Looper;
-
 import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.Mapper;
 import com.emarsys.core.connection.ConnectionProvider;
 import com.emarsys.core.handler.CoreSdkHandler;
 import com.emarsys.core.provider.timestamp.TimestampProvider;
+import com.emarsys.core.request.compression.RequestCompressionPolicy;
 import com.emarsys.core.request.model.RequestModel;
 import com.emarsys.core.response.ResponseHandlersProcessor;
 import com.emarsys.core.util.Assert;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 public class RestClient {
 
@@ -21,32 +20,46 @@ public class RestClient {
     private TimestampProvider timestampProvider;
     private ResponseHandlersProcessor responseHandlersProcessor;
     private List<Mapper<RequestModel, RequestModel>> requestModelMappers;
-    private Handler uiHandler;
+    private Executor networkingExecutor;
     private CoreSdkHandler coreSdkHandler;
+    private RequestCompressionPolicy compressionPolicy;
 
     public RestClient(
             ConnectionProvider connectionProvider,
             TimestampProvider timestampProvider,
             ResponseHandlersProcessor responseHandlersProcessor,
             List<Mapper<RequestModel, RequestModel>> requestModelMappers,
-            Handler uiHandler,
+            Executor networkingExecutor,
             CoreSdkHandler coreSdkHandler) {
+        this(connectionProvider, timestampProvider, responseHandlersProcessor, requestModelMappers, networkingExecutor, coreSdkHandler, RequestCompressionPolicy.disabled());
+    }
+
+    public RestClient(
+            ConnectionProvider connectionProvider,
+            TimestampProvider timestampProvider,
+            ResponseHandlersProcessor responseHandlersProcessor,
+            List<Mapper<RequestModel, RequestModel>> requestModelMappers,
+            Executor networkingExecutor,
+            CoreSdkHandler coreSdkHandler,
+            RequestCompressionPolicy compressionPolicy) {
         Assert.notNull(connectionProvider, "ConnectionProvider must not be null!");
         Assert.notNull(timestampProvider, "TimestampProvider must not be null!");
         Assert.notNull(responseHandlersProcessor, "ResponseHandlersProcessor must not be null!");
         Assert.notNull(requestModelMappers, "RequestModelMappers must not be null!");
-        Assert.notNull(uiHandler, "UiHandler must not be null!");
+        Assert.notNull(networkingExecutor, "NetworkingExecutor must not be null!");
         Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
+        Assert.notNull(compressionPolicy, "CompressionPolicy must not be null!");
 
         this.connectionProvider = connectionProvider;
         this.timestampProvider = timestampProvider;
         this.responseHandlersProcessor = responseHandlersProcessor;
         this.requestModelMappers = requestModelMappers;
-        this.uiHandler = uiHandler;
+        this.networkingExecutor = networkingExecutor;
         this.coreSdkHandler = coreSdkHandler;
+        this.compressionPolicy = compressionPolicy;
     }
 
-    public void execute(RequestModel model, CoreCompletionHandler completionHandler) {
+    public void execute(final RequestModel model, final CoreCompletionHandler completionHandler) {
         Assert.notNull(model, "Model must not be null!");
         Assert.notNull(completionHandler, "CoreCompletionHandler must not be null!");
 
@@ -57,15 +70,16 @@ public class RestClient {
                 timestampProvider,
                 responseHandlersProcessor,
                 requestModelMappers,
-                coreSdkHandler);
+                coreSdkHandler,
+                compressionPolicy);
 
-        if (Looper.myLooper() == uiHandler.getLooper()) {
-            task.executeOnExecutor(AsyncTask.SERIAL_EXECUTOR);
-        } else {
-            uiHandler.post(new Runnable() {
+        try {
+            networkingExecutor.execute(task);
+        } catch (final RejectedExecutionException exception) {
+            coreSdkHandler.post(new Runnable() {
                 @Override
                 public void run() {
-                    task.executeOnExecutor(AsyncTask.SERIAL_EXECUTOR);
+                    completionHandler.onError(model.getId(), exception);
                 }
             });
         }
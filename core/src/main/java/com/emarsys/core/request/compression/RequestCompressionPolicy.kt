@@ -0,0 +1,28 @@
+package com.emarsys.core.request.compression
+
+import com.emarsys.core.Mockable
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.util.Assert
+import com.emarsys.core.util.predicate.Predicate
+
+@Mockable
+class RequestCompressionPolicy(
+        private val compressibleRequestPredicate: Predicate<RequestModel>,
+        private val minimumPayloadSize: Int) {
+
+    companion object {
+        @JvmStatic
+        fun disabled(): RequestCompressionPolicy {
+            return RequestCompressionPolicy(Predicate { false }, Int.MAX_VALUE)
+        }
+    }
+
+    init {
+        Assert.notNull(compressibleRequestPredicate, "CompressibleRequestPredicate must not be null!")
+        Assert.positiveInt(minimumPayloadSize, "MinimumPayloadSize must be greater than 0!")
+    }
+
+    fun shouldCompress(requestModel: RequestModel, payloadSize: Int): Boolean {
+        return payloadSize >= minimumPayloadSize && compressibleRequestPredicate.evaluate(requestModel)
+    }
+}
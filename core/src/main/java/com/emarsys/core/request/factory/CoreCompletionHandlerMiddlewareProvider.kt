@@ -6,18 +6,21 @@ import com.emarsys.core.Mockable
 import com.emarsys.core.database.repository.Repository
 import com.emarsys.core.database.repository.SqlSpecification
 import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.worker.CoreCompletionHandlerMiddleware
+import com.emarsys.core.worker.RetryScheduler
 import com.emarsys.core.worker.Worker
 
 @Mockable
-class CoreCompletionHandlerMiddlewareProvider(
+class CoreCompletionHandlerMiddlewareProvider @JvmOverloads constructor(
         private val requestRepository: Repository<RequestModel, SqlSpecification>,
         private val uiHandler: Handler,
-        private val coreSdkHandler: CoreSdkHandler) : CompletionHandlerProxyProvider {
+        private val coreSdkHandler: CoreSdkHandler,
+        private val retryScheduler: RetryScheduler = RetryScheduler(coreSdkHandler, TimestampProvider())) : CompletionHandlerProxyProvider {
 
 
     override fun provideProxy(worker: Worker?, completionHandler: CoreCompletionHandler?): CoreCompletionHandler {
-        return CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, coreSdkHandler, completionHandler)
+        return CoreCompletionHandlerMiddleware(worker, requestRepository, uiHandler, coreSdkHandler, completionHandler, retryScheduler)
     }
 }
\ No newline at end of file
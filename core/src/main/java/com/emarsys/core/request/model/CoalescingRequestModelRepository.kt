@@ -0,0 +1,25 @@
+package com.emarsys.core.request.model
+
+import com.emarsys.core.database.repository.CoalescingRepository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.handler.CoreSdkHandler
+
+/**
+ * [CoalescingRepository] in front of the request queue. Bursts of requests that are added while the
+ * worker does not read the queue, e.g. while offline, are written with a single insert statement.
+ *
+ * The [RequestQueueIndex] of the mirror stays available, buffered requests are flushed before it answers.
+ */
+class CoalescingRequestModelRepository(
+        private val repository: MirroredRequestModelRepository,
+        coreSdkHandler: CoreSdkHandler,
+        coalescingWindowMillis: Long) : CoalescingRepository<RequestModel, SqlSpecification>(repository, coreSdkHandler, coalescingWindowMillis), RequestQueueIndex {
+
+    override fun queuedRequestCounts(): Map<RequestPriority, Int> {
+        return afterFlush { repository.queuedRequestCounts() }
+    }
+
+    override fun isHeldBack(requestId: String): Boolean {
+        return afterFlush { repository.isHeldBack(requestId) }
+    }
+}
@@ -0,0 +1,125 @@
+package com.emarsys.core.request.model
+
+import com.emarsys.core.Mockable
+import com.emarsys.core.database.repository.Repository
+import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.request.model.specification.FilterByRequestIds
+import com.emarsys.core.request.model.specification.QueryLatestRequestModel
+import com.emarsys.core.util.Assert
+
+/**
+ * Keeps the ids of the queued requests in memory, in one insertion ordered lane per
+ * [RequestPriority], next to the request table. [isEmpty] and [QueryLatestRequestModel] queries
+ * are answered from the mirror, so the worker loop only reads the rows it is about to send, by
+ * their indexed ids, and lower lanes get a fair share of the queue head without crossing barrier
+ * requests (see [RequestLanes]).
+ *
+ * The lane sizes and barrier positions are exposed through [RequestQueueIndex].
+ *
+ * The mirror is loaded lazily with a single id-only query. Removals by anything other than
+ * [FilterByRequestIds] cannot be mirrored and make it reload on the next access.
+ */
+@Mockable
+class MirroredRequestModelRepository(private val repository: RequestModelRepository) : Repository<RequestModel, SqlSpecification>, RequestQueueIndex {
+
+    private val lock = Any()
+    private var queuedIds: RequestLanes? = null
+
+    init {
+        Assert.notNull(repository, "Repository must not be null!")
+    }
+
+    override fun add(item: RequestModel) {
+        synchronized(lock) {
+            repository.add(item)
+            queuedIds?.add(item.id, item.priority, item.barrier)
+        }
+    }
+
+    override fun addAll(items: List<RequestModel>) {
+        synchronized(lock) {
+            repository.addAll(items)
+            items.forEach { queuedIds?.add(it.id, it.priority, it.barrier) }
+        }
+    }
+
+    override fun update(item: RequestModel, specification: SqlSpecification): Int {
+        synchronized(lock) {
+            queuedIds = null
+            return repository.update(item, specification)
+        }
+    }
+
+    override fun remove(specification: SqlSpecification) {
+        synchronized(lock) {
+            repository.remove(specification)
+            forget(specification)
+        }
+    }
+
+    override fun removeAll(specifications: List<SqlSpecification>) {
+        synchronized(lock) {
+            repository.removeAll(specifications)
+            specifications.forEach { forget(it) }
+        }
+    }
+
+    override fun query(specification: SqlSpecification): List<RequestModel> {
+        synchronized(lock) {
+            return if (specification is QueryLatestRequestModel) {
+                queryHead(specification)
+            } else {
+                repository.query(specification)
+            }
+        }
+    }
+
+    override fun isEmpty(): Boolean {
+        synchronized(lock) {
+            return loadedQueuedIds().isEmpty()
+        }
+    }
+
+    override fun queuedRequestCounts(): Map<RequestPriority, Int> {
+        synchronized(lock) {
+            val lanes = loadedQueuedIds()
+            return RequestPriority.values().associateWith { lanes.size(it) }
+        }
+    }
+
+    override fun isHeldBack(requestId: String): Boolean {
+        synchronized(lock) {
+            return loadedQueuedIds().isHeldBack(requestId)
+        }
+    }
+
+    private fun queryHead(specification: QueryLatestRequestModel): List<RequestModel> {
+        val excludedIds = specification.excludedRequestIds.toSet()
+        val headIds = loadedQueuedIds().head(specification.maxResultCount, excludedIds)
+        if (headIds.isEmpty()) {
+            return mutableListOf()
+        }
+        val models = repository.query(FilterByRequestIds(headIds.toTypedArray()))
+        if (models.size < headIds.size) {
+            queuedIds = null
+            return repository.query(specification)
+        }
+        val positions = headIds.withIndex().associate { it.value to it.index }
+        return models.sortedBy { positions[it.id] }.toMutableList()
+    }
+
+    private fun forget(specification: SqlSpecification) {
+        if (specification is FilterByRequestIds) {
+            specification.args.forEach { queuedIds?.remove(it) }
+        } else {
+            queuedIds = null
+        }
+    }
+
+    private fun loadedQueuedIds(): RequestLanes {
+        return queuedIds ?: RequestLanes().also { lanes ->
+            repository.queryQueuedRequests().forEach { lanes.add(it.id, it.priority, it.barrier) }
+            queuedIds = lanes
+        }
+    }
+}
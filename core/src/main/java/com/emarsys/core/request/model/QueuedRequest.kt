@@ -0,0 +1,3 @@
+package com.emarsys.core.request.model
+
+data class QueuedRequest(val id: String, val priority: RequestPriority, val barrier: Boolean)
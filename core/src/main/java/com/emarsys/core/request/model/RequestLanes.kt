@@ -0,0 +1,110 @@
+package com.emarsys.core.request.model
+
+/**
+ * Queued request ids split into one insertion ordered lane per [RequestPriority].
+ *
+ * [head] drains the lanes in priority order, except that a non-empty lane which has been passed
+ * over [fairnessWindow] times in a row gets its oldest request in front, so a steady stream of
+ * high priority requests cannot starve the lower lanes.
+ *
+ * A barrier request (see [RequestModel.barrier]) closes the lanes of the requests queued before it
+ * and opens new ones. The first queued barrier is drained in front of every earlier request, while
+ * every later request is held back until the barrier has left the queue.
+ */
+internal class RequestLanes(private val fairnessWindow: Int = DEFAULT_FAIRNESS_WINDOW) {
+
+    companion object {
+        const val DEFAULT_FAIRNESS_WINDOW = 8
+    }
+
+    private val segments = ArrayDeque<Segment>()
+    private val segmentsById = mutableMapOf<String, Segment>()
+
+    init {
+        require(fairnessWindow > 0) { "FairnessWindow must be greater than 0!" }
+    }
+
+    fun add(id: String, priority: RequestPriority, barrier: Boolean = false) {
+        if (segmentsById.containsKey(id)) {
+            return
+        }
+        val segment = if (barrier || segments.isEmpty()) {
+            Segment(if (barrier) id else null).also { segments.addLast(it) }
+        } else {
+            segments.last()
+        }
+        segment.add(id, priority)
+        segmentsById[id] = segment
+    }
+
+    fun remove(id: String) {
+        segmentsById.remove(id)?.let { segment ->
+            segment.remove(id)
+            if (segment.isEmpty()) {
+                segments.remove(segment)
+            }
+        }
+    }
+
+    fun head(limit: Int, excludedIds: Set<String>): List<String> {
+        val firstBarrierIndex = segments.indexOfFirst { it.barrierId != null }
+        val openSegments = if (firstBarrierIndex < 0) segments else segments.subList(0, firstBarrierIndex)
+        val barrier = segments.getOrNull(firstBarrierIndex)?.barrierId?.takeIf { it !in excludedIds }
+        return (listOfNotNull(barrier).asSequence() + openSegments.asSequence().flatMap { it.head(excludedIds) })
+                .take(limit)
+                .toList()
+    }
+
+    fun isHeldBack(id: String): Boolean {
+        val segment = segmentsById[id] ?: return false
+        val firstBarrierIndex = segments.indexOfFirst { it.barrierId != null }
+        val segmentIndex = segments.indexOf(segment)
+        return firstBarrierIndex >= 0 && (segmentIndex > firstBarrierIndex || segmentIndex == firstBarrierIndex && id != segment.barrierId)
+    }
+
+    fun size(priority: RequestPriority) = segments.sumBy { it.size(priority) }
+
+    fun isEmpty() = segmentsById.isEmpty()
+
+    private inner class Segment(barrierId: String?) {
+        var barrierId = barrierId
+            private set
+        private val lanes: Map<RequestPriority, LinkedHashSet<String>> = RequestPriority.values().associateWith { LinkedHashSet<String>() }
+        private val passedOver: MutableMap<RequestPriority, Int> = RequestPriority.values().associateWithTo(mutableMapOf()) { 0 }
+        private val priorities = mutableMapOf<String, RequestPriority>()
+
+        fun add(id: String, priority: RequestPriority) {
+            priorities[id] = priority
+            if (id != barrierId) {
+                lanes.getValue(priority).add(id)
+            }
+        }
+
+        fun remove(id: String) {
+            val servedPriority = priorities.remove(id) ?: return
+            if (id == barrierId) {
+                barrierId = null
+                return
+            }
+            lanes.getValue(servedPriority).remove(id)
+            passedOver[servedPriority] = 0
+            RequestPriority.values()
+                    .filter { it.value < servedPriority.value && lanes.getValue(it).isNotEmpty() }
+                    .forEach { passedOver[it] = passedOver.getValue(it) + 1 }
+        }
+
+        fun head(excludedIds: Set<String>): Sequence<String> {
+            val starved = RequestPriority.values()
+                    .filter { passedOver.getValue(it) >= fairnessWindow }
+                    .mapNotNull { lane -> lanes.getValue(lane).firstOrNull { it !in excludedIds } }
+            val rest = RequestPriority.values().asSequence()
+                    .flatMap { lanes.getValue(it).asSequence() }
+                    .filterNot { it in excludedIds || it in starved }
+            return starved.asSequence() + rest
+        }
+
+        fun size(priority: RequestPriority) = priorities.values.count { it == priority }
+
+        fun isEmpty() = priorities.isEmpty()
+    }
+}
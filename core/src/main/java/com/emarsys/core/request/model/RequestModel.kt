@@ -16,6 +16,8 @@ class RequestModel @JvmOverloads constructor(private val urlStr: String,
                                              val timestamp: Long,
                                              val ttl: Long,
                                              val id: String,
+                                             val priority: RequestPriority = RequestPriority.NORMAL,
+                                             val barrier: Boolean = false,
                                              val url: URL = URL(urlStr)) : Serializable {
 
     open class Builder {
@@ -28,6 +30,8 @@ class RequestModel @JvmOverloads constructor(private val urlStr: String,
         protected var ttl: Long = Long.MAX_VALUE
 
         protected var id: String
+        protected var priority: RequestPriority = RequestPriority.NORMAL
+        protected var barrier: Boolean = false
         protected var queryParams: Map<String, String>? = null
 
         constructor(timestampProvider: TimestampProvider, uuidProvider: UUIDProvider) {
@@ -44,6 +48,8 @@ class RequestModel @JvmOverloads constructor(private val urlStr: String,
             timestamp = requestModel.timestamp
             ttl = requestModel.ttl
             id = requestModel.id
+            priority = requestModel.priority
+            barrier = requestModel.barrier
         }
 
         open fun url(url: String): Builder {
@@ -71,13 +77,32 @@ class RequestModel @JvmOverloads constructor(private val urlStr: String,
             return this
         }
 
+        open fun id(id: String): Builder {
+            this.id = id
+            return this
+        }
+
         open fun ttl(ttl: Long): Builder {
             this.ttl = ttl
             return this
         }
 
+        open fun priority(priority: RequestPriority): Builder {
+            this.priority = priority
+            return this
+        }
+
+        /**
+         * Marks the request as a barrier of the queue: it is sent ahead of the requests queued
+         * before it, and the requests queued after it wait until it has left the queue.
+         */
+        open fun barrier(barrier: Boolean): Builder {
+            this.barrier = barrier
+            return this
+        }
+
         open fun build(): RequestModel {
-            return RequestModel(buildUrl(), method, payload, headers, timestamp, ttl, id)
+            return RequestModel(buildUrl(), method, payload, headers, timestamp, ttl, id, priority, barrier)
         }
 
         fun buildUrl(): String {
@@ -103,6 +128,8 @@ class RequestModel @JvmOverloads constructor(private val urlStr: String,
         if (timestamp != other.timestamp) return false
         if (ttl != other.ttl) return false
         if (id != other.id) return false
+        if (priority != other.priority) return false
+        if (barrier != other.barrier) return false
         if (url != other.url) return false
 
         return true
@@ -115,6 +142,8 @@ class RequestModel @JvmOverloads constructor(private val urlStr: String,
         result = 31 * result + timestamp.hashCode()
         result = 31 * result + ttl.hashCode()
         result = 31 * result + id.hashCode()
+        result = 31 * result + priority.hashCode()
+        result = 31 * result + barrier.hashCode()
         result = 31 * result + url.hashCode()
         return result
     }
@@ -8,18 +8,23 @@ import com.emarsys.core.database.helper.DbHelper;
 import com.emarsys.core.database.repository.AbstractSqliteRepository;
 import com.emarsys.core.util.serialization.SerializationException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_BARRIER;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_HEADERS;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_HOST;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_METHOD;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PAYLOAD;
+import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_PRIORITY;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_TIMESTAMP;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_TTL;
 import static com.emarsys.core.database.DatabaseContract.REQUEST_COLUMN_NAME_URL;
-import static com.emarsys.core.util.serialization.SerializationUtils.blobToSerializable;
-import static com.emarsys.core.util.serialization.SerializationUtils.serializableToBlob;
+import static com.emarsys.core.util.serialization.CompactBinaryCodec.decode;
+import static com.emarsys.core.util.serialization.CompactBinaryCodec.encode;
 
 public class RequestModelRepository extends AbstractSqliteRepository<RequestModel> {
 
@@ -33,13 +38,27 @@ public class RequestModelRepository extends AbstractSqliteRepository<RequestMode
         contentValues.put(REQUEST_COLUMN_NAME_REQUEST_ID, item.getId());
         contentValues.put(REQUEST_COLUMN_NAME_METHOD, item.getMethod().name());
         contentValues.put(REQUEST_COLUMN_NAME_URL, item.getUrl().toString());
-        contentValues.put(REQUEST_COLUMN_NAME_HEADERS, serializableToBlob(item.getHeaders()));
-        contentValues.put(REQUEST_COLUMN_NAME_PAYLOAD, serializableToBlob(item.getPayload()));
+        contentValues.put(REQUEST_COLUMN_NAME_HEADERS, encode(item.getHeaders()));
+        contentValues.put(REQUEST_COLUMN_NAME_PAYLOAD, encode(item.getPayload()));
         contentValues.put(REQUEST_COLUMN_NAME_TIMESTAMP, item.getTimestamp());
         contentValues.put(REQUEST_COLUMN_NAME_TTL, item.getTtl());
+        contentValues.put(REQUEST_COLUMN_NAME_HOST, item.getUrl().getHost());
+        contentValues.put(REQUEST_COLUMN_NAME_PRIORITY, item.getPriority().getValue());
+        contentValues.put(REQUEST_COLUMN_NAME_BARRIER, item.getBarrier() ? 1 : 0);
         return contentValues;
     }
 
+    public List<QueuedRequest> queryQueuedRequests() {
+        List<QueuedRequest> result = new ArrayList<>();
+        try (Cursor cursor = getDbHelper().getReadableCoreDatabase().rawQuery(
+                "SELECT " + REQUEST_COLUMN_NAME_REQUEST_ID + ", " + REQUEST_COLUMN_NAME_PRIORITY + ", " + REQUEST_COLUMN_NAME_BARRIER + " FROM " + getTableName() + " ORDER BY ROWID ASC;", null)) {
+            while (cursor.moveToNext()) {
+                result.add(new QueuedRequest(cursor.getString(0), RequestPriority.fromValue(cursor.getInt(1)), cursor.getInt(2) != 0));
+            }
+        }
+        return result;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public RequestModel itemFromCursor(Cursor cursor) {
@@ -49,20 +68,22 @@ public class RequestModelRepository extends AbstractSqliteRepository<RequestMode
 
         Map<String, String> headers = new HashMap<>();
         try {
-            headers = (Map<String, String>) blobToSerializable(cursor.getBlob(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_HEADERS)));
+            headers = (Map<String, String>) decode(cursor.getBlob(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_HEADERS)));
         } catch (SerializationException | ClassCastException ignored) {
         }
 
         Map<String, Object> payload = new HashMap<>();
         try {
-            payload = (Map<String, Object>) blobToSerializable(cursor.getBlob(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_PAYLOAD)));
+            payload = (Map<String, Object>) decode(cursor.getBlob(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_PAYLOAD)));
         } catch (SerializationException | ClassCastException ignored) {
         }
 
         long timeStamp = cursor.getLong(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_TIMESTAMP));
         long ttl = cursor.getLong(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_TTL));
+        RequestPriority priority = RequestPriority.fromValue(cursor.getInt(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_PRIORITY)));
+        boolean barrier = cursor.getInt(cursor.getColumnIndexOrThrow(REQUEST_COLUMN_NAME_BARRIER)) != 0;
 
-        return new RequestModel(url, method, payload, headers, timeStamp, ttl, requestId);
+        return new RequestModel(url, method, payload, headers, timeStamp, ttl, requestId, priority, barrier);
     }
 
 }
@@ -0,0 +1,19 @@
+package com.emarsys.core.request.model
+
+/**
+ * Lane of a request in the persistent queue. Higher lanes are drained first; the stored value
+ * keeps rows written before priorities existed in the [NORMAL] lane. [LOW] is also the only lane
+ * the storage quota may evict from, so only droppable analytics requests should be put there.
+ */
+enum class RequestPriority(val value: Int) {
+    HIGH(1),
+    NORMAL(0),
+    LOW(-1);
+
+    companion object {
+        @JvmStatic
+        fun fromValue(value: Int): RequestPriority {
+            return values().firstOrNull { it.value == value } ?: NORMAL
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.emarsys.core.request.model
+
+/**
+ * Answers questions about the queued requests from memory, without reading the request table.
+ */
+interface RequestQueueIndex {
+
+    /**
+     * Number of queued requests per [RequestPriority], every priority included.
+     */
+    fun queuedRequestCounts(): Map<RequestPriority, Int>
+
+    /**
+     * Whether the request is queued behind a barrier request that is still in the queue, and so
+     * must not be sent yet.
+     */
+    fun isHeldBack(requestId: String): Boolean
+}
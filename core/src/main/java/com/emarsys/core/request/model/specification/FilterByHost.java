@@ -0,0 +1,25 @@
+package com.emarsys.core.request.model.specification;
+
+import com.emarsys.core.database.DatabaseContract;
+import com.emarsys.core.database.repository.AbstractSqlSpecification;
+import com.emarsys.core.util.Assert;
+
+public class FilterByHost extends AbstractSqlSpecification {
+
+    private final String host;
+
+    public FilterByHost(String host) {
+        Assert.notNull(host, "Host must not be null!");
+        this.host = host;
+    }
+
+    @Override
+    public String getSelection() {
+        return DatabaseContract.REQUEST_COLUMN_NAME_HOST + " = ?";
+    }
+
+    @Override
+    public String[] getSelectionArgs() {
+        return new String[]{host};
+    }
+}
@@ -2,17 +2,26 @@ package com.emarsys.core.request.model.specification
 
 import com.emarsys.core.database.DatabaseContract
 import com.emarsys.core.database.repository.AbstractSqlSpecification
+import com.emarsys.core.database.repository.IdSpecification
 import com.emarsys.core.util.DatabaseUtil
 
-class FilterByRequestIds(private val args: Array<String>) : AbstractSqlSpecification() {
+class FilterByRequestIds(val args: Array<String>) : AbstractSqlSpecification(), IdSpecification {
 
-    private val sql: String = DatabaseUtil.generateInStatement(DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, args)
+    private val sql: String = DatabaseUtil.generatePaddedInStatement(DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, args)
 
     override fun getSelection(): String {
         return sql
     }
 
     override fun getSelectionArgs(): Array<String> {
+        return DatabaseUtil.padInArgs(args)
+    }
+
+    override fun getIdColumn(): String {
+        return DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID
+    }
+
+    override fun getIds(): Array<String> {
         return args
     }
-}
\ No newline at end of file
+}
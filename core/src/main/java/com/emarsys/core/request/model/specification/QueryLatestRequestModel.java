@@ -1,19 +1,68 @@
 package com.emarsys.core.request.model.specification;
 
+import com.emarsys.core.database.DatabaseContract;
 import com.emarsys.core.database.repository.AbstractSqlSpecification;
+import com.emarsys.core.util.Assert;
+import com.emarsys.core.util.DatabaseUtil;
 
 public class QueryLatestRequestModel extends AbstractSqlSpecification {
 
+    private final int limit;
+    private final String[] excludedRequestIds;
+
     public QueryLatestRequestModel() {
+        this(1, new String[0]);
+    }
+
+    public QueryLatestRequestModel(int limit, String[] excludedRequestIds) {
+        Assert.positiveInt(limit, "Limit must be greater than 0!");
+        Assert.notNull(excludedRequestIds, "ExcludedRequestIds must not be null!");
+
+        this.limit = limit;
+        this.excludedRequestIds = excludedRequestIds;
+    }
+
+    public int getMaxResultCount() {
+        return limit;
+    }
+
+    public String[] getExcludedRequestIds() {
+        return excludedRequestIds;
+    }
+
+    /**
+     * Only selects requests up to the first queued barrier, so that requests queued after a barrier
+     * are held back until it has left the queue.
+     */
+    @Override
+    public String getSelection() {
+        String upToFirstBarrier = "ROWID <= IFNULL((SELECT MIN(ROWID) FROM " + DatabaseContract.REQUEST_TABLE_NAME
+                + " WHERE " + DatabaseContract.REQUEST_COLUMN_NAME_BARRIER + " = 1), ROWID)";
+        if (excludedRequestIds.length == 0) {
+            return upToFirstBarrier;
+        }
+        return upToFirstBarrier + " AND NOT " + DatabaseUtil.generatePaddedInStatement(DatabaseContract.REQUEST_COLUMN_NAME_REQUEST_ID, excludedRequestIds);
+    }
+
+    @Override
+    public String[] getSelectionArgs() {
+        if (excludedRequestIds.length == 0) {
+            return null;
+        }
+        return DatabaseUtil.padInArgs(excludedRequestIds);
     }
 
+    /**
+     * Puts the barrier in front of the requests queued before it.
+     */
     @Override
     public String getOrderBy() {
-        return "ROWID ASC";
+        return DatabaseContract.REQUEST_COLUMN_NAME_BARRIER + " DESC, "
+                + DatabaseContract.REQUEST_COLUMN_NAME_PRIORITY + " DESC, ROWID ASC";
     }
 
     @Override
     public String getLimit() {
-        return "1";
+        return String.valueOf(limit);
     }
 }
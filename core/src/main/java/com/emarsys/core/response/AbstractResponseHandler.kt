@@ -4,9 +4,15 @@ import com.emarsys.core.util.Assert
 
 abstract class AbstractResponseHandler {
 
+    /**
+     * Top-level body keys this handler is interested in. When not null, responses whose parsed
+     * body contains none of these keys are skipped without calling [shouldHandleResponse].
+     */
+    open val interestedBodyKeys: Set<String>? = null
+
     fun processResponse(responseModel: ResponseModel) {
         Assert.notNull(responseModel, "ResponseModel must not be null")
-        if (shouldHandleResponse(responseModel)) {
+        if (isInterestedIn(responseModel) && shouldHandleResponse(responseModel)) {
             handleResponse(responseModel)
         }
     }
@@ -15,4 +21,9 @@ abstract class AbstractResponseHandler {
 
     abstract fun handleResponse(responseModel: ResponseModel)
 
+    private fun isInterestedIn(responseModel: ResponseModel): Boolean {
+        val keys = interestedBodyKeys ?: return true
+        return keys.any { responseModel.hasBodyKey(it) }
+    }
+
 }
@@ -0,0 +1,80 @@
+package com.emarsys.core.response;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * {@link JSONArray} counterpart of {@link ReadOnlyJSONObject}.
+ */
+class ReadOnlyJSONArray extends JSONArray {
+
+    private ReadOnlyJSONArray() {
+    }
+
+    static ReadOnlyJSONArray copyOf(JSONArray source) {
+        ReadOnlyJSONArray result = new ReadOnlyJSONArray();
+        for (int i = 0; i < source.length(); i++) {
+            result.putInternal(ReadOnlyJSONObject.readOnlyValueOf(source.opt(i)));
+        }
+        return result;
+    }
+
+    private void putInternal(Object value) {
+        super.put(value);
+    }
+
+    @Override
+    public JSONArray put(boolean value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONArray put(double value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONArray put(int value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONArray put(long value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONArray put(Object value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONArray put(int index, boolean value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONArray put(int index, double value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONArray put(int index, int value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONArray put(int index, long value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONArray put(int index, Object value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public Object remove(int index) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+}
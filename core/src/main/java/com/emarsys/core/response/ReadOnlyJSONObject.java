@@ -0,0 +1,95 @@
+package com.emarsys.core.response;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link JSONObject} whose mutators throw {@link UnsupportedOperationException}. Nested objects and
+ * arrays are read-only as well, so a single instance can be shared by every response handler.
+ * Callers that need to modify the body must copy it, e.g. with {@code new JSONObject(body.toString())}.
+ */
+class ReadOnlyJSONObject extends JSONObject {
+
+    private final List<String> keys = new ArrayList<>();
+
+    private ReadOnlyJSONObject() {
+    }
+
+    static ReadOnlyJSONObject copyOf(JSONObject source) {
+        ReadOnlyJSONObject result = new ReadOnlyJSONObject();
+        Iterator<String> sourceKeys = source.keys();
+        while (sourceKeys.hasNext()) {
+            String key = sourceKeys.next();
+            result.keys.add(key);
+            try {
+                result.putInternal(key, readOnlyValueOf(source.get(key)));
+            } catch (JSONException ignored) {
+            }
+        }
+        return result;
+    }
+
+    static Object readOnlyValueOf(Object value) {
+        if (value instanceof JSONObject && !(value instanceof ReadOnlyJSONObject)) {
+            return copyOf((JSONObject) value);
+        } else if (value instanceof JSONArray && !(value instanceof ReadOnlyJSONArray)) {
+            return ReadOnlyJSONArray.copyOf((JSONArray) value);
+        }
+        return value;
+    }
+
+    private void putInternal(String name, Object value) throws JSONException {
+        super.put(name, value);
+    }
+
+    @Override
+    public JSONObject put(String name, boolean value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONObject put(String name, double value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONObject put(String name, int value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONObject put(String name, long value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONObject put(String name, Object value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONObject putOpt(String name, Object value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public JSONObject accumulate(String name, Object value) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public Object remove(String name) {
+        throw new UnsupportedOperationException("ParsedBody must not be modified!");
+    }
+
+    @Override
+    public Iterator<String> keys() {
+        return Collections.unmodifiableList(keys).iterator();
+    }
+}
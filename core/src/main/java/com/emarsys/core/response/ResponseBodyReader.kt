@@ -0,0 +1,63 @@
+package com.emarsys.core.response
+
+import com.emarsys.core.util.Assert
+import java.io.ByteArrayOutputStream
+import java.io.IOException
+import java.io.InputStream
+
+/**
+ * Reads response bodies into a per-thread reusable buffer and returns an exactly sized copy
+ * of the raw bytes. Decoding is left to [ResponseModel], which does it lazily as UTF-8.
+ *
+ * When a body exceeds the maximum size, onMaxBodySizeExceeded is invoked before the stream is
+ * closed, so the caller can drop the connection instead of letting close() drain the rest of it.
+ */
+class ResponseBodyReader @JvmOverloads constructor(private val maxBodySize: Int = DEFAULT_MAX_BODY_SIZE) {
+
+    companion object {
+        const val DEFAULT_MAX_BODY_SIZE = 8 * 1024 * 1024
+        private const val CHUNK_SIZE = 8 * 1024
+        private const val MAX_RETAINED_BUFFER_SIZE = 64 * 1024
+
+        private val buffers = object : ThreadLocal<PooledBuffer>() {
+            override fun initialValue() = PooledBuffer()
+        }
+    }
+
+    init {
+        Assert.positiveInt(maxBodySize, "MaxBodySize must be greater than 0!")
+    }
+
+    @JvmOverloads
+    @Throws(IOException::class)
+    fun read(inputStream: InputStream, onMaxBodySizeExceeded: () -> Unit = {}): ByteArray {
+        val buffer = buffers.get()!!
+        try {
+            inputStream.use {
+                var read = it.read(buffer.chunk)
+                while (read != -1) {
+                    if (buffer.size() + read > maxBodySize) {
+                        onMaxBodySizeExceeded()
+                        throw IOException("Response body exceeds the maximum size of $maxBodySize bytes!")
+                    }
+                    buffer.write(buffer.chunk, 0, read)
+                    read = it.read(buffer.chunk)
+                }
+            }
+            return buffer.toByteArray()
+        } finally {
+            buffer.release()
+        }
+    }
+
+    private class PooledBuffer : ByteArrayOutputStream(CHUNK_SIZE) {
+        val chunk = ByteArray(CHUNK_SIZE)
+
+        fun release() {
+            if (buf.size > MAX_RETAINED_BUFFER_SIZE) {
+                buf = ByteArray(CHUNK_SIZE)
+            }
+            reset()
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.net.HttpCookie;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -20,7 +21,10 @@ public class ResponseModel {
     private final String message;
     private final Map<String, String> headers;
     private final Map<String, HttpCookie> cookies;
-    private final String body;
+    private final byte[] rawBody;
+    private volatile String body;
+    private volatile JSONObject parsedBody;
+    private volatile boolean bodyParsed;
     private final long timestamp;
     private final RequestModel requestModel;
 
@@ -32,6 +36,18 @@ public class ResponseModel {
             String body,
             long timestamp,
             RequestModel requestModel) {
+        this(statusCode, message, headers, cookies, body, null, timestamp, requestModel);
+    }
+
+    ResponseModel(
+            int statusCode,
+            String message,
+            Map<String, String> headers,
+            Map<String, HttpCookie> cookies,
+            String body,
+            byte[] rawBody,
+            long timestamp,
+            RequestModel requestModel) {
 
         checkStatusCode(statusCode);
         Assert.notNull(message, "Message must not be null!");
@@ -43,6 +59,7 @@ public class ResponseModel {
         this.headers = headers;
         this.cookies = cookies;
         this.body = body;
+        this.rawBody = body == null ? rawBody : null;
         this.timestamp = timestamp;
         this.requestModel = requestModel;
     }
@@ -70,20 +87,39 @@ public class ResponseModel {
     }
 
     public String getBody() {
+        if (body == null && rawBody != null) {
+            body = new String(rawBody, StandardCharsets.UTF_8);
+        }
         return body;
     }
 
+    /**
+     * Returns the body parsed as a {@link JSONObject}, or null if it is not a valid JSON object.
+     * The body is parsed at most once and the same read-only instance is returned to every caller:
+     * its mutators throw {@link UnsupportedOperationException}, so callers that need to modify the
+     * body must make their own copy.
+     */
     public JSONObject getParsedBody() {
-        JSONObject result = null;
-
-        if (body != null) {
-            try {
-                result = new JSONObject(body);
-            } catch (JSONException ignored) {
+        if (!bodyParsed) {
+            JSONObject result = null;
+            String body = getBody();
+
+            if (body != null) {
+                try {
+                    result = ReadOnlyJSONObject.copyOf(new JSONObject(body));
+                } catch (JSONException ignored) {
+                }
             }
+            parsedBody = result;
+            bodyParsed = true;
         }
 
-        return result;
+        return parsedBody;
+    }
+
+    public boolean hasBodyKey(String key) {
+        JSONObject parsedBody = getParsedBody();
+        return parsedBody != null && parsedBody.has(key);
     }
 
     public long getTimestamp() {
@@ -106,7 +142,9 @@ public class ResponseModel {
         if (message != null ? !message.equals(that.message) : that.message != null) return false;
         if (headers != null ? !headers.equals(that.headers) : that.headers != null) return false;
         if (cookies != null ? !cookies.equals(that.cookies) : that.cookies != null) return false;
-        if (body != null ? !body.equals(that.body) : that.body != null) return false;
+        String body = getBody();
+        String thatBody = that.getBody();
+        if (body != null ? !body.equals(thatBody) : thatBody != null) return false;
         return requestModel != null ? requestModel.equals(that.requestModel) : that.requestModel == null;
     }
 
@@ -116,6 +154,7 @@ public class ResponseModel {
         result = 31 * result + (message != null ? message.hashCode() : 0);
         result = 31 * result + (headers != null ? headers.hashCode() : 0);
         result = 31 * result + (cookies != null ? cookies.hashCode() : 0);
+        String body = getBody();
         result = 31 * result + (body != null ? body.hashCode() : 0);
         result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
         result = 31 * result + (requestModel != null ? requestModel.hashCode() : 0);
@@ -129,7 +168,7 @@ public class ResponseModel {
                 ", message='" + message + '\'' +
                 ", headers=" + headers +
                 ", cookies=" + cookies +
-                ", body='" + body + '\'' +
+                ", body='" + getBody() + '\'' +
                 ", timestamp=" + timestamp +
                 ", requestModel=" + requestModel +
                 '}';
@@ -176,6 +215,11 @@ public class ResponseModel {
             return this;
         }
 
+        public Builder body(byte[] bytes) {
+            this.bytes = bytes;
+            return this;
+        }
+
         public Builder requestModel(RequestModel requestModel) {
             this.requestModel = requestModel;
             return this;
@@ -188,6 +232,7 @@ public class ResponseModel {
                     headers,
                     cookies,
                     body,
+                    bytes,
                     timestampProvider.provideTimestamp(),
                     requestModel);
         }
@@ -7,7 +7,7 @@ import com.emarsys.core.database.DatabaseContract
 import com.emarsys.core.database.helper.CoreDbHelper
 import com.emarsys.core.database.repository.AbstractSqliteRepository
 import com.emarsys.core.util.serialization.SerializationException
-import com.emarsys.core.util.serialization.SerializationUtils
+import com.emarsys.core.util.serialization.CompactBinaryCodec
 import java.util.*
 
 @Mockable
@@ -16,7 +16,7 @@ class ShardModelRepository(coreDbHelper: CoreDbHelper) : AbstractSqliteRepositor
         val contentValues = ContentValues()
         contentValues.put(DatabaseContract.SHARD_COLUMN_ID, item.id)
         contentValues.put(DatabaseContract.SHARD_COLUMN_TYPE, item.type)
-        contentValues.put(DatabaseContract.SHARD_COLUMN_DATA, SerializationUtils.serializableToBlob(item.data))
+        contentValues.put(DatabaseContract.SHARD_COLUMN_DATA, CompactBinaryCodec.encode(item.data))
         contentValues.put(DatabaseContract.SHARD_COLUMN_TIMESTAMP, item.timestamp)
         contentValues.put(DatabaseContract.SHARD_COLUMN_TTL, item.ttl)
         return contentValues
@@ -28,8 +28,8 @@ class ShardModelRepository(coreDbHelper: CoreDbHelper) : AbstractSqliteRepositor
         val type = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseContract.SHARD_COLUMN_TYPE))
         var data: Map<String?, Any?> = HashMap()
         try {
-            data = SerializationUtils
-                    .blobToSerializable(cursor.getBlob(cursor.getColumnIndexOrThrow(DatabaseContract.SHARD_COLUMN_DATA))) as Map<String?, Any?>
+            data = CompactBinaryCodec
+                    .decode(cursor.getBlob(cursor.getColumnIndexOrThrow(DatabaseContract.SHARD_COLUMN_DATA))) as Map<String?, Any?>
         } catch (ignored: SerializationException) {
         } catch (ignored: ClassCastException) {
         }
@@ -0,0 +1,40 @@
+package com.emarsys.core.shard.specification
+
+import com.emarsys.core.database.DatabaseContract
+import com.emarsys.core.database.repository.AbstractSqlSpecification
+import com.emarsys.core.database.repository.IdSpecification
+import com.emarsys.core.util.DatabaseUtil
+import com.emarsys.core.util.batch.PendingShard
+
+class FilterByPendingShards(pendingShards: List<PendingShard>) : AbstractSqlSpecification(), IdSpecification {
+
+    private val args: Array<String> = pendingShards.map { it.id }.toTypedArray()
+    private val sql: String = DatabaseUtil.generatePaddedInStatement(DatabaseContract.SHARD_COLUMN_ID, args)
+
+    override fun getSelection(): String {
+        return sql
+    }
+
+    override fun getSelectionArgs(): Array<String> {
+        return DatabaseUtil.padInArgs(args)
+    }
+
+    override fun getIdColumn(): String {
+        return DatabaseContract.SHARD_COLUMN_ID
+    }
+
+    override fun getIds(): Array<String> {
+        return args
+    }
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+        other as FilterByPendingShards
+        return args.contentEquals(other.args)
+    }
+
+    override fun hashCode(): Int {
+        return args.contentHashCode()
+    }
+}
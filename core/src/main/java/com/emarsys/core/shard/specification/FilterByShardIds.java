@@ -2,6 +2,7 @@ package com.emarsys.core.shard.specification;
 
 import com.emarsys.core.database.DatabaseContract;
 import com.emarsys.core.database.repository.AbstractSqlSpecification;
+import com.emarsys.core.database.repository.IdSpecification;
 import com.emarsys.core.shard.ShardModel;
 import com.emarsys.core.util.Assert;
 import com.emarsys.core.util.DatabaseUtil;
@@ -9,7 +10,7 @@ import com.emarsys.core.util.DatabaseUtil;
 import java.util.Arrays;
 import java.util.List;
 
-public class FilterByShardIds extends AbstractSqlSpecification {
+public class FilterByShardIds extends AbstractSqlSpecification implements IdSpecification {
 
     private final String[] args;
     private final String sql;
@@ -30,6 +31,16 @@ public class FilterByShardIds extends AbstractSqlSpecification {
         return args;
     }
 
+    @Override
+    public String getIdColumn() {
+        return DatabaseContract.SHARD_COLUMN_ID;
+    }
+
+    @Override
+    public String[] getIds() {
+        return args;
+    }
+
     private String[] extractIds(List<ShardModel> shardModels) {
         String[] args = new String[shardModels.size()];
         for (int i = 0; i < shardModels.size(); i++) {
@@ -0,0 +1,204 @@
+package com.emarsys.core.storage
+
+import android.annotation.SuppressLint
+import android.content.SharedPreferences
+import com.emarsys.core.util.Assert
+import java.util.concurrent.CopyOnWriteArraySet
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+
+/**
+ * Read-through cache in front of the encrypted [SharedPreferences] of the SDK.
+ *
+ * The whole store is decrypted once, on the first access, and every later read is served from
+ * memory. Edits are visible to readers as soon as they are applied, and they are written back to
+ * the delegate on [writeExecutor], coalesced with every other edit made before the write starts.
+ * [SharedPreferences.Editor.commit] and [flush] are barriers: they return after every pending edit
+ * has been committed to the delegate. Change listeners are notified on the applying thread, as soon
+ * as the edit is visible in memory, not when it is written back.
+ */
+@SuppressLint("ApplySharedPref")
+class CachingSharedPreferences @JvmOverloads constructor(
+        private val delegate: SharedPreferences,
+        private val writeExecutor: Executor = Executors.newSingleThreadExecutor { Thread(it, WRITER_THREAD_NAME) }) : SharedPreferences {
+
+    private companion object {
+        const val WRITER_THREAD_NAME = "CoreSDKStorageWriterThread"
+        val REMOVED = Any()
+    }
+
+    private val lock = Any()
+    private val writeLock = Any()
+    private var cachedValues: MutableMap<String, Any?>? = null
+    private var pendingChanges = mutableMapOf<String, Any?>()
+    private var pendingClear = false
+    private var writeScheduled = false
+    private val listeners: MutableSet<SharedPreferences.OnSharedPreferenceChangeListener> = CopyOnWriteArraySet()
+
+    init {
+        Assert.notNull(delegate, "Delegate must not be null!")
+        Assert.notNull(writeExecutor, "WriteExecutor must not be null!")
+    }
+
+    override fun getAll(): Map<String, Any?> = synchronized(lock) { HashMap(values()) }
+
+    override fun getString(key: String, defValue: String?): String? = read(key, defValue)
+
+    override fun getStringSet(key: String, defValues: Set<String>?): Set<String>? = read<Set<String>?>(key, defValues)?.toSet()
+
+    override fun getInt(key: String, defValue: Int): Int = read(key, defValue)
+
+    override fun getLong(key: String, defValue: Long): Long = read(key, defValue)
+
+    override fun getFloat(key: String, defValue: Float): Float = read(key, defValue)
+
+    override fun getBoolean(key: String, defValue: Boolean): Boolean = read(key, defValue)
+
+    override fun contains(key: String): Boolean = synchronized(lock) { values().containsKey(key) }
+
+    override fun edit(): SharedPreferences.Editor = Editor()
+
+    override fun registerOnSharedPreferenceChangeListener(listener: SharedPreferences.OnSharedPreferenceChangeListener) {
+        listeners.add(listener)
+    }
+
+    override fun unregisterOnSharedPreferenceChangeListener(listener: SharedPreferences.OnSharedPreferenceChangeListener) {
+        listeners.remove(listener)
+    }
+
+    /**
+     * Commits every pending edit to the delegate on the calling thread.
+     */
+    fun flush(): Boolean {
+        return writeBack()
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun <T> read(key: String, defValue: T): T = synchronized(lock) {
+        val values = values()
+        if (values.containsKey(key)) values[key] as T else defValue
+    }
+
+    private fun values(): MutableMap<String, Any?> {
+        return cachedValues ?: HashMap<String, Any?>(delegate.all).also { cachedValues = it }
+    }
+
+    private fun enqueue(clear: Boolean, changes: Map<String, Any?>) {
+        val changedKeys = mutableSetOf<String>()
+        val shouldSchedule = synchronized(lock) {
+            val values = values()
+            if (clear) {
+                changedKeys.addAll(values.keys)
+                values.clear()
+                pendingChanges.clear()
+                pendingClear = true
+            }
+            changes.forEach { (key, value) ->
+                if (value === REMOVED) values.remove(key) else values[key] = value
+                pendingChanges[key] = value
+                changedKeys.add(key)
+            }
+            val shouldSchedule = !writeScheduled
+            writeScheduled = true
+            shouldSchedule
+        }
+        if (shouldSchedule) {
+            writeExecutor.execute { writeBack() }
+        }
+        notifyListeners(changedKeys)
+    }
+
+    private fun notifyListeners(changedKeys: Set<String>) {
+        listeners.forEach { listener ->
+            changedKeys.forEach { key ->
+                listener.onSharedPreferenceChanged(this, key)
+            }
+        }
+    }
+
+    private fun writeBack(): Boolean {
+        synchronized(writeLock) {
+            return writeBatch()
+        }
+    }
+
+    private fun writeBatch(): Boolean {
+        val (clear, changes) = synchronized(lock) {
+            val batch = pendingClear to pendingChanges
+            pendingClear = false
+            pendingChanges = mutableMapOf()
+            writeScheduled = false
+            batch
+        }
+        if (!clear && changes.isEmpty()) {
+            return true
+        }
+        val editor = delegate.edit()
+        if (clear) {
+            editor.clear()
+        }
+        changes.forEach { (key, value) -> editor.write(key, value) }
+        return editor.commit()
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun SharedPreferences.Editor.write(key: String, value: Any?) {
+        when (value) {
+            REMOVED, null -> remove(key)
+            is String -> putString(key, value)
+            is Int -> putInt(key, value)
+            is Long -> putLong(key, value)
+            is Float -> putFloat(key, value)
+            is Boolean -> putBoolean(key, value)
+            is Set<*> -> putStringSet(key, value as Set<String>)
+        }
+    }
+
+    private inner class Editor : SharedPreferences.Editor {
+        private val changes = mutableMapOf<String, Any?>()
+        private var clearRequested = false
+
+        override fun putString(key: String, value: String?) = change(key, value)
+
+        override fun putStringSet(key: String, values: Set<String>?) = change(key, values?.toSet())
+
+        override fun putInt(key: String, value: Int) = change(key, value)
+
+        override fun putLong(key: String, value: Long) = change(key, value)
+
+        override fun putFloat(key: String, value: Float) = change(key, value)
+
+        override fun putBoolean(key: String, value: Boolean) = change(key, value)
+
+        override fun remove(key: String) = change(key, REMOVED)
+
+        override fun clear(): SharedPreferences.Editor {
+            synchronized(this) {
+                clearRequested = true
+            }
+            return this
+        }
+
+        override fun commit(): Boolean {
+            apply()
+            return flush()
+        }
+
+        override fun apply() {
+            val (clearAll, editedValues) = synchronized(this) {
+                val batch = clearRequested to changes.toMap()
+                clearRequested = false
+                changes.clear()
+                batch
+            }
+            enqueue(clearAll, editedValues)
+        }
+
+        private fun change(key: String, value: Any?): SharedPreferences.Editor {
+            synchronized(this) {
+                changes[key] = value ?: REMOVED
+            }
+            return this
+        }
+    }
+}
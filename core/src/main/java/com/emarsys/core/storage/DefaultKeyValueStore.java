@@ -1,11 +1,9 @@
 package com.emarsys.core.storage;
 
-import android.annotation.SuppressLint;
 import android.content.SharedPreferences;
 
 import com.emarsys.core.util.Assert;
 
-@SuppressLint("ApplySharedPref")
 public class DefaultKeyValueStore implements KeyValueStore {
 
     private final SharedPreferences prefs;
@@ -19,37 +17,37 @@ public class DefaultKeyValueStore implements KeyValueStore {
     public void putString(String key, String value) {
         Assert.notNull(key, "Key must not be null!");
         Assert.notNull(value, "Value must not be null!");
-        prefs.edit().putString(key, value).commit();
+        prefs.edit().putString(key, value).apply();
     }
 
     @Override
     public void putInt(String key, int value) {
         Assert.notNull(key, "Key must not be null!");
-        prefs.edit().putInt(key, value).commit();
+        prefs.edit().putInt(key, value).apply();
     }
 
     @Override
     public void putLong(String key, long value) {
         Assert.notNull(key, "Key must not be null!");
-        prefs.edit().putLong(key, value).commit();
+        prefs.edit().putLong(key, value).apply();
     }
 
     @Override
     public void putFloat(String key, float value) {
         Assert.notNull(key, "Key must not be null!");
-        prefs.edit().putFloat(key, value).commit();
+        prefs.edit().putFloat(key, value).apply();
     }
 
     @Override
     public void putDouble(String key, double value) {
         Assert.notNull(key, "Key must not be null!");
-        prefs.edit().putLong(key, Double.doubleToRawLongBits(value)).commit();
+        prefs.edit().putLong(key, Double.doubleToRawLongBits(value)).apply();
     }
 
     @Override
     public void putBoolean(String key, boolean value) {
         Assert.notNull(key, "Key must not be null!");
-        prefs.edit().putBoolean(key, value).commit();
+        prefs.edit().putBoolean(key, value).apply();
     }
 
     @Override
@@ -91,12 +89,12 @@ public class DefaultKeyValueStore implements KeyValueStore {
     @Override
     public void remove(String key) {
         Assert.notNull(key, "Key must not be null!");
-        prefs.edit().remove(key).commit();
+        prefs.edit().remove(key).apply();
     }
 
     @Override
     public void clear() {
-        prefs.edit().clear().commit();
+        prefs.edit().clear().apply();
     }
 
     @Override
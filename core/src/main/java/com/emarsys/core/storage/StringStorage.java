@@ -1,25 +1,37 @@
 package com.emarsys.core.storage;
 
+import android.annotation.SuppressLint;
 import android.content.SharedPreferences;
 
 import com.emarsys.core.util.Assert;
 
+@SuppressLint("ApplySharedPref")
 public class StringStorage extends AbstractStorage<String, SharedPreferences> {
 
     private final String key;
+    private final boolean durable;
 
     public StringStorage(StorageKey key, SharedPreferences store) {
+        this(key, store, false);
+    }
+
+    /**
+     * @param durable when true, values are committed before {@link #set} and {@link #remove} return,
+     *                for identifiers that must survive a process death right after they change.
+     */
+    public StringStorage(StorageKey key, SharedPreferences store, boolean durable) {
         super(store);
         Assert.notNull(key, "Key must not be null!");
         Assert.notNull(store, "Store must not be null!");
         Assert.notNull(key.getKey(), "Key.getKey() must not be null!");
 
         this.key = key.getKey();
+        this.durable = durable;
     }
 
     @Override
     public void persistValue(SharedPreferences store, String value) {
-        store.edit().putString(key, value).apply();
+        write(store.edit().putString(key, value));
     }
 
     @Override
@@ -29,6 +41,14 @@ public class StringStorage extends AbstractStorage<String, SharedPreferences> {
 
     @Override
     public void removePersistedValue(SharedPreferences store) {
-        store.edit().remove(key).apply();
+        write(store.edit().remove(key));
+    }
+
+    private void write(SharedPreferences.Editor editor) {
+        if (durable) {
+            editor.commit();
+        } else {
+            editor.apply();
+        }
     }
 }
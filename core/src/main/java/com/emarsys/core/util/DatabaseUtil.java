@@ -1,7 +1,11 @@
 package com.emarsys.core.util;
 
+import java.util.Arrays;
+
 public class DatabaseUtil {
 
+    private static final int MAX_PADDED_IN_ARGS = 64;
+
     public static String generateInStatement(String columnName, String[] args) {
         StringBuilder sb = new StringBuilder(columnName + " IN (?");
         for (int i = 1; i < args.length; i++) {
@@ -10,4 +14,27 @@ public class DatabaseUtil {
         sb.append(")");
         return sb.toString();
     }
+
+    /**
+     * Like {@link #generateInStatement(String, String[])}, with the number of placeholders rounded up
+     * to the next power of two. Queries with a varying number of arguments share a few SQL texts that
+     * way, and with them the compiled statements SQLite caches per connection. Bind the arguments
+     * returned by {@link #padInArgs(String[])}. Lists longer than {@value #MAX_PADDED_IN_ARGS} are not padded.
+     */
+    public static String generatePaddedInStatement(String columnName, String[] args) {
+        return generateInStatement(columnName, padInArgs(args));
+    }
+
+    public static String[] padInArgs(String[] args) {
+        if (args.length <= 1 || args.length > MAX_PADDED_IN_ARGS) {
+            return args;
+        }
+        int paddedLength = Integer.highestOneBit(args.length - 1) << 1;
+        if (paddedLength == args.length) {
+            return args;
+        }
+        String[] paddedArgs = Arrays.copyOf(args, paddedLength);
+        Arrays.fill(paddedArgs, args.length, paddedLength, args[args.length - 1]);
+        return paddedArgs;
+    }
 }
@@ -0,0 +1,16 @@
+package com.emarsys.core.util
+
+import java.io.ByteArrayOutputStream
+import java.util.zip.GZIPOutputStream
+
+object GzipUtils {
+
+    @JvmStatic
+    fun gzip(bytes: ByteArray): ByteArray {
+        val outputStream = ByteArrayOutputStream(bytes.size / 2 + 32)
+        GZIPOutputStream(outputStream).use {
+            it.write(bytes)
+        }
+        return outputStream.toByteArray()
+    }
+}
@@ -0,0 +1,12 @@
+package com.emarsys.core.util.batch
+
+class AnyOfFlushPolicy(private vararg val policies: FlushPolicy) : FlushPolicy {
+
+    override fun shouldFlush(pendingShards: PendingShards): Boolean {
+        return policies.any { it.shouldFlush(pendingShards) }
+    }
+
+    override fun millisUntilFlush(pendingShards: PendingShards): Long? {
+        return policies.mapNotNull { it.millisUntilFlush(pendingShards) }.minOrNull()
+    }
+}
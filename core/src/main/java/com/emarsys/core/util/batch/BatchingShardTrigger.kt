@@ -4,35 +4,81 @@ import com.emarsys.core.Mapper
 import com.emarsys.core.connection.ConnectionWatchDog
 import com.emarsys.core.database.repository.Repository
 import com.emarsys.core.database.repository.SqlSpecification
+import com.emarsys.core.handler.CoreSdkHandler
 import com.emarsys.core.request.RequestManager
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.shard.ShardModel
 import com.emarsys.core.shard.specification.FilterByShardIds
-import com.emarsys.core.util.predicate.Predicate
+import com.emarsys.core.shard.specification.FilterByPendingShards
 
 class BatchingShardTrigger(
         private val repository: Repository<ShardModel, SqlSpecification>,
-        private val predicate: Predicate<List<ShardModel>>,
-        private val querySpecification: SqlSpecification,
-        private val chunker: Mapper<List<ShardModel>, List<List<ShardModel>>>,
+        private val pendingShardIndex: PendingShardIndex,
+        private val shardType: String,
+        private val flushPolicy: FlushPolicy,
+        private val chunker: Mapper<List<PendingShard>, List<List<PendingShard>>>,
         private val merger: Mapper<List<ShardModel>, RequestModel>,
         private val requestManager: RequestManager,
         private val requestStrategy: RequestStrategy,
-        private val connectionWatchDog: ConnectionWatchDog) : Runnable {
+        private val connectionWatchDog: ConnectionWatchDog,
+        private val coreSdkHandler: CoreSdkHandler,
+        private val splitter: Mapper<List<ShardModel>, List<List<ShardModel>>> = Mapper { listOf(it) }) : Runnable {
 
     enum class RequestStrategy {
         PERSISTENT, TRANSIENT
     }
 
+    private var running = false
+    private var flushScheduled = false
+    private val scheduledRun = Runnable {
+        flushScheduled = false
+        run()
+    }
+
     override fun run() {
-        if (connectionWatchDog.isConnected) {
-            val shards = repository.query(querySpecification)
-            if (predicate.evaluate(shards)) {
-                val chunks = chunker.map(shards)
-                chunks.forEach {
-                    submit(merger.map(it))
-                    repository.remove(FilterByShardIds(it))
+        process(false)
+    }
+
+    /**
+     * Sends every pending shard regardless of the [FlushPolicy], e.g. when the app goes to background.
+     */
+    fun flush() {
+        process(true)
+    }
+
+    private fun process(force: Boolean) {
+        if (connectionWatchDog.isConnected && !running) {
+            running = true
+            try {
+                pendingShardIndex.refresh()
+                val pendingShards = pendingShardIndex.pendingShardsOf(shardType)
+                if (!pendingShards.isEmpty() && (force || flushPolicy.shouldFlush(pendingShards))) {
+                    chunker.map(pendingShards.toList()).forEach { flushBatch(it) }
                 }
+                scheduleFlush(pendingShards)
+            } finally {
+                running = false
+            }
+        }
+    }
+
+    private fun flushBatch(batch: List<PendingShard>) {
+        val positions = batch.withIndex().associate { it.value.id to it.index }
+        val shards = repository.query(FilterByPendingShards(batch)).sortedBy { positions[it.id] }
+        if (shards.isNotEmpty()) {
+            splitter.map(shards).forEach {
+                submit(merger.map(it))
+            }
+            repository.remove(FilterByShardIds(shards))
+        }
+        pendingShardIndex.remove(shardType, batch)
+    }
+
+    private fun scheduleFlush(pendingShards: PendingShards) {
+        if (!flushScheduled && !pendingShards.isEmpty()) {
+            flushPolicy.millisUntilFlush(pendingShards)?.let {
+                flushScheduled = true
+                coreSdkHandler.postDelayed(scheduledRun, it)
             }
         }
     }
@@ -44,4 +90,4 @@ class BatchingShardTrigger(
             requestManager.submitNow(requestModel)
         }
     }
-}
\ No newline at end of file
+}
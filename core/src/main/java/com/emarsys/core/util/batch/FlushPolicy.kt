@@ -0,0 +1,11 @@
+package com.emarsys.core.util.batch
+
+interface FlushPolicy {
+    fun shouldFlush(pendingShards: PendingShards): Boolean
+
+    /**
+     * Returns how long the pending shards may wait before this policy will ask for a flush on
+     * its own, or null if only new shards can make it flush.
+     */
+    fun millisUntilFlush(pendingShards: PendingShards): Long? = null
+}
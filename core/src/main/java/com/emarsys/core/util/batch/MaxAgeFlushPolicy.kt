@@ -0,0 +1,24 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import com.emarsys.core.util.Assert
+
+class MaxAgeFlushPolicy(
+        private val maxAgeMillis: Long,
+        private val timestampProvider: TimestampProvider) : FlushPolicy {
+
+    init {
+        require(maxAgeMillis >= 0) { "MaxAgeMillis must not be negative!" }
+        Assert.notNull(timestampProvider, "TimestampProvider must not be null!")
+    }
+
+    override fun shouldFlush(pendingShards: PendingShards): Boolean {
+        val oldestTimestamp = pendingShards.oldestTimestamp ?: return false
+        return timestampProvider.provideTimestamp() - oldestTimestamp >= maxAgeMillis
+    }
+
+    override fun millisUntilFlush(pendingShards: PendingShards): Long? {
+        val oldestTimestamp = pendingShards.oldestTimestamp ?: return null
+        return maxOf(0L, maxAgeMillis - (timestampProvider.provideTimestamp() - oldestTimestamp))
+    }
+}
@@ -0,0 +1,12 @@
+package com.emarsys.core.util.batch
+
+class MaxBytesFlushPolicy(private val maxBytes: Long) : FlushPolicy {
+
+    init {
+        require(maxBytes > 0) { "MaxBytes must be greater than 0!" }
+    }
+
+    override fun shouldFlush(pendingShards: PendingShards): Boolean {
+        return !pendingShards.isEmpty() && pendingShards.totalBytes >= maxBytes
+    }
+}
@@ -0,0 +1,14 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.core.util.Assert
+
+class MaxCountFlushPolicy(private val maxCount: Int) : FlushPolicy {
+
+    init {
+        Assert.positiveInt(maxCount, "MaxCount must be greater than 0!")
+    }
+
+    override fun shouldFlush(pendingShards: PendingShards): Boolean {
+        return pendingShards.count >= maxCount
+    }
+}
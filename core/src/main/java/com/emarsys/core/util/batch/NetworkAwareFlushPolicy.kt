@@ -0,0 +1,23 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.core.connection.ConnectionWatchDog
+
+/**
+ * Applies [meteredPolicy] while the default network is metered and [unmeteredPolicy] otherwise, so that
+ * batches which are not urgent can be held back until they are large or old enough to be worth the data.
+ */
+class NetworkAwareFlushPolicy(
+        private val unmeteredPolicy: FlushPolicy,
+        private val meteredPolicy: FlushPolicy,
+        private val connectionWatchDog: ConnectionWatchDog) : FlushPolicy {
+
+    override fun shouldFlush(pendingShards: PendingShards): Boolean {
+        return currentPolicy().shouldFlush(pendingShards)
+    }
+
+    override fun millisUntilFlush(pendingShards: PendingShards): Long? {
+        return currentPolicy().millisUntilFlush(pendingShards)
+    }
+
+    private fun currentPolicy() = if (connectionWatchDog.isMetered) meteredPolicy else unmeteredPolicy
+}
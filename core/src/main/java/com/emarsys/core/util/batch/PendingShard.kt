@@ -0,0 +1,7 @@
+package com.emarsys.core.util.batch
+
+data class PendingShard(
+        val id: String,
+        val rowId: Long,
+        val size: Int,
+        val timestamp: Long)
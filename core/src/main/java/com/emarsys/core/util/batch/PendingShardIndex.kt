@@ -0,0 +1,93 @@
+package com.emarsys.core.util.batch
+
+import com.emarsys.core.Mockable
+import com.emarsys.core.database.DatabaseContract.SHARD_COLUMN_DATA
+import com.emarsys.core.database.DatabaseContract.SHARD_COLUMN_ID
+import com.emarsys.core.database.DatabaseContract.SHARD_COLUMN_TIMESTAMP
+import com.emarsys.core.database.DatabaseContract.SHARD_COLUMN_TYPE
+import com.emarsys.core.database.DatabaseContract.SHARD_TABLE_NAME
+import com.emarsys.core.database.helper.DbHelper
+import com.emarsys.core.util.Assert
+
+/**
+ * Tracks the shards waiting to be batched, per shard type pattern, without deserializing them.
+ * Type patterns use the same syntax as `FilterByShardType`, i.e. SQL LIKE patterns.
+ *
+ * [refresh] only reads the id, blob size and timestamp of rows inserted since the last refresh,
+ * so every insert costs work proportional to the new rows instead of the whole backlog.
+ * SQLite reuses the rowids above the current maximum after a delete, so every removal of
+ * shards must be reported with [remove] or [onShardsDeleted] to keep the high-water mark below
+ * reusable rowids.
+ */
+@Mockable
+class PendingShardIndex(private val dbHelper: DbHelper, shardTypes: List<String>) {
+
+    private companion object {
+        const val QUERY_NEW_SHARDS = "SELECT ROWID, $SHARD_COLUMN_ID, $SHARD_COLUMN_TYPE, length($SHARD_COLUMN_DATA), $SHARD_COLUMN_TIMESTAMP " +
+                "FROM $SHARD_TABLE_NAME WHERE ROWID > CAST(? AS INTEGER) ORDER BY ROWID ASC;"
+        const val QUERY_MAX_ROW_ID = "SELECT IFNULL(MAX(ROWID), 0) FROM $SHARD_TABLE_NAME;"
+    }
+
+    private val pendingShardsByType: Map<String, PendingShards>
+    private val typeMatchers: List<Pair<Regex, PendingShards>>
+    private var lastRowId = 0L
+
+    init {
+        Assert.notNull(dbHelper, "DbHelper must not be null!")
+        Assert.notNull(shardTypes, "ShardTypes must not be null!")
+        pendingShardsByType = shardTypes.associateWith { PendingShards() }
+        typeMatchers = pendingShardsByType.map { (type, pendingShards) -> likePatternToRegex(type) to pendingShards }
+    }
+
+    @Synchronized
+    fun refresh() {
+        dbHelper.readableCoreDatabase.rawQuery(QUERY_NEW_SHARDS, arrayOf(lastRowId.toString())).use { cursor ->
+            while (cursor.moveToNext()) {
+                val shard = PendingShard(cursor.getString(1), cursor.getLong(0), cursor.getInt(3), cursor.getLong(4))
+                val type = cursor.getString(2)
+                typeMatchers.forEach { (matcher, pendingShards) ->
+                    if (matcher.matches(type)) {
+                        pendingShards.add(shard)
+                    }
+                }
+                lastRowId = shard.rowId
+            }
+        }
+    }
+
+    @Synchronized
+    fun pendingShardsOf(shardType: String): PendingShards {
+        return requireNotNull(pendingShardsByType[shardType]) { "Unknown shard type: $shardType" }
+    }
+
+    @Synchronized
+    fun remove(shardType: String, shards: List<PendingShard>) {
+        pendingShardsOf(shardType).remove(shards)
+        clampLastRowId()
+    }
+
+    /**
+     * Reports the shards of [deletedRowIds], deleted outside of [remove], e.g. by an eviction.
+     * Every deleter reports the exact rows it deleted, so no deleted shard stays pending.
+     */
+    @Synchronized
+    fun onShardsDeleted(deletedRowIds: Collection<Long>) {
+        val deleted = deletedRowIds.toSet()
+        pendingShardsByType.values.forEach { pendingShards ->
+            pendingShards.remove(pendingShards.toList().filter { it.rowId in deleted })
+        }
+        clampLastRowId()
+    }
+
+    private fun clampLastRowId() {
+        val maxRowId = dbHelper.readableCoreDatabase.queryForLong(QUERY_MAX_ROW_ID, null)
+        lastRowId = minOf(lastRowId, maxRowId)
+    }
+
+    private fun likePatternToRegex(pattern: String): Regex {
+        val regex = pattern.split('%').joinToString(".*") { part ->
+            part.split('_').joinToString(".") { Regex.escape(it) }
+        }
+        return Regex(regex, RegexOption.IGNORE_CASE)
+    }
+}
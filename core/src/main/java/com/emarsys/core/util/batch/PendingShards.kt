@@ -0,0 +1,34 @@
+package com.emarsys.core.util.batch
+
+/**
+ * The not yet flushed shards of a single type, in insertion order, with running totals that
+ * [FlushPolicy] implementations can check without touching the database.
+ */
+class PendingShards {
+
+    private val shards = LinkedHashMap<String, PendingShard>()
+
+    var totalBytes: Long = 0
+        private set
+
+    val count: Int
+        get() = shards.size
+
+    val oldestTimestamp: Long?
+        get() = shards.values.firstOrNull()?.timestamp
+
+    fun isEmpty() = shards.isEmpty()
+
+    fun toList(): List<PendingShard> = shards.values.toList()
+
+    internal fun add(shard: PendingShard) {
+        shards.put(shard.id, shard)?.let { totalBytes -= it.size }
+        totalBytes += shard.size
+    }
+
+    internal fun remove(removedShards: List<PendingShard>) {
+        removedShards.forEach { shard ->
+            shards.remove(shard.id)?.let { totalBytes -= it.size }
+        }
+    }
+}
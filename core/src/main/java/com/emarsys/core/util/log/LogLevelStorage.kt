@@ -0,0 +1,34 @@
+package com.emarsys.core.util.log
+
+import com.emarsys.core.Mockable
+import com.emarsys.core.storage.Storage
+
+/**
+ * Keeps the log level set by remote config in memory, so that [Logger] can decide whether an entry
+ * is needed without reading the encrypted storage on every call.
+ */
+@Mockable
+class LogLevelStorage(private val storage: Storage<String?>) : Storage<String?> {
+
+    @Volatile
+    private var cachedLogLevel: LogLevel? = null
+
+    val logLevel: LogLevel
+        get() = cachedLogLevel ?: parse(storage.get()).also { cachedLogLevel = it }
+
+    override fun set(value: String?) {
+        storage.set(value)
+        cachedLogLevel = parse(value)
+    }
+
+    override fun get(): String? = storage.get()
+
+    override fun remove() {
+        storage.remove()
+        cachedLogLevel = parse(null)
+    }
+
+    private fun parse(value: String?): LogLevel {
+        return LogLevel.values().firstOrNull { it.name == value } ?: LogLevel.ERROR
+    }
+}
@@ -2,6 +2,7 @@ package com.emarsys.core.util.log
 
 import android.content.Context
 import android.content.pm.ApplicationInfo
+import android.os.Looper
 import android.util.Log
 import com.emarsys.core.Mockable
 import com.emarsys.core.database.repository.Repository
@@ -24,11 +25,21 @@ class Logger(
         private val shardRepository: Repository<ShardModel, SqlSpecification>,
         private val timestampProvider: TimestampProvider,
         private val uuidProvider: UUIDProvider,
-        private val logLevelStorage: Storage<String?>,
+        logLevelStorage: Storage<String?>,
         private val verboseConsoleLoggingEnabled: Boolean,
         private val context: Context
 ) {
 
+    private val logLevelStorage: LogLevelStorage = logLevelStorage as? LogLevelStorage
+            ?: LogLevelStorage(logLevelStorage)
+
+    private val isDebugMode: Boolean by lazy {
+        0 != context.applicationInfo.flags and ApplicationInfo.FLAG_DEBUGGABLE
+    }
+
+    val effectiveLogLevel: LogLevel
+        get() = logLevelStorage.logLevel
+
     companion object {
         const val TAG = "Emarsys SDK"
 
@@ -41,7 +52,7 @@ class Logger(
         fun info(logEntry: LogEntry, strict: Boolean = false) {
             if (CoreComponent.isSetup()) {
                 if (strict) {
-                    if (core().logLevelStorage.get() == "INFO") {
+                    if (core().logger.effectiveLogLevel == INFO) {
                         core().logger.handleLog(INFO, logEntry)
                     }
                 } else {
@@ -61,7 +72,7 @@ class Logger(
         fun debug(logEntry: LogEntry, strict: Boolean = false) {
             if (CoreComponent.isSetup()) {
                 if (strict) {
-                    if (core().logger.logLevelStorage.get() == "DEBUG") {
+                    if (core().logger.effectiveLogLevel == DEBUG) {
                         core().logger.handleLog(DEBUG, logEntry)
                     }
                 } else {
@@ -70,6 +81,28 @@ class Logger(
             }
         }
 
+        /**
+         * Builds the entry only if it would be logged, so the caller pays nothing for entries that
+         * are dropped by the remote log level. Entries that have to reach the console or the
+         * backend regardless of the log level should use [info] instead.
+         */
+        @JvmStatic
+        fun info(strict: Boolean = false, logEntry: () -> LogEntry) {
+            if (CoreComponent.isSetup() && core().logger.isLoggable(INFO, strict)) {
+                core().logger.handleLog(INFO, logEntry())
+            }
+        }
+
+        /**
+         * Builds the entry only if it would be logged, see the lazy variant of [info].
+         */
+        @JvmStatic
+        fun debug(strict: Boolean = false, logEntry: () -> LogEntry) {
+            if (CoreComponent.isSetup() && core().logger.isLoggable(DEBUG, strict)) {
+                core().logger.handleLog(DEBUG, logEntry())
+            }
+        }
+
         @JvmStatic
         fun metric(logEntry: LogEntry) {
             if (CoreComponent.isSetup()) {
@@ -78,11 +111,18 @@ class Logger(
         }
     }
 
+    fun isLoggable(logLevel: LogLevel, strict: Boolean = false): Boolean {
+        val currentLogLevel = effectiveLogLevel
+        return if (strict) {
+            logLevel == currentLogLevel
+        } else {
+            logLevel.priority >= currentLogLevel.priority || (verboseConsoleLoggingEnabled && isDebugMode)
+        }
+    }
+
     fun handleLog(logLevel: LogLevel, logEntry: LogEntry, onCompleted: (() -> Unit)? = null) {
         val currentThreadName = Thread.currentThread().name
         core().coreSdkHandler.post {
-            val isDebugMode: Boolean =
-                0 != context.applicationInfo.flags and ApplicationInfo.FLAG_DEBUGGABLE
             if ((verboseConsoleLoggingEnabled || logEntry is MethodNotAllowed) && isDebugMode) {
                 logToConsole(logLevel, logEntry)
             }
@@ -120,7 +160,7 @@ class Logger(
         if (isAppStartLog(logEntry)
             || (isNotLogLog(logEntry) && shouldLogBasedOnRemoteConfig(logLevel))
         ) {
-            coreSdkHandler.post {
+            val persist = Runnable {
                 val shard = ShardModel.Builder(timestampProvider, uuidProvider)
                     .type(logEntry.topic)
                     .payloadEntries(logEntry.toData(logLevel, currentThreadName, WrapperInfoContainer.wrapperInfo))
@@ -128,16 +168,18 @@ class Logger(
                 shardRepository.add(shard)
                 onCompleted?.invoke()
             }
+            if (Looper.myLooper() == coreSdkHandler.looper) {
+                persist.run()
+            } else {
+                coreSdkHandler.post(persist)
+            }
         } else {
             onCompleted?.invoke()
         }
     }
 
     private fun shouldLogBasedOnRemoteConfig(logLevel: LogLevel): Boolean {
-        val savedLogLevel: LogLevel =
-            if (logLevelStorage.get() == null) ERROR else valueOf(logLevelStorage.get()!!)
-
-        return logLevel.priority >= savedLogLevel.priority
+        return logLevel.priority >= effectiveLogLevel.priority
     }
 
     private fun isNotLogLog(logEntry: LogEntry) = logEntry.data["url"] != LOG_URL
@@ -0,0 +1,13 @@
+package com.emarsys.core.util.log.entry
+
+class IngestionDrainLog(drainCount: Int, taskCount: Int, maxDrainDurationMicros: Long, queueDepth: Int, maxQueueDepth: Int) : LogEntry {
+    override val topic: String
+        get() = "log_ingestion_drain"
+    override val data: Map<String, Any> = mapOf(
+            "drainCount" to drainCount,
+            "taskCount" to taskCount,
+            "maxDrainDurationMicros" to maxDrainDurationMicros,
+            "queueDepth" to queueDepth,
+            "maxQueueDepth" to maxQueueDepth
+    )
+}
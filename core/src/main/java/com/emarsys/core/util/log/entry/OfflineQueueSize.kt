@@ -1,13 +1,19 @@
 package com.emarsys.core.util.log.entry
 
-class OfflineQueueSize(queueSize: Int) : LogEntry {
+import com.emarsys.core.request.model.RequestPriority
+
+class OfflineQueueSize @JvmOverloads constructor(queueSize: Int, laneSizes: Map<RequestPriority, Int> = mapOf()) : LogEntry {
     override val data: Map<String, Any>
     override val topic: String
         get() = "log_offline_queue_size"
 
     init {
-        data = mapOf(
+        val entryData = mutableMapOf<String, Any>(
                 "queueSize" to queueSize
         )
+        if (laneSizes.isNotEmpty()) {
+            entryData["laneSizes"] = laneSizes.mapKeys { it.key.name.toLowerCase() }
+        }
+        data = entryData
     }
-}
\ No newline at end of file
+}
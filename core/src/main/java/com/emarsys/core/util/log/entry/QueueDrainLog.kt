@@ -0,0 +1,24 @@
+package com.emarsys.core.util.log.entry
+
+class QueueDrainLog @JvmOverloads constructor(requestCount: Int, drainStart: Long, drainEnd: Long, maxInFlightRequestsPerHost: Int, partition: String? = null) : LogEntry {
+    override val topic: String
+        get() = "log_queue_drain"
+    override val data: Map<String, Any>
+
+    init {
+        val drainDuration = drainEnd - drainStart
+        val throughput = if (drainDuration > 0) requestCount * 1000.0 / drainDuration else requestCount.toDouble()
+        val entryData = mutableMapOf<String, Any>(
+                "requestCount" to requestCount,
+                "drainStart" to drainStart,
+                "drainEnd" to drainEnd,
+                "drainDuration" to drainDuration,
+                "requestsPerSecond" to throughput,
+                "maxInFlightRequestsPerHost" to maxInFlightRequestsPerHost
+        )
+        if (partition != null) {
+            entryData["partition"] = partition
+        }
+        data = entryData
+    }
+}
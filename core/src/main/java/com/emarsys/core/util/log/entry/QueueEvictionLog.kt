@@ -0,0 +1,23 @@
+package com.emarsys.core.util.log.entry
+
+class QueueEvictionLog(expiredRequestCount: Int,
+                       expiredShardCount: Int,
+                       evictedRequestCount: Int,
+                       evictedShardCount: Int,
+                       rowCount: Long,
+                       byteCount: Long) : LogEntry {
+    override val topic: String
+        get() = "log_queue_eviction"
+    override val data: Map<String, Any>
+
+    init {
+        data = mapOf(
+                "expiredRequestCount" to expiredRequestCount,
+                "expiredShardCount" to expiredShardCount,
+                "evictedRequestCount" to evictedRequestCount,
+                "evictedShardCount" to evictedShardCount,
+                "rowCount" to rowCount,
+                "byteCount" to byteCount
+        )
+    }
+}
@@ -1,9 +1,15 @@
 package com.emarsys.core.util.log.entry
 
+import com.emarsys.core.connection.ConnectionMetrics
+import com.emarsys.core.connection.PayloadMetrics
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.response.ResponseModel
 
-class RequestLog(responseModel: ResponseModel, inDatabaseTimeEnd: Long, updatedRequestModel: RequestModel? = null) : LogEntry {
+class RequestLog(responseModel: ResponseModel,
+                 inDatabaseTimeEnd: Long,
+                 updatedRequestModel: RequestModel? = null,
+                 connectionMetrics: ConnectionMetrics? = null,
+                 payloadMetrics: PayloadMetrics? = null) : LogEntry {
     override val topic: String
         get() = "log_request"
     override val data: Map<String, Any>
@@ -25,6 +31,15 @@ class RequestLog(responseModel: ResponseModel, inDatabaseTimeEnd: Long, updatedR
                 "networkingEnd" to networkingTimeEnd,
                 "networkingDuration" to networkingTimeDuration
         )
+        if (connectionMetrics != null) {
+            data["connectDuration"] = connectionMetrics.connectDuration
+            data["handshakeCount"] = connectionMetrics.handshakeCount
+        }
+        if (payloadMetrics != null) {
+            data["payloadSize"] = payloadMetrics.payloadSize
+            data["transferredPayloadSize"] = payloadMetrics.transferredSize
+            data["bytesSaved"] = payloadMetrics.bytesSaved
+        }
         if (updatedRequestModel != null) {
             data["header"] = updatedRequestModel.headers.toString()
             data["payload"] = updatedRequestModel.payload.toString()
@@ -0,0 +1,212 @@
+package com.emarsys.core.util.serialization
+
+import java.io.ByteArrayOutputStream
+import java.io.Serializable
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+/**
+ * Versioned, compact binary encoding for the map and list blobs stored in the request and shard
+ * tables. Strings, numbers, booleans, maps and lists are written with a one byte type tag;
+ * any other [Serializable] value falls back to an embedded Java serialization blob.
+ *
+ * [decode] dispatches on the leading format marker, so rows written with
+ * [SerializationUtils.serializableToBlob] by earlier SDK versions can still be read. Those rows are
+ * not rewritten when the database is upgraded: they leave the queue once they are sent, and an
+ * update of a row writes it in this format.
+ */
+object CompactBinaryCodec {
+
+    const val VERSION: Byte = 1
+
+    private val MAGIC = byteArrayOf(0x45, 0x4D)
+    private val LEGACY_MAGIC = byteArrayOf(0xAC.toByte(), 0xED.toByte())
+
+    private const val TAG_NULL = 0
+    private const val TAG_TRUE = 1
+    private const val TAG_FALSE = 2
+    private const val TAG_INT = 3
+    private const val TAG_LONG = 4
+    private const val TAG_DOUBLE = 5
+    private const val TAG_FLOAT = 6
+    private const val TAG_STRING = 7
+    private const val TAG_MAP = 8
+    private const val TAG_LIST = 9
+    private const val TAG_SERIALIZABLE = 10
+
+    @JvmStatic
+    fun encode(value: Any?): ByteArray {
+        val output = ByteArrayOutputStream()
+        output.write(MAGIC)
+        output.write(VERSION.toInt())
+        writeValue(output, value)
+        return output.toByteArray()
+    }
+
+    @JvmStatic
+    @Throws(SerializationException::class)
+    fun decode(blob: ByteArray?): Any? {
+        if (blob == null) {
+            throw SerializationException()
+        }
+        return when {
+            blob.startsWith(LEGACY_MAGIC) -> SerializationUtils.blobToSerializable(blob)
+            blob.startsWith(MAGIC) && blob.size > MAGIC.size && blob[MAGIC.size] == VERSION -> {
+                try {
+                    val buffer = ByteBuffer.wrap(blob, MAGIC.size + 1, blob.size - MAGIC.size - 1)
+                    readValue(buffer)
+                } catch (e: RuntimeException) {
+                    throw SerializationException()
+                }
+            }
+            else -> throw SerializationException()
+        }
+    }
+
+    private fun writeValue(output: ByteArrayOutputStream, value: Any?) {
+        when (value) {
+            null -> output.write(TAG_NULL)
+            is Boolean -> output.write(if (value) TAG_TRUE else TAG_FALSE)
+            is Int -> {
+                output.write(TAG_INT)
+                writeVarLong(output, zigZag(value.toLong()))
+            }
+            is Long -> {
+                output.write(TAG_LONG)
+                writeVarLong(output, zigZag(value))
+            }
+            is Double -> {
+                output.write(TAG_DOUBLE)
+                writeFixedLong(output, java.lang.Double.doubleToRawLongBits(value))
+            }
+            is Float -> {
+                output.write(TAG_FLOAT)
+                writeFixedLong(output, java.lang.Float.floatToRawIntBits(value).toLong(), 4)
+            }
+            is String -> {
+                output.write(TAG_STRING)
+                writeString(output, value)
+            }
+            is Map<*, *> -> {
+                output.write(TAG_MAP)
+                writeVarLong(output, value.size.toLong())
+                for ((key, entryValue) in value) {
+                    writeValue(output, key)
+                    writeValue(output, entryValue)
+                }
+            }
+            is List<*> -> {
+                output.write(TAG_LIST)
+                writeVarLong(output, value.size.toLong())
+                for (item in value) {
+                    writeValue(output, item)
+                }
+            }
+            else -> {
+                val blob = SerializationUtils.serializableToBlob(value)
+                output.write(TAG_SERIALIZABLE)
+                writeVarLong(output, blob.size.toLong())
+                output.write(blob)
+            }
+        }
+    }
+
+    private fun readValue(buffer: ByteBuffer): Any? {
+        return when (val tag = buffer.get().toInt()) {
+            TAG_NULL -> null
+            TAG_TRUE -> true
+            TAG_FALSE -> false
+            TAG_INT -> unZigZag(readVarLong(buffer)).toInt()
+            TAG_LONG -> unZigZag(readVarLong(buffer))
+            TAG_DOUBLE -> java.lang.Double.longBitsToDouble(buffer.long)
+            TAG_FLOAT -> java.lang.Float.intBitsToFloat(buffer.int)
+            TAG_STRING -> readString(buffer)
+            TAG_MAP -> {
+                val size = readSize(buffer)
+                val map = LinkedHashMap<Any?, Any?>(size * 4 / 3 + 1)
+                repeat(size) {
+                    map[readValue(buffer)] = readValue(buffer)
+                }
+                map
+            }
+            TAG_LIST -> {
+                val size = readSize(buffer)
+                val list = ArrayList<Any?>(size)
+                repeat(size) {
+                    list.add(readValue(buffer))
+                }
+                list
+            }
+            TAG_SERIALIZABLE -> {
+                val blob = ByteArray(readSize(buffer))
+                buffer.get(blob)
+                SerializationUtils.blobToSerializable(blob)
+            }
+            else -> throw IllegalStateException("Unknown type tag: $tag")
+        }
+    }
+
+    private fun writeString(output: ByteArrayOutputStream, value: String) {
+        val bytes = value.toByteArray(StandardCharsets.UTF_8)
+        writeVarLong(output, bytes.size.toLong())
+        output.write(bytes)
+    }
+
+    private fun readString(buffer: ByteBuffer): String {
+        val length = readSize(buffer)
+        val value = String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8)
+        buffer.position(buffer.position() + length)
+        return value
+    }
+
+    private fun readSize(buffer: ByteBuffer): Int {
+        val size = readVarLong(buffer)
+        check(size in 0..buffer.remaining()) { "Invalid size: $size" }
+        return size.toInt()
+    }
+
+    private fun writeVarLong(output: ByteArrayOutputStream, value: Long) {
+        var remaining = value
+        while (remaining and 0x7FL.inv() != 0L) {
+            output.write(((remaining and 0x7F) or 0x80).toInt())
+            remaining = remaining ushr 7
+        }
+        output.write(remaining.toInt())
+    }
+
+    private fun readVarLong(buffer: ByteBuffer): Long {
+        var result = 0L
+        var shift = 0
+        while (shift < 64) {
+            val byte = buffer.get().toInt()
+            result = result or ((byte and 0x7F).toLong() shl shift)
+            if (byte and 0x80 == 0) {
+                return result
+            }
+            shift += 7
+        }
+        throw IllegalStateException("Malformed variable length number!")
+    }
+
+    private fun writeFixedLong(output: ByteArrayOutputStream, value: Long, byteCount: Int = 8) {
+        for (i in byteCount - 1 downTo 0) {
+            output.write((value ushr (i * 8)).toInt() and 0xFF)
+        }
+    }
+
+    private fun zigZag(value: Long) = (value shl 1) xor (value shr 63)
+
+    private fun unZigZag(value: Long) = (value ushr 1) xor -(value and 1)
+
+    private fun ByteArray.startsWith(prefix: ByteArray): Boolean {
+        if (size < prefix.size) {
+            return false
+        }
+        for (i in prefix.indices) {
+            if (this[i] != prefix[i]) {
+                return false
+            }
+        }
+        return true
+    }
+}
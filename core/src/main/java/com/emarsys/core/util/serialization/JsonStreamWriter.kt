@@ -0,0 +1,107 @@
+package com.emarsys.core.util.serialization
+
+import org.json.JSONArray
+import org.json.JSONObject
+import java.io.BufferedWriter
+import java.io.OutputStream
+import java.io.OutputStreamWriter
+import java.io.Writer
+import java.nio.charset.StandardCharsets
+
+/**
+ * Writes a payload map directly as UTF-8 JSON without building an intermediate
+ * [JSONObject] tree. The output is byte-identical to `JsonUtils.fromMap(map).toString()`:
+ * null map values are dropped, null list items are kept, numbers and strings are
+ * formatted and escaped the same way as org.json does.
+ */
+class JsonStreamWriter(outputStream: OutputStream) {
+
+    private companion object {
+        const val BUFFER_SIZE = 8192
+        const val HEX_DIGITS = "0123456789abcdef"
+        const val NEGATIVE_ZERO = -0.0
+    }
+
+    private val writer: Writer = BufferedWriter(OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE)
+
+    fun writeMap(map: Map<String, Any?>) {
+        writeObject(map)
+        writer.flush()
+    }
+
+    private fun writeObject(map: Map<*, *>) {
+        writer.write('{'.code)
+        var first = true
+        for ((key, value) in map) {
+            requireNotNull(key) { "Names must be non-null" }
+            if (value == null) {
+                continue
+            }
+            if (!first) {
+                writer.write(','.code)
+            }
+            first = false
+            writeString(key.toString())
+            writer.write(':'.code)
+            writeValue(value)
+        }
+        writer.write('}'.code)
+    }
+
+    private fun writeArray(list: List<*>) {
+        writer.write('['.code)
+        for (i in list.indices) {
+            if (i > 0) {
+                writer.write(','.code)
+            }
+            writeValue(list[i])
+        }
+        writer.write(']'.code)
+    }
+
+    private fun writeValue(value: Any?) {
+        when (value) {
+            null, is Boolean, JSONObject.NULL -> writer.write(value.toString())
+            is Map<*, *> -> writeObject(value)
+            is List<*> -> writeArray(value)
+            is JSONObject, is JSONArray -> writer.write(value.toString())
+            is Number -> writer.write(numberToString(value))
+            else -> writeString(value.toString())
+        }
+    }
+
+    private fun numberToString(number: Number): String {
+        val doubleValue = number.toDouble()
+        require(!doubleValue.isNaN() && !doubleValue.isInfinite()) { "Forbidden numeric value: $number" }
+        if (number.equals(NEGATIVE_ZERO)) {
+            return "-0"
+        }
+        val longValue = number.toLong()
+        return if (doubleValue == longValue.toDouble()) longValue.toString() else number.toString()
+    }
+
+    private fun writeString(value: String) {
+        writer.write('"'.code)
+        for (c in value) {
+            when (c) {
+                '"', '\\', '/' -> {
+                    writer.write('\\'.code)
+                    writer.write(c.code)
+                }
+                '\t' -> writer.write("\\t")
+                '\b' -> writer.write("\\b")
+                '\n' -> writer.write("\\n")
+                '\r' -> writer.write("\\r")
+                '\u000C' -> writer.write("\\f")
+                else -> if (c.code <= 0x1F) {
+                    writer.write("\\u00")
+                    writer.write(HEX_DIGITS[c.code shr 4].code)
+                    writer.write(HEX_DIGITS[c.code and 0xF].code)
+                } else {
+                    writer.write(c.code)
+                }
+            }
+        }
+        writer.write('"'.code)
+    }
+}
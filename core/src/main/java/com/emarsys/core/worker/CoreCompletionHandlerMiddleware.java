@@ -6,6 +6,7 @@ import com.emarsys.core.CoreCompletionHandler;
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
 import com.emarsys.core.handler.CoreSdkHandler;
+import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.request.factory.DefaultRunnableFactory;
 import com.emarsys.core.request.factory.RunnableFactory;
 import com.emarsys.core.request.model.RequestModel;
@@ -15,7 +16,9 @@ import com.emarsys.core.response.ResponseModel;
 import com.emarsys.core.util.Assert;
 import com.emarsys.core.util.RequestModelUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
     CoreCompletionHandler coreCompletionHandler;
@@ -24,6 +27,7 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
     CoreSdkHandler coreSDKHandler;
     Handler uiHandler;
     RunnableFactory runnableFactory;
+    RetryScheduler retryScheduler;
 
     public CoreCompletionHandlerMiddleware(
             Worker worker,
@@ -31,17 +35,29 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
             Handler uiHandler,
             CoreSdkHandler coreSDKHandler,
             CoreCompletionHandler coreCompletionHandler) {
+        this(worker, requestRepository, uiHandler, coreSDKHandler, coreCompletionHandler, new RetryScheduler(coreSDKHandler, new TimestampProvider()));
+    }
+
+    public CoreCompletionHandlerMiddleware(
+            Worker worker,
+            Repository<RequestModel, SqlSpecification> requestRepository,
+            Handler uiHandler,
+            CoreSdkHandler coreSDKHandler,
+            CoreCompletionHandler coreCompletionHandler,
+            RetryScheduler retryScheduler) {
         Assert.notNull(requestRepository, "RequestRepository must not be null!");
         Assert.notNull(worker, "Worker must not be null!");
         Assert.notNull(coreCompletionHandler, "CoreCompletionHandler must not be null!");
         Assert.notNull(uiHandler, "uiHandler must not be null!");
         Assert.notNull(coreSDKHandler, "coreSDKHandler must not be null!");
+        Assert.notNull(retryScheduler, "RetryScheduler must not be null!");
         this.coreCompletionHandler = coreCompletionHandler;
         this.requestRepository = requestRepository;
         this.worker = worker;
         this.coreSDKHandler = coreSDKHandler;
         this.runnableFactory = new DefaultRunnableFactory();
         this.uiHandler = uiHandler;
+        this.retryScheduler = retryScheduler;
     }
 
     @Override
@@ -50,6 +66,7 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
             @Override
             public void run() {
                 removeRequestModel(responseModel);
+                retryScheduler.onSuccess(partitionOf(responseModel));
 
                 worker.unlock();
                 worker.run();
@@ -66,12 +83,17 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
             public void run() {
                 if (isNonRetriableError(responseModel.getStatusCode())) {
                     removeRequestModel(responseModel);
+                    retryScheduler.onSuccess(partitionOf(responseModel));
 
                     handleError(responseModel);
                     worker.unlock();
                     worker.run();
                 } else {
                     worker.unlock();
+                    retryScheduler.onFailure(
+                            partitionOf(responseModel),
+                            retryScheduler.retryAfterMillis(responseModel.getHeaders()),
+                            worker);
                 }
             }
         }));
@@ -81,9 +103,15 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
         String[] ids = RequestModelKt.collectRequestIds(responseModel.getRequestModel());
 
         int noOfIterations = ids.length % 500 == 0 ? ids.length / 500 : ids.length / 500 + 1;
-        for (int i = 0; i < noOfIterations; i++) {
-            int noOfElements = Math.min(ids.length, (i + 1) * 500);
-            requestRepository.remove(new FilterByRequestIds(Arrays.copyOfRange(ids, i * 500, noOfElements)));
+        if (noOfIterations == 1) {
+            requestRepository.remove(new FilterByRequestIds(ids));
+        } else {
+            List<SqlSpecification> specifications = new ArrayList<>(noOfIterations);
+            for (int i = 0; i < noOfIterations; i++) {
+                int noOfElements = Math.min(ids.length, (i + 1) * 500);
+                specifications.add(new FilterByRequestIds(Arrays.copyOfRange(ids, i * 500, noOfElements)));
+            }
+            requestRepository.removeAll(specifications);
         }
     }
 
@@ -93,6 +121,7 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
             @Override
             public void run() {
                 worker.unlock();
+                retryScheduler.onFailure(partitionOf(worker), null, worker);
                 uiHandler.post(runnableFactory.runnableFrom(new Runnable() {
                     @Override
                     public void run() {
@@ -103,6 +132,26 @@ public class CoreCompletionHandlerMiddleware implements CoreCompletionHandler {
         }));
     }
 
+    private String partitionOf(ResponseModel responseModel) {
+        String partition = partitionOf(worker);
+        return partition != null ? partition : hostOf(responseModel.getRequestModel());
+    }
+
+    private String partitionOf(Worker worker) {
+        if (worker instanceof RequestWorker) {
+            RequestWorker requestWorker = (RequestWorker) worker;
+            return requestWorker.getPartition() != null ? requestWorker.getPartition() : hostOf(requestWorker.getRequestModel());
+        }
+        return null;
+    }
+
+    private String hostOf(RequestModel requestModel) {
+        if (requestModel == null || requestModel.getUrl() == null) {
+            return null;
+        }
+        return requestModel.getUrl().getHost();
+    }
+
     private boolean isNonRetriableError(int statusCode) {
         if (statusCode == 408 || statusCode == 429) {
             return false;
@@ -9,22 +9,44 @@ import com.emarsys.core.connection.ConnectionWatchDog;
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
 import com.emarsys.core.database.repository.specification.Everything;
+import com.emarsys.core.handler.CoreSdkHandler;
+import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.request.RequestExpiredException;
 import com.emarsys.core.request.RestClient;
 import com.emarsys.core.request.factory.CompletionHandlerProxyProvider;
+import com.emarsys.core.request.model.CompositeRequestModel;
 import com.emarsys.core.request.model.RequestModel;
+import com.emarsys.core.request.model.RequestModelKt;
+import com.emarsys.core.request.model.RequestPriority;
+import com.emarsys.core.request.model.RequestQueueIndex;
 import com.emarsys.core.request.model.specification.FilterByRequestIds;
 import com.emarsys.core.request.model.specification.QueryLatestRequestModel;
 import com.emarsys.core.util.Assert;
 import com.emarsys.core.util.log.Logger;
 import com.emarsys.core.util.log.entry.OfflineQueueSize;
+import com.emarsys.core.util.log.entry.QueueDrainLog;
+import com.emarsys.core.util.predicate.Predicate;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 public class DefaultWorker implements ConnectionChangeListener, Worker {
 
+    private static final int LOOK_AHEAD_FACTOR = 4;
+    private static final int PARTITIONED_LOOK_AHEAD_SIZE = 32;
+
     private final CompletionHandlerProxyProvider proxyProvider;
+    private final int maxInFlightRequestsPerHost;
+    private final Predicate<RequestModel> orderedRequestPredicate;
+    private final RetryScheduler retryScheduler;
+    private final RequestPartitioner requestPartitioner;
+    private final Map<String, Partition> partitions;
     Repository<RequestModel, SqlSpecification> requestRepository;
     ConnectionWatchDog connectionWatchDog;
     private boolean locked;
@@ -32,13 +54,34 @@ public class DefaultWorker implements ConnectionChangeListener, Worker {
     RestClient restClient;
     private Handler uiHandler;
 
-    public DefaultWorker(Repository<RequestModel, SqlSpecification> requestRepository, ConnectionWatchDog connectionWatchDog, Handler uiHandler, CoreCompletionHandler coreCompletionHandler, RestClient restClient, CompletionHandlerProxyProvider proxyProvider) {
+    public DefaultWorker(Repository<RequestModel, SqlSpecification> requestRepository, ConnectionWatchDog connectionWatchDog, Handler uiHandler, CoreSdkHandler coreSdkHandler, CoreCompletionHandler coreCompletionHandler, RestClient restClient, CompletionHandlerProxyProvider proxyProvider) {
+        this(requestRepository, connectionWatchDog, uiHandler, coreSdkHandler, coreCompletionHandler, restClient, proxyProvider, 1, new Predicate<RequestModel>() {
+            @Override
+            public boolean evaluate(RequestModel input) {
+                return true;
+            }
+        });
+    }
+
+    public DefaultWorker(Repository<RequestModel, SqlSpecification> requestRepository, ConnectionWatchDog connectionWatchDog, Handler uiHandler, CoreSdkHandler coreSdkHandler, CoreCompletionHandler coreCompletionHandler, RestClient restClient, CompletionHandlerProxyProvider proxyProvider, int maxInFlightRequestsPerHost, Predicate<RequestModel> orderedRequestPredicate) {
+        this(requestRepository, connectionWatchDog, uiHandler, coreCompletionHandler, restClient, proxyProvider, maxInFlightRequestsPerHost, orderedRequestPredicate, createRetryScheduler(coreSdkHandler));
+    }
+
+    public DefaultWorker(Repository<RequestModel, SqlSpecification> requestRepository, ConnectionWatchDog connectionWatchDog, Handler uiHandler, CoreCompletionHandler coreCompletionHandler, RestClient restClient, CompletionHandlerProxyProvider proxyProvider, int maxInFlightRequestsPerHost, Predicate<RequestModel> orderedRequestPredicate, RetryScheduler retryScheduler) {
+        this(requestRepository, connectionWatchDog, uiHandler, coreCompletionHandler, restClient, proxyProvider, maxInFlightRequestsPerHost, orderedRequestPredicate, retryScheduler, new RequestPartitioner());
+    }
+
+    public DefaultWorker(Repository<RequestModel, SqlSpecification> requestRepository, ConnectionWatchDog connectionWatchDog, Handler uiHandler, CoreCompletionHandler coreCompletionHandler, RestClient restClient, CompletionHandlerProxyProvider proxyProvider, int maxInFlightRequestsPerHost, Predicate<RequestModel> orderedRequestPredicate, RetryScheduler retryScheduler, RequestPartitioner requestPartitioner) {
         Assert.notNull(requestRepository, "RequestRepository must not be null!");
         Assert.notNull(connectionWatchDog, "ConnectionWatchDog must not be null!");
         Assert.notNull(uiHandler, "UiHandler must not be null!");
         Assert.notNull(coreCompletionHandler, "CoreCompletionHandler must not be null!");
         Assert.notNull(restClient, "RestClient must not be null!");
         Assert.notNull(proxyProvider, "ProxyProvider must not be null!");
+        Assert.positiveInt(maxInFlightRequestsPerHost, "MaxInFlightRequestsPerHost must be greater than 0!");
+        Assert.notNull(orderedRequestPredicate, "OrderedRequestPredicate must not be null!");
+        Assert.notNull(retryScheduler, "RetryScheduler must not be null!");
+        Assert.notNull(requestPartitioner, "RequestPartitioner must not be null!");
 
         this.coreCompletionHandler = coreCompletionHandler;
         this.requestRepository = requestRepository;
@@ -47,6 +90,16 @@ public class DefaultWorker implements ConnectionChangeListener, Worker {
         this.uiHandler = uiHandler;
         this.restClient = restClient;
         this.proxyProvider = proxyProvider;
+        this.maxInFlightRequestsPerHost = maxInFlightRequestsPerHost;
+        this.orderedRequestPredicate = orderedRequestPredicate;
+        this.retryScheduler = retryScheduler;
+        this.requestPartitioner = requestPartitioner;
+        this.partitions = new LinkedHashMap<>();
+    }
+
+    private static RetryScheduler createRetryScheduler(CoreSdkHandler coreSdkHandler) {
+        Assert.notNull(coreSdkHandler, "CoreSdkHandler must not be null!");
+        return new RetryScheduler(coreSdkHandler, new TimestampProvider());
     }
 
     @Override
@@ -64,44 +117,148 @@ public class DefaultWorker implements ConnectionChangeListener, Worker {
         return locked;
     }
 
+    boolean isLocked(String partition) {
+        Partition state = partitions.get(partition);
+        return state != null && state.isLocked();
+    }
+
     @Override
     public void run() {
-        if (!isLocked() && connectionWatchDog.isConnected() && !requestRepository.isEmpty()) {
-            lock();
-            RequestModel model = findFirstNonExpiredModel();
-            if (model != null) {
-                restClient.execute(
-                        model,
-                        proxyProvider.provideProxy(this, coreCompletionHandler));
-            } else {
-                unlock();
+        if (!locked && connectionWatchDog.isConnected()) {
+            if (!requestRepository.isEmpty()) {
+                dispatchRequests();
+            }
+            if (hasDrainedRequests() && !hasInFlightRequests() && requestRepository.isEmpty()) {
+                reportQueueDrain();
             }
         }
     }
 
+    @Override
+    public Set<String> getInFlightRequestIds() {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Partition partition : partitions.values()) {
+            for (InFlightRequest inFlightRequest : partition.inFlightRequests.values()) {
+                ids.add(inFlightRequest.requestModel.getId());
+                ids.addAll(Arrays.asList(RequestModelKt.collectRequestIds(inFlightRequest.requestModel)));
+            }
+        }
+        return ids;
+    }
+
     @Override
     public void onConnectionChanged(ConnectionState connectionState, boolean isConnected) {
         if (isConnected) {
-            Logger.debug(new OfflineQueueSize(requestRepository.query(new Everything()).size()), false);
+            Logger.debug(createOfflineQueueSize(), false);
             run();
         }
     }
 
-    private RequestModel findFirstNonExpiredModel() {
+    private OfflineQueueSize createOfflineQueueSize() {
+        if (requestRepository instanceof RequestQueueIndex) {
+            Map<RequestPriority, Integer> laneSizes = ((RequestQueueIndex) requestRepository).queuedRequestCounts();
+            int queueSize = 0;
+            for (int laneSize : laneSizes.values()) {
+                queueSize += laneSize;
+            }
+            return new OfflineQueueSize(queueSize, laneSizes);
+        }
+        return new OfflineQueueSize(requestRepository.query(new Everything()).size());
+    }
+
+    int getInFlightRequestCount() {
+        int count = 0;
+        for (Partition partition : partitions.values()) {
+            count += partition.inFlightRequests.size();
+        }
+        return count;
+    }
+
+    private void dispatchRequests() {
+        if (retryScheduler.isTransportOpen()) {
+            return;
+        }
         while (!requestRepository.isEmpty()) {
-            List<RequestModel> result = requestRepository.query(new QueryLatestRequestModel());
-            if (!result.isEmpty()) {
-                RequestModel model = result.get(0);
+            List<RequestModel> candidates = requestRepository.query(new QueryLatestRequestModel(lookAheadSize(), inFlightRequestIds()));
+            if (candidates.isEmpty()) {
+                break;
+            }
+            boolean expiredModelFound = false;
+            boolean compositeDispatched = false;
+            Set<Partition> blockedPartitions = new HashSet<>();
+            for (RequestModel model : candidates) {
                 if (isExpired(model)) {
                     handleExpiration(model);
-                } else {
-                    return model;
+                    expiredModelFound = true;
+                    continue;
+                }
+                Partition partition = partitionOf(model);
+                if (blockedPartitions.contains(partition) || partition.isLocked()) {
+                    continue;
+                }
+                if (orderedRequestPredicate.evaluate(model)) {
+                    if (!partition.isBackingOff() && partition.inFlightRequests.isEmpty()) {
+                        partition.dispatch(model, true);
+                    }
+                    blockedPartitions.add(partition);
+                } else if (!partition.inFlightRequests.containsKey(model.getId()) && !partition.isBackingOff() && partition.hasFreeSlot()) {
+                    partition.dispatch(model, false);
+                    compositeDispatched |= model instanceof CompositeRequestModel;
                 }
-            } else {
+            }
+            // a repository proxy builds at most one composite per query, the next one needs a new query
+            if (!expiredModelFound && !compositeDispatched) {
                 break;
             }
         }
-        return null;
+    }
+
+    private Partition partitionOf(RequestModel model) {
+        String name = requestPartitioner.partitionOf(model);
+        Partition partition = partitions.get(name);
+        if (partition == null) {
+            partition = new Partition(name);
+            partitions.put(name, partition);
+        }
+        return partition;
+    }
+
+    private boolean hasInFlightRequests() {
+        for (Partition partition : partitions.values()) {
+            if (!partition.inFlightRequests.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasDrainedRequests() {
+        for (Partition partition : partitions.values()) {
+            if (partition.drainedRequestCount > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reportQueueDrain() {
+        for (Partition partition : partitions.values()) {
+            if (partition.drainedRequestCount > 0) {
+                Logger.metric(new QueueDrainLog(partition.drainedRequestCount, partition.drainStart, partition.drainEnd, maxInFlightRequestsPerHost, partition.name));
+            }
+        }
+        partitions.clear();
+    }
+
+    private int lookAheadSize() {
+        if (hasInFlightRequests() || retryScheduler.hasOpenCircuit()) {
+            return Math.max(PARTITIONED_LOOK_AHEAD_SIZE, maxInFlightRequestsPerHost * LOOK_AHEAD_FACTOR);
+        }
+        return maxInFlightRequestsPerHost == 1 ? 1 : maxInFlightRequestsPerHost * LOOK_AHEAD_FACTOR;
+    }
+
+    private String[] inFlightRequestIds() {
+        return getInFlightRequestIds().toArray(new String[0]);
     }
 
     private boolean isExpired(RequestModel model) {
@@ -119,4 +276,103 @@ public class DefaultWorker implements ConnectionChangeListener, Worker {
             }
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * The in-flight requests, ordering lock and drain metrics of one partition. The retry state of
+     * the partition is kept by the {@link RetryScheduler}, under the name of the partition.
+     */
+    private class Partition {
+        private final String name;
+        private final Map<String, InFlightRequest> inFlightRequests = new LinkedHashMap<>();
+        private long drainStart;
+        private long drainEnd;
+        private int drainedRequestCount;
+
+        Partition(String name) {
+            this.name = name;
+        }
+
+        boolean isLocked() {
+            for (InFlightRequest inFlightRequest : inFlightRequests.values()) {
+                if (inFlightRequest.ordered) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isBackingOff() {
+            return retryScheduler.isOpen(name);
+        }
+
+        boolean hasFreeSlot() {
+            int limit = retryScheduler.isHalfOpen(name) ? 1 : maxInFlightRequestsPerHost;
+            return inFlightRequests.size() < limit;
+        }
+
+        void dispatch(RequestModel model, boolean ordered) {
+            if (drainStart == 0) {
+                drainStart = System.currentTimeMillis();
+            }
+            InFlightRequest inFlightRequest = new InFlightRequest(model, this, ordered);
+            inFlightRequests.put(model.getId(), inFlightRequest);
+            restClient.execute(
+                    model,
+                    proxyProvider.provideProxy(inFlightRequest, coreCompletionHandler));
+        }
+
+        void release(InFlightRequest inFlightRequest) {
+            if (inFlightRequests.get(inFlightRequest.requestModel.getId()) == inFlightRequest) {
+                inFlightRequests.remove(inFlightRequest.requestModel.getId());
+                drainedRequestCount++;
+                drainEnd = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private class InFlightRequest implements RequestWorker {
+        private final RequestModel requestModel;
+        private final Partition partition;
+        private final boolean ordered;
+
+        InFlightRequest(RequestModel requestModel, Partition partition, boolean ordered) {
+            this.requestModel = requestModel;
+            this.partition = partition;
+            this.ordered = ordered;
+        }
+
+        @Override
+        public RequestModel getRequestModel() {
+            return requestModel;
+        }
+
+        @Override
+        public String getPartition() {
+            return partition.name;
+        }
+
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void unlock() {
+            partition.release(this);
+        }
+
+        @Override
+        public boolean isLocked() {
+            return partition.inFlightRequests.get(requestModel.getId()) == this;
+        }
+
+        @Override
+        public void run() {
+            DefaultWorker.this.run();
+        }
+
+        @Override
+        public Set<String> getInFlightRequestIds() {
+            return DefaultWorker.this.getInFlightRequestIds();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.emarsys.core.worker
+
+import com.emarsys.core.Mockable
+import com.emarsys.core.endpoint.ServiceEndpointProvider
+import com.emarsys.core.request.model.RequestModel
+
+/**
+ * Assigns queued requests to partitions, so that the ordering lock, in-flight requests, retry
+ * state and drain metrics of one partition are kept apart from the others.
+ *
+ * Every service of [services] gets a partition of its own, named by its current endpoint. Every
+ * other request falls into the partition of its own host. Requests of different services that
+ * must not be reordered, like setContact and the events of the new contact, are kept in order by
+ * barrier requests (see [RequestModel.barrier]) instead of a shared partition.
+ */
+@Mockable
+class RequestPartitioner @JvmOverloads constructor(private val services: List<ServiceEndpointProvider> = listOf()) {
+
+    fun partitionOf(requestModel: RequestModel): String {
+        val url = requestModel.url.toString()
+        return services.asSequence()
+                .map { it.provideEndpointHost() }
+                .firstOrNull { url.startsWith(it) }
+                ?: requestModel.url.host
+    }
+}
@@ -0,0 +1,12 @@
+package com.emarsys.core.worker;
+
+import com.emarsys.core.request.model.RequestModel;
+
+public interface RequestWorker extends Worker {
+    RequestModel getRequestModel();
+
+    /**
+     * The partition the request was sent in, see {@link RequestPartitioner}.
+     */
+    String getPartition();
+}
@@ -0,0 +1,131 @@
+package com.emarsys.core.worker
+
+import com.emarsys.core.Mockable
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.provider.timestamp.TimestampProvider
+import java.text.ParseException
+import java.text.SimpleDateFormat
+import java.util.*
+
+/**
+ * Schedules the retry of failed requests on the [CoreSdkHandler] looper and keeps a circuit breaker per
+ * partition of the worker (see [RequestPartitioner]).
+ *
+ * Every retriable failure opens the circuit of the failing partition for an exponentially growing, jittered
+ * delay, or for as long as the `Retry-After` header asks, capped at [maxDelayMillis]. While the circuit
+ * is open the worker skips the requests of that partition, once the delay is over a single trial request is
+ * let through (half open), and the first success closes the circuit again.
+ *
+ * Failures without a response (exceptions) open the circuit of the partition the failed request was sent
+ * in as well. Only a failure whose partition is unknown opens the shared transport circuit, which holds
+ * back every partition.
+ *
+ * Must only be used from the [CoreSdkHandler] thread.
+ */
+@Mockable
+class RetryScheduler @JvmOverloads constructor(
+        private val coreSdkHandler: CoreSdkHandler,
+        private val timestampProvider: TimestampProvider,
+        private val baseDelayMillis: Long = DEFAULT_BASE_DELAY_MILLIS,
+        private val maxDelayMillis: Long = DEFAULT_MAX_DELAY_MILLIS,
+        private val random: Random = Random()) {
+
+    companion object {
+        const val DEFAULT_BASE_DELAY_MILLIS = 1_000L
+        const val DEFAULT_MAX_DELAY_MILLIS = 5 * 60_000L
+        private const val RETRY_AFTER = "Retry-After"
+        private const val HTTP_DATE_PATTERN = "EEE, dd MMM yyyy HH:mm:ss zzz"
+        private const val MAX_EXPONENT = 30
+    }
+
+    private class Circuit {
+        var failureCount = 0
+        var openUntil = 0L
+    }
+
+    private val circuits = mutableMapOf<String, Circuit>()
+    private val transportCircuit = Circuit()
+    private var nextWakeUp = 0L
+
+    init {
+        require(baseDelayMillis > 0) { "BaseDelayMillis must be greater than 0!" }
+        require(maxDelayMillis >= baseDelayMillis) { "MaxDelayMillis must not be less than baseDelayMillis!" }
+    }
+
+    fun onSuccess(partition: String?) {
+        if (partition != null) {
+            circuits.remove(partition)
+        }
+        transportCircuit.failureCount = 0
+        transportCircuit.openUntil = 0
+    }
+
+    fun onFailure(partition: String?, retryAfterMillis: Long?, worker: Worker) {
+        val circuit = if (partition == null) transportCircuit else circuits.getOrPut(partition) { Circuit() }
+        circuit.failureCount++
+        val delay = minOf(maxOf(retryAfterMillis ?: 0L, backoffDelay(circuit.failureCount)), maxDelayMillis)
+        circuit.openUntil = timestampProvider.provideTimestamp() + delay
+        scheduleWakeUp(worker)
+    }
+
+    fun isOpen(partition: String): Boolean {
+        val now = timestampProvider.provideTimestamp()
+        return isTransportOpen() || (circuits[partition]?.openUntil ?: 0L) > now
+    }
+
+    fun isHalfOpen(partition: String): Boolean {
+        val circuit = circuits[partition]
+        return circuit != null && !isOpen(partition)
+    }
+
+    fun isTransportOpen() = transportCircuit.openUntil > timestampProvider.provideTimestamp()
+
+    fun hasOpenCircuit(): Boolean {
+        val now = timestampProvider.provideTimestamp()
+        return isTransportOpen() || circuits.values.any { it.openUntil > now }
+    }
+
+    fun retryAfterMillis(headers: Map<String, String>): Long? {
+        val value = headers.entries
+                .firstOrNull { RETRY_AFTER.equals(it.key, ignoreCase = true) }
+                ?.value?.trim() ?: return null
+        return value.toLongOrNull()?.let { maxOf(it, 0L) * 1000 } ?: parseHttpDate(value)?.let {
+            maxOf(it - timestampProvider.provideTimestamp(), 0L)
+        }
+    }
+
+    private fun parseHttpDate(value: String): Long? {
+        return try {
+            SimpleDateFormat(HTTP_DATE_PATTERN, Locale.US).apply {
+                timeZone = TimeZone.getTimeZone("GMT")
+            }.parse(value)?.time
+        } catch (e: ParseException) {
+            null
+        }
+    }
+
+    private fun backoffDelay(failureCount: Int): Long {
+        val exponent = minOf(failureCount - 1, MAX_EXPONENT)
+        val ceiling = minOf(baseDelayMillis shl exponent, maxDelayMillis)
+        return ceiling / 2 + (random.nextDouble() * (ceiling / 2)).toLong()
+    }
+
+    private fun scheduleWakeUp(worker: Worker) {
+        val now = timestampProvider.provideTimestamp()
+        val wakeUp = (circuits.values.asSequence() + transportCircuit)
+                .map { it.openUntil }
+                .filter { it > now }
+                .minOrNull() ?: return
+        if (nextWakeUp in (now + 1)..wakeUp) {
+            return
+        }
+        nextWakeUp = wakeUp
+        coreSdkHandler.postDelayed(Runnable {
+            if (nextWakeUp == wakeUp) {
+                nextWakeUp = 0
+                worker.run()
+                scheduleWakeUp(worker)
+            }
+        }, wakeUp - now)
+    }
+}
@@ -1,5 +1,9 @@
 package com.emarsys.core.worker;
 
+import java.util.Set;
+
 public interface Worker extends Lockable {
     void run();
+
+    Set<String> getInFlightRequestIds();
 }
@@ -94,6 +94,7 @@ class EmarsysTest {
     private lateinit var currentActivityWatchdog: CurrentActivityWatchdog
     private lateinit var mockCoreSQLiteDatabase: CoreSQLiteDatabase
     private lateinit var mockLogShardTrigger: Runnable
+    private lateinit var mockStorageQuotaEnforcer: Runnable
     private lateinit var mockMobileEngageInternal: MobileEngageInternal
     private lateinit var mockDeepLinkInternal: DeepLinkInternal
     private lateinit var mockDeepLinkApi: DeepLinkApi
@@ -155,6 +156,7 @@ class EmarsysTest {
             mockClientServiceApi = mock()
             mockPredictShardTrigger = mock()
             mockLogShardTrigger = mock()
+            mockStorageQuotaEnforcer = mock()
             mockLanguageProvider = mock()
             mockVersionProvider = mock()
             inappEventHandler = mock()
@@ -224,6 +226,7 @@ class EmarsysTest {
                     coreSQLiteDatabase = mockCoreSQLiteDatabase,
                     deviceInfo = deviceInfo,
                     logShardTrigger = mockLogShardTrigger,
+                    storageQuotaEnforcer = mockStorageQuotaEnforcer,
                     mobileEngageInternal = mockMobileEngageInternal,
                     loggingMobileEngageInternal = mockMobileEngageInternal,
                     deepLinkInternal = mockDeepLinkInternal,
@@ -467,6 +470,15 @@ class EmarsysTest {
         }
     }
 
+    @Test
+    fun testSetup_startsStorageQuotaEnforcer() {
+        setup(mobileEngageConfig)
+
+        runBlockingOnCoreSdkThread {
+            verify(mockStorageQuotaEnforcer).run()
+        }
+    }
+
     @Test
     fun testSetup_registers_activityLifecycleWatchdog() {
         setup(mobileEngageConfig)
@@ -0,0 +1,89 @@
+package com.emarsys.eventservice
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.result.CompletionListener
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.core.provider.uuid.UUIDProvider
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.ThreadSpy
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.*
+import java.util.concurrent.CountDownLatch
+
+class EventServiceFacadeTest {
+    private companion object {
+        const val EVENT_NAME = "testEventName"
+        const val REQUEST_ID = "testRequestId"
+        val EVENT_ATTRIBUTES = mapOf<String, String?>("key" to "value")
+    }
+
+    private lateinit var coreSdkHandler: CoreSdkHandler
+    private lateinit var mockEventService: EventServiceApi
+    private lateinit var mockUUIDProvider: UUIDProvider
+    private lateinit var mockCompletionListener: CompletionListener
+    private lateinit var eventServiceFacade: EventServiceApi
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
+        mockEventService = mock()
+        mockUUIDProvider = mock {
+            on { provideId() } doReturn REQUEST_ID
+        }
+        mockCompletionListener = mock()
+        eventServiceFacade = EventServiceFacade(mockEventService, ApiDispatcher(coreSdkHandler), mockUUIDProvider)
+    }
+
+    @Test
+    fun testTrackCustomEvent_shouldAnswerTheRequestId_withoutWaitingForTheCoreSdkThread() {
+        val latch = CountDownLatch(1)
+        coreSdkHandler.post { latch.await() }
+
+        val result = eventServiceFacade.trackCustomEvent(EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+        latch.countDown()
+
+        result shouldBe REQUEST_ID
+    }
+
+    @Test
+    fun testTrackCustomEvent_shouldTrackTheEvent_withTheAnsweredId_onCoreSdkThread() {
+        val threadSpy = ThreadSpy<Unit>()
+        doAnswer(threadSpy).whenever(mockEventService).trackCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+
+        eventServiceFacade.trackCustomEvent(EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+
+        threadSpy.verifyCalledOnCoreSdkThread()
+        verify(mockEventService).trackCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+    }
+
+    @Test
+    fun testTrackInternalCustomEvent_shouldAnswerTheRequestId_withoutWaitingForTheCoreSdkThread() {
+        val latch = CountDownLatch(1)
+        coreSdkHandler.post { latch.await() }
+
+        val result = eventServiceFacade.trackInternalCustomEvent(EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+        latch.countDown()
+
+        result shouldBe REQUEST_ID
+    }
+
+    @Test
+    fun testTrackInternalCustomEvent_shouldTrackTheEvent_withTheAnsweredId_onCoreSdkThread() {
+        val threadSpy = ThreadSpy<Unit>()
+        doAnswer(threadSpy).whenever(mockEventService).trackInternalCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+
+        eventServiceFacade.trackInternalCustomEvent(EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+
+        threadSpy.verifyCalledOnCoreSdkThread()
+        verify(mockEventService).trackInternalCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+    }
+}
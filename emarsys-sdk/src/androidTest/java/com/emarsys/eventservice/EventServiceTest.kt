@@ -17,6 +17,7 @@ import org.mockito.kotlin.verify
 class EventServiceTest {
     companion object {
         private const val EVENT_NAME = "testEventName"
+        private const val REQUEST_ID = "testRequestId"
         private val EVENT_ATTRIBUTES = mapOf<String, String?>(
                 "key1" to "value1",
                 "key2" to "value2"
@@ -68,4 +69,16 @@ class EventServiceTest {
        eventServiceApi.trackInternalCustomEventAsync(EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
         verify(mockEventServiceInternal).trackInternalCustomEventAsync(EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testEventServiceApi_trackCustomEventAsync_withRequestId_delegatesToDefaultInstance() {
+        eventServiceApi.trackCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+        verify(mockEventServiceInternal).trackCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+    }
+
+    @Test
+    fun testEventServiceApi_trackInternalCustomEventAsync_withRequestId_delegatesToDefaultInstance() {
+        eventServiceApi.trackInternalCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+        verify(mockEventServiceInternal).trackInternalCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+    }
+}
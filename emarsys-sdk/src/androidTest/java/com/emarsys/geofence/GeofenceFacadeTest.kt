@@ -0,0 +1,59 @@
+package com.emarsys.geofence
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.concurrency.CoreSdkHandlerProvider
+import com.emarsys.core.handler.CoreSdkHandler
+import com.emarsys.testUtil.TimeoutUtils
+import com.emarsys.testUtil.mockito.ThreadSpy
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+import org.mockito.kotlin.doAnswer
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+class GeofenceFacadeTest {
+
+    private lateinit var coreSdkHandler: CoreSdkHandler
+    private lateinit var mockGeofence: GeofenceApi
+    private lateinit var geofenceFacade: GeofenceApi
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun setUp() {
+        coreSdkHandler = CoreSdkHandlerProvider().provideHandler()
+        mockGeofence = mock()
+        geofenceFacade = GeofenceFacade(mockGeofence, ApiDispatcher(coreSdkHandler))
+    }
+
+    @Test
+    fun testEnable_shouldDelegateOnCoreSdkThread() {
+        val threadSpy = ThreadSpy<Unit>()
+        doAnswer(threadSpy).whenever(mockGeofence).enable()
+
+        geofenceFacade.enable()
+
+        threadSpy.verifyCalledOnCoreSdkThread()
+        verify(mockGeofence).enable()
+    }
+
+    @Test
+    fun testIsEnabled_shouldAnswerOnCallingThread() {
+        val callingThread = Thread.currentThread()
+        var answeringThread: Thread? = null
+        whenever(mockGeofence.isEnabled()).thenAnswer {
+            answeringThread = Thread.currentThread()
+            true
+        }
+
+        geofenceFacade.isEnabled() shouldBe true
+
+        answeringThread shouldBe callingThread
+    }
+}
@@ -6,8 +6,6 @@ import androidx.lifecycle.ProcessLifecycleOwner
 import com.emarsys.common.feature.InnerFeature.*
 import com.emarsys.config.ConfigApi
 import com.emarsys.config.EmarsysConfig
-import com.emarsys.core.api.proxyApi
-import com.emarsys.core.api.proxyWithLogExceptions
 import com.emarsys.core.api.result.CompletionListener
 import com.emarsys.core.database.DatabaseContract
 import com.emarsys.core.database.trigger.TriggerEvent
@@ -20,7 +18,6 @@ import com.emarsys.di.isEmarsysComponentSetup
 import com.emarsys.geofence.GeofenceApi
 import com.emarsys.inapp.InAppApi
 import com.emarsys.inbox.MessageInboxApi
-import com.emarsys.mobileengage.di.mobileEngage
 import com.emarsys.oneventaction.OnEventActionApi
 import com.emarsys.predict.PredictApi
 import com.emarsys.push.PushApi
@@ -79,6 +76,7 @@ object Emarsys {
             registerWatchDogs(emarsysConfig)
             registerLifecycleObservers()
             registerDatabaseTriggers()
+            emarsys().storageQuotaEnforcer.run()
 
             if (FeatureRegistry.isFeatureEnabled(MOBILE_ENGAGE)) {
                 initializeMobileEngageContact()
@@ -105,7 +103,6 @@ object Emarsys {
             && !FeatureRegistry.isFeatureEnabled(PREDICT)
         ) {
             EmarsysDependencyInjection.mobileEngageApi()
-                .proxyApi(mobileEngage().coreSdkHandler)
                 .setAuthenticatedContact(contactFieldId, openIdToken, completionListener)
         }
 
@@ -124,12 +121,10 @@ object Emarsys {
             && !FeatureRegistry.isFeatureEnabled(PREDICT)
         ) {
             EmarsysDependencyInjection.mobileEngageApi()
-                .proxyApi(mobileEngage().coreSdkHandler)
                 .setContact(contactFieldId, contactFieldValue, completionListener)
         }
         if (FeatureRegistry.isFeatureEnabled(PREDICT)) {
             EmarsysDependencyInjection.predictRestrictedApi()
-                .proxyApi(mobileEngage().coreSdkHandler)
                 .setContact(contactFieldId, contactFieldValue)
         }
     }
@@ -142,12 +137,10 @@ object Emarsys {
             && !FeatureRegistry.isFeatureEnabled(PREDICT)
         ) {
             EmarsysDependencyInjection.mobileEngageApi()
-                .proxyApi(mobileEngage().coreSdkHandler)
                 .clearContact(completionListener)
         }
         if (FeatureRegistry.isFeatureEnabled(PREDICT)) {
             EmarsysDependencyInjection.predictRestrictedApi()
-                .proxyApi(mobileEngage().coreSdkHandler)
                 .clearContact()
         }
     }
@@ -160,7 +153,6 @@ object Emarsys {
         completionListener: CompletionListener? = null
     ) {
         EmarsysDependencyInjection.deepLinkApi()
-            .proxyApi(mobileEngage().coreSdkHandler)
             .trackDeepLinkOpen(activity, intent, completionListener)
     }
 
@@ -172,7 +164,6 @@ object Emarsys {
         completionListener: CompletionListener? = null
     ) {
         EmarsysDependencyInjection.eventServiceApi()
-            .proxyApi(mobileEngage().coreSdkHandler)
             .trackCustomEventAsync(eventName, eventAttributes, completionListener)
     }
 
@@ -213,11 +204,9 @@ object Emarsys {
         if (contactToken == null && !requestContext.hasContactIdentification()) {
             if (clientState == null || deviceInfoPayload != null && deviceInfoPayload != deviceInfo.deviceInfoPayload) {
                 EmarsysDependencyInjection.clientServiceApi()
-                    .proxyWithLogExceptions()
                     .trackDeviceInfo(null)
             }
             EmarsysDependencyInjection.mobileEngageApi()
-                .proxyWithLogExceptions()
                 .setContact()
         }
     }
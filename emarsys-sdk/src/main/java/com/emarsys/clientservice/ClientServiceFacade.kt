@@ -0,0 +1,12 @@
+package com.emarsys.clientservice
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.result.CompletionListener
+
+class ClientServiceFacade(private val delegate: ClientServiceApi,
+                          private val dispatcher: ApiDispatcher) : ClientServiceApi {
+
+    override fun trackDeviceInfo(completionListener: CompletionListener?) {
+        dispatcher.dispatch { delegate.trackDeviceInfo(completionListener) }
+    }
+}
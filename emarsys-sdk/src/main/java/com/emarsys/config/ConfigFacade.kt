@@ -0,0 +1,49 @@
+package com.emarsys.config
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.ApiSnapshot
+import com.emarsys.core.api.notification.NotificationSettings
+import com.emarsys.core.api.result.CompletionListener
+
+class ConfigFacade(private val delegate: ConfigApi,
+                   private val dispatcher: ApiDispatcher) : ConfigApi {
+
+    private val currentApplicationCode = ApiSnapshot { delegate.applicationCode }
+    private val currentMerchantId = ApiSnapshot { delegate.merchantId }
+
+    override val contactFieldId: Int?
+        get() = dispatcher.read { delegate.contactFieldId }
+
+    override val applicationCode: String?
+        get() = dispatcher.read(currentApplicationCode)
+
+    override val merchantId: String?
+        get() = dispatcher.read(currentMerchantId)
+
+    override val hardwareId: String
+        get() = dispatcher.read { delegate.hardwareId }
+
+    override val languageCode: String
+        get() = dispatcher.read { delegate.languageCode }
+
+    override val notificationSettings: NotificationSettings
+        get() = dispatcher.read { delegate.notificationSettings }
+
+    override val isAutomaticPushSendingEnabled: Boolean
+        get() = dispatcher.read { delegate.isAutomaticPushSendingEnabled }
+
+    override val sdkVersion: String
+        get() = dispatcher.read { delegate.sdkVersion }
+
+    override fun changeApplicationCode(applicationCode: String?) {
+        dispatcher.dispatch(currentApplicationCode, applicationCode) { delegate.changeApplicationCode(applicationCode) }
+    }
+
+    override fun changeApplicationCode(applicationCode: String?, completionListener: CompletionListener?) {
+        dispatcher.dispatch(currentApplicationCode, applicationCode) { delegate.changeApplicationCode(applicationCode, completionListener) }
+    }
+
+    override fun changeMerchantId(merchantId: String?) {
+        dispatcher.dispatch(currentMerchantId, merchantId) { delegate.changeMerchantId(merchantId) }
+    }
+}
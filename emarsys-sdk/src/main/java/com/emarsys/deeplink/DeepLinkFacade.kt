@@ -0,0 +1,14 @@
+package com.emarsys.deeplink
+
+import android.app.Activity
+import android.content.Intent
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.result.CompletionListener
+
+class DeepLinkFacade(private val delegate: DeepLinkApi,
+                     private val dispatcher: ApiDispatcher) : DeepLinkApi {
+
+    override fun trackDeepLinkOpen(activity: Activity?, intent: Intent?, completionListener: CompletionListener?) {
+        dispatcher.dispatch { delegate.trackDeepLinkOpen(activity, intent, completionListener) }
+    }
+}
@@ -11,16 +11,18 @@ import com.emarsys.Emarsys
 import com.emarsys.EmarsysRequestModelFactory
 import com.emarsys.clientservice.ClientService
 import com.emarsys.clientservice.ClientServiceApi
+import com.emarsys.clientservice.ClientServiceFacade
 import com.emarsys.config.*
 import com.emarsys.core.DefaultCoreCompletionHandler
 import com.emarsys.core.Mapper
 import com.emarsys.core.activity.ActivityLifecycleAction
 import com.emarsys.core.activity.ActivityLifecycleWatchdog
 import com.emarsys.core.activity.CurrentActivityWatchdog
+import com.emarsys.core.api.ApiDispatcher
 import com.emarsys.core.api.notification.NotificationSettings
-import com.emarsys.core.api.proxyApi
 import com.emarsys.core.app.AppLifecycleObserver
 import com.emarsys.core.concurrency.CoreSdkHandlerProvider
+import com.emarsys.core.concurrency.NetworkingExecutorProvider
 import com.emarsys.core.connection.ConnectionProvider
 import com.emarsys.core.connection.ConnectionWatchDog
 import com.emarsys.core.contentresolver.hardwareid.HardwareIdContentResolver
@@ -28,11 +30,16 @@ import com.emarsys.core.crypto.Crypto
 import com.emarsys.core.crypto.HardwareIdentificationCrypto
 import com.emarsys.core.database.CoreSQLiteDatabase
 import com.emarsys.core.database.helper.CoreDbHelper
+import com.emarsys.core.database.quota.StorageQuota
+import com.emarsys.core.database.quota.StorageQuotaEnforcer
+import com.emarsys.core.database.repository.CoalescingRepository
+import com.emarsys.core.database.repository.EverythingCachingRepository
 import com.emarsys.core.database.repository.Repository
 import com.emarsys.core.database.repository.SqlSpecification
 import com.emarsys.core.device.DeviceInfo
 import com.emarsys.core.device.HardwareRepository
 import com.emarsys.core.device.LanguageProvider
+import com.emarsys.core.endpoint.Endpoint
 import com.emarsys.core.endpoint.ServiceEndpointProvider
 import com.emarsys.core.handler.CoreSdkHandler
 import com.emarsys.core.notification.NotificationManagerHelper
@@ -46,8 +53,11 @@ import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.provider.version.VersionProvider
 import com.emarsys.core.request.RequestManager
 import com.emarsys.core.request.RestClient
+import com.emarsys.core.request.compression.RequestCompressionPolicy
 import com.emarsys.core.request.factory.CoreCompletionHandlerMiddlewareProvider
+import com.emarsys.core.request.model.CoalescingRequestModelRepository
 import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.MirroredRequestModelRepository
 import com.emarsys.core.request.model.RequestModelRepository
 import com.emarsys.core.resource.MetaDataReader
 import com.emarsys.core.response.AbstractResponseHandler
@@ -58,22 +68,36 @@ import com.emarsys.core.shard.specification.FilterByShardType
 import com.emarsys.core.storage.*
 import com.emarsys.core.util.FileDownloader
 import com.emarsys.core.util.batch.BatchingShardTrigger
+import com.emarsys.core.util.batch.AnyOfFlushPolicy
 import com.emarsys.core.util.batch.ListChunker
+import com.emarsys.core.util.batch.MaxAgeFlushPolicy
+import com.emarsys.core.util.batch.MaxBytesFlushPolicy
+import com.emarsys.core.util.batch.MaxCountFlushPolicy
+import com.emarsys.core.util.batch.NetworkAwareFlushPolicy
+import com.emarsys.core.util.batch.PendingShardIndex
+import com.emarsys.core.util.log.LogLevelStorage
 import com.emarsys.core.util.log.LogShardListMerger
 import com.emarsys.core.util.log.Logger
-import com.emarsys.core.util.predicate.ListSizeAtLeast
+import com.emarsys.core.util.predicate.Predicate
 import com.emarsys.core.worker.DefaultWorker
+import com.emarsys.core.worker.RequestPartitioner
+import com.emarsys.core.worker.RetryScheduler
 import com.emarsys.core.worker.Worker
 import com.emarsys.deeplink.DeepLink
 import com.emarsys.deeplink.DeepLinkApi
+import com.emarsys.deeplink.DeepLinkFacade
 import com.emarsys.eventservice.EventService
 import com.emarsys.eventservice.EventServiceApi
+import com.emarsys.eventservice.EventServiceFacade
 import com.emarsys.geofence.Geofence
 import com.emarsys.geofence.GeofenceApi
+import com.emarsys.geofence.GeofenceFacade
 import com.emarsys.inapp.InApp
 import com.emarsys.inapp.InAppApi
+import com.emarsys.inapp.InAppFacade
 import com.emarsys.inbox.MessageInbox
 import com.emarsys.inbox.MessageInboxApi
+import com.emarsys.inbox.MessageInboxFacade
 import com.emarsys.mobileengage.*
 import com.emarsys.mobileengage.client.ClientServiceInternal
 import com.emarsys.mobileengage.client.DefaultClientServiceInternal
@@ -121,6 +145,7 @@ import com.emarsys.mobileengage.util.RequestHeaderUtils
 import com.emarsys.mobileengage.util.RequestModelHelper
 import com.emarsys.oneventaction.OnEventAction
 import com.emarsys.oneventaction.OnEventActionApi
+import com.emarsys.oneventaction.OnEventActionFacade
 import com.emarsys.predict.*
 import com.emarsys.predict.provider.PredictRequestModelBuilderProvider
 import com.emarsys.predict.request.PredictHeaderFactory
@@ -128,9 +153,11 @@ import com.emarsys.predict.request.PredictRequestContext
 import com.emarsys.predict.response.VisitorIdResponseHandler
 import com.emarsys.predict.response.XPResponseHandler
 import com.emarsys.predict.shard.PredictShardListMerger
+import com.emarsys.predict.shard.PredictShardListSplitter
 import com.emarsys.predict.storage.PredictStorageKey
 import com.emarsys.push.Push
 import com.emarsys.push.PushApi
+import com.emarsys.push.PushFacade
 import com.google.android.gms.common.ConnectionResult
 import com.google.android.gms.common.GoogleApiAvailabilityLight
 import com.google.android.gms.location.FusedLocationProviderClient
@@ -138,6 +165,7 @@ import com.google.android.gms.location.GeofencingClient
 import java.security.KeyFactory
 import java.security.PublicKey
 import java.security.spec.X509EncodedKeySpec
+import java.util.concurrent.Executor
 
 
 open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
@@ -146,6 +174,20 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
         private const val EMARSYS_SECURE_SHARED_PREFERENCES_NAME =
             "emarsys_secure_shared_preferences"
         private const val GEOFENCE_LIMIT = 99
+        private const val MAX_IN_FLIGHT_REQUESTS_PER_HOST = 4
+        private const val MINIMUM_COMPRESSIBLE_PAYLOAD_SIZE = 1024
+        private const val SHARD_COALESCING_WINDOW_MILLIS = 100L
+        private const val REQUEST_COALESCING_WINDOW_MILLIS = 100L
+        private const val LOG_BATCH_SIZE = 10
+        private const val LOG_FLUSH_MAX_BYTES = 64 * 1024L
+        private const val LOG_FLUSH_MAX_AGE_MILLIS = 60_000L
+        private const val LOG_METERED_FLUSH_MAX_BYTES = 256 * 1024L
+        private const val LOG_METERED_FLUSH_MAX_AGE_MILLIS = 15 * 60_000L
+        private const val PREDICT_BATCH_SIZE = 10
+        private const val PREDICT_FLUSH_MAX_AGE_MILLIS = 1_000L
+        private const val STORAGE_QUOTA_MAX_ROW_COUNT = 5_000
+        private const val STORAGE_QUOTA_MAX_BYTES = 5 * 1024 * 1024L
+        private const val STORAGE_QUOTA_SWEEP_INTERVAL_MILLIS = 5 * 60_000L
         private const val PUBLIC_KEY =
             "MFkwEwYHKoZIzj0CAQYIKoZIzj0DAQcDQgAELjWEUIBX9zlm1OI4gF1hMCBLzpaBwgs9HlmSIBAqP4MDGy4ibOOV3FVDrnAY0Q34LZTbPBlp3gRNZJ19UoSy2Q=="
     }
@@ -154,69 +196,71 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
         GoogleApiAvailabilityLight.getInstance()
             .isGooglePlayServicesAvailable(config.application) == ConnectionResult.SUCCESS
 
-    override val coreSdkHandler: CoreSdkHandler = CoreSdkHandlerProvider().provideHandler()
+    override val coreSdkHandler: CoreSdkHandler = CoreSdkHandlerProvider().provideHandler { coreSQLiteDatabase }
 
     override val uiHandler: Handler = Handler(config.application.mainLooper)
 
-    override val deepLink: DeepLinkApi = (DeepLink() as DeepLinkApi).proxyApi(coreSdkHandler)
+    private val apiDispatcher = ApiDispatcher(coreSdkHandler)
+
+    override val deepLink: DeepLinkApi = DeepLinkFacade(DeepLink(), apiDispatcher)
 
     override val loggingDeepLink: DeepLinkApi =
-        (DeepLink(true) as DeepLinkApi).proxyApi(coreSdkHandler)
+        DeepLinkFacade(DeepLink(true), apiDispatcher)
 
     override val messageInbox: MessageInboxApi =
-        (MessageInbox() as MessageInboxApi).proxyApi(coreSdkHandler)
+        MessageInboxFacade(MessageInbox(), apiDispatcher)
 
     override val loggingMessageInbox: MessageInboxApi =
-        (MessageInbox(true) as MessageInboxApi).proxyApi(coreSdkHandler)
+        MessageInboxFacade(MessageInbox(true), apiDispatcher)
 
-    override val inApp: InAppApi = (InApp() as InAppApi).proxyApi(coreSdkHandler)
+    override val inApp: InAppApi = InAppFacade(InApp(), apiDispatcher)
 
-    override val loggingInApp: InAppApi = (InApp(true) as InAppApi).proxyApi(coreSdkHandler)
+    override val loggingInApp: InAppApi = InAppFacade(InApp(true), apiDispatcher)
 
     override val onEventAction: OnEventActionApi =
-        (OnEventAction() as OnEventActionApi).proxyApi(coreSdkHandler)
+        OnEventActionFacade(OnEventAction(), apiDispatcher)
 
     override val loggingOnEventAction: OnEventActionApi =
-        (OnEventAction() as OnEventActionApi).proxyApi(coreSdkHandler)
+        OnEventActionFacade(OnEventAction(), apiDispatcher)
 
-    override val push: PushApi = (Push() as PushApi).proxyApi(coreSdkHandler)
+    override val push: PushApi = PushFacade(Push(), apiDispatcher)
 
-    override val loggingPush: PushApi = (Push(true) as PushApi).proxyApi(coreSdkHandler)
+    override val loggingPush: PushApi = PushFacade(Push(true), apiDispatcher)
 
-    override val predict: PredictApi = (Predict() as PredictApi).proxyApi(coreSdkHandler)
+    override val predict: PredictApi = PredictFacade(Predict(), apiDispatcher)
 
-    override val loggingPredict: PredictApi = (Predict(true) as PredictApi).proxyApi(coreSdkHandler)
+    override val loggingPredict: PredictApi = PredictFacade(Predict(true), apiDispatcher)
 
-    override val config: ConfigApi = (Config() as ConfigApi).proxyApi(coreSdkHandler)
+    override val config: ConfigApi = ConfigFacade(Config(), apiDispatcher)
 
-    override val geofence: GeofenceApi = (Geofence() as GeofenceApi).proxyApi(coreSdkHandler)
+    override val geofence: GeofenceApi = GeofenceFacade(Geofence(), apiDispatcher)
 
     override val loggingGeofence: GeofenceApi =
-        (Geofence(true) as GeofenceApi).proxyApi(coreSdkHandler)
+        GeofenceFacade(Geofence(true), apiDispatcher)
 
     override val mobileEngage: MobileEngageApi =
-        (MobileEngage() as MobileEngageApi).proxyApi(coreSdkHandler)
+        MobileEngageFacade(MobileEngage(), apiDispatcher)
 
     override val loggingMobileEngage: MobileEngageApi =
-        (MobileEngage(true) as MobileEngageApi).proxyApi(coreSdkHandler)
+        MobileEngageFacade(MobileEngage(true), apiDispatcher)
 
     override val predictRestricted: PredictRestrictedApi =
-        (PredictRestricted() as PredictRestrictedApi).proxyApi(coreSdkHandler)
+        PredictRestrictedFacade(PredictRestricted(), apiDispatcher)
 
     override val loggingPredictRestricted: PredictRestrictedApi =
-        (PredictRestricted(true) as PredictRestrictedApi).proxyApi(coreSdkHandler)
+        PredictRestrictedFacade(PredictRestricted(true), apiDispatcher)
 
     override val clientService: ClientServiceApi =
-        (ClientService() as ClientServiceApi).proxyApi(coreSdkHandler)
+        ClientServiceFacade(ClientService(), apiDispatcher)
 
     override val loggingClientService: ClientServiceApi =
-        (ClientService(true) as ClientServiceApi).proxyApi(coreSdkHandler)
+        ClientServiceFacade(ClientService(true), apiDispatcher)
 
     override val eventService: EventServiceApi =
-        (EventService() as EventServiceApi).proxyApi(coreSdkHandler)
+        EventServiceFacade(EventService(), apiDispatcher, uuidProvider)
 
     override val loggingEventService: EventServiceApi =
-        (EventService(true) as EventServiceApi).proxyApi(coreSdkHandler)
+        EventServiceFacade(EventService(true), apiDispatcher, uuidProvider)
 
     override val responseHandlersProcessor: ResponseHandlersProcessor by lazy {
         ResponseHandlersProcessor(mutableListOf())
@@ -239,15 +283,15 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
 
     override val activityLifecycleWatchdog: ActivityLifecycleWatchdog by lazy {
         val applicationStartActions = arrayOf<ActivityLifecycleAction>(
-            DeviceInfoStartAction(clientServiceInternal, deviceInfoPayloadStorage, deviceInfo)
+            DeviceInfoStartAction(clientServiceInternal, deviceInfoPayloadStorage, deviceInfo, apiDispatcher)
         )
         val activityCreatedActions = arrayOf<ActivityLifecycleAction>(
-            DeepLinkAction(deepLinkInternal)
+            DeepLinkAction(deepLinkInternal, apiDispatcher)
         )
         val initializationActions = arrayOf<ActivityLifecycleAction?>(
-            FetchGeofencesAction(geofenceInternal),
-            FetchRemoteConfigAction(configInternal) { logInitialSetup(config) },
-            InAppStartAction(eventServiceInternal, contactTokenStorage)
+            FetchGeofencesAction(geofenceInternal, apiDispatcher),
+            FetchRemoteConfigAction(configInternal, apiDispatcher) { logInitialSetup(config) },
+            InAppStartAction(eventServiceInternal, contactTokenStorage, apiDispatcher)
         )
 
         ActivityLifecycleWatchdog(
@@ -321,25 +365,37 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
             timestampProvider,
             responseHandlersProcessor,
             createRequestModelMappers(),
-            uiHandler,
-            coreSdkHandler
+            NetworkingExecutorProvider().provideExecutor(),
+            coreSdkHandler,
+            RequestCompressionPolicy(
+                Predicate<RequestModel> {
+                    it.url.toString() == Endpoint.LOG_URL || requestModelHelper.isCustomEvent(it)
+                },
+                MINIMUM_COMPRESSIBLE_PAYLOAD_SIZE
+            )
         )
     }
 
-    override val sharedPreferences: SharedPreferences by lazy {
+    private val cachingSharedPreferences: CachingSharedPreferences by lazy {
         val oldPrefs = config.application.getSharedPreferences(
             EMARSYS_SHARED_PREFERENCES_NAME,
             Context.MODE_PRIVATE
         )
-        SecureSharedPreferencesProvider(
-            config.application,
-            EMARSYS_SECURE_SHARED_PREFERENCES_NAME,
-            oldPrefs
-        ).provide()
+        CachingSharedPreferences(
+            SecureSharedPreferencesProvider(
+                config.application,
+                EMARSYS_SECURE_SHARED_PREFERENCES_NAME,
+                oldPrefs
+            ).provide()
+        )
+    }
+
+    override val sharedPreferences: SharedPreferences by lazy {
+        cachingSharedPreferences
     }
 
     override val contactTokenStorage: Storage<String?> by lazy {
-        StringStorage(MobileEngageStorageKey.CONTACT_TOKEN, sharedPreferences)
+        StringStorage(MobileEngageStorageKey.CONTACT_TOKEN, sharedPreferences, true)
     }
 
     override val clientStateStorage: Storage<String?> by lazy {
@@ -355,7 +411,7 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
     }
 
     override val hardwareIdStorage: Storage<String?> by lazy {
-        StringStorage(CoreStorageKey.HARDWARE_ID, sharedPreferences)
+        StringStorage(CoreStorageKey.HARDWARE_ID, sharedPreferences, true)
     }
 
     override val coreDbHelper: CoreDbHelper by lazy {
@@ -379,7 +435,8 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
             hardwareRepository,
             hardwareIdStorage,
             hardwareIdContentResolver,
-            hardwareIdentificationCrypto
+            hardwareIdentificationCrypto,
+            Executor { coreSdkHandler.post(it) }
         )
     }
 
@@ -407,7 +464,7 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
     }
 
     override val refreshTokenStorage: Storage<String?> by lazy {
-        StringStorage(MobileEngageStorageKey.REFRESH_TOKEN, sharedPreferences)
+        StringStorage(MobileEngageStorageKey.REFRESH_TOKEN, sharedPreferences, true)
     }
 
     override val contactFieldValueStorage: Storage<String?> by lazy {
@@ -439,20 +496,58 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
         InAppEventHandlerInternal()
     }
 
+    private val coalescingShardRepository: CoalescingRepository<ShardModel, SqlSpecification> by lazy {
+        CoalescingRepository(
+            ShardModelRepository(coreDbHelper),
+            coreSdkHandler,
+            SHARD_COALESCING_WINDOW_MILLIS
+        )
+    }
+
     override val shardRepository: Repository<ShardModel, SqlSpecification> by lazy {
-        ShardModelRepository(coreDbHelper)
+        coalescingShardRepository
+    }
+
+    private val coalescingRequestModelRepository: CoalescingRequestModelRepository by lazy {
+        CoalescingRequestModelRepository(
+            MirroredRequestModelRepository(RequestModelRepository(coreDbHelper)),
+            coreSdkHandler,
+            REQUEST_COALESCING_WINDOW_MILLIS
+        )
+    }
+
+    private val pendingShardIndex: PendingShardIndex by lazy {
+        PendingShardIndex(
+            coreDbHelper,
+            listOf(FilterByShardType.SHARD_TYPE_LOG, FilterByShardType.SHARD_TYPE_PREDICT)
+        )
+    }
+
+    override val storageQuotaEnforcer: StorageQuotaEnforcer by lazy {
+        StorageQuotaEnforcer(
+            coreDbHelper,
+            requestModelRepository,
+            pendingShardIndex,
+            worker,
+            StorageQuota(STORAGE_QUOTA_MAX_ROW_COUNT, STORAGE_QUOTA_MAX_BYTES),
+            timestampProvider,
+            coreSdkHandler,
+            uiHandler,
+            coreCompletionHandler,
+            STORAGE_QUOTA_SWEEP_INTERVAL_MILLIS
+        )
     }
 
     override val buttonClickedRepository: Repository<ButtonClicked, SqlSpecification> by lazy {
-        ButtonClickedRepository(coreDbHelper)
+        EverythingCachingRepository(ButtonClickedRepository(coreDbHelper))
     }
 
     override val displayedIamRepository: Repository<DisplayedIam, SqlSpecification> by lazy {
-        DisplayedIamRepository(coreDbHelper)
+        EverythingCachingRepository(DisplayedIamRepository(coreDbHelper))
     }
 
     override val requestModelRepository: Repository<RequestModel, SqlSpecification> by lazy {
-        createRequestModelRepository(coreDbHelper, inAppEventHandlerInternal)
+        createRequestModelRepository(inAppEventHandlerInternal)
     }
 
     override val connectionWatchdog: ConnectionWatchDog by lazy {
@@ -511,11 +606,16 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
         )
     }
 
+    private val retryScheduler: RetryScheduler by lazy {
+        RetryScheduler(coreSdkHandler, timestampProvider)
+    }
+
     override val coreCompletionHandlerRefreshTokenProxyProvider: CoreCompletionHandlerRefreshTokenProxyProvider by lazy {
         val coreCompletionHandlerMiddlewareProvider = CoreCompletionHandlerMiddlewareProvider(
             requestModelRepository,
             uiHandler,
-            coreSdkHandler
+            coreSdkHandler,
+            retryScheduler
         )
         CoreCompletionHandlerRefreshTokenProxyProvider(
             coreCompletionHandlerMiddlewareProvider,
@@ -535,7 +635,19 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
             uiHandler,
             coreCompletionHandler,
             restClient,
-            coreCompletionHandlerRefreshTokenProxyProvider
+            coreCompletionHandlerRefreshTokenProxyProvider,
+            MAX_IN_FLIGHT_REQUESTS_PER_HOST,
+            Predicate<RequestModel> { requestModelHelper.isClientUpdateRequest(it) },
+            retryScheduler,
+            RequestPartitioner(
+                listOf(
+                    clientServiceEndpointProvider,
+                    eventServiceEndpointProvider,
+                    messageInboxServiceProvider,
+                    deepLinkServiceProvider,
+                    predictServiceProvider
+                )
+            )
         )
     }
 
@@ -688,7 +800,7 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
     }
 
     override val logLevelStorage: Storage<String?> by lazy {
-        StringStorage(CoreStorageKey.LOG_LEVEL, sharedPreferences)
+        LogLevelStorage(StringStorage(CoreStorageKey.LOG_LEVEL, sharedPreferences))
     }
 
     override val pushTokenProvider: PushTokenProvider by lazy {
@@ -769,7 +881,17 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
     }
 
     override val appLifecycleObserver: AppLifecycleObserver by lazy {
-        AppLifecycleObserver(mobileEngageSession, coreSdkHandler)
+        AppLifecycleObserver(
+            mobileEngageSession,
+            coreSdkHandler,
+            listOf(
+                Runnable { coalescingShardRepository.flush() },
+                Runnable { coalescingRequestModelRepository.flush() },
+                Runnable { logShardTrigger.flush() },
+                Runnable { predictShardTrigger.flush() },
+                Runnable { cachingSharedPreferences.flush() }
+            )
+        )
     }
 
     override val keyValueStore: KeyValueStore by lazy {
@@ -815,12 +937,24 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
         coreDbHelper.writableCoreDatabase
     }
 
-    override val logShardTrigger: Runnable by lazy {
+    override val logShardTrigger: BatchingShardTrigger by lazy {
         BatchingShardTrigger(
             shardRepository,
-            ListSizeAtLeast(10),
-            FilterByShardType(FilterByShardType.SHARD_TYPE_LOG),
-            ListChunker(10),
+            pendingShardIndex,
+            FilterByShardType.SHARD_TYPE_LOG,
+            NetworkAwareFlushPolicy(
+                AnyOfFlushPolicy(
+                    MaxCountFlushPolicy(LOG_BATCH_SIZE),
+                    MaxBytesFlushPolicy(LOG_FLUSH_MAX_BYTES),
+                    MaxAgeFlushPolicy(LOG_FLUSH_MAX_AGE_MILLIS, timestampProvider)
+                ),
+                AnyOfFlushPolicy(
+                    MaxBytesFlushPolicy(LOG_METERED_FLUSH_MAX_BYTES),
+                    MaxAgeFlushPolicy(LOG_METERED_FLUSH_MAX_AGE_MILLIS, timestampProvider)
+                ),
+                connectionWatchdog
+            ),
+            ListChunker(LOG_BATCH_SIZE),
             LogShardListMerger(
                 timestampProvider,
                 uuidProvider,
@@ -830,7 +964,8 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
             ),
             requestManager,
             BatchingShardTrigger.RequestStrategy.TRANSIENT,
-            connectionWatchdog
+            connectionWatchdog,
+            coreSdkHandler
         )
     }
 
@@ -867,16 +1002,22 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
         LoggingPredictInternal(Emarsys::class.java)
     }
 
-    override val predictShardTrigger: Runnable by lazy {
+    override val predictShardTrigger: BatchingShardTrigger by lazy {
         BatchingShardTrigger(
             shardRepository,
-            ListSizeAtLeast(1),
-            FilterByShardType(FilterByShardType.SHARD_TYPE_PREDICT),
-            ListChunker(1),
+            pendingShardIndex,
+            FilterByShardType.SHARD_TYPE_PREDICT,
+            AnyOfFlushPolicy(
+                MaxCountFlushPolicy(PREDICT_BATCH_SIZE),
+                MaxAgeFlushPolicy(PREDICT_FLUSH_MAX_AGE_MILLIS, timestampProvider)
+            ),
+            ListChunker(PREDICT_BATCH_SIZE),
             PredictShardListMerger(predictRequestContext, predictRequestModelBuilderProvider),
             requestManager,
             BatchingShardTrigger.RequestStrategy.PERSISTENT,
-            connectionWatchdog
+            connectionWatchdog,
+            coreSdkHandler,
+            PredictShardListSplitter()
         )
     }
 
@@ -892,12 +1033,10 @@ open class DefaultEmarsysComponent(config: EmarsysConfig) : EmarsysComponent {
     }
 
     private fun createRequestModelRepository(
-        coreDbHelper: CoreDbHelper,
         inAppEventHandler: InAppEventHandlerInternal
     ): Repository<RequestModel, SqlSpecification> {
-        val requestModelRepository = RequestModelRepository(coreDbHelper)
         return RequestRepositoryProxy(
-            requestModelRepository,
+            coalescingRequestModelRepository,
             displayedIamRepository,
             buttonClickedRepository,
             timestampProvider,
@@ -3,6 +3,7 @@ package com.emarsys.di
 import com.emarsys.clientservice.ClientServiceApi
 import com.emarsys.config.ConfigApi
 import com.emarsys.config.ConfigInternal
+import com.emarsys.core.database.repository.CoalescingRepository
 import com.emarsys.core.di.CoreComponent
 import com.emarsys.deeplink.DeepLinkApi
 import com.emarsys.eventservice.EventServiceApi
@@ -28,6 +29,7 @@ fun setupEmarsysComponent(emarsysComponent: EmarsysComponent) {
 }
 
 fun tearDownEmarsysComponent() {
+    (EmarsysComponent.instance?.shardRepository as? CoalescingRepository<*, *>)?.flush()
     EmarsysComponent.instance = null
     MobileEngageComponent.instance = null
     PredictComponent.instance = null
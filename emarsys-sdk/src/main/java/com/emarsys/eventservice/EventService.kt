@@ -14,6 +14,11 @@ class EventService(private val loggingInstance: Boolean = false): EventServiceAp
                 .trackCustomEventAsync(eventName, eventAttributes, completionListener)
     }
 
+    override fun trackCustomEventAsync(requestId: String, eventName: String, eventAttributes: Map<String, String?>?, completionListener: CompletionListener?) {
+        (if (loggingInstance) mobileEngage().loggingEventServiceInternal else mobileEngage().eventServiceInternal)
+                .trackCustomEventAsync(requestId, eventName, eventAttributes, completionListener)
+    }
+
     override fun trackInternalCustomEvent(eventName: String, eventAttributes: Map<String, String?>?, completionListener: CompletionListener?): String? {
         return (if (loggingInstance) mobileEngage().loggingEventServiceInternal else mobileEngage().eventServiceInternal)
                 .trackInternalCustomEvent(eventName, eventAttributes, completionListener)
@@ -23,4 +28,9 @@ class EventService(private val loggingInstance: Boolean = false): EventServiceAp
         (if (loggingInstance) mobileEngage().loggingEventServiceInternal else mobileEngage().eventServiceInternal)
                 .trackInternalCustomEventAsync(eventName, eventAttributes, completionListener)
     }
+
+    override fun trackInternalCustomEventAsync(requestId: String, eventName: String, eventAttributes: Map<String, String?>?, completionListener: CompletionListener?) {
+        (if (loggingInstance) mobileEngage().loggingEventServiceInternal else mobileEngage().eventServiceInternal)
+                .trackInternalCustomEventAsync(requestId, eventName, eventAttributes, completionListener)
+    }
 }
\ No newline at end of file
@@ -13,6 +13,12 @@ interface EventServiceApi {
             eventAttributes: Map<String, String?>?,
             completionListener: CompletionListener?)
 
+    fun trackCustomEventAsync(
+            requestId: String,
+            eventName: String,
+            eventAttributes: Map<String, String?>?,
+            completionListener: CompletionListener?)
+
     fun trackInternalCustomEvent(
             eventName: String,
             eventAttributes: Map<String, String?>?,
@@ -22,4 +28,10 @@ interface EventServiceApi {
             eventName: String,
             eventAttributes: Map<String, String?>?,
             completionListener: CompletionListener?)
+
+    fun trackInternalCustomEventAsync(
+            requestId: String,
+            eventName: String,
+            eventAttributes: Map<String, String?>?,
+            completionListener: CompletionListener?)
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.emarsys.eventservice
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.result.CompletionListener
+import com.emarsys.core.provider.uuid.UUIDProvider
+
+/**
+ * The calls that answer the id of the tracked event create that id on the calling thread and only
+ * dispatch the tracking itself, so the caller never waits for the SDK thread.
+ */
+class EventServiceFacade(private val delegate: EventServiceApi,
+                         private val dispatcher: ApiDispatcher,
+                         private val uuidProvider: UUIDProvider) : EventServiceApi {
+
+    override fun trackCustomEvent(eventName: String,
+                                  eventAttributes: Map<String, String?>?,
+                                  completionListener: CompletionListener?): String? {
+        val requestId = uuidProvider.provideId()
+        trackCustomEventAsync(requestId, eventName, eventAttributes, completionListener)
+        return requestId
+    }
+
+    override fun trackCustomEventAsync(eventName: String,
+                                       eventAttributes: Map<String, String?>?,
+                                       completionListener: CompletionListener?) {
+        dispatcher.dispatch { delegate.trackCustomEventAsync(eventName, eventAttributes, completionListener) }
+    }
+
+    override fun trackCustomEventAsync(requestId: String,
+                                       eventName: String,
+                                       eventAttributes: Map<String, String?>?,
+                                       completionListener: CompletionListener?) {
+        dispatcher.dispatch { delegate.trackCustomEventAsync(requestId, eventName, eventAttributes, completionListener) }
+    }
+
+    override fun trackInternalCustomEvent(eventName: String,
+                                          eventAttributes: Map<String, String?>?,
+                                          completionListener: CompletionListener?): String? {
+        val requestId = uuidProvider.provideId()
+        trackInternalCustomEventAsync(requestId, eventName, eventAttributes, completionListener)
+        return requestId
+    }
+
+    override fun trackInternalCustomEventAsync(eventName: String,
+                                               eventAttributes: Map<String, String?>?,
+                                               completionListener: CompletionListener?) {
+        dispatcher.dispatch { delegate.trackInternalCustomEventAsync(eventName, eventAttributes, completionListener) }
+    }
+
+    override fun trackInternalCustomEventAsync(requestId: String,
+                                               eventName: String,
+                                               eventAttributes: Map<String, String?>?,
+                                               completionListener: CompletionListener?) {
+        dispatcher.dispatch { delegate.trackInternalCustomEventAsync(requestId, eventName, eventAttributes, completionListener) }
+    }
+}
@@ -0,0 +1,36 @@
+package com.emarsys.geofence
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.ApiSnapshot
+import com.emarsys.core.api.result.CompletionListener
+import com.emarsys.mobileengage.api.event.EventHandler
+
+class GeofenceFacade(private val delegate: GeofenceApi,
+                     private val dispatcher: ApiDispatcher) : GeofenceApi {
+
+    private val enabled = ApiSnapshot { delegate.isEnabled() }
+
+    override fun enable() {
+        dispatcher.dispatch(enabled, true) { delegate.enable() }
+    }
+
+    override fun enable(completionListener: CompletionListener) {
+        dispatcher.dispatch(enabled, true) { delegate.enable(completionListener) }
+    }
+
+    override fun disable() {
+        dispatcher.dispatch(enabled, false) { delegate.disable() }
+    }
+
+    override fun setEventHandler(eventHandler: EventHandler) {
+        dispatcher.dispatch { delegate.setEventHandler(eventHandler) }
+    }
+
+    override fun isEnabled(): Boolean {
+        return dispatcher.read(enabled)
+    }
+
+    override fun setInitialEnterTriggerEnabled(enabled: Boolean) {
+        dispatcher.dispatch { delegate.setInitialEnterTriggerEnabled(enabled) }
+    }
+}
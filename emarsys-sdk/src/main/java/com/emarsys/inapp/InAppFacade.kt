@@ -0,0 +1,26 @@
+package com.emarsys.inapp
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.ApiSnapshot
+import com.emarsys.mobileengage.api.event.EventHandler
+
+class InAppFacade(private val delegate: InAppApi,
+                  private val dispatcher: ApiDispatcher) : InAppApi {
+
+    private val paused = ApiSnapshot { delegate.isPaused }
+
+    override fun pause() {
+        dispatcher.dispatch(paused, true) { delegate.pause() }
+    }
+
+    override fun resume() {
+        dispatcher.dispatch(paused, false) { delegate.resume() }
+    }
+
+    override val isPaused: Boolean
+        get() = dispatcher.read(paused)
+
+    override fun setEventHandler(eventHandler: EventHandler) {
+        dispatcher.dispatch { delegate.setEventHandler(eventHandler) }
+    }
+}
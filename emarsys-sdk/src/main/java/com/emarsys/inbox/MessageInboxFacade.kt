@@ -0,0 +1,43 @@
+package com.emarsys.inbox
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.result.CompletionListener
+import com.emarsys.core.api.result.ResultListener
+import com.emarsys.core.api.result.Try
+import com.emarsys.mobileengage.api.inbox.InboxResult
+
+class MessageInboxFacade(private val delegate: MessageInboxApi,
+                         private val dispatcher: ApiDispatcher) : MessageInboxApi {
+
+    override fun fetchMessages(resultListener: ResultListener<Try<InboxResult>>) {
+        dispatcher.dispatch { delegate.fetchMessages(resultListener) }
+    }
+
+    override fun fetchMessages(resultListener: (Try<InboxResult>) -> Unit) {
+        dispatcher.dispatch { delegate.fetchMessages(resultListener) }
+    }
+
+    override fun addTag(tag: String, messageId: String) {
+        dispatcher.dispatch { delegate.addTag(tag, messageId) }
+    }
+
+    override fun addTag(tag: String, messageId: String, completionListener: CompletionListener) {
+        dispatcher.dispatch { delegate.addTag(tag, messageId, completionListener) }
+    }
+
+    override fun addTag(tag: String, messageId: String, completionListener: (Throwable?) -> Unit) {
+        dispatcher.dispatch { delegate.addTag(tag, messageId, completionListener) }
+    }
+
+    override fun removeTag(tag: String, messageId: String) {
+        dispatcher.dispatch { delegate.removeTag(tag, messageId) }
+    }
+
+    override fun removeTag(tag: String, messageId: String, completionListener: CompletionListener) {
+        dispatcher.dispatch { delegate.removeTag(tag, messageId, completionListener) }
+    }
+
+    override fun removeTag(tag: String, messageId: String, completionListener: (Throwable?) -> Unit) {
+        dispatcher.dispatch { delegate.removeTag(tag, messageId, completionListener) }
+    }
+}
@@ -0,0 +1,24 @@
+package com.emarsys.mobileengage
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.result.CompletionListener
+
+class MobileEngageFacade(private val delegate: MobileEngageApi,
+                         private val dispatcher: ApiDispatcher) : MobileEngageApi {
+
+    override fun setContact(contactFieldId: Int?,
+                            contactFieldValue: String?,
+                            completionListener: CompletionListener?) {
+        dispatcher.dispatch { delegate.setContact(contactFieldId, contactFieldValue, completionListener) }
+    }
+
+    override fun setAuthenticatedContact(contactFieldId: Int,
+                                         openIdToken: String,
+                                         completionListener: CompletionListener?) {
+        dispatcher.dispatch { delegate.setAuthenticatedContact(contactFieldId, openIdToken, completionListener) }
+    }
+
+    override fun clearContact(completionListener: CompletionListener?) {
+        dispatcher.dispatch { delegate.clearContact(completionListener) }
+    }
+}
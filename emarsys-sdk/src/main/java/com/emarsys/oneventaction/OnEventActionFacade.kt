@@ -0,0 +1,12 @@
+package com.emarsys.oneventaction
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.mobileengage.api.event.EventHandler
+
+class OnEventActionFacade(private val delegate: OnEventActionApi,
+                          private val dispatcher: ApiDispatcher) : OnEventActionApi {
+
+    override fun setOnEventActionEventHandler(eventHandler: EventHandler) {
+        dispatcher.dispatch { delegate.setOnEventActionEventHandler(eventHandler) }
+    }
+}
@@ -0,0 +1,73 @@
+package com.emarsys.predict
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.result.ResultListener
+import com.emarsys.core.api.result.Try
+import com.emarsys.predict.api.model.CartItem
+import com.emarsys.predict.api.model.Logic
+import com.emarsys.predict.api.model.Product
+import com.emarsys.predict.api.model.RecommendationFilter
+
+class PredictFacade(private val delegate: PredictApi,
+                    private val dispatcher: ApiDispatcher) : PredictApi {
+
+    override fun trackCart(items: List<CartItem>) {
+        dispatcher.dispatch { delegate.trackCart(items) }
+    }
+
+    override fun trackPurchase(orderId: String, items: List<CartItem>) {
+        dispatcher.dispatch { delegate.trackPurchase(orderId, items) }
+    }
+
+    override fun trackItemView(itemId: String) {
+        dispatcher.dispatch { delegate.trackItemView(itemId) }
+    }
+
+    override fun trackCategoryView(categoryPath: String) {
+        dispatcher.dispatch { delegate.trackCategoryView(categoryPath) }
+    }
+
+    override fun trackSearchTerm(searchTerm: String) {
+        dispatcher.dispatch { delegate.trackSearchTerm(searchTerm) }
+    }
+
+    override fun trackTag(tag: String, attributes: Map<String, String>?) {
+        dispatcher.dispatch { delegate.trackTag(tag, attributes) }
+    }
+
+    override fun recommendProducts(logic: Logic, resultListener: ResultListener<Try<List<Product>>>) {
+        dispatcher.dispatch { delegate.recommendProducts(logic, resultListener) }
+    }
+
+    override fun recommendProducts(logic: Logic, availabilityZone: String, resultListener: ResultListener<Try<List<Product>>>) {
+        dispatcher.dispatch { delegate.recommendProducts(logic, availabilityZone, resultListener) }
+    }
+
+    override fun recommendProducts(logic: Logic, limit: Int, resultListener: ResultListener<Try<List<Product>>>) {
+        dispatcher.dispatch { delegate.recommendProducts(logic, limit, resultListener) }
+    }
+
+    override fun recommendProducts(logic: Logic, limit: Int, availabilityZone: String, resultListener: ResultListener<Try<List<Product>>>) {
+        dispatcher.dispatch { delegate.recommendProducts(logic, limit, availabilityZone, resultListener) }
+    }
+
+    override fun recommendProducts(logic: Logic, filters: List<RecommendationFilter>, resultListener: ResultListener<Try<List<Product>>>) {
+        dispatcher.dispatch { delegate.recommendProducts(logic, filters, resultListener) }
+    }
+
+    override fun recommendProducts(logic: Logic, filters: List<RecommendationFilter>, availabilityZone: String, resultListener: ResultListener<Try<List<Product>>>) {
+        dispatcher.dispatch { delegate.recommendProducts(logic, filters, availabilityZone, resultListener) }
+    }
+
+    override fun recommendProducts(logic: Logic, filters: List<RecommendationFilter>, limit: Int, resultListener: ResultListener<Try<List<Product>>>) {
+        dispatcher.dispatch { delegate.recommendProducts(logic, filters, limit, resultListener) }
+    }
+
+    override fun recommendProducts(logic: Logic, filters: List<RecommendationFilter>, limit: Int, availabilityZone: String, resultListener: ResultListener<Try<List<Product>>>) {
+        dispatcher.dispatch { delegate.recommendProducts(logic, filters, limit, availabilityZone, resultListener) }
+    }
+
+    override fun trackRecommendationClick(product: Product) {
+        dispatcher.dispatch { delegate.trackRecommendationClick(product) }
+    }
+}
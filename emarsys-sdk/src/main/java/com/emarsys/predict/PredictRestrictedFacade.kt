@@ -0,0 +1,15 @@
+package com.emarsys.predict
+
+import com.emarsys.core.api.ApiDispatcher
+
+class PredictRestrictedFacade(private val delegate: PredictRestrictedApi,
+                              private val dispatcher: ApiDispatcher) : PredictRestrictedApi {
+
+    override fun setContact(contactFieldId: Int, contactFieldValue: String) {
+        dispatcher.dispatch { delegate.setContact(contactFieldId, contactFieldValue) }
+    }
+
+    override fun clearContact() {
+        dispatcher.dispatch { delegate.clearContact() }
+    }
+}
@@ -0,0 +1,47 @@
+package com.emarsys.push
+
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.core.api.ApiSnapshot
+import com.emarsys.core.api.result.CompletionListener
+import com.emarsys.mobileengage.api.event.EventHandler
+import com.emarsys.mobileengage.api.push.NotificationInformationListener
+
+class PushFacade(private val delegate: PushApi,
+                 private val dispatcher: ApiDispatcher) : PushApi {
+
+    private val currentPushToken = ApiSnapshot { delegate.pushToken }
+
+    override var pushToken: String?
+        get() = dispatcher.read(currentPushToken)
+        set(value) {
+            dispatcher.dispatch(currentPushToken, value) { delegate.pushToken = value }
+        }
+
+    override fun setPushToken(pushToken: String, completionListener: CompletionListener?) {
+        dispatcher.dispatch(currentPushToken, pushToken) { delegate.setPushToken(pushToken, completionListener) }
+    }
+
+    override fun clearPushToken() {
+        dispatcher.dispatch(currentPushToken, null) { delegate.clearPushToken() }
+    }
+
+    override fun clearPushToken(completionListener: CompletionListener) {
+        dispatcher.dispatch(currentPushToken, null) { delegate.clearPushToken(completionListener) }
+    }
+
+    override fun setNotificationEventHandler(notificationEventHandler: EventHandler) {
+        dispatcher.dispatch { delegate.setNotificationEventHandler(notificationEventHandler) }
+    }
+
+    override fun setSilentMessageEventHandler(silentMessageEventHandler: EventHandler) {
+        dispatcher.dispatch { delegate.setSilentMessageEventHandler(silentMessageEventHandler) }
+    }
+
+    override fun setNotificationInformationListener(notificationInformationListener: NotificationInformationListener) {
+        dispatcher.dispatch { delegate.setNotificationInformationListener(notificationInformationListener) }
+    }
+
+    override fun setSilentNotificationInformationListener(silentNotificationInformationListener: NotificationInformationListener) {
+        dispatcher.dispatch { delegate.setSilentNotificationInformationListener(silentNotificationInformationListener) }
+    }
+}
@@ -1,7 +1,9 @@
 package com.emarsys.config
 
+import com.emarsys.core.api.ApiDispatcher
 import com.emarsys.core.api.result.CompletionListener
 import com.emarsys.fake.FakeEmarsysDependencyContainer
+import com.emarsys.mobileengage.di.mobileEngage
 import com.emarsys.mobileengage.di.setupMobileEngageComponent
 import com.emarsys.mobileengage.di.tearDownMobileEngageComponent
 import com.emarsys.testUtil.TimeoutUtils
@@ -31,7 +33,7 @@ class FetchRemoteConfigActionTest {
 
         setupMobileEngageComponent(FakeEmarsysDependencyContainer())
 
-        fetchAction = FetchRemoteConfigAction(mockConfigInternal, mockCompletionListener)
+        fetchAction = FetchRemoteConfigAction(mockConfigInternal, ApiDispatcher(mobileEngage().coreSdkHandler), mockCompletionListener)
     }
 
     @After
@@ -170,6 +170,20 @@ class DefaultMobileEngageInternalTest {
         verify(mockRequestManager).submit(mockRequestModel, mockCompletionListener)
     }
 
+    @Test
+    fun testSetContact_shouldRemoveTheContactToken_beforeSubmittingTheRequest() {
+        mobileEngageInternal.setContact(
+            CONTACT_FIELD_ID,
+            CONTACT_FIELD_VALUE,
+            mockCompletionListener
+        )
+
+        inOrder(mockContactTokenStorage, mockRequestManager).run {
+            verify(mockContactTokenStorage).remove()
+            verify(mockRequestManager).submit(mockRequestModel, mockCompletionListener)
+        }
+    }
+
     @Test
     fun testSetAuthenticatedContact_completionListener_canBeNull() {
         mobileEngageInternal.setAuthenticatedContact(CONTACT_FIELD_ID, OPEN_ID_TOKEN, null)
@@ -2,6 +2,8 @@ package com.emarsys.mobileengage.deeplink
 
 import android.app.Activity
 import android.content.Intent
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.mobileengage.di.mobileEngage
 import com.emarsys.mobileengage.di.setupMobileEngageComponent
 import com.emarsys.mobileengage.di.tearDownMobileEngageComponent
 import com.emarsys.mobileengage.fake.FakeMobileEngageDependencyContainer
@@ -39,7 +41,7 @@ class DeepLinkActionTest {
         setupMobileEngageComponent(FakeMobileEngageDependencyContainer())
 
         deepLinkInternal = mock()
-        action = DeepLinkAction(deepLinkInternal)
+        action = DeepLinkAction(deepLinkInternal, ApiDispatcher(mobileEngage().coreSdkHandler))
     }
 
     @After
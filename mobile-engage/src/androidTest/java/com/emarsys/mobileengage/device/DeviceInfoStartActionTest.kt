@@ -1,8 +1,10 @@
 package com.emarsys.mobileengage.device
 
+import com.emarsys.core.api.ApiDispatcher
 import com.emarsys.core.device.DeviceInfo
 import com.emarsys.core.storage.Storage
 import com.emarsys.mobileengage.client.ClientServiceInternal
+import com.emarsys.mobileengage.di.mobileEngage
 import com.emarsys.mobileengage.di.setupMobileEngageComponent
 import com.emarsys.mobileengage.di.tearDownMobileEngageComponent
 import com.emarsys.mobileengage.fake.FakeMobileEngageDependencyContainer
@@ -39,7 +41,7 @@ class DeviceInfoStartActionTest {
 
         setupMobileEngageComponent(FakeMobileEngageDependencyContainer())
 
-        startAction = DeviceInfoStartAction(mockClientServiceInternal, deviceInfoPayloadStorage, mockDeviceInfo)
+        startAction = DeviceInfoStartAction(mockClientServiceInternal, deviceInfoPayloadStorage, mockDeviceInfo, ApiDispatcher(mobileEngage().coreSdkHandler))
 
     }
 
@@ -44,6 +44,8 @@ class DefaultEventServiceInternalTest {
         mockRequestModelFactory = mock(MobileEngageRequestModelFactory::class.java).apply {
             whenever(createCustomEventRequest(EVENT_NAME, EVENT_ATTRIBUTES)).thenReturn(mockRequestModel)
             whenever(createInternalCustomEventRequest(EVENT_NAME, EVENT_ATTRIBUTES)).thenReturn(mockRequestModel)
+            whenever(createCustomEventRequest(EVENT_NAME, EVENT_ATTRIBUTES, REQUEST_ID)).thenReturn(mockRequestModel)
+            whenever(createInternalCustomEventRequest(EVENT_NAME, EVENT_ATTRIBUTES, REQUEST_ID)).thenReturn(mockRequestModel)
         }
 
         eventServiceInternal = DefaultEventServiceInternal(mockRequestManager, mockRequestModelFactory)
@@ -116,4 +118,30 @@ class DefaultEventServiceInternalTest {
 
         verify(mockRequestManager).submit(mockRequestModel, null)
     }
-}
\ No newline at end of file
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testTrackCustomEventAsync_withRequestId_requestId_mustNotBeNull() {
+        eventServiceInternal.trackCustomEventAsync(null, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+    }
+
+    @Test
+    fun testTrackCustomEventAsync_withRequestId_shouldSubmitTheEvent_withTheGivenId() {
+        eventServiceInternal.trackCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+
+        verify(mockRequestModelFactory).createCustomEventRequest(EVENT_NAME, EVENT_ATTRIBUTES, REQUEST_ID)
+        verify(mockRequestManager).submit(mockRequestModel, mockCompletionListener)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testTrackInternalCustomEventAsync_withRequestId_requestId_mustNotBeNull() {
+        eventServiceInternal.trackInternalCustomEventAsync(null, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+    }
+
+    @Test
+    fun testTrackInternalCustomEventAsync_withRequestId_shouldSubmitTheEvent_withTheGivenId() {
+        eventServiceInternal.trackInternalCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+
+        verify(mockRequestModelFactory).createInternalCustomEventRequest(EVENT_NAME, EVENT_ATTRIBUTES, REQUEST_ID)
+        verify(mockRequestManager).submit(mockRequestModel, mockCompletionListener)
+    }
+}
@@ -1,6 +1,8 @@
 package com.emarsys.mobileengage.geofence
 
 import android.app.Activity
+import com.emarsys.core.api.ApiDispatcher
+import com.emarsys.mobileengage.di.mobileEngage
 import com.emarsys.mobileengage.di.setupMobileEngageComponent
 import com.emarsys.mobileengage.di.tearDownMobileEngageComponent
 import com.emarsys.mobileengage.fake.FakeMobileEngageDependencyContainer
@@ -31,7 +33,7 @@ class FetchGeofencesActionTest {
 
         setupMobileEngageComponent(FakeMobileEngageDependencyContainer())
 
-        fetchGeofencesAction = FetchGeofencesAction(mockGeofenceInternal)
+        fetchGeofencesAction = FetchGeofencesAction(mockGeofenceInternal, ApiDispatcher(mobileEngage().coreSdkHandler))
     }
 
     @After
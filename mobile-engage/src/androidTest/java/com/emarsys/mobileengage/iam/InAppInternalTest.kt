@@ -16,6 +16,7 @@ class InAppInternalTest {
 
     private companion object {
         const val EVENT_NAME = "customEventName"
+        const val REQUEST_ID = "requestId"
         val EVENT_ATTRIBUTES = emptyMap<String, String>()
     }
 
@@ -102,4 +103,18 @@ class InAppInternalTest {
         verify(mockEventServiceInternal).trackCustomEvent(EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
     }
 
-}
\ No newline at end of file
+
+    @Test
+    fun testTrackCustomEventAsync_withRequestId() {
+        inAppInternal.trackCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+
+        verify(mockEventServiceInternal).trackCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+    }
+
+    @Test
+    fun testTrackInternalCustomEventAsync_withRequestId() {
+        inAppInternal.trackInternalCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+
+        verify(mockEventServiceInternal).trackInternalCustomEventAsync(REQUEST_ID, EVENT_NAME, EVENT_ATTRIBUTES, mockCompletionListener)
+    }
+}
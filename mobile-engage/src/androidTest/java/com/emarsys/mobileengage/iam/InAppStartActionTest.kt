@@ -1,7 +1,9 @@
 package com.emarsys.mobileengage.iam
 
 
+import com.emarsys.core.api.ApiDispatcher
 import com.emarsys.core.storage.Storage
+import com.emarsys.mobileengage.di.mobileEngage
 import com.emarsys.mobileengage.di.setupMobileEngageComponent
 import com.emarsys.mobileengage.di.tearDownMobileEngageComponent
 import com.emarsys.mobileengage.event.EventServiceInternal
@@ -35,7 +37,7 @@ class InAppStartActionTest {
 
         setupMobileEngageComponent(FakeMobileEngageDependencyContainer())
 
-        startAction = InAppStartAction(mockEventServiceInternal, mockContactTokenStorage)
+        startAction = InAppStartAction(mockEventServiceInternal, mockContactTokenStorage, ApiDispatcher(mobileEngage().coreSdkHandler))
     }
 
     @After
@@ -0,0 +1,121 @@
+package com.emarsys.mobileengage.iam.model.requestRepositoryProxy
+
+import com.emarsys.core.request.model.RequestMethod
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import io.kotlintest.shouldThrow
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class CustomEventBacklogTest {
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    private lateinit var backlog: CustomEventBacklog
+
+    @Before
+    fun setUp() {
+        backlog = CustomEventBacklog(3, 1024L)
+    }
+
+    @Test
+    fun testConstructor_limits_mustBePositive() {
+        shouldThrow<IllegalArgumentException> { CustomEventBacklog(0, 1) }
+        shouldThrow<IllegalArgumentException> { CustomEventBacklog(1, 0) }
+    }
+
+    @Test
+    fun testAdd_shouldBeIgnored_untilLoaded() {
+        backlog.add(customEvent("id1"))
+
+        backlog.isLoaded shouldBe false
+        backlog.headIds() shouldBe listOf()
+    }
+
+    @Test
+    fun testHeadIds_shouldRespectEventCount() {
+        backlog.load(listOf(customEvent("id1", 2)))
+        backlog.add(customEvent("id2"))
+        backlog.add(customEvent("id3"))
+
+        backlog.headIds() shouldBe listOf("id1", "id2")
+    }
+
+    @Test
+    fun testHeadIds_shouldRespectBytes() {
+        backlog = CustomEventBacklog(100, 100L)
+        backlog.load(listOf(customEvent("id1", nameLength = 40), customEvent("id2", nameLength = 40)))
+
+        backlog.headIds() shouldBe listOf("id1")
+    }
+
+    @Test
+    fun testHeadIds_shouldContainOversizedEvent_alone() {
+        backlog = CustomEventBacklog(1, 1L)
+        backlog.load(listOf(customEvent("id1", 5), customEvent("id2")))
+
+        backlog.headIds() shouldBe listOf("id1")
+    }
+
+    @Test
+    fun testHeadIds_shouldSkipExcludedEvents_beforeApplyingTheLimits() {
+        backlog.load((1..5).map { customEvent("id$it") })
+
+        backlog.headIds(setOf("id1", "id2")) shouldBe listOf("id3", "id4", "id5")
+    }
+
+    @Test
+    fun testHead_shouldSkipExcludedEvents_beforeApplyingTheLimits() {
+        val customEvents = (1..5).map { customEvent("id$it") }
+
+        backlog.head(customEvents, setOf("id1", "id2")) shouldBe customEvents.drop(2)
+    }
+
+    @Test
+    fun testHeadIds_shouldStop_whereTheHeadersChange() {
+        backlog.load(listOf(
+                customEvent("id1", headers = mapOf("X-Contact-Token" to "token1")),
+                customEvent("id2", headers = mapOf("X-Contact-Token" to "token2")),
+                customEvent("id3", headers = mapOf("X-Contact-Token" to "token2"))))
+
+        backlog.headIds() shouldBe listOf("id1")
+
+        backlog.remove(arrayOf("id1"))
+
+        backlog.headIds() shouldBe listOf("id2", "id3")
+    }
+
+    @Test
+    fun testRemove_andInvalidate() {
+        backlog.load(listOf(customEvent("id1"), customEvent("id2")))
+
+        backlog.remove(arrayOf("id1"))
+        backlog.headIds() shouldBe listOf("id2")
+
+        backlog.invalidate()
+        backlog.isLoaded shouldBe false
+    }
+
+    @Test
+    fun testHead_shouldCapTheGivenEvents() {
+        val customEvents = (1..4).map { customEvent("id$it") }
+
+        backlog.head(customEvents) shouldBe customEvents.take(3)
+    }
+
+    private fun customEvent(id: String, eventCount: Int = 1, nameLength: Int = 5, headers: Map<String, String> = mapOf()): RequestModel {
+        val events = (1..eventCount).map { mapOf("type" to "custom", "name" to "n".repeat(nameLength)) }
+        return RequestModel("https://mobile-events.eservice.emarsys.net/v3/apps/EMS11-C3FD3/client/events",
+                RequestMethod.POST,
+                mapOf("events" to events),
+                headers,
+                1L,
+                Long.MAX_VALUE,
+                id)
+    }
+}
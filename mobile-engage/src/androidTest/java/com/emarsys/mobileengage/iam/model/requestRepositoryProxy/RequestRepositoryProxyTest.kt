@@ -11,9 +11,14 @@ import com.emarsys.core.feature.FeatureRegistry
 import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.request.model.CompositeRequestModel
+import com.emarsys.core.request.model.MirroredRequestModelRepository
 import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.request.model.RequestModelRepository
+import com.emarsys.core.request.model.RequestPriority
+import com.emarsys.core.request.model.specification.FilterByHost
+import com.emarsys.core.request.model.specification.FilterByRequestIds
+import com.emarsys.core.request.model.specification.FilterByUrlPattern
 import com.emarsys.core.request.model.specification.QueryLatestRequestModel
 import com.emarsys.core.util.TimestampUtils
 import com.emarsys.mobileengage.MobileEngageRequestContext
@@ -196,6 +201,19 @@ class RequestRepositoryProxyTest {
                 null)
     }
 
+    @Test(expected = IllegalArgumentException::class)
+    fun testConstructor_customEventBacklog_mustNotBeNull() {
+        RequestRepositoryProxy(mockRequestModelRepository,
+                mockDisplayedIamRepository,
+                buttonClickedRepository,
+                timestampProvider,
+                uuidProvider,
+                inAppEventHandlerInternal,
+                mockEventServiceProvider,
+                mockRequestModelHelper,
+                null)
+    }
+
     @Test
     fun testAdd_shouldDelegate_toRequestModelRepository() {
         val requestModel: RequestModel = mock()
@@ -210,6 +228,22 @@ class RequestRepositoryProxyTest {
         verifyZeroInteractions(mockRequestModelRepository)
     }
 
+    @Test
+    fun testAddAll_shouldDelegate_withoutCompositeRequestModels() {
+        val requestModel: RequestModel = mock()
+        val compositeRequestModel: CompositeRequestModel = mock()
+        compositeRepository.addAll(listOf(requestModel, compositeRequestModel))
+        verify(mockRequestModelRepository).addAll(listOf(requestModel))
+    }
+
+    @Test
+    fun testRemoveAll_shouldDelegate_toRequestModelRepository() {
+        val spec1: SqlSpecification = mock()
+        val spec2: SqlSpecification = mock()
+        compositeRepository.removeAll(listOf(spec1, spec2))
+        verify(mockRequestModelRepository).removeAll(listOf(spec1, spec2))
+    }
+
     @Test
     fun testRemove_shouldDelegate_toRequestModelRepository() {
         val spec: SqlSpecification = mock()
@@ -458,6 +492,119 @@ class RequestRepositoryProxyTest {
         payload?.get("dnd") shouldBe null
     }
 
+    @Test
+    fun testQuery_shouldCapCompositeEventCount_andServeTheRestWithTheNextComposite() {
+        val spyRequestModelRepository = spy(requestModelRepository)
+        compositeRepository = compositeRepositoryWithRealRepositories(spyRequestModelRepository, CustomEventBacklog(2, 1024 * 1024L))
+        val customEvents = (1..3).map { customEvent(900L + it, "event$it", id = "id$it") }
+        compositeRepository.addAll(customEvents)
+
+        val firstComposite = compositeRepository.query(QueryLatestRequestModel(3, arrayOf()))[0] as CompositeRequestModel
+        firstComposite.originalRequestIds shouldBe arrayOf("id1", "id2")
+
+        compositeRepository.remove(FilterByRequestIds(firstComposite.originalRequestIds))
+        val secondComposite = compositeRepository.query(QueryLatestRequestModel(3, arrayOf()))[0] as CompositeRequestModel
+        secondComposite.originalRequestIds shouldBe arrayOf("id3")
+
+        verify(spyRequestModelRepository, times(1)).query(any<FilterByHost>())
+    }
+
+    @Test
+    fun testQuery_shouldLeaveExcludedCustomEventsOutOfTheComposite() {
+        compositeRepository = compositeRepositoryWithRealRepositories(requestModelRepository, CustomEventBacklog(100, 1024 * 1024L))
+        val customEvents = (1..3).map { customEvent(900L + it, "event$it", id = "id$it") }
+        compositeRepository.addAll(customEvents)
+
+        val composite = compositeRepository.query(QueryLatestRequestModel(3, arrayOf("id1", "id2")))[0] as CompositeRequestModel
+
+        composite.originalRequestIds shouldBe arrayOf("id3")
+    }
+
+    @Test
+    fun testQuery_shouldLeaveCustomEventsQueuedAfterABarrierOutOfTheComposite() {
+        compositeRepository = compositeRepositoryWithRealRepositories(MirroredRequestModelRepository(requestModelRepository), CustomEventBacklog(100, 1024 * 1024L))
+        val barrier = RequestModel.Builder(TimestampProvider(), UUIDProvider())
+                .url("https://me-client.eservice.emarsys.net/v3/apps/$APPLICATION_CODE/client/contact")
+                .priority(RequestPriority.HIGH)
+                .barrier(true)
+                .build()
+        whenever(mockRequestModelHelper.isCustomEvent(barrier)).thenReturn(false)
+        compositeRepository.addAll(listOf(customEvent(901, "event1", id = "id1"), barrier, customEvent(902, "event2", id = "id2")))
+
+        val result = compositeRepository.query(QueryLatestRequestModel(3, arrayOf()))
+
+        result.size shouldBe 2
+        result[0] shouldBe barrier
+        (result[1] as CompositeRequestModel).originalRequestIds shouldBe arrayOf("id1")
+    }
+
+    @Test
+    fun testQueuedRequestCounts_andIsHeldBack_shouldDelegateToTheRequestQueueIndex() {
+        val mockIndexedRepository: MirroredRequestModelRepository = mock {
+            on { queuedRequestCounts() } doReturn mapOf(RequestPriority.LOW to 2)
+            on { isHeldBack("id1") } doReturn true
+        }
+        compositeRepository = compositeRepositoryWithRealRepositories(mockIndexedRepository, CustomEventBacklog(100, 1024 * 1024L))
+
+        compositeRepository.queuedRequestCounts() shouldBe mapOf(RequestPriority.LOW to 2)
+        compositeRepository.isHeldBack("id1") shouldBe true
+    }
+
+    @Test
+    fun testQuery_shouldCutTheNextComposite_whileTheFirstIsInFlight() {
+        compositeRepository = compositeRepositoryWithRealRepositories(requestModelRepository, CustomEventBacklog(2, 1024 * 1024L))
+        val customEvents = (1..4).map { customEvent(900L + it, "event$it", id = "id$it") }
+        compositeRepository.addAll(customEvents)
+
+        val first = compositeRepository.query(QueryLatestRequestModel(4, arrayOf()))[0] as CompositeRequestModel
+        val second = compositeRepository.query(QueryLatestRequestModel(4, arrayOf(first.id) + first.originalRequestIds))[0] as CompositeRequestModel
+
+        first.originalRequestIds shouldBe arrayOf("id1", "id2")
+        second.originalRequestIds shouldBe arrayOf("id3", "id4")
+    }
+
+    @Test
+    fun testQuery_shouldCapCompositeSize_inBytes() {
+        compositeRepository = compositeRepositoryWithRealRepositories(requestModelRepository, CustomEventBacklog(100, 200L))
+        val customEvents = (1..3).map { customEvent(900L + it, "event$it", mapOf("key" to "x".repeat(80)), id = "id$it") }
+        compositeRepository.addAll(customEvents)
+
+        val composite = compositeRepository.query(Everything())[0] as CompositeRequestModel
+
+        composite.originalRequestIds shouldBe arrayOf("id1")
+    }
+
+    @Test
+    fun testQuery_shouldReloadBacklog_afterRemovalByOtherSpecification() {
+        val spyRequestModelRepository = spy(requestModelRepository)
+        compositeRepository = compositeRepositoryWithRealRepositories(spyRequestModelRepository, CustomEventBacklog(2, 1024 * 1024L))
+        compositeRepository.addAll(listOf(customEvent(900, "event1", id = "id1"), customEvent(1000, "event2", id = "id2")))
+        compositeRepository.query(Everything())
+
+        compositeRepository.remove(FilterByUrlPattern("%"))
+        compositeRepository.add(customEvent(1100, "event3", id = "id3"))
+        val composite = compositeRepository.query(Everything())[0] as CompositeRequestModel
+
+        composite.originalRequestIds shouldBe arrayOf("id3")
+        verify(spyRequestModelRepository, times(2)).query(any<FilterByHost>())
+    }
+
+    private fun compositeRepositoryWithRealRepositories(
+            requestModelRepository: Repository<RequestModel, SqlSpecification>,
+            customEventBacklog: CustomEventBacklog): RequestRepositoryProxy {
+        return RequestRepositoryProxy(
+                requestModelRepository,
+                displayedIamRepository,
+                buttonClickedRepository,
+                timestampProvider,
+                uuidProvider,
+                inAppEventHandlerInternal,
+                mockEventServiceProvider,
+                mockRequestModelHelper,
+                customEventBacklog
+        )
+    }
+
     private fun compositeRepositoryWithRealRepositories(): RequestRepositoryProxy {
         return RequestRepositoryProxy(
                 requestModelRepository,
@@ -471,7 +618,7 @@ class RequestRepositoryProxyTest {
         )
     }
 
-    private fun customEvent(timestamp: Long, eventName: String, attributes: Map<String, Any>? = null): RequestModel {
+    private fun customEvent(timestamp: Long, eventName: String, attributes: Map<String, Any>? = null, id: String = uuidProvider.provideId()): RequestModel {
         val event: MutableMap<String, Any> = HashMap()
         event["type"] = "custom"
         event["name"] = eventName
@@ -494,7 +641,7 @@ class RequestRepositoryProxyTest {
                 headers,
                 System.currentTimeMillis(),
                 999,
-                uuidProvider.provideId()
+                id
         )
     }
 
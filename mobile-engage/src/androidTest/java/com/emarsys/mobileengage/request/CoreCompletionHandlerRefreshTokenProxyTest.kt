@@ -119,7 +119,7 @@ class CoreCompletionHandlerRefreshTokenProxyTest {
     }
 
     @Test
-    fun testOnError_shouldDelegateRequestModelsContactToken_whenStatusCodeIs401() {
+    fun testOnError_shouldRetryWithoutTheOutdatedContactToken_whenStatusCodeIs401() {
         proxy = CoreCompletionHandlerRefreshTokenProxy(
                 mockCoreCompletionHandler,
                 FakeMobileEngageRefreshTokenInternal(true),
@@ -142,7 +142,44 @@ class CoreCompletionHandlerRefreshTokenProxyTest {
 
         proxy.onError(REQUEST_ID, mockResponseModel)
 
-        verify(mockRestClient).execute(requestModel, proxy)
+        verify(mockRestClient).execute(RequestModel(CLIENT_HOST,
+                RequestMethod.POST,
+                emptyMap(),
+                mapOf("X-Client-State" to "testClientState"),
+                12345,
+                Long.MAX_VALUE, REQUEST_ID), proxy)
+    }
+
+    @Test
+    fun testOnError_shouldRetryCompositeRequestWithoutTheOutdatedContactToken_whenStatusCodeIs401() {
+        proxy = CoreCompletionHandlerRefreshTokenProxy(
+                mockCoreCompletionHandler,
+                FakeMobileEngageRefreshTokenInternal(true),
+                mockRestClient,
+                mockContactTokenStorage,
+                mockPushTokenStorage,
+                mockRequestModelHelper
+        )
+        val requestModel = CompositeRequestModel("compositeRequestId", CLIENT_HOST,
+                RequestMethod.POST,
+                emptyMap(),
+                mapOf("X-Contact-Token" to "testContactToken"),
+                12345,
+                Long.MAX_VALUE,
+                arrayOf(REQUEST_ID))
+
+        whenever(mockResponseModel.statusCode).thenReturn(401)
+        whenever(mockResponseModel.requestModel).thenReturn(requestModel)
+
+        proxy.onError("compositeRequestId", mockResponseModel)
+
+        verify(mockRestClient).execute(CompositeRequestModel("compositeRequestId", CLIENT_HOST,
+                RequestMethod.POST,
+                emptyMap(),
+                mapOf(),
+                12345,
+                Long.MAX_VALUE,
+                arrayOf(REQUEST_ID)), proxy)
     }
 
     @Test
@@ -9,6 +9,7 @@ import com.emarsys.core.provider.timestamp.TimestampProvider
 import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestPriority
 import com.emarsys.core.storage.StringStorage
 import com.emarsys.mobileengage.MobileEngageRequestContext
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked
@@ -38,6 +39,7 @@ class MobileEngageRequestModelFactoryTest {
             "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJ4IjoieSJ9.bKXKVZCwf8J55WzWagrg2S0o2k_xZQ-HYfHIIj_2Z_U"
         const val CONTACT_FIELD_ID = 3
         const val CONTACT_FIELD_VALUE = "contactFieldValue"
+        const val CONTACT_TOKEN = "contactToken"
         const val CLIENT_HOST = "https://me-client.eservice.emarsys.net"
         const val EVENT_HOST = "https://mobile-events.eservice.emarsys.net"
         const val INBOX_V3_HOST = "https://me-inbox.eservice.emarsys.net/v3"
@@ -53,6 +55,7 @@ class MobileEngageRequestModelFactoryTest {
     lateinit var mockUuidProvider: UUIDProvider
     lateinit var mockDeviceInfo: DeviceInfo
     lateinit var mockRefreshTokenStorage: StringStorage
+    lateinit var mockContactTokenStorage: StringStorage
     lateinit var mockNotificationSettings: NotificationSettings
     lateinit var mockMessageInboxServiceProvider: ServiceEndpointProvider
     lateinit var requestFactory: MobileEngageRequestModelFactory
@@ -91,6 +94,7 @@ class MobileEngageRequestModelFactoryTest {
         mockRefreshTokenStorage = mock {
             on { get() } doReturn REFRESH_TOKEN
         }
+        mockContactTokenStorage = mock()
         mockMessageInboxServiceProvider = mock {
             on { provideEndpointHost() } doReturn INBOX_V3_HOST
         }
@@ -101,6 +105,7 @@ class MobileEngageRequestModelFactoryTest {
             on { deviceInfo } doReturn mockDeviceInfo
             on { applicationCode } doReturn APPLICATION_CODE
             on { refreshTokenStorage } doReturn mockRefreshTokenStorage
+            on { contactTokenStorage } doReturn mockContactTokenStorage
             on { contactFieldValue } doReturn CONTACT_FIELD_VALUE
             on { contactFieldId } doReturn CONTACT_FIELD_ID
             on { sessionIdHolder } doReturn mock()
@@ -130,7 +135,8 @@ class MobileEngageRequestModelFactoryTest {
             RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.HIGH
         )
 
         val result = requestFactory.createSetPushTokenRequest(PUSH_TOKEN)
@@ -147,7 +153,8 @@ class MobileEngageRequestModelFactoryTest {
             RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.HIGH
         )
 
         val result = requestFactory.createRemovePushTokenRequest()
@@ -182,7 +189,9 @@ class MobileEngageRequestModelFactoryTest {
             RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.HIGH,
+            true
         )
         val result = requestFactory.createSetContactRequest(CONTACT_FIELD_ID, CONTACT_FIELD_VALUE)
 
@@ -199,7 +208,9 @@ class MobileEngageRequestModelFactoryTest {
             RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.HIGH,
+            true
         )
         val result = requestFactory.createSetContactRequest(null, null)
 
@@ -222,7 +233,9 @@ class MobileEngageRequestModelFactoryTest {
             RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.HIGH,
+            true
         )
         val result = requestFactory.createSetContactRequest(CONTACT_FIELD_ID, CONTACT_FIELD_VALUE)
 
@@ -242,7 +255,9 @@ class MobileEngageRequestModelFactoryTest {
             RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.HIGH,
+            true
         )
         val result = requestFactory.createSetContactRequest(null, null)
 
@@ -263,7 +278,8 @@ class MobileEngageRequestModelFactoryTest {
             RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.LOW
         )
 
         val result = requestFactory.createInternalCustomEventRequest("eventName", emptyMap())
@@ -284,7 +300,8 @@ class MobileEngageRequestModelFactoryTest {
             RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.LOW
         )
 
         val result = requestFactory.createInternalCustomEventRequest("eventName", emptyMap())
@@ -292,6 +309,38 @@ class MobileEngageRequestModelFactoryTest {
         result shouldBe expected
     }
 
+    @Test
+    fun testCreateCustomEventRequest_shouldUseTheGivenRequestId() {
+        val result = requestFactory.createCustomEventRequest("eventName", emptyMap(), "givenRequestId")
+
+        result.id shouldBe "givenRequestId"
+    }
+
+    @Test
+    fun testCreateInternalCustomEventRequest_shouldUseTheGivenRequestId() {
+        val result = requestFactory.createInternalCustomEventRequest("eventName", emptyMap(), "givenRequestId")
+
+        result.id shouldBe "givenRequestId"
+    }
+
+    @Test
+    fun testCreateCustomEventRequest_shouldPinTheStoredContactToken() {
+        whenever(mockContactTokenStorage.get()).doReturn(CONTACT_TOKEN)
+
+        val result = requestFactory.createCustomEventRequest("eventName", emptyMap())
+
+        result.headers shouldBe RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext) + ("X-Contact-Token" to CONTACT_TOKEN)
+    }
+
+    @Test
+    fun testCreateSetContactRequest_shouldNotPinTheStoredContactToken() {
+        whenever(mockContactTokenStorage.get()).doReturn(CONTACT_TOKEN)
+
+        val result = requestFactory.createSetContactRequest(CONTACT_FIELD_ID, CONTACT_FIELD_VALUE)
+
+        result.headers shouldBe RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext)
+    }
+
     @Test
     fun testCreateInternalCustomEventRequest() {
         val expected = RequestModel(
@@ -305,7 +354,8 @@ class MobileEngageRequestModelFactoryTest {
             RequestHeaderUtils.createBaseHeaders_V3(mockRequestContext),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.LOW
         )
 
         val result = requestFactory.createInternalCustomEventRequest("eventName", emptyMap())
@@ -324,7 +374,8 @@ class MobileEngageRequestModelFactoryTest {
             ),
             TIMESTAMP,
             Long.MAX_VALUE,
-            REQUEST_ID
+            REQUEST_ID,
+            RequestPriority.HIGH
         )
 
         val result = requestFactory.createRefreshContactTokenRequest()
@@ -135,6 +135,17 @@ class ContactTokenHeaderMapperTest {
         result shouldBe originalRequestModels
     }
 
+    @Test
+    fun testMap_shouldKeepTheContactTokenTheRequestWasCreatedWith() {
+        val originalRequestModels = createMobileEngageRequest(extraHeaders = mapOf(
+                "X-Contact-Token" to "previousContactToken"
+        ))
+
+        val result = contactTokenHeaderMapper.map(originalRequestModels)
+
+        result shouldBe originalRequestModels
+    }
+
     @Test
     fun testMap_shouldIgnoreRequest_whenRequestWasNotForMobileEngage() {
         whenever(mockRequestModelHelper.isMobileEngageRequest(any())).thenReturn(false)
@@ -1,6 +1,7 @@
 package com.emarsys.mobileengage.util
 
 import com.emarsys.core.endpoint.ServiceEndpointProvider
+import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.testUtil.TimeoutUtils
 import com.emarsys.testUtil.mockito.whenever
@@ -106,6 +107,39 @@ class RequestModelHelperTest {
         result shouldBe false
     }
 
+    @Test
+    fun testIsClientUpdateRequest_true_whenItChangesTheClient() {
+        val mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL("$CLIENT_BASE/push-token"))
+            whenever(method).thenReturn(RequestMethod.PUT)
+        }
+        val result = requestModelHelper.isClientUpdateRequest(mockRequestModel)
+
+        result shouldBe true
+    }
+
+    @Test
+    fun testIsClientUpdateRequest_false_whenItOnlyReadsFromTheClientService() {
+        val mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL("$CLIENT_HOST/apps/%s/geo-fences"))
+            whenever(method).thenReturn(RequestMethod.GET)
+        }
+        val result = requestModelHelper.isClientUpdateRequest(mockRequestModel)
+
+        result shouldBe false
+    }
+
+    @Test
+    fun testIsClientUpdateRequest_false_whenItIsAnEvent() {
+        val mockRequestModel = mock(RequestModel::class.java).apply {
+            whenever(url).thenReturn(URL(EVENT_BASE))
+            whenever(method).thenReturn(RequestMethod.POST)
+        }
+        val result = requestModelHelper.isClientUpdateRequest(mockRequestModel)
+
+        result shouldBe false
+    }
+
     @Test
     fun testIsCustomEvent_V3_true_whenItIsCustomEventV3Event() {
         val mockRequestModel = mock(RequestModel::class.java).apply {
@@ -57,6 +57,7 @@ class DefaultMobileEngageInternal(
         requestContext.contactFieldId = contactFieldId
         requestContext.contactFieldValue = contactFieldValue
         requestContext.openIdToken = idToken
+        requestContext.contactTokenStorage.remove()
         val requestModel =
             requestModelFactory.createSetContactRequest(contactFieldId, contactFieldValue)
         requestManager.submit(requestModel, completionListener)
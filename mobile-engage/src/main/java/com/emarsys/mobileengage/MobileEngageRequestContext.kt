@@ -9,8 +9,8 @@ import com.emarsys.mobileengage.session.SessionIdHolder
 
 @Mockable
 data class MobileEngageRequestContext(
-    var applicationCode: String?,
-    var contactFieldId: Int?,
+    @Volatile var applicationCode: String?,
+    @Volatile var contactFieldId: Int?,
     var contactFieldValue: String?,
     var openIdToken: String? = null,
     val deviceInfo: DeviceInfo,
@@ -2,14 +2,15 @@ package com.emarsys.mobileengage.deeplink
 
 import android.app.Activity
 import com.emarsys.core.activity.ActivityLifecycleAction
-import com.emarsys.core.api.proxyApi
-import com.emarsys.mobileengage.di.mobileEngage
+import com.emarsys.core.api.ApiDispatcher
 
-class DeepLinkAction(private val deepLinkInternal: DeepLinkInternal) : ActivityLifecycleAction {
+class DeepLinkAction(private val deepLinkInternal: DeepLinkInternal,
+                     private val dispatcher: ApiDispatcher) : ActivityLifecycleAction {
 
     override fun execute(activity: Activity?) {
         if (activity != null && activity.intent != null) {
-            deepLinkInternal.proxyApi(mobileEngage().coreSdkHandler).trackDeepLinkOpen(activity, activity.intent, null)
+            val intent = activity.intent
+            dispatcher.dispatch { deepLinkInternal.trackDeepLinkOpen(activity, intent, null) }
         }
     }
 }
\ No newline at end of file
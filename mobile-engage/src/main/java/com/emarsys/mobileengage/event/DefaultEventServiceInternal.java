@@ -35,6 +35,15 @@ public class DefaultEventServiceInternal implements EventServiceInternal {
         trackCustomEvent(eventName, eventAttributes, completionListener);
     }
 
+    @Override
+    public void trackCustomEventAsync(String requestId, String eventName, Map<String, String> eventAttributes, CompletionListener completionListener) {
+        Assert.notNull(requestId, "RequestId must not be null!");
+        Assert.notNull(eventName, "EventName must not be null!");
+
+        RequestModel requestModel = requestModelFactory.createCustomEventRequest(eventName, eventAttributes, requestId);
+        requestManager.submit(requestModel, completionListener);
+    }
+
     @Override
     public String trackInternalCustomEvent(String eventName, Map<String, String> eventAttributes, CompletionListener completionListener) {
         Assert.notNull(eventName, "EventName must not be null!");
@@ -50,4 +59,13 @@ public class DefaultEventServiceInternal implements EventServiceInternal {
     public void trackInternalCustomEventAsync(String eventName, Map<String, String> eventAttributes, CompletionListener completionListener) {
         trackInternalCustomEvent(eventName, eventAttributes, completionListener);
     }
+
+    @Override
+    public void trackInternalCustomEventAsync(String requestId, String eventName, Map<String, String> eventAttributes, CompletionListener completionListener) {
+        Assert.notNull(requestId, "RequestId must not be null!");
+        Assert.notNull(eventName, "EventName must not be null!");
+
+        RequestModel requestModel = requestModelFactory.createInternalCustomEventRequest(eventName, eventAttributes, requestId);
+        requestManager.submit(requestModel, completionListener);
+    }
 }
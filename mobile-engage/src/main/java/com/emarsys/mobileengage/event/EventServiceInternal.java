@@ -15,6 +15,12 @@ public interface EventServiceInternal {
             Map<String, String> eventAttributes,
             CompletionListener completionListener);
 
+    void trackCustomEventAsync(
+            String requestId,
+            String eventName,
+            Map<String, String> eventAttributes,
+            CompletionListener completionListener);
+
     String trackInternalCustomEvent(
             String eventName,
             Map<String, String> eventAttributes,
@@ -24,4 +30,10 @@ public interface EventServiceInternal {
             String eventName,
             Map<String, String> eventAttributes,
             CompletionListener completionListener);
+
+    void trackInternalCustomEventAsync(
+            String requestId,
+            String eventName,
+            Map<String, String> eventAttributes,
+            CompletionListener completionListener);
 }
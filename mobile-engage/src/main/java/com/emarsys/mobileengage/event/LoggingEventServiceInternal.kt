@@ -28,6 +28,17 @@ class LoggingEventServiceInternal(private val klass: Class<*>) : EventServiceInt
         return null
     }
 
+    override fun trackCustomEventAsync(requestId: String, eventName: String, eventAttributes: Map<String, String>, completionListener: CompletionListener?) {
+        val parameters = mapOf(
+                "request_id" to requestId,
+                "event_name" to eventName,
+                "event_attributes" to eventAttributes,
+                "completion_listener" to (completionListener != null)
+        )
+        val callerMethodName = SystemUtils.getCallerMethodName()
+        debug(MethodNotAllowed(klass, callerMethodName, parameters))
+    }
+
     override fun trackCustomEventAsync(eventName: String, eventAttributes: Map<String, String>, completionListener: CompletionListener?) {
         val parameters = mapOf(
                 "event_name" to eventName,
@@ -38,6 +49,17 @@ class LoggingEventServiceInternal(private val klass: Class<*>) : EventServiceInt
         debug(MethodNotAllowed(klass, callerMethodName, parameters))
     }
 
+    override fun trackInternalCustomEventAsync(requestId: String, eventName: String, eventAttributes: Map<String, String>, completionListener: CompletionListener?) {
+        val parameters = mapOf(
+                "request_id" to requestId,
+                "event_name" to eventName,
+                "event_attributes" to eventAttributes,
+                "completion_listener" to (completionListener != null)
+        )
+        val callerMethodName = SystemUtils.getCallerMethodName()
+        debug(MethodNotAllowed(klass, callerMethodName, parameters))
+    }
+
     override fun trackInternalCustomEventAsync(eventName: String, eventAttributes: Map<String, String>, completionListener: CompletionListener?) {
         val parameters = mapOf(
                 "event_name" to eventName,
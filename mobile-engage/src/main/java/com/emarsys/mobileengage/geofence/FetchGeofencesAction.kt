@@ -2,12 +2,12 @@ package com.emarsys.mobileengage.geofence
 
 import android.app.Activity
 import com.emarsys.core.activity.ActivityLifecycleAction
-import com.emarsys.core.api.proxyApi
-import com.emarsys.mobileengage.di.mobileEngage
+import com.emarsys.core.api.ApiDispatcher
 
-class FetchGeofencesAction(private val geofenceInternal: GeofenceInternal) : ActivityLifecycleAction {
+class FetchGeofencesAction(private val geofenceInternal: GeofenceInternal,
+                           private val dispatcher: ApiDispatcher) : ActivityLifecycleAction {
 
     override fun execute(activity: Activity?) {
-        geofenceInternal.proxyApi(mobileEngage().coreSdkHandler).fetchGeofences(null)
+        dispatcher.dispatch { geofenceInternal.fetchGeofences(null) }
     }
 }
\ No newline at end of file
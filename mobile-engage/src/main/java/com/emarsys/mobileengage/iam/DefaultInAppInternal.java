@@ -53,6 +53,13 @@ public class DefaultInAppInternal implements InAppInternal {
         trackCustomEvent(eventName, eventAttributes, completionListener);
     }
 
+    @Override
+    public void trackCustomEventAsync(String requestId, String eventName, Map<String, String> eventAttributes, CompletionListener completionListener) {
+        Assert.notNull(eventName, "EventName must not be null!");
+
+        eventServiceInternal.trackCustomEventAsync(requestId, eventName, eventAttributes, completionListener);
+    }
+
     @Override
     public String trackInternalCustomEvent(String eventName, Map<String, String> eventAttributes, CompletionListener completionListener) {
         Assert.notNull(eventName, "EventName must not be null!");
@@ -64,4 +71,11 @@ public class DefaultInAppInternal implements InAppInternal {
     public void trackInternalCustomEventAsync(String eventName, Map<String, String> eventAttributes, CompletionListener completionListener) {
         trackInternalCustomEvent(eventName, eventAttributes, completionListener);
     }
+
+    @Override
+    public void trackInternalCustomEventAsync(String requestId, String eventName, Map<String, String> eventAttributes, CompletionListener completionListener) {
+        Assert.notNull(eventName, "EventName must not be null!");
+
+        eventServiceInternal.trackInternalCustomEventAsync(requestId, eventName, eventAttributes, completionListener);
+    }
 }
@@ -5,7 +5,7 @@ import com.emarsys.mobileengage.api.event.EventHandler;
 
 public class InAppEventHandlerInternal implements InAppEventHandler {
 
-    private boolean isPaused;
+    private volatile boolean isPaused;
     private EventHandler eventHandler;
 
     public void pause() {
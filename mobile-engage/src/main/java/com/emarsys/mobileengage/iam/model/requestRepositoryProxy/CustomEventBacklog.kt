@@ -0,0 +1,90 @@
+package com.emarsys.mobileengage.iam.model.requestRepositoryProxy
+
+import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.util.Assert
+import com.emarsys.core.util.JsonUtils
+
+/**
+ * The queued custom event requests in insertion order, with their event count and estimated
+ * JSON size, so a bounded composite custom event can be cut from the head of the backlog
+ * without reading and merging every queued event on each pick. A composite is sent with the
+ * headers of its first event, so it only takes consecutive events with the same headers, e.g. the
+ * same pinned contact token.
+ *
+ * The backlog is loaded lazily and has to be [invalidate]d whenever requests are removed in a
+ * way it cannot follow.
+ */
+class CustomEventBacklog(private val maxEventCount: Int, private val maxBytes: Long) {
+
+    private data class Entry(val eventCount: Int, val byteCount: Int, val headers: Map<String, String>)
+
+    private var entries: LinkedHashMap<String, Entry>? = null
+
+    init {
+        Assert.positiveInt(maxEventCount, "MaxEventCount must be greater than 0!")
+        require(maxBytes > 0) { "MaxBytes must be greater than 0!" }
+    }
+
+    val isLoaded: Boolean
+        get() = entries != null
+
+    fun load(customEvents: List<RequestModel>) {
+        entries = LinkedHashMap<String, Entry>().also { loaded ->
+            customEvents.forEach { loaded[it.id] = entryOf(it) }
+        }
+    }
+
+    fun add(customEvent: RequestModel) {
+        entries?.put(customEvent.id, entryOf(customEvent))
+    }
+
+    fun remove(requestIds: Array<String>) {
+        entries?.let { loaded ->
+            requestIds.forEach { loaded.remove(it) }
+        }
+    }
+
+    fun invalidate() {
+        entries = null
+    }
+
+    /**
+     * The ids of the oldest queued custom events, apart from [excludedIds], that fit into one
+     * composite.
+     */
+    @JvmOverloads
+    fun headIds(excludedIds: Set<String> = setOf()): List<String> {
+        return takeWithinLimits(entries.orEmpty().entries.asSequence().filterNot { it.key in excludedIds }) { it.value }.map { it.key }
+    }
+
+    /**
+     * The oldest of [customEvents], apart from [excludedIds], that fit into one composite.
+     */
+    @JvmOverloads
+    fun head(customEvents: List<RequestModel>, excludedIds: Set<String> = setOf()): List<RequestModel> {
+        return takeWithinLimits(customEvents.asSequence().filterNot { it.id in excludedIds }) { entryOf(it) }
+    }
+
+    private fun <T> takeWithinLimits(items: Sequence<T>, entryOf: (T) -> Entry): List<T> {
+        val result = mutableListOf<T>()
+        var eventCount = 0
+        var byteCount = 0L
+        var headers: Map<String, String>? = null
+        for (item in items) {
+            val entry = entryOf(item)
+            if (result.isNotEmpty() && (eventCount + entry.eventCount > maxEventCount || byteCount + entry.byteCount > maxBytes || entry.headers != headers)) {
+                break
+            }
+            result.add(item)
+            headers = entry.headers
+            eventCount += entry.eventCount
+            byteCount += entry.byteCount
+        }
+        return result
+    }
+
+    private fun entryOf(customEvent: RequestModel): Entry {
+        val events = customEvent.payload?.get("events") as? List<*> ?: return Entry(0, 0, customEvent.headers)
+        return Entry(events.size, JsonUtils.fromList(events).toString().length, customEvent.headers)
+    }
+}
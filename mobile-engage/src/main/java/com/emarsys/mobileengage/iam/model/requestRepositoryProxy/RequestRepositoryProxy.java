@@ -1,5 +1,7 @@
 package com.emarsys.mobileengage.iam.model.requestRepositoryProxy;
 
+import android.net.Uri;
+
 import com.emarsys.core.database.repository.Repository;
 import com.emarsys.core.database.repository.SqlSpecification;
 import com.emarsys.core.database.repository.specification.Everything;
@@ -8,7 +10,11 @@ import com.emarsys.core.provider.timestamp.TimestampProvider;
 import com.emarsys.core.provider.uuid.UUIDProvider;
 import com.emarsys.core.request.model.CompositeRequestModel;
 import com.emarsys.core.request.model.RequestModel;
-import com.emarsys.core.request.model.specification.FilterByUrlPattern;
+import com.emarsys.core.request.model.RequestPriority;
+import com.emarsys.core.request.model.RequestQueueIndex;
+import com.emarsys.core.request.model.specification.FilterByHost;
+import com.emarsys.core.request.model.specification.FilterByRequestIds;
+import com.emarsys.core.request.model.specification.QueryLatestRequestModel;
 import com.emarsys.core.util.Assert;
 import com.emarsys.mobileengage.iam.InAppEventHandlerInternal;
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked;
@@ -19,11 +25,20 @@ import com.emarsys.mobileengage.util.RequestPayloadUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
 
+public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpecification>, RequestQueueIndex {
 
-public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpecification> {
+    public static final int DEFAULT_MAX_EVENTS_PER_COMPOSITE = 100;
+    public static final long DEFAULT_MAX_BYTES_PER_COMPOSITE = 64 * 1024;
 
     private final Repository<RequestModel, SqlSpecification> requestRepository;
     private final Repository<DisplayedIam, SqlSpecification> iamRepository;
@@ -33,6 +48,7 @@ public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpeci
     private final InAppEventHandlerInternal inAppEventHandlerInternal;
     private final ServiceEndpointProvider eventServiceProvider;
     private final RequestModelHelper requestModelHelper;
+    private final CustomEventBacklog customEventBacklog;
 
     public RequestRepositoryProxy(
             Repository<RequestModel, SqlSpecification> requestRepository,
@@ -43,6 +59,27 @@ public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpeci
             InAppEventHandlerInternal inAppEventHandlerInternal,
             ServiceEndpointProvider eventServiceProvider,
             RequestModelHelper requestModelHelper) {
+        this(requestRepository,
+                iamRepository,
+                buttonClickedRepository,
+                timestampProvider,
+                uuidProvider,
+                inAppEventHandlerInternal,
+                eventServiceProvider,
+                requestModelHelper,
+                new CustomEventBacklog(DEFAULT_MAX_EVENTS_PER_COMPOSITE, DEFAULT_MAX_BYTES_PER_COMPOSITE));
+    }
+
+    public RequestRepositoryProxy(
+            Repository<RequestModel, SqlSpecification> requestRepository,
+            Repository<DisplayedIam, SqlSpecification> iamRepository,
+            Repository<ButtonClicked, SqlSpecification> buttonClickedRepository,
+            TimestampProvider timestampProvider,
+            UUIDProvider uuidProvider,
+            InAppEventHandlerInternal inAppEventHandlerInternal,
+            ServiceEndpointProvider eventServiceProvider,
+            RequestModelHelper requestModelHelper,
+            CustomEventBacklog customEventBacklog) {
         Assert.notNull(requestRepository, "RequestRepository must not be null!");
         Assert.notNull(iamRepository, "IamRepository must not be null!");
         Assert.notNull(buttonClickedRepository, "ButtonClickedRepository must not be null!");
@@ -51,6 +88,7 @@ public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpeci
         Assert.notNull(uuidProvider, "UuidProvider must not be null!");
         Assert.notNull(eventServiceProvider, "EventServiceProvider must not be null!");
         Assert.notNull(requestModelHelper, "RequestModelHelper must not be null!");
+        Assert.notNull(customEventBacklog, "CustomEventBacklog must not be null!");
 
         this.requestRepository = requestRepository;
         this.iamRepository = iamRepository;
@@ -60,18 +98,47 @@ public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpeci
         this.uuidProvider = uuidProvider;
         this.eventServiceProvider = eventServiceProvider;
         this.requestModelHelper = requestModelHelper;
+        this.customEventBacklog = customEventBacklog;
     }
 
     @Override
     public void add(RequestModel item) {
         if (!(item instanceof CompositeRequestModel)) {
             requestRepository.add(item);
+            if (requestModelHelper.isCustomEvent(item)) {
+                customEventBacklog.add(item);
+            }
+        }
+    }
+
+    @Override
+    public void addAll(List<RequestModel> items) {
+        List<RequestModel> persistableItems = new ArrayList<>(items.size());
+        for (RequestModel item : items) {
+            if (!(item instanceof CompositeRequestModel)) {
+                persistableItems.add(item);
+            }
+        }
+        requestRepository.addAll(persistableItems);
+        for (RequestModel item : persistableItems) {
+            if (requestModelHelper.isCustomEvent(item)) {
+                customEventBacklog.add(item);
+            }
         }
     }
 
     @Override
     public void remove(SqlSpecification specification) {
         requestRepository.remove(specification);
+        forget(specification);
+    }
+
+    @Override
+    public void removeAll(List<SqlSpecification> specifications) {
+        requestRepository.removeAll(specifications);
+        for (SqlSpecification specification : specifications) {
+            forget(specification);
+        }
     }
 
     @Override
@@ -79,24 +146,117 @@ public class RequestRepositoryProxy implements Repository<RequestModel, SqlSpeci
         return requestRepository.isEmpty();
     }
 
+    @Override
+    public Map<RequestPriority, Integer> queuedRequestCounts() {
+        if (requestRepository instanceof RequestQueueIndex) {
+            return ((RequestQueueIndex) requestRepository).queuedRequestCounts();
+        }
+        Map<RequestPriority, Integer> counts = new LinkedHashMap<>();
+        for (RequestPriority priority : RequestPriority.values()) {
+            counts.put(priority, 0);
+        }
+        for (RequestModel requestModel : requestRepository.query(new Everything())) {
+            counts.put(requestModel.getPriority(), counts.get(requestModel.getPriority()) + 1);
+        }
+        return counts;
+    }
+
+    @Override
+    public boolean isHeldBack(String requestId) {
+        return requestRepository instanceof RequestQueueIndex && ((RequestQueueIndex) requestRepository).isHeldBack(requestId);
+    }
+
     @Override
     public List<RequestModel> query(SqlSpecification specification) {
         List<RequestModel> result = requestRepository.query(specification);
         List<RequestModel> customEventsInResult = collectCustomEvents(result);
 
         if (!customEventsInResult.isEmpty()) {
-            List<RequestModel> customEvents = requestRepository.query(new FilterByUrlPattern(eventServiceProvider.provideEndpointHost() + "%"));
-            RequestModel composite = createCompositeCustomEvent(customEvents);
+            List<RequestModel> customEvents = withoutHeldBackRequests(queryCustomEventBatch(excludedIdsOf(specification)));
+            if (!customEvents.isEmpty()) {
+                RequestModel composite = createCompositeCustomEvent(customEvents);
 
-            RequestModel firstCustomEvent = customEventsInResult.get(0);
-            int firstCustomEventIndex = result.indexOf(firstCustomEvent);
-            result.add(firstCustomEventIndex, composite);
+                RequestModel firstCustomEvent = customEventsInResult.get(0);
+                int firstCustomEventIndex = result.indexOf(firstCustomEvent);
+                result.add(firstCustomEventIndex, composite);
+            }
 
             result.removeAll(customEventsInResult);
         }
         return result;
     }
 
+    private Set<String> excludedIdsOf(SqlSpecification specification) {
+        if (!(specification instanceof QueryLatestRequestModel)) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(Arrays.asList(((QueryLatestRequestModel) specification).getExcludedRequestIds()));
+    }
+
+    private List<RequestModel> withoutHeldBackRequests(List<RequestModel> models) {
+        List<RequestModel> result = new ArrayList<>(models.size());
+        for (RequestModel model : models) {
+            if (isHeldBack(model.getId())) {
+                break;
+            }
+            result.add(model);
+        }
+        return result;
+    }
+
+    private void forget(SqlSpecification specification) {
+        if (specification instanceof FilterByRequestIds) {
+            customEventBacklog.remove(((FilterByRequestIds) specification).getArgs());
+        } else {
+            customEventBacklog.invalidate();
+        }
+    }
+
+    private List<RequestModel> queryCustomEventBatch(Set<String> excludedIds) {
+        if (customEventBacklog.isLoaded()) {
+            List<String> headIds = customEventBacklog.headIds(excludedIds);
+            if (!headIds.isEmpty()) {
+                List<RequestModel> batch = queryInOrder(headIds);
+                if (batch.size() == headIds.size()) {
+                    return batch;
+                }
+            }
+        }
+        List<RequestModel> customEvents = queryCustomEvents();
+        customEventBacklog.load(customEvents);
+        return customEventBacklog.head(customEvents, excludedIds);
+    }
+
+    private List<RequestModel> queryInOrder(List<String> requestIds) {
+        Map<String, RequestModel> requestModelsById = new HashMap<>();
+        for (RequestModel requestModel : requestRepository.query(new FilterByRequestIds(requestIds.toArray(new String[0])))) {
+            requestModelsById.put(requestModel.getId(), requestModel);
+        }
+        List<RequestModel> result = new ArrayList<>(requestIds.size());
+        for (String requestId : requestIds) {
+            RequestModel requestModel = requestModelsById.get(requestId);
+            if (requestModel != null) {
+                result.add(requestModel);
+            }
+        }
+        return result;
+    }
+
+    private List<RequestModel> queryCustomEvents() {
+        String eventServiceUrl = eventServiceProvider.provideEndpointHost();
+        String eventServiceHost = Uri.parse(eventServiceUrl).getHost();
+        List<RequestModel> result = new ArrayList<>();
+        if (eventServiceHost == null) {
+            return result;
+        }
+        for (RequestModel requestModel : requestRepository.query(new FilterByHost(eventServiceHost))) {
+            if (requestModel.getUrl().toString().startsWith(eventServiceUrl) && requestModelHelper.isCustomEvent(requestModel)) {
+                result.add(requestModel);
+            }
+        }
+        return result;
+    }
+
     private List<RequestModel> collectCustomEvents(List<RequestModel> models) {
         List<RequestModel> result = new ArrayList<>();
         for (RequestModel requestModel : models) {
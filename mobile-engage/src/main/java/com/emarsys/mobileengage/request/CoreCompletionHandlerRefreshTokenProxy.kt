@@ -2,10 +2,13 @@ package com.emarsys.mobileengage.request
 
 import com.emarsys.core.CoreCompletionHandler
 import com.emarsys.core.request.RestClient
+import com.emarsys.core.request.model.CompositeRequestModel
+import com.emarsys.core.request.model.RequestModel
 import com.emarsys.core.response.ResponseModel
 import com.emarsys.core.storage.Storage
 import com.emarsys.core.util.RequestModelUtils
 import com.emarsys.mobileengage.RefreshTokenInternal
+import com.emarsys.mobileengage.util.RequestHeaderUtils
 import com.emarsys.mobileengage.util.RequestModelHelper
 
 class CoreCompletionHandlerRefreshTokenProxy(private val coreCompletionHandler: CoreCompletionHandler,
@@ -25,7 +28,7 @@ class CoreCompletionHandlerRefreshTokenProxy(private val coreCompletionHandler:
             pushTokenStorage.remove()
             refreshTokenInternal.refreshContactToken { errorCause ->
                 if (errorCause == null) {
-                    restClient.execute(originalResponseModel.requestModel, this)
+                    restClient.execute(withoutContactToken(originalResponseModel.requestModel), this)
                 } else {
                     for (id in RequestModelUtils.extractIdsFromCompositeRequestModel(originalResponseModel.requestModel)) {
                         coreCompletionHandler.onError(id, Exception(errorCause))
@@ -41,6 +44,15 @@ class CoreCompletionHandlerRefreshTokenProxy(private val coreCompletionHandler:
         coreCompletionHandler.onError(id, cause)
     }
 
+    private fun withoutContactToken(requestModel: RequestModel): RequestModel {
+        val headers = requestModel.headers - RequestHeaderUtils.CONTACT_TOKEN_HEADER
+        return if (requestModel is CompositeRequestModel) {
+            CompositeRequestModel.Builder(requestModel).headers(headers).build()
+        } else {
+            RequestModel.Builder(requestModel).headers(headers).build()
+        }
+    }
+
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
         if (javaClass != other?.javaClass) return false
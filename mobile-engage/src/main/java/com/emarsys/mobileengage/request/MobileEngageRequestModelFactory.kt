@@ -7,6 +7,7 @@ import com.emarsys.core.database.repository.specification.Everything
 import com.emarsys.core.endpoint.ServiceEndpointProvider
 import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
+import com.emarsys.core.request.model.RequestPriority
 import com.emarsys.mobileengage.MobileEngageRequestContext
 import com.emarsys.mobileengage.endpoint.Endpoint
 import com.emarsys.mobileengage.iam.model.buttonclicked.ButtonClicked
@@ -19,6 +20,11 @@ import com.emarsys.mobileengage.util.RequestPayloadUtils.createSetPushTokenPaylo
 import com.emarsys.mobileengage.util.RequestPayloadUtils.createTrackDeviceInfoPayload
 import java.util.*
 
+/**
+ * Requests that act on behalf of the current contact carry its contact token from the moment they
+ * are created, so a later setContact request can be sent ahead of them without moving them over to
+ * the new contact. Requests created while no contact token is stored get it when they are sent.
+ */
 @Mockable
 class MobileEngageRequestModelFactory(private val requestContext: MobileEngageRequestContext,
                                       private val clientServiceProvider: ServiceEndpointProvider,
@@ -30,8 +36,9 @@ class MobileEngageRequestModelFactory(private val requestContext: MobileEngageRe
         return RequestModel.Builder(requestContext.timestampProvider, requestContext.uuidProvider)
                 .url("${clientServiceProvider.provideEndpointHost()}${Endpoint.clientBase(requestContext.applicationCode)}/push-token")
                 .method(RequestMethod.PUT)
-                .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
+                .headers(createContactHeaders())
                 .payload(createSetPushTokenPayload(pushToken))
+                .priority(RequestPriority.HIGH)
                 .build()
     }
 
@@ -39,7 +46,8 @@ class MobileEngageRequestModelFactory(private val requestContext: MobileEngageRe
         return RequestModel.Builder(requestContext.timestampProvider, requestContext.uuidProvider)
                 .url("${clientServiceProvider.provideEndpointHost()}${Endpoint.clientBase(requestContext.applicationCode)}/push-token")
                 .method(RequestMethod.DELETE)
-                .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
+                .headers(createContactHeaders())
+                .priority(RequestPriority.HIGH)
                 .build()
     }
 
@@ -47,7 +55,7 @@ class MobileEngageRequestModelFactory(private val requestContext: MobileEngageRe
         return RequestModel.Builder(requestContext.timestampProvider, requestContext.uuidProvider)
                 .url("${clientServiceProvider.provideEndpointHost()}${Endpoint.clientBase(requestContext.applicationCode)}")
                 .method(RequestMethod.POST)
-                .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
+                .headers(createContactHeaders())
                 .payload(createTrackDeviceInfoPayload(requestContext))
                 .build()
     }
@@ -57,6 +65,8 @@ class MobileEngageRequestModelFactory(private val requestContext: MobileEngageRe
                 .url("${clientServiceProvider.provideEndpointHost()}${Endpoint.clientBase(requestContext.applicationCode)}/contact")
                 .method(RequestMethod.POST)
                 .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
+                .priority(RequestPriority.HIGH)
+                .barrier(true)
 
         if (!requestContext.hasContactIdentification()) {
             val queryParams: MutableMap<String, String> = HashMap()
@@ -76,14 +86,16 @@ class MobileEngageRequestModelFactory(private val requestContext: MobileEngageRe
         return builder.build()
     }
 
-    fun createCustomEventRequest(eventName: String, eventAttributes: Map<String, String>?): RequestModel {
+    @JvmOverloads
+    fun createCustomEventRequest(eventName: String, eventAttributes: Map<String, String>?, requestId: String? = null): RequestModel {
         val payload = createCustomEventPayload(eventName, eventAttributes, requestContext)
-        return createEvent(payload, requestContext)
+        return createEvent(payload, requestContext, requestId)
     }
 
-    fun createInternalCustomEventRequest(eventName: String, eventAttributes: Map<String, String>?): RequestModel {
+    @JvmOverloads
+    fun createInternalCustomEventRequest(eventName: String, eventAttributes: Map<String, String>?, requestId: String? = null): RequestModel {
         val payload = createInternalCustomEventPayload(eventName, eventAttributes, requestContext)
-        return createEvent(payload, requestContext)
+        return createEvent(payload, requestContext, requestId)
     }
 
     fun createRefreshContactTokenRequest(): RequestModel {
@@ -95,23 +107,28 @@ class MobileEngageRequestModelFactory(private val requestContext: MobileEngageRe
                 .method(RequestMethod.POST)
                 .headers(headers)
                 .payload(createRefreshContactTokenPayload(requestContext))
+                .priority(RequestPriority.HIGH)
                 .build()
     }
 
-    private fun createEvent(payload: Map<String, Any>, requestContext: MobileEngageRequestContext): RequestModel {
-        return RequestModel.Builder(requestContext.timestampProvider, requestContext.uuidProvider)
+    private fun createEvent(payload: Map<String, Any>, requestContext: MobileEngageRequestContext, requestId: String?): RequestModel {
+        val builder = RequestModel.Builder(requestContext.timestampProvider, requestContext.uuidProvider)
                 .url("${eventServiceProvider.provideEndpointHost()}${Endpoint.eventBase(requestContext.applicationCode)}")
                 .method(RequestMethod.POST)
-                .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
+                .headers(createContactHeaders())
                 .payload(payload)
-                .build()
+                .priority(RequestPriority.LOW)
+        if (requestId != null) {
+            builder.id(requestId)
+        }
+        return builder.build()
     }
 
     fun createFetchInboxMessagesRequest(): RequestModel {
         return RequestModel.Builder(requestContext.timestampProvider, requestContext.uuidProvider)
                 .method(RequestMethod.GET)
                 .url("${messageInboxServiceProvider.provideEndpointHost()}${Endpoint.inboxBase(requestContext.applicationCode)}")
-                .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
+                .headers(createContactHeaders())
                 .build()
     }
 
@@ -119,7 +136,7 @@ class MobileEngageRequestModelFactory(private val requestContext: MobileEngageRe
         return RequestModel.Builder(requestContext.timestampProvider, requestContext.uuidProvider)
                 .method(RequestMethod.GET)
                 .url("${clientServiceProvider.provideEndpointHost()}${Endpoint.geofencesBase(requestContext.applicationCode)}")
-                .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext))
+                .headers(createContactHeaders())
                 .build()
     }
 
@@ -128,7 +145,15 @@ class MobileEngageRequestModelFactory(private val requestContext: MobileEngageRe
                 .method(RequestMethod.POST)
                 .payload(RequestPayloadUtils.createInlineInAppPayload(viewId, buttonClickedRepository.query(Everything())))
                 .url("${eventServiceProvider.provideEndpointHost()}${Endpoint.inlineInAppBase(requestContext.applicationCode)}")
-                .headers(RequestHeaderUtils.createBaseHeaders_V3(requestContext) + RequestHeaderUtils.createDefaultHeaders(requestContext))
+                .headers(createContactHeaders() + RequestHeaderUtils.createDefaultHeaders(requestContext))
                 .build()
     }
-}
\ No newline at end of file
+
+    private fun createContactHeaders(): Map<String, String> {
+        val headers = RequestHeaderUtils.createBaseHeaders_V3(requestContext)
+        requestContext.contactTokenStorage.get()?.let {
+            headers[RequestHeaderUtils.CONTACT_TOKEN_HEADER] = it
+        }
+        return headers
+    }
+}
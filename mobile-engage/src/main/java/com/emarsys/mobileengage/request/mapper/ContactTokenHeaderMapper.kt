@@ -2,6 +2,7 @@ package com.emarsys.mobileengage.request.mapper
 
 import com.emarsys.core.request.model.RequestModel
 import com.emarsys.mobileengage.MobileEngageRequestContext
+import com.emarsys.mobileengage.util.RequestHeaderUtils
 import com.emarsys.mobileengage.util.RequestModelHelper
 
 class ContactTokenHeaderMapper(override val requestContext: MobileEngageRequestContext,
@@ -10,7 +11,7 @@ class ContactTokenHeaderMapper(override val requestContext: MobileEngageRequestC
     override fun createHeaders(requestModel: RequestModel): Map<String, String> {
         val headers: MutableMap<String, String> = requestModel.headers.toMutableMap()
         requestContext.contactTokenStorage.get()?.let {
-            headers["X-Contact-Token"] = it
+            headers[RequestHeaderUtils.CONTACT_TOKEN_HEADER] = it
         }
         return headers
     }
@@ -19,6 +20,7 @@ class ContactTokenHeaderMapper(override val requestContext: MobileEngageRequestC
         return requestModelHelper.isMobileEngageRequest(requestModel)
                 && !requestModelHelper.isRefreshContactTokenRequest(requestModel)
                 && !requestModelHelper.isMobileEngageSetContactRequest(requestModel)
+                && !requestModel.headers.containsKey(RequestHeaderUtils.CONTACT_TOKEN_HEADER)
                 && requestContext.contactTokenStorage.get() != null
     }
 }
\ No newline at end of file
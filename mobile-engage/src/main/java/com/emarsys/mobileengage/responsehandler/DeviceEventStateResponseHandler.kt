@@ -12,6 +12,8 @@ class DeviceEventStateResponseHandler(
     private val requestModelHelper: RequestModelHelper
 ) : AbstractResponseHandler() {
 
+    override val interestedBodyKeys = setOf("deviceEventState")
+
     override fun shouldHandleResponse(responseModel: ResponseModel): Boolean {
         return FeatureRegistry.isFeatureEnabled(InnerFeature.EVENT_SERVICE_V4) &&
                 responseModel.statusCode in 200..299 &&
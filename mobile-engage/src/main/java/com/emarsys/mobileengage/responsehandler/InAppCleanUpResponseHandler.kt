@@ -20,6 +20,8 @@ class InAppCleanUpResponseHandler(
         private const val OLD_MESSAGES = "oldCampaigns"
     }
 
+    override val interestedBodyKeys = setOf(OLD_MESSAGES)
+
     override fun shouldHandleResponse(responseModel: ResponseModel): Boolean {
         var shouldHandle = false
         if (!FeatureRegistry.isFeatureEnabled(InnerFeature.EVENT_SERVICE_V4)) {
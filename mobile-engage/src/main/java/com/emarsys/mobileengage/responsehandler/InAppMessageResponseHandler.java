@@ -8,8 +8,13 @@ import com.emarsys.mobileengage.iam.OverlayInAppPresenter;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.Collections;
+import java.util.Set;
+
 public class InAppMessageResponseHandler extends AbstractResponseHandler {
 
+    private static final Set<String> INTERESTED_BODY_KEYS = Collections.singleton("message");
+
     private OverlayInAppPresenter overlayInAppPresenter;
 
     public InAppMessageResponseHandler(OverlayInAppPresenter overlayInAppPresenter) {
@@ -18,6 +23,11 @@ public class InAppMessageResponseHandler extends AbstractResponseHandler {
         this.overlayInAppPresenter = overlayInAppPresenter;
     }
 
+    @Override
+    public Set<String> getInterestedBodyKeys() {
+        return INTERESTED_BODY_KEYS;
+    }
+
     @Override
     public boolean shouldHandleResponse(ResponseModel responseModel) {
         JSONObject responseBody = responseModel.getParsedBody();
@@ -13,6 +13,8 @@ class MobileEngageTokenResponseHandler(private val tokenKey: String,
                                        private val tokenStorage: Storage<String?>,
                                        private val requestModelHelper: RequestModelHelper) : AbstractResponseHandler() {
 
+    override val interestedBodyKeys = setOf(tokenKey)
+
     override fun shouldHandleResponse(responseModel: ResponseModel): Boolean {
         val body = responseModel.parsedBody
         val request = responseModel.requestModel
@@ -23,6 +23,8 @@ class OnEventActionResponseHandler(private val actionCommandFactory: ActionComma
                                    private val timestampProvider: TimestampProvider,
                                    private val coreSdkHandler: CoreSdkHandler) : AbstractResponseHandler() {
 
+    override val interestedBodyKeys = setOf("onEventAction")
+
     override fun shouldHandleResponse(responseModel: ResponseModel): Boolean {
         var shouldHandle = false
 
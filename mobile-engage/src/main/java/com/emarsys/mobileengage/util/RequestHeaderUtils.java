@@ -9,6 +9,8 @@ import java.util.Map;
 
 public class RequestHeaderUtils {
 
+    public static final String CONTACT_TOKEN_HEADER = "X-Contact-Token";
+
     public static Map<String, String> createBaseHeaders_V3(MobileEngageRequestContext requestContext) {
         Assert.notNull(requestContext, "RequestContext must not be null!");
 
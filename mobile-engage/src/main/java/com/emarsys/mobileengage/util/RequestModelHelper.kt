@@ -2,6 +2,7 @@ package com.emarsys.mobileengage.util
 
 import com.emarsys.core.Mockable
 import com.emarsys.core.endpoint.ServiceEndpointProvider
+import com.emarsys.core.request.model.RequestMethod
 import com.emarsys.core.request.model.RequestModel
 
 @Mockable
@@ -19,6 +20,17 @@ class RequestModelHelper(private val clientServiceEndpointProvider: ServiceEndpo
         return url.startsWithOneOf(clientServiceUrl, eventServiceUrl, messageInboxServiceUrl)
     }
 
+    /**
+     * Whether the request changes the state of the client on the client service, like the push token
+     * or the device info, so it must not overtake an earlier one of these requests.
+     */
+    fun isClientUpdateRequest(requestModel: RequestModel): Boolean {
+        val clientServiceUrl = clientServiceEndpointProvider.provideEndpointHost()
+
+        val url = requestModel.url.toString()
+        return url.startsWithOneOf(clientServiceUrl) && requestModel.method != RequestMethod.GET
+    }
+
     fun isRemoteConfigRequest(requestModel: RequestModel): Boolean {
         val url = requestModel.url.toString()
 
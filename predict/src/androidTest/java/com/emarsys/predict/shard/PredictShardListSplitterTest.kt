@@ -0,0 +1,52 @@
+package com.emarsys.predict.shard
+
+import com.emarsys.core.shard.ShardModel
+import com.emarsys.testUtil.TimeoutUtils
+import io.kotlintest.shouldBe
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TestRule
+
+class PredictShardListSplitterTest {
+
+    private lateinit var splitter: PredictShardListSplitter
+
+    @Rule
+    @JvmField
+    val timeout: TestRule = TimeoutUtils.timeoutRule
+
+    @Before
+    fun init() {
+        splitter = PredictShardListSplitter()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testMap_shards_mustNotBeNull() {
+        splitter.map(null)
+    }
+
+    @Test
+    fun testMap_shouldKeepShards_withDistinctParameters_together() {
+        val view = shard("id1", mapOf("v" to "i:1"))
+        val cart = shard("id2", mapOf("cv" to 1, "ca" to "i:1,q:1,p:2"))
+        val search = shard("id3", mapOf("q" to "shoe"))
+
+        splitter.map(listOf(view, cart, search)) shouldBe listOf(listOf(view, cart, search))
+    }
+
+    @Test
+    fun testMap_shouldStartNewGroup_whenParameterWouldBeOverwritten() {
+        val view1 = shard("id1", mapOf("v" to "i:1"))
+        val search = shard("id2", mapOf("q" to "shoe"))
+        val view2 = shard("id3", mapOf("v" to "i:2"))
+        val view3 = shard("id4", mapOf("v" to "i:3"))
+
+        splitter.map(listOf(view1, search, view2, view3)) shouldBe listOf(
+                listOf(view1, search),
+                listOf(view2),
+                listOf(view3))
+    }
+
+    private fun shard(id: String, data: Map<String, Any>) = ShardModel(id, "predict_test", data, 0, Long.MAX_VALUE)
+}
@@ -7,7 +7,7 @@ import com.emarsys.core.provider.uuid.UUIDProvider
 import com.emarsys.core.storage.KeyValueStore
 
 @Mockable
-data class PredictRequestContext(var merchantId: String?,
+data class PredictRequestContext(@Volatile var merchantId: String?,
                                  val deviceInfo: DeviceInfo,
                                  val timestampProvider: TimestampProvider,
                                  val uuidProvider: UUIDProvider,
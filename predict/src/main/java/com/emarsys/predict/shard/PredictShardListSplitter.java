@@ -0,0 +1,53 @@
+package com.emarsys.predict.shard;
+
+import com.emarsys.core.Mapper;
+import com.emarsys.core.shard.ShardModel;
+import com.emarsys.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits predict shards into consecutive groups that can be merged into a single request.
+ * The predict service takes at most one value per query parameter, so a shard starts a new
+ * group as soon as it would overwrite a parameter of the previous shards.
+ */
+public class PredictShardListSplitter implements Mapper<List<ShardModel>, List<List<ShardModel>>> {
+
+    @Override
+    public List<List<ShardModel>> map(List<ShardModel> shards) {
+        Assert.notNull(shards, "Shards must not be null!");
+        Assert.elementsNotNull(shards, "Shard elements must not be null!");
+
+        List<List<ShardModel>> result = new ArrayList<>();
+        List<ShardModel> group = new ArrayList<>();
+        Set<String> groupKeys = new HashSet<>();
+
+        for (ShardModel shard : shards) {
+            Set<String> keys = shard.getData().keySet();
+            if (!group.isEmpty() && !disjoint(groupKeys, keys)) {
+                result.add(group);
+                group = new ArrayList<>();
+                groupKeys = new HashSet<>();
+            }
+            group.add(shard);
+            groupKeys.addAll(keys);
+        }
+        if (!group.isEmpty()) {
+            result.add(group);
+        }
+
+        return result;
+    }
+
+    private boolean disjoint(Set<String> groupKeys, Set<String> keys) {
+        for (String key : keys) {
+            if (groupKeys.contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}